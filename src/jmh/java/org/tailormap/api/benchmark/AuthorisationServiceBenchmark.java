@@ -0,0 +1,128 @@
+/*
+ * Copyright (C) 2026 B3Partners B.V.
+ *
+ * SPDX-License-Identifier: MIT
+ */
+package org.tailormap.api.benchmark;
+
+import static org.tailormap.api.security.AuthorisationService.ACCESS_TYPE_VIEW;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.tailormap.api.persistence.GeoService;
+import org.tailormap.api.persistence.Group;
+import org.tailormap.api.persistence.json.AuthorizationRule;
+import org.tailormap.api.persistence.json.AuthorizationRuleDecision;
+import org.tailormap.api.persistence.json.GeoServiceLayer;
+import org.tailormap.api.persistence.json.GeoServiceLayerSettings;
+import org.tailormap.api.persistence.json.GeoServiceSettings;
+import org.tailormap.api.security.AuthorisationService;
+
+/**
+ * Benchmarks evaluating the authorization rules of a service and its layers, which is done for every layer of an
+ * application when loading the viewer. The layer rules override some of the service rules.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class AuthorisationServiceBenchmark {
+  /** The number of groups with a rule on the service. */
+  @Param({"2", "20"})
+  public int rules;
+
+  @Param({"anonymous", "member", "admin"})
+  public String user;
+
+  private final AuthorisationService authorisationService = new AuthorisationService();
+  private GeoService geoService;
+  private final List<GeoServiceLayer> layers = new ArrayList<>();
+
+  @Setup
+  public void setUp() {
+    List<AuthorizationRule> serviceRules = new ArrayList<>();
+    for (int i = 0; i < rules; i++) {
+      serviceRules.add(new AuthorizationRule()
+          .groupName("group-" + i)
+          .decisions(Map.of(
+              ACCESS_TYPE_VIEW, i % 2 == 0 ? AuthorizationRuleDecision.ALLOW : AuthorizationRuleDecision.DENY)));
+    }
+    serviceRules.add(new AuthorizationRule()
+        .groupName(Group.ANONYMOUS)
+        .decisions(Map.of(ACCESS_TYPE_VIEW, AuthorizationRuleDecision.ALLOW)));
+
+    Map<String, GeoServiceLayerSettings> layerSettings = new HashMap<>();
+    for (int i = 0; i < 10; i++) {
+      GeoServiceLayer layer = new GeoServiceLayer().name("layer-" + i).title("Layer " + i);
+      layers.add(layer);
+      if (i % 2 == 0) {
+        // a secured layer for half of the groups of the service
+        layerSettings.put(
+            layer.getName(),
+            new GeoServiceLayerSettings()
+                .authorizationRules(List.of(
+                    new AuthorizationRule()
+                        .groupName("group-" + (rules - 1))
+                        .decisions(Map.of(ACCESS_TYPE_VIEW, AuthorizationRuleDecision.ALLOW)),
+                    new AuthorizationRule()
+                        .groupName(Group.ANONYMOUS)
+                        .decisions(Map.of(ACCESS_TYPE_VIEW, AuthorizationRuleDecision.DENY)))));
+      }
+    }
+    geoService = new GeoService()
+        .setId("benchmark")
+        .setTitle("Benchmark")
+        .setAuthorizationRules(serviceRules)
+        .setSettings(new GeoServiceSettings().layerSettings(layerSettings));
+
+    Authentication authentication =
+        switch (user) {
+          case "anonymous" -> new AnonymousAuthenticationToken(
+              "benchmark", "anonymousUser", AuthorityUtils.createAuthorityList("ROLE_ANONYMOUS"));
+          case "admin" -> UsernamePasswordAuthenticationToken.authenticated(
+              "admin", null, AuthorityUtils.createAuthorityList(Group.ADMIN));
+          default -> UsernamePasswordAuthenticationToken.authenticated(
+              "member", null, AuthorityUtils.createAuthorityList("group-" + (rules - 1), "other-group"));
+        };
+    SecurityContextHolder.getContext().setAuthentication(authentication);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    SecurityContextHolder.clearContext();
+  }
+
+  @Benchmark
+  public int userAllowedToViewGeoServiceLayers() {
+    int allowed = 0;
+    for (GeoServiceLayer layer : layers) {
+      if (authorisationService.userAllowedToViewGeoServiceLayer(geoService, layer)) {
+        allowed++;
+      }
+    }
+    return allowed;
+  }
+}
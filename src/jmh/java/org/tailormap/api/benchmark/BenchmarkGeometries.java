@@ -0,0 +1,44 @@
+/*
+ * Copyright (C) 2026 B3Partners B.V.
+ *
+ * SPDX-License-Identifier: MIT
+ */
+package org.tailormap.api.benchmark;
+
+import java.util.SplittableRandom;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.Polygon;
+import org.locationtech.jts.geom.PrecisionModel;
+
+/** Generates geometries for the benchmarks, so the benchmarks do not need any data or services. */
+final class BenchmarkGeometries {
+  /** Same precision as most data in EPSG:28992, in millimeters. */
+  static final GeometryFactory GEOMETRY_FACTORY = new GeometryFactory(new PrecisionModel(1000), 28992);
+
+  private BenchmarkGeometries() {
+    /* utility class */
+  }
+
+  /**
+   * Create a star shaped polygon like a parcel or building outline, with a jittered radius so simplification has
+   * something to remove. The same seed always gives the same polygon.
+   *
+   * @param vertices the number of vertices of the exterior ring
+   * @param seed the random seed
+   * @return the polygon around 155000,463000 in EPSG:28992
+   */
+  static Polygon polygon(int vertices, long seed) {
+    SplittableRandom random = new SplittableRandom(seed);
+    Coordinate[] coordinates = new Coordinate[vertices + 1];
+    for (int i = 0; i < vertices; i++) {
+      double angle = 2 * Math.PI * i / vertices;
+      double radius = 100 + random.nextDouble(-5, 5);
+      coordinates[i] = new Coordinate(
+          GEOMETRY_FACTORY.getPrecisionModel().makePrecise(155000 + radius * Math.cos(angle)),
+          GEOMETRY_FACTORY.getPrecisionModel().makePrecise(463000 + radius * Math.sin(angle)));
+    }
+    coordinates[vertices] = coordinates[0].copy();
+    return GEOMETRY_FACTORY.createPolygon(coordinates);
+  }
+}
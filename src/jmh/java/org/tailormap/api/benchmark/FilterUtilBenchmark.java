@@ -0,0 +1,80 @@
+/*
+ * Copyright (C) 2026 B3Partners B.V.
+ *
+ * SPDX-License-Identifier: MIT
+ */
+package org.tailormap.api.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import org.geotools.api.data.SimpleFeatureSource;
+import org.geotools.api.filter.Filter;
+import org.geotools.data.DataUtilities;
+import org.geotools.data.collection.ListFeatureCollection;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.tailormap.api.geotools.FilterUtil;
+import org.tailormap.api.persistence.Application;
+
+/**
+ * Benchmarks parsing CQL filters of viewer requests, including transforming the geometries of spatial filters from the
+ * application CRS to the CRS of the feature source.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FilterUtilBenchmark {
+  /** The number of vertices of the polygon in the spatial filters. */
+  @Param({"10", "1000"})
+  public int vertices;
+
+  private final Application application = new Application().setCrs("EPSG:28992");
+  private SimpleFeatureSource sameCrsSource;
+  private SimpleFeatureSource otherCrsSource;
+  private String attributeFilter;
+  private String spatialFilter;
+  private String spatialFilterWithSrid;
+
+  @Setup
+  public void setUp() throws Exception {
+    sameCrsSource = DataUtilities.source(new ListFeatureCollection(
+        DataUtilities.createType("rd", "geom:Polygon:srid=28992,name:String,height:Double")));
+    otherCrsSource = DataUtilities.source(new ListFeatureCollection(
+        DataUtilities.createType("mercator", "geom:Polygon:srid=3857,name:String,height:Double")));
+    attributeFilter = "name = 'Utrecht' AND height > 10 AND height < 100 OR name LIKE 'Amster%'";
+    String wkt = BenchmarkGeometries.polygon(vertices, 42).toText();
+    spatialFilter = "INTERSECTS(geom, %s) AND height > 10".formatted(wkt);
+    spatialFilterWithSrid = "INTERSECTS(geom, SRID=28992;%s) AND height > 10".formatted(wkt);
+  }
+
+  @Benchmark
+  public Filter parseAttributeFilter() throws Exception {
+    return FilterUtil.parseFilter(attributeFilter, application, sameCrsSource);
+  }
+
+  @Benchmark
+  public Filter parseSpatialFilter() throws Exception {
+    return FilterUtil.parseFilter(spatialFilter, application, sameCrsSource);
+  }
+
+  @Benchmark
+  public Filter parseSpatialFilterWithSameSrid() throws Exception {
+    return FilterUtil.parseFilter(spatialFilterWithSrid, application, sameCrsSource);
+  }
+
+  @Benchmark
+  public Filter parseSpatialFilterWithTransform() throws Exception {
+    return FilterUtil.parseFilter(spatialFilterWithSrid, application, otherCrsSource);
+  }
+}
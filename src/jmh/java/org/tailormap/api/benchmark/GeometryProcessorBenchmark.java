@@ -0,0 +1,73 @@
+/*
+ * Copyright (C) 2026 B3Partners B.V.
+ *
+ * SPDX-License-Identifier: MIT
+ */
+package org.tailormap.api.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import org.geotools.api.referencing.operation.MathTransform;
+import org.geotools.referencing.CRS;
+import org.locationtech.jts.geom.Geometry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.tailormap.api.geotools.processing.GeometryEncoding;
+import org.tailormap.api.geotools.processing.GeometryProcessor;
+
+/**
+ * Benchmarks processing feature geometries for the features and feature info responses. Simplification only kicks in
+ * above 600 vertices, so the vertex counts cover both sides of that threshold.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GeometryProcessorBenchmark {
+  @Param({"100", "1000", "10000"})
+  public int vertices;
+
+  private Geometry polygon;
+  private MathTransform transform;
+
+  @Setup
+  public void setUp() throws Exception {
+    polygon = BenchmarkGeometries.polygon(vertices, 42);
+    transform = CRS.findMathTransform(CRS.decode("EPSG:28992"), CRS.decode("EPSG:3857"));
+  }
+
+  @Benchmark
+  public String processGeometry() {
+    return GeometryProcessor.processGeometry(polygon, false, true, null);
+  }
+
+  @Benchmark
+  public String processGeometrySimplified() {
+    return GeometryProcessor.processGeometry(polygon, true, true, null);
+  }
+
+  @Benchmark
+  public String processGeometryTransformed() {
+    return GeometryProcessor.processGeometry(polygon, false, true, transform);
+  }
+
+  @Benchmark
+  public Object processGeometryGeoJsonWithPrecision() {
+    return GeometryProcessor.processGeometry(polygon, false, true, null, GeometryEncoding.GEOJSON, 2);
+  }
+
+  @Benchmark
+  public String geometryToWKT() {
+    return GeometryProcessor.geometryToWKT(polygon);
+  }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright (C) 2026 B3Partners B.V.
+ *
+ * SPDX-License-Identifier: MIT
+ */
+package org.tailormap.api.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.tailormap.api.persistence.TMFeatureType;
+import org.tailormap.api.persistence.helper.TMFeatureTypeHelper;
+import org.tailormap.api.persistence.json.AppLayerSettings;
+import org.tailormap.api.persistence.json.AttributeSettings;
+import org.tailormap.api.persistence.json.FeatureTypeSettings;
+import org.tailormap.api.persistence.json.TMAttributeDescriptor;
+import org.tailormap.api.persistence.json.TMAttributeType;
+
+/**
+ * Benchmarks determining the configured attributes of a feature type, which is done for every features and feature
+ * info request.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TMFeatureTypeHelperBenchmark {
+  @Param({"10", "100", "500"})
+  public int attributes;
+
+  private TMFeatureType featureType;
+  private AppLayerSettings appLayerSettings;
+
+  @Setup
+  public void setUp() {
+    List<TMAttributeDescriptor> descriptors = new ArrayList<>();
+    FeatureTypeSettings settings = new FeatureTypeSettings();
+    appLayerSettings = new AppLayerSettings();
+    for (int i = 0; i < attributes; i++) {
+      String name = "attribute_" + i;
+      descriptors.add(new TMAttributeDescriptor().name(name).type(TMAttributeType.STRING));
+      // an attribute order in reverse with some attributes missing, as if added after configuring the order
+      if (i % 10 != 0) {
+        settings.addAttributeOrderItem("attribute_" + (attributes - i));
+      }
+      if (i % 3 == 0) {
+        settings.putAttributeSettingsItem(name, new AttributeSettings().title("Attribute " + i));
+      }
+      if (i % 7 == 0) {
+        settings.addHideAttributesItem(name);
+      }
+      if (i % 11 == 0) {
+        appLayerSettings.addHideAttributesItem(name);
+      }
+    }
+    featureType = new TMFeatureType().setName("benchmark").setSettings(settings);
+    featureType.setAttributes(descriptors);
+  }
+
+  @Benchmark
+  public Map<String, TMFeatureTypeHelper.AttributeWithSettings> getConfiguredAttributes() {
+    return TMFeatureTypeHelper.getConfiguredAttributes(featureType, appLayerSettings);
+  }
+}
@@ -7,6 +7,9 @@
 package org.tailormap.api.configuration;
 
 import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.EnableAsync;
@@ -29,15 +32,46 @@ public Executor passwordResetTaskExecutor() {
     return executor;
   }
 
+  /**
+   * Executor for layer extracts. Extracts are queued by the {@link org.tailormap.api.service.ExtractScheduler}, which
+   * only hands an extract to this executor when a thread is available, so the pool has a fixed size. The small queue
+   * is only used when the next extract is handed over while the thread of the finished extract is still returning to
+   * the pool.
+   */
   @Bean(name = "extractTaskExecutor")
-  public Executor extractTaskExecutor() {
+  public Executor extractTaskExecutor(@Value("${tailormap-api.extract.max-concurrent:4}") int maxConcurrent) {
     ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
-    executor.setCorePoolSize(1);
-    executor.setMaxPoolSize(10);
-    executor.setQueueCapacity(100);
+    executor.setCorePoolSize(Math.max(1, maxConcurrent));
+    executor.setMaxPoolSize(Math.max(1, maxConcurrent));
+    executor.setQueueCapacity(Math.max(1, maxConcurrent));
     executor.setThreadNamePrefix("create-extract-");
     executor.setWaitForTasksToCompleteOnShutdown(false);
     executor.initialize();
     return executor;
   }
+
+  /**
+   * Executor for CPU bound work of layer extracts that can be done in parallel with reading the features, such as
+   * encoding geometries. Shared by all running extracts.
+   */
+  @Bean(name = "extractEncodingExecutor")
+  public Executor extractEncodingExecutor() {
+    ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+    int threads = Math.max(1, Runtime.getRuntime().availableProcessors());
+    executor.setCorePoolSize(threads);
+    executor.setMaxPoolSize(threads);
+    executor.setThreadNamePrefix("extract-encode-");
+    executor.setWaitForTasksToCompleteOnShutdown(false);
+    executor.initialize();
+    return executor;
+  }
+
+  /**
+   * Executor for the layer queries of multi-layer feature info requests, which mostly wait for feature sources. A
+   * virtual thread per query, running queries are interrupted on shutdown.
+   */
+  @Bean(name = "featureInfoExecutor", destroyMethod = "shutdownNow")
+  public ExecutorService featureInfoExecutor() {
+    return Executors.newVirtualThreadPerTaskExecutor();
+  }
 }
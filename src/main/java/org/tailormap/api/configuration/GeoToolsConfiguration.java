@@ -7,10 +7,12 @@
 
 import jakarta.annotation.PostConstruct;
 import java.lang.invoke.MethodHandles;
+import org.apache.commons.lang3.StringUtils;
 import org.geotools.util.factory.GeoTools;
 import org.geotools.util.factory.Hints;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
 import org.tailormap.api.geotools.TMPreventLocalEntityResolver;
 
@@ -19,8 +21,19 @@ public class GeoToolsConfiguration {
   private static final Logger logger =
       LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
 
+  /** System property read by gt-epsg-hsql for the directory to extract the EPSG database to. */
+  private static final String EPSG_HSQL_DIRECTORY_PROPERTY = "EPSG-HSQL.directory";
+
+  @Value("${tailormap-api.geotools.epsg-hsql-directory:}")
+  private String epsgHsqlDirectory;
+
   @PostConstruct
   public void init() {
+    if (StringUtils.isNotBlank(epsgHsqlDirectory)) {
+      // Must be set before the EPSG database is first used
+      System.setProperty(EPSG_HSQL_DIRECTORY_PROPERTY, epsgHsqlDirectory);
+      logger.info("Using GeoTools EPSG database directory {}", epsgHsqlDirectory);
+    }
     GeoTools.init(new Hints(Hints.ENTITY_RESOLVER, TMPreventLocalEntityResolver.INSTANCE));
     if (logger.isTraceEnabled()) {
       logger.trace("GeoTools initialised: {}", GeoTools.getAboutInfo());
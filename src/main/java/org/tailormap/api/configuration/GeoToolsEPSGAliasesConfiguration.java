@@ -12,6 +12,7 @@
 import java.lang.invoke.MethodHandles;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.time.Duration;
 import org.geotools.api.referencing.FactoryException;
 import org.geotools.metadata.iso.citation.Citations;
 import org.geotools.referencing.CRS;
@@ -22,9 +23,12 @@
 import org.geotools.util.factory.Hints;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.DependsOn;
 
 @Configuration
+@DependsOn("geoToolsConfiguration")
 public class GeoToolsEPSGAliasesConfiguration {
   private static final Logger logger =
       LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
@@ -34,7 +38,36 @@ public class GeoToolsEPSGAliasesConfiguration {
   // https://www.openbasiskaart.nl/mapcache/wmts?REQUEST=GetCapabilities&SERVICE=WMTS
   private static final int[][] EPSG_ALIASES = {{900913, 3857}};
 
+  // Commonly used CRSes which are decoded in the background in startup-optimized mode, so the CRS factories are
+  // initialized before the first request needs them
+  private static final String[] WARM_UP_CRSES = {"EPSG:28992", "EPSG:4326", "EPSG:3857"};
+
+  @Value("${tailormap-api.startup-optimized:false}")
+  private boolean startupOptimized;
+
   @PostConstruct
+  public void init() throws IOException, FactoryException {
+    if (!startupOptimized) {
+      addEPSGAliases();
+      return;
+    }
+    // Decoding the first CRS extracts and opens the EPSG database, which takes seconds
+    Thread.ofPlatform().name("geotools-crs-warm-up").daemon().start(() -> {
+      long start = System.nanoTime();
+      try {
+        addEPSGAliases();
+        for (String crs : WARM_UP_CRSES) {
+          CRS.decode(crs);
+        }
+        logger.info(
+            "GeoTools CRS factories initialized in {} ms",
+            Duration.ofNanos(System.nanoTime() - start).toMillis());
+      } catch (Exception e) {
+        logger.error("Error initializing GeoTools CRS factories", e);
+      }
+    });
+  }
+
   public void addEPSGAliases() throws IOException, FactoryException {
     // The PropertyAuthorityFactory only takes a URL parameter, create a temporary file
     File f = Files.createTempFile("epsg", "properties").toFile();
@@ -9,17 +9,26 @@
 import com.fasterxml.jackson.annotation.JsonTypeInfo;
 import java.lang.invoke.MethodHandles;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import javax.sql.DataSource;
 import org.jspecify.annotations.NonNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.BeanClassLoaderAware;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 import org.springframework.core.convert.ConversionService;
 import org.springframework.core.convert.support.GenericConversionService;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.security.jackson.SecurityJacksonModules;
 import org.springframework.session.config.SessionRepositoryCustomizer;
 import org.springframework.session.jdbc.JdbcIndexedSessionRepository;
+import org.springframework.session.web.http.CookieSerializer;
 import tools.jackson.core.JacksonException;
 import tools.jackson.core.StreamReadFeature;
 import tools.jackson.databind.DefaultTyping;
@@ -56,6 +65,53 @@ SessionRepositoryCustomizer<JdbcIndexedSessionRepository> customizer() {
     };
   }
 
+  /**
+   * In the lightweight session mode, cache sessions and write last access times behind, instead of selecting and
+   * updating the session in the database on every request.
+   *
+   * @param sessionRepository the JDBC session repository
+   * @param dataSource the datasource of the JDBC session repository
+   * @param tableName the session table name
+   * @param timeToLive how long sessions are cached, in seconds
+   * @param maxSize the maximum number of cached sessions
+   * @return the near-cache session repository, used by the Spring Session filter instead of the JDBC session repository
+   */
+  @Bean
+  @Primary
+  @ConditionalOnProperty(name = "tailormap-api.session.lightweight", havingValue = "true")
+  public NearCacheSessionRepository<?> nearCacheSessionRepository(
+      JdbcIndexedSessionRepository sessionRepository,
+      DataSource dataSource,
+      @Value("${spring.session.jdbc.table-name:SPRING_SESSION}") String tableName,
+      @Value("${tailormap-api.session.near-cache.time-to-live-seconds:10}") long timeToLive,
+      @Value("${tailormap-api.session.near-cache.max-size:10000}") int maxSize) {
+    logger.info("Using lightweight session mode");
+    return new NearCacheSessionRepository<>(
+        sessionRepository, new JdbcTemplate(dataSource), tableName, Duration.ofSeconds(timeToLive), maxSize);
+  }
+
+  /**
+   * In the lightweight session mode, do not look up or create sessions for anonymous requests to stateless viewer API
+   * paths.
+   *
+   * @param cookieSerializer the Spring Session cookie serializer
+   * @param apiBasePath the API base path
+   * @param statelessPaths the stateless paths, relative to the API base path
+   * @return the filter registration
+   */
+  @Bean
+  @ConditionalOnProperty(name = "tailormap-api.session.lightweight", havingValue = "true")
+  public FilterRegistrationBean<SessionlessRequestFilter> sessionlessRequestFilter(
+      CookieSerializer cookieSerializer,
+      @Value("${tailormap-api.base-path}") String apiBasePath,
+      @Value("#{'${tailormap-api.session.stateless-paths}'.split(',')}") List<String> statelessPaths) {
+    FilterRegistrationBean<SessionlessRequestFilter> registration =
+        new FilterRegistrationBean<>(new SessionlessRequestFilter(
+            statelessPaths.stream().map(path -> apiBasePath + path).toList(), cookieSerializer));
+    registration.setOrder(SessionlessRequestFilter.ORDER);
+    return registration;
+  }
+
   @Bean("springSessionConversionService")
   public ConversionService springSessionConversionService() {
 
@@ -7,11 +7,28 @@
 
 import io.micrometer.core.aop.TimedAspect;
 import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import java.lang.invoke.MethodHandles;
+import java.lang.management.ManagementFactory;
+import java.lang.management.RuntimeMXBean;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
 
 @Configuration
 public class MonitoringConfiguration {
+  private static final Logger logger =
+      LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+  public static final String STARTUP_TIME = "tailormap.startup.time";
+
+  @Value("${tailormap-api.startup-optimized:false}")
+  private boolean startupOptimized;
 
   /**
    * Configuration for timed requests and methods.
@@ -23,4 +40,25 @@ public class MonitoringConfiguration {
   public TimedAspect timedAspect(MeterRegistry registry) {
     return new TimedAspect(registry);
   }
+
+  /**
+   * Record the time from the start of the JVM until the application is ready to serve requests. Unlike the
+   * {@code application.ready.time} metric of Spring Boot this includes starting the JVM and loading classes before the
+   * application starts, which is what a class data sharing (CDS) archive speeds up.
+   *
+   * @param event the application ready event
+   */
+  @EventListener
+  public void recordStartupTime(ApplicationReadyEvent event) {
+    RuntimeMXBean runtime = ManagementFactory.getRuntimeMXBean();
+    long startupMillis = runtime.getUptime();
+    boolean cds = runtime.getInputArguments().stream()
+        .anyMatch(argument -> argument.startsWith("-XX:SharedArchiveFile") || argument.startsWith("-XX:AOTCache"));
+    TimeGauge.builder(STARTUP_TIME, () -> startupMillis, TimeUnit.MILLISECONDS)
+        .description("Time from the start of the JVM until the application is ready")
+        .tag("optimized", String.valueOf(startupOptimized))
+        .tag("cds", String.valueOf(cds))
+        .register(event.getApplicationContext().getBean(MeterRegistry.class));
+    logger.info("Started in {} ms (startup-optimized: {}, CDS archive: {})", startupMillis, startupOptimized, cds);
+  }
 }
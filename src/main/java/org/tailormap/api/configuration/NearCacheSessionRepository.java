@@ -0,0 +1,296 @@
+/*
+ * Copyright (C) 2026 B3Partners B.V.
+ *
+ * SPDX-License-Identifier: MIT
+ */
+package org.tailormap.api.configuration;
+
+import jakarta.annotation.PreDestroy;
+import java.lang.invoke.MethodHandles;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcOperations;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.session.FindByIndexNameSessionRepository;
+import org.springframework.session.MapSession;
+import org.springframework.session.Session;
+
+/**
+ * Near-cache in front of the JDBC session repository, used in the lightweight session mode. Without it every request
+ * with a session cookie selects the session and its attributes from the database and updates its last access time.
+ *
+ * <p>Sessions found in the database are cached for {@code tailormap-api.session.near-cache.time-to-live-seconds}, every
+ * request gets its own copy. When a request only updates the last access time of a session (which is the case for
+ * almost all requests), the update is written to the database in a batch every
+ * {@code tailormap-api.session.write-behind-interval-seconds} instead. Any other change, such as setting an attribute
+ * when logging in, changes the session in the database right away.
+ *
+ * <p>Other nodes of a cluster may use a cached session for up to the time to live after it has been changed or deleted
+ * (when logging out) on another node.
+ *
+ * @param <S> the session type of the JDBC session repository
+ */
+public class NearCacheSessionRepository<S extends Session>
+    implements FindByIndexNameSessionRepository<NearCacheSessionRepository.CachedSession> {
+  private static final Logger logger =
+      LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+  private static final String UPDATE_LAST_ACCESS_TIME_QUERY = """
+UPDATE %TABLE_NAME%
+SET LAST_ACCESS_TIME = ?, EXPIRY_TIME = ?
+WHERE SESSION_ID = ?
+AND LAST_ACCESS_TIME < ?
+""";
+
+  private record CacheEntry(MapSession session, Instant loaded) {}
+
+  private record LastAccess(Instant lastAccessedTime, Duration maxInactiveInterval) {}
+
+  private final FindByIndexNameSessionRepository<S> delegate;
+  private final JdbcOperations jdbcOperations;
+  private final String updateLastAccessTimeQuery;
+  private final Duration timeToLive;
+  private final int maxSize;
+
+  private final Map<String, CacheEntry> cache = new ConcurrentHashMap<>();
+  private final Map<String, LastAccess> pendingLastAccess = new ConcurrentHashMap<>();
+
+  /**
+   * A session from the near-cache. Reads are served from a copy of the cached session, the first change other than
+   * the last access time loads the session from the JDBC session repository and applies all further calls to it.
+   */
+  public static final class CachedSession implements Session {
+    private final MapSession cached;
+    private final Function<String, Session> loader;
+    private Session delegateSession;
+    private boolean lastAccessedTimeChanged;
+
+    private CachedSession(MapSession cached, Function<String, Session> loader) {
+      this.cached = cached;
+      this.loader = loader;
+    }
+
+    private CachedSession(Session delegateSession) {
+      this.cached = null;
+      this.loader = null;
+      this.delegateSession = delegateSession;
+    }
+
+    private Session current() {
+      return delegateSession != null ? delegateSession : cached;
+    }
+
+    private Session delegateSession() {
+      if (delegateSession == null) {
+        delegateSession = loader.apply(cached.getId());
+        if (delegateSession == null) {
+          throw new IllegalStateException("Session " + cached.getId() + " no longer exists");
+        }
+        delegateSession.setLastAccessedTime(cached.getLastAccessedTime());
+      }
+      return delegateSession;
+    }
+
+    @Override
+    public String getId() {
+      return current().getId();
+    }
+
+    @Override
+    public String changeSessionId() {
+      return delegateSession().changeSessionId();
+    }
+
+    @Override
+    public <T> T getAttribute(String attributeName) {
+      return current().getAttribute(attributeName);
+    }
+
+    @Override
+    public Set<String> getAttributeNames() {
+      return current().getAttributeNames();
+    }
+
+    @Override
+    public void setAttribute(String attributeName, Object attributeValue) {
+      delegateSession().setAttribute(attributeName, attributeValue);
+    }
+
+    @Override
+    public void removeAttribute(String attributeName) {
+      delegateSession().removeAttribute(attributeName);
+    }
+
+    @Override
+    public Instant getCreationTime() {
+      return current().getCreationTime();
+    }
+
+    @Override
+    public void setLastAccessedTime(Instant lastAccessedTime) {
+      current().setLastAccessedTime(lastAccessedTime);
+      lastAccessedTimeChanged = true;
+    }
+
+    @Override
+    public Instant getLastAccessedTime() {
+      return current().getLastAccessedTime();
+    }
+
+    @Override
+    public void setMaxInactiveInterval(Duration interval) {
+      delegateSession().setMaxInactiveInterval(interval);
+    }
+
+    @Override
+    public Duration getMaxInactiveInterval() {
+      return current().getMaxInactiveInterval();
+    }
+
+    @Override
+    public boolean isExpired() {
+      return current().isExpired();
+    }
+  }
+
+  /**
+   * Create a near-cache for a JDBC session repository.
+   *
+   * @param delegate the JDBC session repository
+   * @param jdbcOperations to write the last access times to the session table
+   * @param tableName the name of the session table
+   * @param timeToLive how long a session is cached after it has been loaded from the database
+   * @param maxSize the maximum number of sessions to cache, further sessions are loaded from the database every time
+   */
+  public NearCacheSessionRepository(
+      FindByIndexNameSessionRepository<S> delegate,
+      JdbcOperations jdbcOperations,
+      String tableName,
+      Duration timeToLive,
+      int maxSize) {
+    this.delegate = delegate;
+    this.jdbcOperations = jdbcOperations;
+    this.updateLastAccessTimeQuery = UPDATE_LAST_ACCESS_TIME_QUERY.replace("%TABLE_NAME%", tableName);
+    this.timeToLive = timeToLive;
+    this.maxSize = maxSize;
+  }
+
+  @Override
+  public CachedSession createSession() {
+    return new CachedSession(delegate.createSession());
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public void save(CachedSession session) {
+    if (session.delegateSession == null) {
+      if (session.lastAccessedTimeChanged) {
+        updateLastAccessedTime(session.cached);
+      }
+      return;
+    }
+    String id = session.cached == null ? session.getId() : session.cached.getId();
+    delegate.save((S) session.delegateSession);
+    // Saved with the current last access time
+    pendingLastAccess.remove(id);
+    cache.remove(id);
+    cache.remove(session.getId());
+  }
+
+  private void updateLastAccessedTime(MapSession session) {
+    pendingLastAccess.merge(
+        session.getId(),
+        new LastAccess(session.getLastAccessedTime(), session.getMaxInactiveInterval()),
+        (current, update) ->
+            current.lastAccessedTime().isAfter(update.lastAccessedTime()) ? current : update);
+    cache.computeIfPresent(session.getId(), (id, entry) -> new CacheEntry(copyOf(entry.session()), entry.loaded()));
+  }
+
+  /** Copy a session with the pending last access time, if later than the last access time of the session. */
+  private MapSession copyOf(MapSession session) {
+    MapSession copy = new MapSession(session);
+    LastAccess lastAccess = pendingLastAccess.get(session.getId());
+    if (lastAccess != null && lastAccess.lastAccessedTime().isAfter(copy.getLastAccessedTime())) {
+      copy.setLastAccessedTime(lastAccess.lastAccessedTime());
+    }
+    return copy;
+  }
+
+  @Override
+  public CachedSession findById(String id) {
+    Instant now = Instant.now();
+    CacheEntry entry = cache.get(id);
+    if (entry != null
+        && (entry.loaded().plus(timeToLive).isBefore(now)
+            || copyOf(entry.session()).isExpired())) {
+      // The session may have been accessed on another node, let the JDBC session repository decide whether it expired
+      cache.remove(id);
+      entry = null;
+    }
+    if (entry == null) {
+      S session = delegate.findById(id);
+      if (session == null) {
+        pendingLastAccess.remove(id);
+        return null;
+      }
+      entry = new CacheEntry(new MapSession(session), now);
+      if (cache.size() < maxSize) {
+        cache.put(id, entry);
+      }
+    }
+    return new CachedSession(copyOf(entry.session()), delegate::findById);
+  }
+
+  @Override
+  public void deleteById(String id) {
+    cache.remove(id);
+    pendingLastAccess.remove(id);
+    delegate.deleteById(id);
+  }
+
+  @Override
+  public Map<String, CachedSession> findByIndexNameAndIndexValue(String indexName, String indexValue) {
+    return delegate.findByIndexNameAndIndexValue(indexName, indexValue).entrySet().stream()
+        .collect(Collectors.toMap(Map.Entry::getKey, e -> new CachedSession(e.getValue())));
+  }
+
+  /** Write the pending last access times to the database and remove sessions past their time to live. */
+  @Scheduled(
+      fixedDelayString = "${tailormap-api.session.write-behind-interval-seconds:30}",
+      timeUnit = TimeUnit.SECONDS)
+  public void flush() {
+    Instant now = Instant.now();
+    cache.values().removeIf(entry -> entry.loaded().plus(timeToLive).isBefore(now));
+
+    List<Object[]> updates = new ArrayList<>();
+    for (String id : List.copyOf(pendingLastAccess.keySet())) {
+      LastAccess lastAccess = pendingLastAccess.remove(id);
+      if (lastAccess != null) {
+        long lastAccessedTime = lastAccess.lastAccessedTime().toEpochMilli();
+        long expiryTime = lastAccess.maxInactiveInterval().isNegative()
+            ? Long.MAX_VALUE
+            : lastAccessedTime + lastAccess.maxInactiveInterval().toMillis();
+        updates.add(new Object[] {lastAccessedTime, expiryTime, id, lastAccessedTime});
+      }
+    }
+    if (!updates.isEmpty()) {
+      jdbcOperations.batchUpdate(updateLastAccessTimeQuery, updates);
+      logger.debug("Updated last access time of {} sessions", updates.size());
+    }
+  }
+
+  @PreDestroy
+  public void destroy() {
+    flush();
+  }
+}
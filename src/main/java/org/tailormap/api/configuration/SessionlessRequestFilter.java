@@ -0,0 +1,94 @@
+/*
+ * Copyright (C) 2026 B3Partners B.V.
+ *
+ * SPDX-License-Identifier: MIT
+ */
+package org.tailormap.api.configuration;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+import java.io.IOException;
+import java.util.List;
+import org.jspecify.annotations.NonNull;
+import org.springframework.security.web.servlet.util.matcher.PathPatternRequestMatcher;
+import org.springframework.security.web.util.matcher.OrRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+import org.springframework.session.web.http.CookieSerializer;
+import org.springframework.session.web.http.SessionRepositoryFilter;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Skips Spring Session for requests to stateless viewer API paths (such as tiles through the proxy and features) which
+ * do not have a session cookie, used in the lightweight session mode. These requests are anonymous, so they never need
+ * a session: creating one throws an {@link IllegalStateException}. Requests with a session cookie may be from a
+ * logged-in user and get their session as usual.
+ */
+public class SessionlessRequestFilter extends OncePerRequestFilter {
+  /** Order before the Spring Session filter. */
+  public static final int ORDER = SessionRepositoryFilter.DEFAULT_ORDER - 1;
+
+  // Request attribute which the Spring Session filter checks to skip requests it has already filtered
+  private static final String SESSION_REPOSITORY_FILTERED = SessionRepositoryFilter.class.getName() + ".FILTERED";
+
+  private final RequestMatcher statelessPaths;
+
+  private final CookieSerializer cookieSerializer;
+
+  private static class SessionlessRequest extends HttpServletRequestWrapper {
+    SessionlessRequest(HttpServletRequest request) {
+      super(request);
+    }
+
+    @Override
+    public HttpSession getSession(boolean create) {
+      if (create) {
+        throw new IllegalStateException("No session can be created for stateless request " + getRequestURI());
+      }
+      return null;
+    }
+
+    @Override
+    public HttpSession getSession() {
+      return getSession(true);
+    }
+
+    @Override
+    public String changeSessionId() {
+      throw new IllegalStateException("No session for stateless request " + getRequestURI());
+    }
+
+    @Override
+    public boolean isRequestedSessionIdValid() {
+      return false;
+    }
+  }
+
+  /**
+   * Create the filter.
+   *
+   * @param statelessPaths the path patterns of stateless requests, including the API base path
+   * @param cookieSerializer the Spring Session cookie serializer, to check for a session cookie
+   */
+  public SessionlessRequestFilter(List<String> statelessPaths, CookieSerializer cookieSerializer) {
+    this.statelessPaths = new OrRequestMatcher(statelessPaths.stream()
+        .map(path -> (RequestMatcher) PathPatternRequestMatcher.withDefaults().matcher(path))
+        .toList());
+    this.cookieSerializer = cookieSerializer;
+  }
+
+  @Override
+  protected void doFilterInternal(
+      @NonNull HttpServletRequest request, @NonNull HttpServletResponse response, @NonNull FilterChain filterChain)
+      throws ServletException, IOException {
+    if (statelessPaths.matches(request) && cookieSerializer.readCookieValues(request).isEmpty()) {
+      request.setAttribute(SESSION_REPOSITORY_FILTERED, Boolean.TRUE);
+      filterChain.doFilter(new SessionlessRequest(request), response);
+    } else {
+      filterChain.doFilter(request, response);
+    }
+  }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright (C) 2026 B3Partners B.V.
+ *
+ * SPDX-License-Identifier: MIT
+ */
+package org.tailormap.api.controller;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import org.tailormap.api.persistence.Application;
+import org.tailormap.api.persistence.GeoService;
+import org.tailormap.api.persistence.json.AppTreeLayerNode;
+import org.tailormap.api.persistence.json.GeoServiceLayer;
+import org.tailormap.api.repository.GeoServiceRepository;
+import org.tailormap.api.security.AuthorisationService;
+
+/**
+ * Looks up the layer node, service and service layer for an application layer and checks that the user is allowed to
+ * access them. Used by {@link AppRestControllerAdvice} for the model attributes of a single layer and by controllers
+ * that handle multiple layers in one request, so the checks are the same.
+ */
+@Component
+public class AppLayerResolver {
+  private final GeoServiceRepository geoServiceRepository;
+  private final AuthorisationService authorisationService;
+
+  public AppLayerResolver(GeoServiceRepository geoServiceRepository, AuthorisationService authorisationService) {
+    this.geoServiceRepository = geoServiceRepository;
+    this.authorisationService = authorisationService;
+  }
+
+  /**
+   * @param app the application
+   * @param appLayerId the id of the application layer
+   * @return the layer node
+   * @throws ResponseStatusException with status 404 if the application does not have the layer
+   */
+  public AppTreeLayerNode findAppTreeLayerNode(Application app, String appLayerId) {
+    final AppTreeLayerNode layerNode = app.getAllAppTreeLayerNode()
+        .filter(r -> r.getId().equals(appLayerId))
+        .findFirst()
+        .orElse(null);
+    if (layerNode == null) {
+      throw new ResponseStatusException(
+          HttpStatus.NOT_FOUND, "Application layer with id " + appLayerId + " not found");
+    }
+
+    // TODO
+    //    if (!this.authorizationService.userAllowedToViewApplication(applicationLayer, application)) {
+    //      throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Access denied");
+    //    }
+    return layerNode;
+  }
+
+  /**
+   * @param appTreeLayerNode the layer node
+   * @return the service of the layer, or {@code null} if the layer does not have a service or it does not exist
+   * @throws ResponseStatusException with status 403 if access to the secured proxy must be denied or 401 if the user is
+   *     not allowed to view the service
+   */
+  public GeoService findGeoService(AppTreeLayerNode appTreeLayerNode) {
+    if (appTreeLayerNode.getServiceId() == null) {
+      return null;
+    }
+    GeoService service = geoServiceRepository.findById(appTreeLayerNode.getServiceId()).orElse(null);
+    if (service == null) {
+      return null;
+    }
+    if (authorisationService.mustDenyAccessForSecuredProxy(service)) {
+      throw new ResponseStatusException(HttpStatus.FORBIDDEN);
+    }
+    if (!authorisationService.userAllowedToViewGeoService(service)) {
+      throw new ResponseStatusException(HttpStatus.UNAUTHORIZED);
+    }
+    return service;
+  }
+
+  /**
+   * @param appTreeLayerNode the layer node
+   * @param service the service of the layer
+   * @return the service layer, or {@code null} if the service does not have the layer
+   * @throws ResponseStatusException with status 401 if the user is not allowed to view the layer
+   */
+  public GeoServiceLayer findGeoServiceLayer(AppTreeLayerNode appTreeLayerNode, GeoService service) {
+    GeoServiceLayer layer = service.getLayers().stream()
+        .filter(l -> appTreeLayerNode.getLayerName().equals(l.getName()))
+        .findFirst()
+        .orElse(null);
+
+    if (layer != null && !authorisationService.userAllowedToViewGeoServiceLayer(service, layer)) {
+      throw new ResponseStatusException(HttpStatus.UNAUTHORIZED);
+    }
+    return layer;
+  }
+}
@@ -19,6 +19,7 @@
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.web.server.ResponseStatusException;
 import org.tailormap.api.annotation.AppRestController;
+import org.tailormap.api.geotools.featuresources.FeatureSourceObservations;
 import org.tailormap.api.persistence.Application;
 import org.tailormap.api.persistence.GeoService;
 import org.tailormap.api.persistence.helper.ApplicationHelper;
@@ -33,10 +34,14 @@
 
 @RestControllerAdvice(annotations = AppRestController.class)
 public class AppRestControllerAdvice {
+  private static final String ADVICE_OPERATION = "advice";
+
   private final ApplicationRepository applicationRepository;
   private final GeoServiceRepository geoServiceRepository;
   private final ApplicationHelper applicationHelper;
   private final AuthorisationService authorisationService;
+  private final FeatureSourceObservations featureSourceObservations;
+  private final AppLayerResolver appLayerResolver;
 
   @Value("${tailormap-api.base-path}")
   private String basePath;
@@ -45,11 +50,15 @@ public AppRestControllerAdvice(
       ApplicationRepository applicationRepository,
       GeoServiceRepository geoServiceRepository,
       ApplicationHelper applicationHelper,
-      AuthorisationService authorisationService) {
+      AuthorisationService authorisationService,
+      FeatureSourceObservations featureSourceObservations,
+      AppLayerResolver appLayerResolver) {
     this.applicationRepository = applicationRepository;
     this.geoServiceRepository = geoServiceRepository;
     this.applicationHelper = applicationHelper;
     this.authorisationService = authorisationService;
+    this.featureSourceObservations = featureSourceObservations;
+    this.appLayerResolver = appLayerResolver;
   }
 
   @InitBinder
@@ -97,7 +106,12 @@ public Application populateApplication(
       // No binding required for ViewerController.defaultApp()
       return null;
     }
+    return featureSourceObservations.observe(
+        ADVICE_OPERATION, "application", null, () -> findApplication(viewerKind, viewerName, base, projection));
+  }
 
+  private Application findApplication(
+      ViewerResponse.KindEnum viewerKind, String viewerName, String base, String projection) {
     Application app;
     if (viewerKind == ViewerResponse.KindEnum.APP) {
       app = applicationRepository.findByName(viewerName);
@@ -137,21 +151,7 @@ public AppTreeLayerNode populateAppTreeLayerNode(
       // No binding
       return null;
     }
-
-    final AppTreeLayerNode layerNode = app.getAllAppTreeLayerNode()
-        .filter(r -> r.getId().equals(appLayerId))
-        .findFirst()
-        .orElse(null);
-    if (layerNode == null) {
-      throw new ResponseStatusException(
-          HttpStatus.NOT_FOUND, "Application layer with id " + appLayerId + " not found");
-    }
-
-    // TODO
-    //    if (!this.authorizationService.userAllowedToViewApplication(applicationLayer, application)) {
-    //      throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Access denied");
-    //    }
-    return layerNode;
+    return appLayerResolver.findAppTreeLayerNode(app, appLayerId);
   }
 
   @ModelAttribute
@@ -160,21 +160,8 @@ public GeoService populateGeoService(@ModelAttribute AppTreeLayerNode appTreeLay
       // No binding
       return null;
     }
-    if (appTreeLayerNode.getServiceId() == null) {
-      return null;
-    }
-    GeoService service =
-        geoServiceRepository.findById(appTreeLayerNode.getServiceId()).orElse(null);
-    if (service == null) {
-      return null;
-    }
-    if (authorisationService.mustDenyAccessForSecuredProxy(service)) {
-      throw new ResponseStatusException(HttpStatus.FORBIDDEN);
-    }
-    if (!authorisationService.userAllowedToViewGeoService(service)) {
-      throw new ResponseStatusException(HttpStatus.UNAUTHORIZED);
-    }
-    return service;
+    return featureSourceObservations.observe(
+        ADVICE_OPERATION, "service", null, () -> appLayerResolver.findGeoService(appTreeLayerNode));
   }
 
   @ModelAttribute
@@ -184,15 +171,6 @@ public GeoServiceLayer populateGeoServiceLayer(
       // No binding
       return null;
     }
-    GeoServiceLayer layer = service.getLayers().stream()
-        .filter(l -> appTreeLayerNode.getLayerName().equals(l.getName()))
-        .findFirst()
-        .orElse(null);
-
-    if (layer != null && !authorisationService.userAllowedToViewGeoServiceLayer(service, layer)) {
-      throw new ResponseStatusException(HttpStatus.UNAUTHORIZED);
-    }
-
-    return layer;
+    return appLayerResolver.findGeoServiceLayer(appTreeLayerNode, service);
   }
 }
@@ -40,6 +40,7 @@
 import org.springframework.web.server.ResponseStatusException;
 import org.tailormap.api.annotation.AppRestController;
 import org.tailormap.api.geotools.featuresources.AttachmentsHelper;
+import org.tailormap.api.geotools.featuresources.AttachmentsRepository;
 import org.tailormap.api.geotools.featuresources.FeatureSourceFactoryHelper;
 import org.tailormap.api.persistence.Application;
 import org.tailormap.api.persistence.GeoService;
@@ -59,11 +60,16 @@ public class AttachmentsController {
 
   private final EditUtil editUtil;
   private final FeatureSourceFactoryHelper featureSourceFactoryHelper;
+  private final AttachmentsRepository attachmentsRepository;
   private final FilterFactory ff = CommonFactoryFinder.getFilterFactory(GeoTools.getDefaultHints());
 
-  public AttachmentsController(EditUtil editUtil, FeatureSourceFactoryHelper featureSourceFactoryHelper) {
+  public AttachmentsController(
+      EditUtil editUtil,
+      FeatureSourceFactoryHelper featureSourceFactoryHelper,
+      AttachmentsRepository attachmentsRepository) {
     this.editUtil = editUtil;
     this.featureSourceFactoryHelper = featureSourceFactoryHelper;
+    this.attachmentsRepository = attachmentsRepository;
   }
 
   /**
@@ -130,7 +136,7 @@ public ResponseEntity<Serializable> addAttachment(
 
     AttachmentMetadata response;
     try {
-      response = AttachmentsHelper.insertAttachment(tmFeatureType, attachment, primaryKey, fileData);
+      response = attachmentsRepository.insertAttachment(tmFeatureType, attachment, primaryKey, fileData);
     } catch (IOException | SQLException e) {
       throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, e.getMessage());
     }
@@ -205,7 +211,7 @@ public ResponseEntity<List<AttachmentMetadata>> listAttachments(
 
     List<AttachmentMetadata> response;
     try {
-      response = AttachmentsHelper.listAttachmentsForFeature(tmFeatureType, primaryKey);
+      response = attachmentsRepository.listAttachmentsForFeature(tmFeatureType, primaryKey);
     } catch (IOException | SQLException e) {
       throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, e.getMessage());
     }
@@ -229,7 +235,7 @@ public ResponseEntity<Serializable> deleteAttachment(
     checkFeatureTypeSupportsAttachments(tmFeatureType);
 
     try {
-      AttachmentsHelper.deleteAttachment(attachmentId, tmFeatureType);
+      attachmentsRepository.deleteAttachment(attachmentId, tmFeatureType);
     } catch (IOException | SQLException e) {
       throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, e.getMessage());
     }
@@ -252,7 +258,7 @@ public ResponseEntity<byte[]> getAttachment(
 
     try {
       final AttachmentsHelper.AttachmentWithBinary attachmentWithBinary =
-          AttachmentsHelper.getAttachment(tmFeatureType, attachmentId);
+          attachmentsRepository.getAttachment(tmFeatureType, attachmentId);
 
       if (attachmentWithBinary == null) {
         throw new ResponseStatusException(
@@ -7,14 +7,20 @@
 
 import io.micrometer.core.annotation.Counted;
 import io.micrometer.core.annotation.Timed;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
+import java.io.IOException;
 import java.io.Serializable;
 import java.lang.invoke.MethodHandles;
+import java.nio.charset.StandardCharsets;
 import java.util.Set;
 import java.util.UUID;
 import org.jspecify.annotations.NonNull;
+import org.locationtech.jts.geom.Envelope;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -25,14 +31,19 @@
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.ModelAttribute;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import org.tailormap.api.annotation.AppRestController;
 import org.tailormap.api.drawing.DrawingService;
 import org.tailormap.api.persistence.Application;
 import org.tailormap.api.viewer.model.Drawing;
+import org.tailormap.api.viewer.model.DrawingPatchRequest;
+import org.tailormap.api.viewer.model.DrawingPatchResponse;
 import tools.jackson.core.JacksonException;
 
 /**
@@ -40,6 +51,7 @@
  *
  * <ul>
  *   <li>PUT /{viewerKind}/{viewerName}/drawing (@see DrawingController#createOrUpdateDrawing)
+ *   <li>PATCH /{viewerKind}/{viewerName}/drawing/{drawingId} (@see DrawingController#patchDrawing)
  *   <li>DELETE /drawing/{drawingId} (@see DrawingController#deleteDrawing)
  * </ul>
  *
@@ -101,45 +113,132 @@ public DrawingController(DrawingService drawingService) {
 
   /**
    * Get a drawing by id. Does not require authentication per-se, but authorizations are checked at the drawing level.
+   * The features are streamed from the database to the response.
    *
    * @param drawingId the id of the drawing to retrieve
    * @param application the application that this drawing is created or updated in (used to determine the SRID)
-   * @return the drawing, if found and accessible
+   * @param precision the maximum number of decimal places of the coordinates, optional
+   * @param bbox only return the features intersecting this bounding box ({@code minx,miny,maxx,maxy} in the
+   *     application CRS), optional
+   * @param tolerance the distance tolerance in application CRS units to simplify the geometries with, optional
+   * @param response the response to write the drawing to
    * @throws ResponseStatusException if the drawing is not found or not accessible
-   * @see DrawingService#getDrawing(UUID, Authentication, boolean, int)
+   * @see DrawingService#writeDrawing(Drawing, int, int, Envelope, Double, java.io.OutputStream)
    */
   @GetMapping(
       path = {"${tailormap-api.base-path}/{viewerKind}/{viewerName}/drawing/{drawingId}"},
       produces = MediaType.APPLICATION_JSON_VALUE)
   @Counted(value = "get_drawing", description = "number of drawings retrieved")
   @Timed(value = "get_drawing", description = "time spent to retrieve a drawing")
-  @Valid public ResponseEntity<Serializable> getDrawing(
-      @NonNull @PathVariable UUID drawingId, @ModelAttribute Application application)
-      throws ResponseStatusException {
+  public void getDrawing(
+      @NonNull @PathVariable UUID drawingId,
+      @ModelAttribute Application application,
+      @RequestParam(required = false) Integer precision,
+      @RequestParam(required = false) String bbox,
+      @RequestParam(required = false) Double tolerance,
+      HttpServletResponse response)
+      throws ResponseStatusException, IOException {
+    if (precision != null && (precision < 0 || precision > 15)) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Precision must be between 0 and 15");
+    }
+    if (tolerance != null && (tolerance.isNaN() || tolerance < 0)) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Tolerance must not be negative");
+    }
+    final Envelope envelope = bbox == null ? null : parseBbox(bbox);
 
     final Drawing drawing = drawingService
-        .getDrawing(
-            drawingId,
-            SecurityContextHolder.getContext().getAuthentication(),
-            true,
-            getApplicationSrid(application))
+        .getDrawing(drawingId, SecurityContextHolder.getContext().getAuthentication())
         .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Drawing not found"));
 
-    return ResponseEntity.status(HttpStatus.OK).body(drawing);
+    response.setStatus(HttpStatus.OK.value());
+    response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+    response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+    drawingService.writeDrawing(
+        drawing,
+        getApplicationSrid(application),
+        precision == null ? DrawingService.DEFAULT_GEOJSON_PRECISION : precision,
+        envelope,
+        tolerance,
+        response.getOutputStream());
+  }
+
+  private static Envelope parseBbox(String bbox) {
+    String[] parts = bbox.split(",", -1);
+    if (parts.length != 4) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Bbox must be minx,miny,maxx,maxy");
+    }
+    try {
+      double minX = Double.parseDouble(parts[0].trim());
+      double minY = Double.parseDouble(parts[1].trim());
+      double maxX = Double.parseDouble(parts[2].trim());
+      double maxY = Double.parseDouble(parts[3].trim());
+      if (minX > maxX || minY > maxY) {
+        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Bbox minimum must not exceed maximum");
+      }
+      return new Envelope(minX, maxX, minY, maxY);
+    } catch (NumberFormatException e) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Bbox must be minx,miny,maxx,maxy");
+    }
+  }
+
+  /**
+   * Change a drawing without sending all its features. Requires authentication. Only the added, changed and deleted
+   * features are stored and returned.
+   *
+   * @param drawingId the id of the drawing to change
+   * @param patch the changes to the drawing
+   * @param application the application that this drawing is updated in (used to determine the SRID)
+   * @return the updated drawing metadata and the added, changed and deleted features
+   * @see DrawingService#patchDrawing(UUID, DrawingPatchRequest, int, Authentication)
+   */
+  @PatchMapping(
+      path = {"${tailormap-api.base-path}/{viewerKind}/{viewerName}/drawing/{drawingId}"},
+      consumes = MediaType.APPLICATION_JSON_VALUE,
+      produces = MediaType.APPLICATION_JSON_VALUE)
+  @Timed(value = "patch_drawing", description = "time spent to change a drawing")
+  @Counted(value = "patch_drawing", description = "number of changed drawings")
+  public ResponseEntity<DrawingPatchResponse> patchDrawing(
+      @NonNull @PathVariable UUID drawingId,
+      @NonNull @RequestBody DrawingPatchRequest patch,
+      @ModelAttribute Application application)
+      throws JacksonException {
+    Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+    if (authentication == null || authentication instanceof AnonymousAuthenticationToken) {
+      throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Authentication required");
+    }
+
+    return ResponseEntity.ok(
+        drawingService.patchDrawing(drawingId, patch, getApplicationSrid(application), authentication));
   }
 
   /**
-   * List drawings. Does not require authentication per-se, but authorizations are checked at the drawing level.
+   * List drawings. Does not require authentication per-se, but authorizations are checked at the drawing level. When
+   * a page size is given and there are more drawings, the URL of the next page is returned in the {@code Link}
+   * header.
    *
+   * @param pageSize the maximum number of drawings to return, all drawings when not given
+   * @param after the cursor of the page to return
+   * @param summary whether to leave out the domain data of the drawings
    * @return a, possibly empty, set of drawings
-   * @see DrawingService#getDrawingsForUser(Authentication)
+   * @see DrawingService#getDrawingsForUser(Authentication, Integer, String, boolean)
    */
   @GetMapping(path = "${tailormap-api.base-path}/drawing/list", produces = MediaType.APPLICATION_JSON_VALUE)
   @Counted(value = "list_drawings", description = "number of drawings listed")
   @Timed(value = "list_drawings", description = "time spent to list drawings")
-  public Set<Drawing> listDrawings() {
-    return drawingService.getDrawingsForUser(
-        SecurityContextHolder.getContext().getAuthentication());
+  public ResponseEntity<Set<Drawing>> listDrawings(
+      @RequestParam(required = false) @Min(1) Integer pageSize,
+      @RequestParam(required = false) String after,
+      @RequestParam(defaultValue = "false") boolean summary) {
+    DrawingService.DrawingPage page = drawingService.getDrawingsForUser(
+        SecurityContextHolder.getContext().getAuthentication(), pageSize, after, summary);
+    ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+    if (page.nextCursor() != null) {
+      String next = ServletUriComponentsBuilder.fromCurrentRequest()
+          .replaceQueryParam("after", page.nextCursor())
+          .toUriString();
+      response.header(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+    }
+    return response.body(page.drawings());
   }
 
   /**
@@ -8,6 +8,7 @@
 import static org.tailormap.api.persistence.helper.TMFeatureTypeHelper.getEditableAttributes;
 import static org.tailormap.api.persistence.helper.TMFeatureTypeHelper.getNonHiddenAttributeNames;
 import static org.tailormap.api.persistence.helper.TMFeatureTypeHelper.getNonHiddenAttributes;
+import static org.tailormap.api.persistence.helper.TMFeatureTypeHelper.isSameTable;
 
 import io.micrometer.core.annotation.Counted;
 import io.micrometer.core.annotation.Timed;
@@ -52,7 +53,7 @@
 import org.springframework.web.server.ResponseStatusException;
 import org.tailormap.api.annotation.AppRestController;
 import org.tailormap.api.geotools.TransformationUtil;
-import org.tailormap.api.geotools.featuresources.AttachmentsHelper;
+import org.tailormap.api.geotools.featuresources.AttachmentsRepository;
 import org.tailormap.api.geotools.featuresources.FeatureSourceFactoryHelper;
 import org.tailormap.api.geotools.processing.GeometryProcessor;
 import org.tailormap.api.persistence.Application;
@@ -62,6 +63,9 @@
 import org.tailormap.api.persistence.json.AppLayerSettings;
 import org.tailormap.api.persistence.json.AppTreeLayerNode;
 import org.tailormap.api.persistence.json.GeoServiceLayer;
+import org.tailormap.api.repository.FeatureTypeRepository;
+import org.tailormap.api.service.ExtractResultCache;
+import org.tailormap.api.service.VectorTileCache;
 import org.tailormap.api.util.Constants;
 import org.tailormap.api.util.EditUtil;
 import org.tailormap.api.viewer.model.AttachmentMetadata;
@@ -77,10 +81,39 @@ public class EditFeatureController implements Constants {
   private final FeatureSourceFactoryHelper featureSourceFactoryHelper;
   private final FilterFactory ff = CommonFactoryFinder.getFilterFactory(GeoTools.getDefaultHints());
   private final EditUtil editUtil;
-
-  public EditFeatureController(FeatureSourceFactoryHelper featureSourceFactoryHelper, EditUtil editUtil) {
+  private final AttachmentsRepository attachmentsRepository;
+  private final VectorTileCache vectorTileCache;
+  private final ExtractResultCache extractResultCache;
+  private final FeatureTypeRepository featureTypeRepository;
+
+  public EditFeatureController(
+      FeatureSourceFactoryHelper featureSourceFactoryHelper,
+      EditUtil editUtil,
+      AttachmentsRepository attachmentsRepository,
+      VectorTileCache vectorTileCache,
+      ExtractResultCache extractResultCache,
+      FeatureTypeRepository featureTypeRepository) {
     this.featureSourceFactoryHelper = featureSourceFactoryHelper;
     this.editUtil = editUtil;
+    this.attachmentsRepository = attachmentsRepository;
+    this.vectorTileCache = vectorTileCache;
+    this.extractResultCache = extractResultCache;
+    this.featureTypeRepository = featureTypeRepository;
+  }
+
+  /**
+   * Evict the cached vector tiles and extracts of the edited feature type and of the feature types of other feature
+   * sources over the same table, which would otherwise serve the data from before the edit until they expire.
+   */
+  private void evictCaches(TMFeatureType tmFeatureType) {
+    vectorTileCache.evict(tmFeatureType.getId());
+    extractResultCache.evict(tmFeatureType.getId());
+    for (TMFeatureType featureType : featureTypeRepository.findByName(tmFeatureType.getName())) {
+      if (!featureType.getId().equals(tmFeatureType.getId()) && isSameTable(tmFeatureType, featureType)) {
+        vectorTileCache.evict(featureType.getId());
+        extractResultCache.evict(featureType.getId());
+      }
+    }
   }
 
   private static void checkFeatureHasOnlyValidAttributes(
@@ -146,6 +179,7 @@ public ResponseEntity<Serializable> createFeature(
         List<FeatureId> newFids = simpleFeatureStore.addFeatures(DataUtilities.collection(simpleFeature));
 
         transaction.commit();
+        evictCaches(tmFeatureType);
         // find the created feature to return
         newFeature = getFeature(fs, ff.id(newFids.getFirst()), application, tmFeatureType);
       } else {
@@ -208,6 +242,7 @@ public ResponseEntity<Serializable> patchFeature(
             attributesMap.values().toArray(),
             filter);
         transaction.commit();
+        evictCaches(tmFeatureType);
         // find the updated feature to return
         patchedFeature = getFeature(fs, filter, application, tmFeatureType);
       } else {
@@ -255,6 +290,7 @@ public ResponseEntity<Void> deleteFeature(
         featureStore.setTransaction(transaction);
         featureStore.removeFeatures(filter);
         transaction.commit();
+        evictCaches(tmFeatureType);
       } else {
         throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Layer cannot be edited");
       }
@@ -271,7 +307,7 @@ public ResponseEntity<Void> deleteFeature(
     return new ResponseEntity<>(HttpStatus.NO_CONTENT);
   }
 
-  private static Feature getFeature(
+  private Feature getFeature(
       SimpleFeatureSource fs, Filter filter, Application application, TMFeatureType tmFeatureType)
       throws IOException, FactoryException {
     Feature modelFeature = null;
@@ -302,7 +338,7 @@ private static Feature getFeature(
           //  add attachments
           Object primaryKey = simpleFeature.getAttribute(tmFeatureType.getPrimaryKeyAttribute());
           Map<String, List<AttachmentMetadata>> attachmentsByFeatureId =
-              AttachmentsHelper.listAttachmentsForFeaturesByFeatureId(tmFeatureType, List.of(primaryKey));
+              attachmentsRepository.listAttachmentsForFeaturesByFeatureId(tmFeatureType, List.of(primaryKey));
           List<AttachmentMetadata> attachments = attachmentsByFeatureId.get(simpleFeature.getID());
           if (attachments != null) {
             modelFeature.setAttachments(attachments);
@@ -7,6 +7,9 @@
 
 import static org.springframework.web.bind.annotation.RequestMethod.GET;
 import static org.springframework.web.bind.annotation.RequestMethod.POST;
+import static org.tailormap.api.geotools.SelectionFilterUtil.createSelectionCircle;
+import static org.tailormap.api.geotools.SelectionFilterUtil.createSelectionFilter;
+import static org.tailormap.api.geotools.SelectionFilterUtil.getSelectionDistance;
 import static org.tailormap.api.persistence.helper.TMAttributeTypeHelper.isGeometry;
 import static org.tailormap.api.persistence.helper.TMFeatureTypeHelper.getConfiguredAttributes;
 
@@ -16,10 +19,20 @@
 import java.io.Serializable;
 import java.lang.invoke.MethodHandles;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
+import org.geotools.api.data.DataStore;
 import org.geotools.api.data.Query;
 import org.geotools.api.data.SimpleFeatureSource;
 import org.geotools.api.feature.simple.SimpleFeature;
@@ -34,11 +47,11 @@
 import org.geotools.filter.text.cql2.CQLException;
 import org.geotools.geometry.jts.JTS;
 import org.geotools.util.factory.GeoTools;
-import org.locationtech.jts.geom.Coordinate;
+import org.jspecify.annotations.Nullable;
 import org.locationtech.jts.geom.Geometry;
-import org.locationtech.jts.util.GeometricShapeFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
@@ -49,11 +62,16 @@
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
 import org.tailormap.api.annotation.AppRestController;
 import org.tailormap.api.geotools.FilterUtil;
+import org.tailormap.api.geotools.SelectionFilterUtil.SelectionFilterStrategy;
 import org.tailormap.api.geotools.TransformationUtil;
-import org.tailormap.api.geotools.featuresources.AttachmentsHelper;
+import org.tailormap.api.geotools.featuresources.AttachmentsRepository;
 import org.tailormap.api.geotools.featuresources.FeatureSourceFactoryHelper;
+import org.tailormap.api.geotools.featuresources.FeatureSourceObservations;
+import org.tailormap.api.geotools.processing.GeometryEncoder;
+import org.tailormap.api.geotools.processing.GeometryEncoding;
 import org.tailormap.api.geotools.processing.GeometryProcessor;
 import org.tailormap.api.persistence.Application;
 import org.tailormap.api.persistence.GeoService;
@@ -71,20 +89,27 @@
 import org.tailormap.api.viewer.model.ColumnMetadata;
 import org.tailormap.api.viewer.model.Feature;
 import org.tailormap.api.viewer.model.FeaturesResponse;
+import org.tailormap.api.viewer.model.LayerFeaturesResponse;
+import tools.jackson.databind.json.JsonMapper;
 
 @AppRestController
 @Validated
-@RequestMapping(
-    path = "${tailormap-api.base-path}/{viewerKind}/{viewerName}/layer/{appLayerId}/features",
-    produces = MediaType.APPLICATION_JSON_VALUE)
 public class FeaturesController implements Constants {
   private static final Logger logger =
       LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
 
+  private static final String FEATURES_OPERATION = "features";
+  private static final String FEATURE_INFO_OPERATION = "feature-info";
+
   private final FeatureSourceFactoryHelper featureSourceFactoryHelper;
   private final TMFeatureTypeHelper featureTypeHelper;
   private final FeatureSourceRepository featureSourceRepository;
+  private final AttachmentsRepository attachmentsRepository;
+  private final AppLayerResolver appLayerResolver;
+  private final JsonMapper jsonMapper;
+  private final FeatureSourceObservations featureSourceObservations;
   private final FilterFactory ff = CommonFactoryFinder.getFilterFactory(GeoTools.getDefaultHints());
+  private final ExecutorService featureInfoExecutor;
 
   @Value("${tailormap-api.default-page-size:100}")
   private int defaultPageSize;
@@ -92,23 +117,51 @@ public class FeaturesController implements Constants {
   @Value("${tailormap-api.max-page-size:500}")
   private int maxPageSize;
 
+  @Value("${tailormap-api.timeout}")
+  private int timeout;
+
   @Value("${tailormap-api.feature.info.maxitems:30}")
   private int maxFeatures;
 
   @Value("${tailormap-api.features.wfs_count_exact:false}")
   private boolean exactWfsCounts;
 
+  @Value("${tailormap-api.feature.info.max-layers:50}")
+  private int maxFeatureInfoLayers;
+
+  @Value("${tailormap-api.feature.info.layer-timeout:10000}")
+  private int featureInfoLayerTimeout;
+
+  @Value("${tailormap-api.feature.info.pixel-tolerance:4}")
+  private double pixelTolerance;
+
+  @Value("${tailormap-api.feature.info.selection-filter:auto}")
+  private SelectionFilterStrategy selectionFilterStrategy;
+
   public FeaturesController(
       FeatureSourceFactoryHelper featureSourceFactoryHelper,
       TMFeatureTypeHelper featureTypeHelper,
-      FeatureSourceRepository featureSourceRepository) {
+      FeatureSourceRepository featureSourceRepository,
+      AttachmentsRepository attachmentsRepository,
+      AppLayerResolver appLayerResolver,
+      JsonMapper jsonMapper,
+      FeatureSourceObservations featureSourceObservations,
+      @Qualifier("featureInfoExecutor") ExecutorService featureInfoExecutor) {
     this.featureSourceFactoryHelper = featureSourceFactoryHelper;
     this.featureTypeHelper = featureTypeHelper;
     this.featureSourceRepository = featureSourceRepository;
+    this.attachmentsRepository = attachmentsRepository;
+    this.appLayerResolver = appLayerResolver;
+    this.jsonMapper = jsonMapper;
+    this.featureSourceObservations = featureSourceObservations;
+    this.featureInfoExecutor = featureInfoExecutor;
   }
 
   @Transactional
-  @RequestMapping(method = {GET, POST})
+  @RequestMapping(
+      method = {GET, POST},
+      path = "${tailormap-api.base-path}/{viewerKind}/{viewerName}/layer/{appLayerId}/features",
+      produces = MediaType.APPLICATION_JSON_VALUE)
   @Timed(value = "get_features", description = "time spent to process get features call")
   public ResponseEntity<Serializable> getFeatures(
       @ModelAttribute AppTreeLayerNode appTreeLayerNode,
@@ -118,6 +171,8 @@ public ResponseEntity<Serializable> getFeatures(
       @RequestParam(required = false) Double x,
       @RequestParam(required = false) Double y,
       @RequestParam(defaultValue = "4") Double distance,
+      @RequestParam(required = false) Double resolution,
+      @RequestParam(required = false) Double tolerance,
       @RequestParam(required = false) String __fid,
       @RequestParam(defaultValue = "false") Boolean simplify,
       @RequestParam(required = false) String filter,
@@ -127,13 +182,19 @@ public ResponseEntity<Serializable> getFeatures(
       @RequestParam(required = false, defaultValue = "asc") String sortOrder,
       @RequestParam(defaultValue = "false") boolean onlyGeometries,
       @RequestParam(defaultValue = "false") boolean geometryInAttributes,
-      @RequestParam(defaultValue = "false") boolean withAttachments) {
+      @RequestParam(defaultValue = "false") boolean withAttachments,
+      @RequestParam(required = false) String geometryEncoding,
+      @RequestParam(required = false) Integer precision) {
 
     if (layer == null) {
       throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Can't find layer " + appTreeLayerNode);
     }
 
-    TMFeatureType tmft = service.findFeatureTypeForLayer(layer, featureSourceRepository);
+    TMFeatureType tmft = featureSourceObservations.observe(
+        FEATURES_OPERATION,
+        "feature-type",
+        null,
+        () -> service.findFeatureTypeForLayer(layer, featureSourceRepository));
     if (tmft == null) {
       throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Layer does not have feature type");
     }
@@ -142,12 +203,13 @@ public ResponseEntity<Serializable> getFeatures(
     if (onlyGeometries) {
       geometryInAttributes = true;
     }
+    GeometryOutput geometryOutput = getGeometryOutput(simplify, geometryEncoding, precision);
 
     FeaturesResponse featuresResponse;
 
     if (null != __fid) {
-      featuresResponse =
-          getFeatureByFID(tmft, appLayerSettings, __fid, application, !geometryInAttributes, withAttachments);
+      featuresResponse = getFeatureByFID(
+          tmft, appLayerSettings, __fid, application, geometryOutput, !geometryInAttributes, withAttachments);
     } else if (null != x && null != y) {
       featuresResponse = getFeaturesByXY(
           tmft,
@@ -156,8 +218,8 @@ public ResponseEntity<Serializable> getFeatures(
           x,
           y,
           application,
-          distance,
-          simplify,
+          getSelectionDistance(distance, resolution, tolerance != null ? tolerance : pixelTolerance),
+          geometryOutput,
           !geometryInAttributes,
           withAttachments);
     } else if (null != page && page > 0) {
@@ -170,17 +232,267 @@ public ResponseEntity<Serializable> getFeatures(
           filter,
           sortBy,
           sortOrder,
-          simplify,
+          geometryOutput,
           onlyGeometries,
           !geometryInAttributes,
           withAttachments);
     } else {
       throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unsupported combination of request parameters");
     }
+    featuresResponse.setGeometryEncoding(geometryOutput.encoding().getValue());
 
     return ResponseEntity.status(HttpStatus.OK).body(featuresResponse);
   }
 
+  /**
+   * Get the features of multiple application layers at a location. The layers are resolved once, grouped by feature
+   * source so a single DataStore is used per feature source, and queried concurrently on virtual threads. The result
+   * of each layer is streamed as a line of newline delimited JSON as soon as it is available.
+   */
+  @Transactional
+  @RequestMapping(
+      method = {GET, POST},
+      path = "${tailormap-api.base-path}/{viewerKind}/{viewerName}/features")
+  @Timed(value = "get_feature_info", description = "time spent to dispatch multi-layer feature info call")
+  public ResponseEntity<ResponseBodyEmitter> getFeatureInfo(
+      @ModelAttribute Application application,
+      @RequestParam List<String> layers,
+      @RequestParam Double x,
+      @RequestParam Double y,
+      @RequestParam(defaultValue = "4") Double distance,
+      @RequestParam(required = false) Double resolution,
+      @RequestParam(required = false) Double tolerance,
+      @RequestParam(defaultValue = "false") Boolean simplify,
+      @RequestParam(defaultValue = "false") boolean geometryInAttributes,
+      @RequestParam(defaultValue = "false") boolean withAttachments,
+      @RequestParam(required = false) String geometryEncoding,
+      @RequestParam(required = false) Integer precision) {
+
+    GeometryOutput geometryOutput = getGeometryOutput(simplify, geometryEncoding, precision);
+    double selectionDistance =
+        getSelectionDistance(distance, resolution, tolerance != null ? tolerance : pixelTolerance);
+    if (0d >= selectionDistance) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Buffer distance must be greater than 0");
+    }
+    List<String> appLayerIds =
+        layers.stream().filter(id -> !id.isBlank()).distinct().toList();
+    if (appLayerIds.isEmpty()) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "No layers requested");
+    }
+    if (appLayerIds.size() > maxFeatureInfoLayers) {
+      throw new ResponseStatusException(
+          HttpStatus.BAD_REQUEST, "Too many layers requested, maximum is " + maxFeatureInfoLayers);
+    }
+
+    ResponseBodyEmitter emitter = new ResponseBodyEmitter((long) featureInfoLayerTimeout + timeout);
+    AtomicInteger remaining = new AtomicInteger(appLayerIds.size());
+
+    // Resolve all layers in the request thread, the queries do not need lazy associations of the entities
+    List<LayerFeaturesResponse> unresolved = new ArrayList<>();
+    Map<Long, List<FeatureInfoLayer>> layersByFeatureSource = new LinkedHashMap<>();
+    for (String appLayerId : appLayerIds) {
+      try {
+        FeatureInfoLayer featureInfoLayer = resolveFeatureInfoLayer(application, appLayerId);
+        layersByFeatureSource
+            .computeIfAbsent(
+                featureInfoLayer.featureType().getFeatureSource().getId(), id -> new ArrayList<>())
+            .add(featureInfoLayer);
+      } catch (ResponseStatusException e) {
+        unresolved.add(new LayerFeaturesResponse()
+            .appLayerId(appLayerId)
+            .status(e.getStatusCode().value())
+            .message(e.getReason()));
+      }
+    }
+
+    Geometry selectionGeometry = createSelectionCircle(x, y, selectionDistance);
+    unresolved.forEach(r -> sendFeatureInfoResult(emitter, r, null, remaining));
+    layersByFeatureSource
+        .values()
+        .forEach(featureInfoLayers -> featureInfoExecutor.execute(() -> queryFeatureInfoLayers(
+            featureInfoLayers,
+            selectionGeometry,
+            application,
+            geometryOutput,
+            !geometryInAttributes,
+            withAttachments,
+            emitter,
+            remaining)));
+
+    return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(emitter);
+  }
+
+  /**
+   * How the geometries of features are output.
+   *
+   * @param simplify whether to simplify the default geometry
+   * @param encoding the encoding of geometries
+   * @param precision the number of decimal places to quantize the coordinates to, can be {@code null}
+   */
+  private record GeometryOutput(boolean simplify, GeometryEncoding encoding, Integer precision) {}
+
+  private static GeometryOutput getGeometryOutput(Boolean simplify, String geometryEncoding, Integer precision) {
+    try {
+      GeometryEncoder.validatePrecision(precision);
+      return new GeometryOutput(
+          Boolean.TRUE.equals(simplify), GeometryEncoding.fromValue(geometryEncoding), precision);
+    } catch (IllegalArgumentException e) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+    }
+  }
+
+  private record FeatureInfoLayer(
+      String appLayerId, TMFeatureType featureType, AppLayerSettings appLayerSettings) {}
+
+  private FeatureInfoLayer resolveFeatureInfoLayer(Application application, String appLayerId) {
+    AppTreeLayerNode appTreeLayerNode = appLayerResolver.findAppTreeLayerNode(application, appLayerId);
+    GeoService service = appLayerResolver.findGeoService(appTreeLayerNode);
+    if (service == null) {
+      throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Can't find layer " + appLayerId);
+    }
+    GeoServiceLayer layer = appLayerResolver.findGeoServiceLayer(appTreeLayerNode, service);
+    if (layer == null) {
+      throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Can't find layer " + appLayerId);
+    }
+    TMFeatureType tmft = service.findFeatureTypeForLayer(layer, featureSourceRepository);
+    if (tmft == null) {
+      throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Layer does not have feature type");
+    }
+    return new FeatureInfoLayer(appLayerId, tmft, application.getAppLayerSettings(appTreeLayerNode));
+  }
+
+  /**
+   * Query layers of the same feature source concurrently using a single DataStore, which is disposed after all queries
+   * have finished. A layer that does not finish within the layer timeout is reported with a gateway timeout status and
+   * its query is cancelled. The DataStore is created with the layer timeout as timeout, and the query thread is
+   * interrupted on cancellation, which closes the connection a (virtual) thread is blocked reading from.
+   */
+  private void queryFeatureInfoLayers(
+      List<FeatureInfoLayer> featureInfoLayers,
+      Geometry selectionGeometry,
+      Application application,
+      GeometryOutput geometryOutput,
+      boolean skipGeometryOutput,
+      boolean withAttachments,
+      ResponseBodyEmitter emitter,
+      AtomicInteger remaining) {
+    final DataStore ds;
+    try {
+      TMFeatureType featureType = featureInfoLayers.getFirst().featureType();
+      ds = featureSourceObservations.observe(
+          FEATURE_INFO_OPERATION,
+          "datastore",
+          featureType,
+          () -> featureSourceFactoryHelper.createDataStore(
+              featureType.getFeatureSource(), featureInfoLayerTimeout));
+    } catch (IOException e) {
+      logger.error("Could not create datastore for feature info", e);
+      featureInfoLayers.forEach(l -> sendFeatureInfoResult(
+          emitter,
+          new LayerFeaturesResponse()
+              .appLayerId(l.appLayerId())
+              .status(HttpStatus.INTERNAL_SERVER_ERROR.value())
+              .message(e.getMessage()),
+          l.featureType(),
+          remaining));
+      return;
+    }
+
+    AtomicInteger running = new AtomicInteger(featureInfoLayers.size());
+    for (FeatureInfoLayer l : featureInfoLayers) {
+      CompletableFuture<LayerFeaturesResponse> result = new CompletableFuture<>();
+      // submit instead of CompletableFuture.supplyAsync(), which can not interrupt the task when it times out
+      Future<?> task = featureInfoExecutor.submit(() -> {
+        try {
+          result.complete(getFeatureInfoForLayer(
+              ds, l, selectionGeometry, application, geometryOutput, skipGeometryOutput, withAttachments));
+        } catch (RuntimeException e) {
+          result.completeExceptionally(e);
+        } finally {
+          if (running.decrementAndGet() == 0) {
+            ds.dispose();
+          }
+        }
+      });
+      result.orTimeout(featureInfoLayerTimeout, TimeUnit.MILLISECONDS)
+          .exceptionally(e -> {
+            Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+            if (cause instanceof TimeoutException) {
+              logger.warn("Feature info for layer {} timed out, cancelling query", l.appLayerId());
+              task.cancel(true);
+              return new LayerFeaturesResponse()
+                  .appLayerId(l.appLayerId())
+                  .status(HttpStatus.GATEWAY_TIMEOUT.value())
+                  .message("Layer did not respond within " + featureInfoLayerTimeout + " ms");
+            }
+            logger.error("Could not retrieve feature info for layer {}", l.appLayerId(), cause);
+            LayerFeaturesResponse error = new LayerFeaturesResponse()
+                .appLayerId(l.appLayerId())
+                .status(HttpStatus.INTERNAL_SERVER_ERROR.value())
+                .message(cause.getMessage());
+            if (cause instanceof ResponseStatusException rse) {
+              error.status(rse.getStatusCode().value()).message(rse.getReason());
+            }
+            return error;
+          })
+          .thenAccept(r -> sendFeatureInfoResult(emitter, r, l.featureType(), remaining));
+    }
+  }
+
+  private LayerFeaturesResponse getFeatureInfoForLayer(
+      DataStore ds,
+      FeatureInfoLayer l,
+      Geometry selectionGeometry,
+      Application application,
+      GeometryOutput geometryOutput,
+      boolean skipGeometryOutput,
+      boolean withAttachments) {
+    FeaturesResponse featuresResponse = new FeaturesResponse();
+    try {
+      SimpleFeatureSource fs = ds.getFeatureSource(l.featureType().getName());
+      queryFeaturesIntersecting(
+          FEATURE_INFO_OPERATION,
+          fs,
+          selectionGeometry,
+          l.featureType(),
+          l.appLayerSettings(),
+          null,
+          application,
+          geometryOutput,
+          skipGeometryOutput,
+          withAttachments,
+          featuresResponse);
+    } catch (IOException e) {
+      throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, e.getMessage(), e);
+    } catch (CQLException | FactoryException | UnsupportedOperationException e) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+    }
+    return new LayerFeaturesResponse()
+        .appLayerId(l.appLayerId())
+        .status(HttpStatus.OK.value())
+        .featuresResponse(featuresResponse.geometryEncoding(geometryOutput.encoding().getValue()));
+  }
+
+  private void sendFeatureInfoResult(
+      ResponseBodyEmitter emitter,
+      LayerFeaturesResponse result,
+      @Nullable TMFeatureType featureType,
+      AtomicInteger remaining) {
+    String json = featureSourceObservations.observe(
+        FEATURE_INFO_OPERATION, "serialize", featureType, () -> jsonMapper.writeValueAsString(result));
+    synchronized (emitter) {
+      try {
+        emitter.send(json + "\n", MediaType.APPLICATION_NDJSON);
+      } catch (IOException | IllegalStateException e) {
+        // client went away or the emitter timed out, there is nothing left to report to
+        logger.debug("Could not send feature info for layer {}", result.getAppLayerId(), e);
+      }
+      if (remaining.decrementAndGet() == 0) {
+        emitter.complete();
+      }
+    }
+  }
+
   @NotNull private FeaturesResponse getAllFeatures(
       @NotNull TMFeatureType tmft,
       @NotNull Application application,
@@ -190,7 +502,7 @@ public ResponseEntity<Serializable> getFeatures(
       String filterCQL,
       String sortBy,
       String sortOrder,
-      boolean simplifyGeometry,
+      GeometryOutput geometryOutput,
       boolean onlyGeometries,
       boolean skipGeometryOutput,
       boolean withAttachments) {
@@ -201,7 +513,8 @@ public ResponseEntity<Serializable> getFeatures(
 
     SimpleFeatureSource fs = null;
     try {
-      fs = featureSourceFactoryHelper.openGeoToolsFeatureSource(tmft);
+      fs = featureSourceObservations.observe(
+          FEATURES_OPERATION, "datastore", tmft, () -> featureSourceFactoryHelper.openGeoToolsFeatureSource(tmft));
 
       // Property names for sorting: only non-geometry attributes that aren't hidden
       List<String> propNames = getConfiguredAttributes(tmft, appLayerSettings).values().stream()
@@ -254,23 +567,22 @@ public ResponseEntity<Serializable> getFeatures(
       }
       q.setPropertyNames(propNames);
 
-      // count can be -1 if too costly eg. some WFS
-      int featureCount;
       if (null != filterCQL) {
         Filter filter = FilterUtil.parseFilter(filterCQL, application, fs);
         q.setFilter(filter);
-        featureCount = fs.getCount(q);
-        // this will execute the query twice, once to get the count and once to get the data
-        if (featureCount == -1 && exactWfsCounts) {
-          featureCount = fs.getFeatures(q).size();
-        }
-      } else {
-        featureCount = fs.getCount(Query.ALL);
-        // this will execute the query twice, once to get the count and once to get the data
-        if (featureCount == -1 && exactWfsCounts) {
-          featureCount = fs.getFeatures(Query.ALL).size();
-        }
       }
+      // count can be -1 if too costly eg. some WFS
+      final SimpleFeatureSource countSource = fs;
+      final Query countQuery = null != filterCQL ? q : Query.ALL;
+      int featureCount = featureSourceObservations.observeQuery(
+          FEATURES_OPERATION, "count", tmft, countSource, countQuery, total -> total, () -> {
+            int count = countSource.getCount(countQuery);
+            // this will execute the query twice, once to get the count and once to get the data
+            if (count == -1 && exactWfsCounts) {
+              count = countSource.getFeatures(countQuery).size();
+            }
+            return count;
+          });
       featuresResponse.setTotal(featureCount);
 
       // setup page query
@@ -281,8 +593,9 @@ public ResponseEntity<Serializable> getFeatures(
       q.setStartIndex((page - 1) * requestPageSize);
       logger.debug("Attribute query: {}", q);
 
-      executeQueryOnFeatureSourceAndClose(
-          simplifyGeometry,
+      executeQueryOnFeatureSource(
+          FEATURES_OPERATION,
+          geometryOutput,
           featuresResponse,
           tmft,
           appLayerSettings,
@@ -311,20 +624,26 @@ public ResponseEntity<Serializable> getFeatures(
       @NotNull AppLayerSettings appLayerSettings,
       @NotNull String fid,
       @NotNull Application application,
+      @NotNull GeometryOutput geometryOutput,
       boolean skipGeometryOutput,
       boolean withAttachments) {
     FeaturesResponse featuresResponse = new FeaturesResponse();
 
     SimpleFeatureSource fs = null;
     try {
-      fs = featureSourceFactoryHelper.openGeoToolsFeatureSource(tmFeatureType);
+      fs = featureSourceObservations.observe(
+          FEATURES_OPERATION,
+          "datastore",
+          tmFeatureType,
+          () -> featureSourceFactoryHelper.openGeoToolsFeatureSource(tmFeatureType));
       Query q = new Query(fs.getName().toString());
       q.setFilter(ff.id(ff.featureId(fid)));
       q.setMaxFeatures(1);
       logger.debug("FID query: {}", q);
 
-      executeQueryOnFeatureSourceAndClose(
-          false,
+      executeQueryOnFeatureSource(
+          FEATURES_OPERATION,
+          new GeometryOutput(false, geometryOutput.encoding(), geometryOutput.precision()),
           featuresResponse,
           tmFeatureType,
           appLayerSettings,
@@ -353,7 +672,7 @@ public ResponseEntity<Serializable> getFeatures(
       @NotNull Double y,
       @NotNull Application application,
       @NotNull Double distance,
-      @NotNull Boolean simplifyGeometry,
+      @NotNull GeometryOutput geometryOutput,
       boolean skipGeometryOutput,
       boolean withAttachments) {
 
@@ -363,66 +682,107 @@ public ResponseEntity<Serializable> getFeatures(
 
     FeaturesResponse featuresResponse = new FeaturesResponse();
 
-    SimpleFeatureSource fs;
+    SimpleFeatureSource fs = null;
     try {
-      GeometricShapeFactory shapeFact = new GeometricShapeFactory();
-      shapeFact.setNumPoints(32);
-      shapeFact.setCentre(new Coordinate(x, y));
-      //noinspection ConstantConditions
-      shapeFact.setSize(distance * 2d);
-      Geometry p = shapeFact.createCircle();
-      logger.trace("created selection geometry: {}", p);
-
-      MathTransform transform = null;
-      fs = featureSourceFactoryHelper.openGeoToolsFeatureSource(tmFeatureType);
-      try {
-        transform = TransformationUtil.getTransformationToDataSource(application, fs);
-      } catch (FactoryException e) {
-        logger.warn("Unable to find transformation from query geometry to desired datasource", e);
-      }
-      if (null != transform) {
-        try {
-          p = JTS.transform(p, transform);
-          logger.trace("reprojected selection geometry to: {}", p);
-        } catch (TransformException e) {
-          logger.warn("Unable to transform query geometry to desired CRS, trying with original CRS");
-        }
-      }
-      logger.trace("using selection geometry: {}", p);
-      Filter spatialFilter =
-          ff.intersects(ff.property(tmFeatureType.getDefaultGeometryAttribute()), ff.literal(p));
-
-      Filter finalFilter = spatialFilter;
-      if (null != filterCQL) {
-        Filter filter = FilterUtil.parseFilter(filterCQL, application, fs);
-        finalFilter = ff.and(spatialFilter, filter);
-      }
-      Query q = new Query(fs.getName().toString());
-      q.setFilter(finalFilter);
-      q.setMaxFeatures(maxFeatures);
-
-      executeQueryOnFeatureSourceAndClose(
-          simplifyGeometry,
-          featuresResponse,
+      Geometry selectionGeometry = createSelectionCircle(x, y, distance);
+      fs = featureSourceObservations.observe(
+          FEATURES_OPERATION,
+          "datastore",
           tmFeatureType,
-          appLayerSettings,
-          false,
+          () -> featureSourceFactoryHelper.openGeoToolsFeatureSource(tmFeatureType));
+      queryFeaturesIntersecting(
+          FEATURES_OPERATION,
           fs,
-          q,
+          selectionGeometry,
+          tmFeatureType,
+          appLayerSettings,
+          filterCQL,
           application,
+          geometryOutput,
           skipGeometryOutput,
-          withAttachments);
+          withAttachments,
+          featuresResponse);
     } catch (IOException e) {
       logger.error("Could not retrieve attribute data", e);
     } catch (CQLException | FactoryException | UnsupportedOperationException e) {
       throw new ResponseStatusException(
           HttpStatus.BAD_REQUEST, "Could not parse requested filter: " + e.getMessage(), e);
+    } finally {
+      if (fs != null) {
+        fs.getDataStore().dispose();
+      }
     }
     return featuresResponse;
   }
 
-  private void executeQueryOnFeatureSourceAndClose(
-      boolean simplifyGeometry,
+  /**
+   * Query the features intersecting the selection geometry, transforming the selection geometry to the CRS of the
+   * feature source if needed. Depending on the {@link SelectionFilterStrategy} and the capabilities of the feature
+   * source the selection is expressed as a distance filter instead of an intersects filter. The DataStore of the
+   * feature source is not disposed.
+   */
+  private void queryFeaturesIntersecting(
+      String operation,
+      @NotNull SimpleFeatureSource fs,
+      @NotNull Geometry selectionGeometry,
+      @NotNull TMFeatureType tmFeatureType,
+      @NotNull AppLayerSettings appLayerSettings,
+      String filterCQL,
+      @NotNull Application application,
+      GeometryOutput geometryOutput,
+      boolean skipGeometryOutput,
+      boolean withAttachments,
+      @NotNull FeaturesResponse featuresResponse)
+      throws IOException, CQLException, FactoryException {
+    Geometry p = selectionGeometry;
+    MathTransform transform = null;
+    try {
+      transform = TransformationUtil.getTransformationToDataSource(application, fs);
+    } catch (FactoryException e) {
+      logger.warn("Unable to find transformation from query geometry to desired datasource", e);
+    }
+    if (null != transform) {
+      try {
+        p = JTS.transform(p, transform);
+        logger.trace("reprojected selection geometry to: {}", p);
+      } catch (TransformException e) {
+        logger.warn("Unable to transform query geometry to desired CRS, trying with original CRS");
+      }
+    }
+    logger.trace("using selection geometry: {}", p);
+    Filter spatialFilter = createSelectionFilter(
+        fs.getDataStore(),
+        tmFeatureType.getDefaultGeometryAttribute(),
+        p,
+        fs.getSchema().getCoordinateReferenceSystem(),
+        selectionFilterStrategy);
+
+    Filter finalFilter = spatialFilter;
+    if (null != filterCQL) {
+      Filter filter = FilterUtil.parseFilter(filterCQL, application, fs);
+      finalFilter = ff.and(spatialFilter, filter);
+    }
+    Query q = new Query(fs.getName().toString());
+    q.setFilter(finalFilter);
+    q.setMaxFeatures(maxFeatures);
+
+    executeQueryOnFeatureSource(
+        operation,
+        geometryOutput,
+        featuresResponse,
+        tmFeatureType,
+        appLayerSettings,
+        false,
+        fs,
+        q,
+        application,
+        skipGeometryOutput,
+        withAttachments);
+  }
+
+  private void executeQueryOnFeatureSource(
+      String operation,
+      GeometryOutput geometryOutput,
       @NotNull FeaturesResponse featuresResponse,
       @NotNull TMFeatureType tmFeatureType,
       @NotNull AppLayerSettings appLayerSettings,
@@ -433,14 +793,13 @@ private void executeQueryOnFeatureSourceAndClose(
       boolean skipGeometryOutput,
       boolean withAttachments)
       throws IOException {
-    boolean addFields = false;
-
-    MathTransform transform = null;
+    MathTransform transformToApplication = null;
     try {
-      transform = TransformationUtil.getTransformationToApplication(application, featureSource);
+      transformToApplication = TransformationUtil.getTransformationToApplication(application, featureSource);
     } catch (FactoryException e) {
       logger.error("Can not transform geometry to desired CRS", e);
     }
+    final MathTransform transform = transformToApplication;
 
     boolean ftSupportsAttachments = tmFeatureType.getSettings().getAttachmentAttributes() != null
         && !tmFeatureType.getSettings().getAttachmentAttributes().isEmpty();
@@ -449,44 +808,57 @@ private void executeQueryOnFeatureSourceAndClose(
     Map<String, TMFeatureTypeHelper.AttributeWithSettings> configuredAttributes =
         getConfiguredAttributes(tmFeatureType, appLayerSettings);
 
-    // send request to attribute source
-    try (SimpleFeatureIterator feats =
-        featureSource.getFeatures(selectQuery).features()) {
-      while (feats.hasNext()) {
-        addFields = true;
-        // transform found simplefeatures to list of Feature
-        SimpleFeature feature = feats.next();
-
-        // processedGeometry can be null
-        String processedGeometry = GeometryProcessor.processGeometry(
-            feature.getAttribute(tmFeatureType.getDefaultGeometryAttribute()),
-            simplifyGeometry,
-            true,
-            transform);
-        Feature newFeat = new Feature().fid(feature.getID()).geometry(processedGeometry);
-
-        if (!onlyGeometries) {
-          for (String attName : configuredAttributes.keySet()) {
-            Object value = feature.getAttribute(attName);
-            if (value instanceof Geometry geometry) {
-              if (skipGeometryOutput) {
-                value = null;
-              } else {
-                value = GeometryProcessor.geometryToWKT(geometry);
+    // send request to attribute source and transform found simplefeatures to list of Feature while streaming them, the
+    // time spent encoding geometries is recorded as a separate stage
+    AtomicLong geometryNanos = new AtomicLong();
+    int featureCount = featureSourceObservations.observeQuery(
+        operation, "query", tmFeatureType, featureSource, selectQuery, count -> count, () -> {
+          int count = 0;
+          try (SimpleFeatureIterator feats =
+              featureSource.getFeatures(selectQuery).features()) {
+            while (feats.hasNext()) {
+              SimpleFeature feature = feats.next();
+              count++;
+              long start = System.nanoTime();
+              // processedGeometry can be null
+              Object processedGeometry = GeometryProcessor.processGeometry(
+                  feature.getAttribute(tmFeatureType.getDefaultGeometryAttribute()),
+                  geometryOutput.simplify(),
+                  true,
+                  transform,
+                  geometryOutput.encoding(),
+                  geometryOutput.precision());
+              geometryNanos.addAndGet(System.nanoTime() - start);
+              Feature newFeat = new Feature().fid(feature.getID()).geometry(processedGeometry);
+
+              if (!onlyGeometries) {
+                for (String attName : configuredAttributes.keySet()) {
+                  Object value = feature.getAttribute(attName);
+                  if (value instanceof Geometry geometry) {
+                    if (skipGeometryOutput) {
+                      value = null;
+                    } else {
+                      start = System.nanoTime();
+                      value = GeometryProcessor.encodeGeometry(
+                          geometry, geometryOutput.encoding(), geometryOutput.precision());
+                      geometryNanos.addAndGet(System.nanoTime() - start);
+                    }
+                  }
+                  newFeat.putAttributesItem(attName, value);
+                }
+                if (withAttachments && ftSupportsAttachments) {
+                  // Just add the PK as is, no conversion needed
+                  featurePKs.add(feature.getAttribute(tmFeatureType.getPrimaryKeyAttribute()));
+                }
               }
+              featuresResponse.addFeaturesItem(newFeat);
             }
-            newFeat.putAttributesItem(attName, value);
-          }
-          if (withAttachments && ftSupportsAttachments) {
-            // Just add the PK as is, no conversion needed
-            featurePKs.add(feature.getAttribute(tmFeatureType.getPrimaryKeyAttribute()));
           }
-        }
-        featuresResponse.addFeaturesItem(newFeat);
-      }
-    } finally {
-      featureSource.getDataStore().dispose();
-    }
+          return count;
+        });
+    featureSourceObservations.record(operation, "geometry", tmFeatureType, geometryNanos.get());
+    boolean addFields = featureCount > 0;
+
     FeatureTypeTemplate ftt = tmFeatureType.getSettings().getTemplate();
     if (ftt != null) {
       featuresResponse.setTemplate(ftt.getTemplate());
@@ -512,8 +884,11 @@ private void executeQueryOnFeatureSourceAndClose(
 
       if (withAttachments) {
         //  fetch all attachments for all features, grouped by feature fid
-        Map<String, List<AttachmentMetadata>> attachmentsByFeatureId =
-            AttachmentsHelper.listAttachmentsForFeaturesByFeatureId(tmFeatureType, featurePKs);
+        Map<String, List<AttachmentMetadata>> attachmentsByFeatureId = featureSourceObservations.observe(
+            operation,
+            "attachments",
+            tmFeatureType,
+            () -> attachmentsRepository.listAttachmentsForFeaturesByFeatureId(tmFeatureType, featurePKs));
         //  add attachment data to features using the feature FID to match
         for (Feature feature : featuresResponse.getFeatures()) {
           String primaryKey = feature.getFid();
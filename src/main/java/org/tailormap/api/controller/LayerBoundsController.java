@@ -16,6 +16,7 @@
 import org.geotools.api.data.SimpleFeatureSource;
 import org.geotools.api.filter.Filter;
 import org.geotools.api.referencing.FactoryException;
+import org.geotools.api.referencing.operation.MathTransform;
 import org.geotools.data.oracle.OracleDialect;
 import org.geotools.data.postgis.PostGISDialect;
 import org.geotools.data.sqlserver.SQLServerDialect;
@@ -38,6 +39,7 @@
 import org.tailormap.api.geotools.FilterUtil;
 import org.tailormap.api.geotools.TransformationUtil;
 import org.tailormap.api.geotools.featuresources.FeatureSourceFactoryHelper;
+import org.tailormap.api.geotools.featuresources.FeatureSourceObservations;
 import org.tailormap.api.geotools.processing.GeometryProcessor;
 import org.tailormap.api.persistence.Application;
 import org.tailormap.api.persistence.GeoService;
@@ -56,14 +58,21 @@ public class LayerBoundsController {
   private static final Logger logger =
       LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
 
+  private static final String BOUNDS_OPERATION = "bounds";
+
   private final FeatureSourceFactoryHelper featureSourceFactoryHelper;
 
   private final FeatureSourceRepository featureSourceRepository;
 
+  private final FeatureSourceObservations featureSourceObservations;
+
   public LayerBoundsController(
-      FeatureSourceFactoryHelper featureSourceFactoryHelper, FeatureSourceRepository featureSourceRepository) {
+      FeatureSourceFactoryHelper featureSourceFactoryHelper,
+      FeatureSourceRepository featureSourceRepository,
+      FeatureSourceObservations featureSourceObservations) {
     this.featureSourceFactoryHelper = featureSourceFactoryHelper;
     this.featureSourceRepository = featureSourceRepository;
+    this.featureSourceObservations = featureSourceObservations;
   }
 
   @Transactional
@@ -80,14 +89,19 @@ public ResponseEntity<Serializable> calculateLayerBounds(
       throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Can't find layer " + appTreeLayerNode);
     }
 
-    TMFeatureType tmft = service.findFeatureTypeForLayer(layer, featureSourceRepository);
+    TMFeatureType tmft = featureSourceObservations.observe(
+        BOUNDS_OPERATION,
+        "feature-type",
+        null,
+        () -> service.findFeatureTypeForLayer(layer, featureSourceRepository));
     if (tmft == null) {
       throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Layer does not have feature type");
     }
 
     SimpleFeatureSource featureSource = null;
     try {
-      featureSource = featureSourceFactoryHelper.openGeoToolsFeatureSource(tmft);
+      featureSource = featureSourceObservations.observe(
+          BOUNDS_OPERATION, "datastore", tmft, () -> featureSourceFactoryHelper.openGeoToolsFeatureSource(tmft));
       Query query = new Query(tmft.getName());
       query.setHandle("calculateLayerBounds");
 
@@ -120,10 +134,15 @@ public ResponseEntity<Serializable> calculateLayerBounds(
 
       // some datastores optimize getting bounds by using metadata or spatial index; this is inaccurate.
       // Also, featureSource.getBounds(query) can return null in case the GT API thinks it is too costly...
-      ReferencedEnvelope referencedEnvelope = featureSource.getBounds(query);
-      if (referencedEnvelope == null) {
-        referencedEnvelope = featureSource.getFeatures(query).getBounds();
-      }
+      final SimpleFeatureSource boundsSource = featureSource;
+      ReferencedEnvelope referencedEnvelope =
+          featureSourceObservations.observeQuery(BOUNDS_OPERATION, "query", tmft, boundsSource, query, b -> -1, () -> {
+            ReferencedEnvelope bounds = boundsSource.getBounds(query);
+            if (bounds == null) {
+              bounds = boundsSource.getFeatures(query).getBounds();
+            }
+            return bounds;
+          });
 
       if (referencedEnvelope == null || referencedEnvelope.isNull()) {
         throw new ResponseStatusException(
@@ -136,8 +155,12 @@ public ResponseEntity<Serializable> calculateLayerBounds(
       }
 
       // if the featuretype CRS is different from the application CRS we need to project to application
-      Envelope envelope = GeometryProcessor.transformEnvelope(
-          referencedEnvelope, TransformationUtil.getTransformationToApplication(application, featureSource));
+      final MathTransform transform = TransformationUtil.getTransformationToApplication(application, featureSource);
+      Envelope envelope = featureSourceObservations.observe(
+          BOUNDS_OPERATION,
+          "geometry",
+          tmft,
+          () -> GeometryProcessor.transformEnvelope(referencedEnvelope, transform));
 
       return ResponseEntity.ok(GeoToolsHelper.fromEnvelope(envelope));
     } catch (FactoryException | IOException e) {
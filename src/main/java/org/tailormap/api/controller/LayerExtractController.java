@@ -9,17 +9,20 @@
 
 import io.micrometer.core.annotation.Counted;
 import io.micrometer.core.annotation.Timed;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import java.io.IOException;
 import java.lang.invoke.MethodHandles;
-import java.net.MalformedURLException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.regex.Pattern;
 import org.apache.commons.lang3.StringUtils;
 import org.geotools.api.data.Query;
@@ -32,13 +35,13 @@
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.io.Resource;
-import org.springframework.core.io.UrlResource;
-import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
-import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -58,6 +61,10 @@
 import org.tailormap.api.persistence.json.GeoServiceLayer;
 import org.tailormap.api.repository.FeatureSourceRepository;
 import org.tailormap.api.service.CreateLayerExtractService;
+import org.tailormap.api.service.ExtractDownloadService;
+import org.tailormap.api.service.ExtractResultCache;
+import org.tailormap.api.service.ExtractScheduler;
+import org.tailormap.api.service.ViewerEventRelay;
 
 @AppRestController
 @RequestMapping(path = "${tailormap-api.base-path}/{viewerKind}/{viewerName}/layer/{appLayerId}/extract")
@@ -68,6 +75,9 @@ public class LayerExtractController {
   private final FeatureSourceRepository featureSourceRepository;
   private final CreateLayerExtractService createLayerExtractService;
   private final FeatureSourceFactoryHelper featureSourceFactoryHelper;
+  private final ExtractScheduler extractScheduler;
+  private final ViewerEventRelay viewerEventRelay;
+  private final ExtractDownloadService extractDownloadService;
 
   @Value("#{'${tailormap-api.extract.allowed-outputformats}'.split(',')}")
   private List<ExtractOutputFormat> allowedExtractOutputFormats;
@@ -75,25 +85,34 @@ public class LayerExtractController {
   public LayerExtractController(
       FeatureSourceRepository featureSourceRepository,
       CreateLayerExtractService createLayerExtractService,
-      FeatureSourceFactoryHelper featureSourceFactoryHelper) {
+      FeatureSourceFactoryHelper featureSourceFactoryHelper,
+      ExtractScheduler extractScheduler,
+      ViewerEventRelay viewerEventRelay,
+      ExtractDownloadService extractDownloadService) {
     this.featureSourceRepository = featureSourceRepository;
     this.createLayerExtractService = createLayerExtractService;
     this.featureSourceFactoryHelper = featureSourceFactoryHelper;
+    this.extractScheduler = extractScheduler;
+    this.viewerEventRelay = viewerEventRelay;
+    this.extractDownloadService = extractDownloadService;
   }
 
   /**
    * Download the result of an extract request. The extract generation should be initiated first by a POST to
-   * {@code /{viewerKind}/{viewerName}/layer/{appLayerId}/extract/{clientId}}.
+   * {@code /{viewerKind}/{viewerName}/layer/{appLayerId}/extract/{clientId}}. A single byte range may be requested to
+   * resume an interrupted download.
    */
   @GetMapping(path = "/download/{downloadId}")
   @Counted(value = "tailormap_api_extract_download", description = "Count of layer extract downloads")
-  public ResponseEntity<?> download(
+  public void download(
       @ModelAttribute GeoService service,
       @ModelAttribute GeoServiceLayer layer,
       @ModelAttribute Application application,
       @ModelAttribute AppTreeLayerNode appTreeLayerNode,
-      @PathVariable String downloadId)
-      throws MalformedURLException {
+      @PathVariable String downloadId,
+      HttpServletRequest request,
+      HttpServletResponse response)
+      throws IOException {
 
     if (downloadId == null || !SAFE_DOWNLOAD_ID.matcher(downloadId).matches()) {
       throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid downloadId");
@@ -105,26 +124,11 @@ public ResponseEntity<?> download(
     if (!filePath.startsWith(exportRoot)) {
       throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid downloadId");
     }
-
-    Resource resource = new UrlResource(filePath.toUri());
-    if (!resource.exists() || !resource.isReadable() || !resource.isFile()) {
+    if (!Files.isRegularFile(filePath) || !Files.isReadable(filePath)) {
       throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Download file not found");
     }
 
-    String contentType = MediaType.APPLICATION_OCTET_STREAM_VALUE;
-    try {
-      String detectedContentType = Files.probeContentType(filePath);
-      if (detectedContentType != null) {
-        contentType = detectedContentType;
-      }
-    } catch (IOException e) {
-      logger.debug("Could not determine content type for {}", filePath, e);
-    }
-
-    return ResponseEntity.ok()
-        .contentType(MediaType.parseMediaType(contentType))
-        .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filePath.getFileName() + "\"")
-        .body(resource);
+    extractDownloadService.send(filePath, ExtractOutputFormat.fromFilename(downloadId), request, response);
   }
 
   @GetMapping("/formats")
@@ -236,15 +240,78 @@ public ResponseEntity<?> extract(
         this.createLayerExtractService.createExtractFilename(clientId, sourceFT, outputFormat);
     this.createLayerExtractService.emitProgress(clientId, outputFileName, 0, false, "Extract task received");
 
-    //noinspection JvmTaintAnalysis Not a Path Traversal Sink because the clientId is validated
-    this.createLayerExtractService.createLayerExtract(
-        clientId, sourceFT, attributes, parsedCQL, sortBy, sortingOrder, outputFormat, outputFileName);
+    final ExtractResultCache.ExtractKey cacheKey = new ExtractResultCache.ExtractKey(
+        sourceFT.getId(),
+        Objects.toString(sourceFT.getSettings(), null),
+        Set.copyOf(attributes),
+        parsedCQL,
+        StringUtils.isBlank(sortBy) ? null : sortBy,
+        sortingOrder,
+        outputFormat);
+    if (this.createLayerExtractService.completeFromCache(clientId, cacheKey, outputFileName)) {
+      //noinspection JvmTaintAnalysis Not an XSS sink because the response is a json message
+      return ResponseEntity.accepted()
+          .body(Map.of("message", "Extract request accepted", "downloadId", outputFileName));
+    }
+
+    Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+    String user = authentication == null || authentication instanceof AnonymousAuthenticationToken
+        ? null
+        : authentication.getName();
+    final Set<String> extractAttributes = attributes;
+    final Filter extractFilter = parsedCQL;
+    final SortOrder extractSortOrder = sortingOrder;
+    try {
+      //noinspection JvmTaintAnalysis Not a Path Traversal Sink because the clientId is validated
+      extractScheduler.submit(
+          new ExtractScheduler.ExtractRequest(
+              outputFileName,
+              clientId,
+              user,
+              application.getName(),
+              sourceFT.getFeatureSource().getId()),
+          () -> createLayerExtractService.createLayerExtract(
+              clientId,
+              sourceFT,
+              extractAttributes,
+              extractFilter,
+              sortBy,
+              extractSortOrder,
+              outputFormat,
+              outputFileName,
+              cacheKey));
+    } catch (RejectedExecutionException e) {
+      throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS, e.getMessage());
+    }
 
     //noinspection JvmTaintAnalysis Not an XSS sink because the response is a json message
     return ResponseEntity.accepted()
         .body(Map.of("message", "Extract request accepted", "downloadId", outputFileName));
   }
 
+  /**
+   * Cancel a queued or running extract. The extract must have been requested with the same SSE client id.
+   */
+  @DeleteMapping("/{clientId}/{downloadId}")
+  public ResponseEntity<?> cancel(
+      @ModelAttribute GeoServiceLayer layer,
+      @ModelAttribute GeoService service,
+      @ModelAttribute Application application,
+      @ModelAttribute AppTreeLayerNode appTreeLayerNode,
+      @PathVariable String clientId,
+      @PathVariable String downloadId) {
+    if (!extractScheduler.cancel(clientId, downloadId)) {
+      if (!viewerEventRelay.isClusterEnabled()) {
+        throw new ResponseStatusException(HttpStatus.NOT_FOUND, "No queued or running extract found");
+      }
+      // the extract may be queued or running on another node, which will emit the extract-cancelled event
+      viewerEventRelay.requestCancel(clientId, downloadId);
+      return ResponseEntity.accepted()
+          .body(Map.of("message", "Extract cancellation requested", "downloadId", downloadId));
+    }
+    return ResponseEntity.accepted().body(Map.of("message", "Extract cancelled", "downloadId", downloadId));
+  }
+
   /**
    * Check that neither the number of columns nor the number of rows requested for the extract exceed the limits of
    * Excel format. This is required to block extract requests that would fail later on in the ExcelFeatureWriter when
@@ -293,18 +360,20 @@ private void validateExcelLimits(TMFeatureType featureType, Set<String> attribut
   }
 
   public enum ExtractOutputFormat {
-    GEOPACKAGE("geopackage", ".gpkg"),
-    CSV("csv", ".csv"),
-    GEOJSON("geojson", ".geojson"),
-    XLSX("xlsx", ".xlsx"),
-    SHAPE("shape", ".zip");
+    GEOPACKAGE("geopackage", ".gpkg", "application/geopackage+sqlite3"),
+    CSV("csv", ".csv", "text/csv"),
+    GEOJSON("geojson", ".geojson", "application/geo+json"),
+    XLSX("xlsx", ".xlsx", "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"),
+    SHAPE("shape", ".zip", "application/zip");
 
     private final String value;
     private final String extension;
+    private final String mediaType;
 
-    ExtractOutputFormat(String value, String extension) {
+    ExtractOutputFormat(String value, String extension, String mediaType) {
       this.value = value;
       this.extension = extension;
+      this.mediaType = mediaType;
     }
 
     public static ExtractOutputFormat fromValue(String value) {
@@ -316,6 +385,19 @@ public static ExtractOutputFormat fromValue(String value) {
       throw new IllegalArgumentException("Invalid output format: " + value);
     }
 
+    /**
+     * @param filename the filename of an extract
+     * @return the output format with the extension of the filename, or {@code null} if there is none
+     */
+    public static @Nullable ExtractOutputFormat fromFilename(String filename) {
+      for (ExtractOutputFormat format : ExtractOutputFormat.values()) {
+        if (filename.endsWith(format.extension)) {
+          return format;
+        }
+      }
+      return null;
+    }
+
     public String getValue() {
       return this.value;
     }
@@ -324,6 +406,10 @@ public String getExtension() {
       return this.extension;
     }
 
+    public String getMediaType() {
+      return this.mediaType;
+    }
+
     @Override
     public String toString() {
       return String.valueOf(this.value);
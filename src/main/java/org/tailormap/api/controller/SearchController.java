@@ -15,6 +15,7 @@
 import org.apache.solr.client.solrj.SolrClient;
 import org.apache.solr.client.solrj.SolrServerException;
 import org.apache.solr.common.SolrException;
+import org.locationtech.jts.geom.Geometry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -28,6 +29,10 @@
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.server.ResponseStatusException;
 import org.tailormap.api.annotation.AppRestController;
+import org.tailormap.api.geotools.featuresources.FeatureSourceObservations;
+import org.tailormap.api.geotools.processing.GeometryEncoder;
+import org.tailormap.api.geotools.processing.GeometryEncoding;
+import org.tailormap.api.geotools.processing.GeometryProcessor;
 import org.tailormap.api.persistence.Application;
 import org.tailormap.api.persistence.GeoService;
 import org.tailormap.api.persistence.SearchIndex;
@@ -36,6 +41,7 @@
 import org.tailormap.api.repository.SearchIndexRepository;
 import org.tailormap.api.solr.SolrHelper;
 import org.tailormap.api.solr.SolrService;
+import org.tailormap.api.viewer.model.SearchDocument;
 import org.tailormap.api.viewer.model.SearchResponse;
 
 @AppRestController
@@ -49,6 +55,7 @@ public class SearchController {
 
   private final SearchIndexRepository searchIndexRepository;
   private final SolrService solrService;
+  private final FeatureSourceObservations featureSourceObservations;
 
   @Value("${tailormap-api.solr-query-timeout-seconds:7}")
   private int solrQueryTimeout;
@@ -56,9 +63,13 @@ public class SearchController {
   @Value("${tailormap-api.default-page-size:100}")
   private int numResultsToReturn;
 
-  public SearchController(SearchIndexRepository searchIndexRepository, SolrService solrService) {
+  public SearchController(
+      SearchIndexRepository searchIndexRepository,
+      SolrService solrService,
+      FeatureSourceObservations featureSourceObservations) {
     this.searchIndexRepository = searchIndexRepository;
     this.solrService = solrService;
+    this.featureSourceObservations = featureSourceObservations;
   }
 
   @Transactional(readOnly = true)
@@ -73,7 +84,17 @@ public ResponseEntity<Serializable> search(
       @RequestParam(required = false, defaultValue = "0") Integer start,
       @RequestParam(required = false, name = "fq") final String solrFilterQuery,
       @RequestParam(required = false, name = "pt") final String solrPoint,
-      @RequestParam(required = false, name = "d") final Double solrDistance) {
+      @RequestParam(required = false, name = "d") final Double solrDistance,
+      @RequestParam(required = false) String geometryEncoding,
+      @RequestParam(required = false) Integer precision) {
+
+    final GeometryEncoding encoding;
+    try {
+      encoding = GeometryEncoding.fromValue(geometryEncoding);
+      GeometryEncoder.validatePrecision(precision);
+    } catch (IllegalArgumentException e) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+    }
 
     AppLayerSettings appLayerSettings = application.getAppLayerSettings(appTreeLayerNode);
 
@@ -90,9 +111,12 @@ public ResponseEntity<Serializable> search(
             "Layer '%s' does not have a search index".formatted(appTreeLayerNode.getLayerName())));
 
     try (SolrClient solrClient = solrService.getSolrClientForSearching();
-        SolrHelper solrHelper = new SolrHelper(solrClient).withQueryTimeout(solrQueryTimeout)) {
+        SolrHelper solrHelper = new SolrHelper(solrClient)
+            .withQueryTimeout(solrQueryTimeout)
+            .withObservations(featureSourceObservations)) {
       final SearchResponse searchResponse = solrHelper.findInIndex(
           searchIndex, solrQuery, solrFilterQuery, solrPoint, solrDistance, start, numResultsToReturn);
+      encodeGeometries(searchResponse, encoding, precision);
       return (null == searchResponse.getDocuments()
               || searchResponse.getDocuments().isEmpty())
           ? ResponseEntity.noContent().build()
@@ -105,4 +129,20 @@ public ResponseEntity<Serializable> search(
       throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Error while searching with given query", e);
     }
   }
+
+  /**
+   * The geometries are stored in the index as WKT, re-encode them when another encoding or a precision is requested.
+   */
+  private static void encodeGeometries(SearchResponse searchResponse, GeometryEncoding encoding, Integer precision) {
+    searchResponse.setGeometryEncoding(encoding.getValue());
+    if ((encoding == GeometryEncoding.WKT && precision == null) || searchResponse.getDocuments() == null) {
+      return;
+    }
+    for (SearchDocument document : searchResponse.getDocuments()) {
+      Geometry geometry = GeometryProcessor.wktToGeometry((String) document.getGeometry());
+      if (geometry != null) {
+        document.setGeometry(GeometryEncoder.encodeForJson(geometry, encoding, precision));
+      }
+    }
+  }
 }
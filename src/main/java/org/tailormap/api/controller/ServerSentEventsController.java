@@ -21,6 +21,7 @@
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.server.ResponseStatusException;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.tailormap.api.service.ViewerEventRelay;
 import org.tailormap.api.util.UUIDv7;
 import org.tailormap.api.viewer.model.ServerSentEventResponse;
 import tools.jackson.core.JacksonException;
@@ -36,8 +37,14 @@ public class ServerSentEventsController {
 
   private final JsonMapper jsonMapper;
 
-  public ServerSentEventsController(@Qualifier("viewerSseEventBus") SseEventBus eventBus, JsonMapper jsonMapper) {
+  private final ViewerEventRelay viewerEventRelay;
+
+  public ServerSentEventsController(
+      @Qualifier("viewerSseEventBus") SseEventBus eventBus,
+      JsonMapper jsonMapper,
+      ViewerEventRelay viewerEventRelay) {
     this.eventBus = eventBus;
+    this.viewerEventRelay = viewerEventRelay;
     // force unindented/single line output for SSE messages, because we may have set
     // spring.jackson.serialization.indent_output=true for debugging/development/test
     if (jsonMapper.isEnabled(SerializationFeature.INDENT_OUTPUT)) {
@@ -58,7 +65,9 @@ public SseEmitter sse(@PathVariable String clientId) {
       throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid clientId");
     }
     logger.debug("Adding new SSE client with id: {}", clientId);
-    return this.eventBus.createSseEmitter(clientId, 3600_000L, DEFAULT_EVENT);
+    SseEmitter emitter = this.eventBus.createSseEmitter(clientId, 3600_000L, DEFAULT_EVENT);
+    viewerEventRelay.registerClient(clientId);
+    return emitter;
   }
 
   @Scheduled(fixedRate = 60_000)
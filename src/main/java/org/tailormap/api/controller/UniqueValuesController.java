@@ -29,6 +29,7 @@
 import org.springframework.web.server.ResponseStatusException;
 import org.tailormap.api.annotation.AppRestController;
 import org.tailormap.api.geotools.featuresources.FeatureSourceFactoryHelper;
+import org.tailormap.api.geotools.featuresources.FeatureSourceObservations;
 import org.tailormap.api.persistence.Application;
 import org.tailormap.api.persistence.GeoService;
 import org.tailormap.api.persistence.TMFeatureType;
@@ -49,15 +50,20 @@ public class UniqueValuesController {
 
   private final FeatureSourceRepository featureSourceRepository;
 
+  private final FeatureSourceObservations featureSourceObservations;
+
   @Value("${tailormap-api.unique.use_geotools_unique_function:true}")
   private boolean useGeotoolsUniqueFunction;
 
   private final FilterFactory ff = CommonFactoryFinder.getFilterFactory(GeoTools.getDefaultHints());
 
   public UniqueValuesController(
-      FeatureSourceFactoryHelper featureSourceFactoryHelper, FeatureSourceRepository featureSourceRepository) {
+      FeatureSourceFactoryHelper featureSourceFactoryHelper,
+      FeatureSourceRepository featureSourceRepository,
+      FeatureSourceObservations featureSourceObservations) {
     this.featureSourceFactoryHelper = featureSourceFactoryHelper;
     this.featureSourceRepository = featureSourceRepository;
+    this.featureSourceObservations = featureSourceObservations;
   }
 
   @Transactional
@@ -84,7 +90,14 @@ public ResponseEntity<Serializable> getUniqueAttributes(
       throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Attribute does not exist");
     }
     UniqueValuesResponse uniqueValuesResponse = UniqueValuesHelper.getUniqueValues(
-        app, tmft, attributeName, filter, ff, featureSourceFactoryHelper, useGeotoolsUniqueFunction);
+        app,
+        tmft,
+        attributeName,
+        filter,
+        ff,
+        featureSourceFactoryHelper,
+        featureSourceObservations,
+        useGeotoolsUniqueFunction);
     return ResponseEntity.status(HttpStatus.OK).body(uniqueValuesResponse);
   }
 }
@@ -0,0 +1,76 @@
+/*
+ * Copyright (C) 2026 B3Partners B.V.
+ *
+ * SPDX-License-Identifier: MIT
+ */
+package org.tailormap.api.controller;
+
+import io.micrometer.core.annotation.Timed;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.ModelAttribute;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.server.ResponseStatusException;
+import org.tailormap.api.annotation.AppRestController;
+import org.tailormap.api.persistence.Application;
+import org.tailormap.api.persistence.GeoService;
+import org.tailormap.api.persistence.TMFeatureType;
+import org.tailormap.api.persistence.json.AppTreeLayerNode;
+import org.tailormap.api.persistence.json.GeoServiceLayer;
+import org.tailormap.api.repository.FeatureSourceRepository;
+import org.tailormap.api.service.VectorTileService;
+
+@AppRestController
+@Validated
+public class VectorTileController {
+  private static final Logger logger =
+      LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+  private final FeatureSourceRepository featureSourceRepository;
+  private final VectorTileService vectorTileService;
+
+  public VectorTileController(FeatureSourceRepository featureSourceRepository, VectorTileService vectorTileService) {
+    this.featureSourceRepository = featureSourceRepository;
+    this.vectorTileService = vectorTileService;
+  }
+
+  // No produces attribute, so errors can still be returned as JSON
+  @Transactional
+  @GetMapping(path = "${tailormap-api.base-path}/{viewerKind}/{viewerName}/layer/{appLayerId}/tiles/{z}/{x}/{y}.mvt")
+  @Timed(value = "get_vector_tile", description = "time spent to process get vector tile call")
+  public ResponseEntity<byte[]> getVectorTile(
+      @ModelAttribute AppTreeLayerNode appTreeLayerNode,
+      @ModelAttribute GeoService service,
+      @ModelAttribute GeoServiceLayer layer,
+      @ModelAttribute Application application,
+      @PathVariable int z,
+      @PathVariable int x,
+      @PathVariable int y) {
+    if (layer == null) {
+      throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Can't find layer " + appTreeLayerNode);
+    }
+    TMFeatureType tmft = service.findFeatureTypeForLayer(layer, featureSourceRepository);
+    if (tmft == null) {
+      throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Layer does not have feature type");
+    }
+
+    try {
+      byte[] tile = vectorTileService.getTile(
+          application, appTreeLayerNode, tmft, application.getAppLayerSettings(appTreeLayerNode), z, x, y);
+      return ResponseEntity.ok()
+          .contentType(MediaType.parseMediaType(VectorTileService.MVT_MEDIA_TYPE))
+          .body(tile);
+    } catch (IOException e) {
+      logger.error("Error creating vector tile {}/{}/{} for layer {}", z, x, y, appTreeLayerNode.getId(), e);
+      throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, e.getMessage(), e);
+    }
+  }
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright (C) 2026 B3Partners B.V.
+ *
+ * SPDX-License-Identifier: MIT
+ */
+package org.tailormap.api.controller.admin;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import java.util.List;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.tailormap.api.geotools.featuresources.SlowQueryLog;
+
+/** Shows the slowest feature source queries, see {@link SlowQueryLog}. */
+@RestController
+public class SlowQueryAdminController {
+  private final SlowQueryLog slowQueryLog;
+
+  public SlowQueryAdminController(SlowQueryLog slowQueryLog) {
+    this.slowQueryLog = slowQueryLog;
+  }
+
+  @Operation(
+      summary = "retrieve the slowest feature source queries",
+      description =
+          "Lists the slowest feature source queries since startup or the last time the list was cleared, to find"
+              + " queries that need an index in the database.")
+  @GetMapping(
+      path = "${tailormap-api.admin.base-path}/slow-queries",
+      produces = MediaType.APPLICATION_JSON_VALUE)
+  @ApiResponse(
+      responseCode = "200",
+      description = "Array of slow queries, the slowest first.",
+      content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(example = """
+[{"time":"2026-01-01T12:00:00Z","durationMillis":4312,"operation":"features","featureSourceId":2,"featureSourceTitle":"PostGIS","protocol":"jdbc","dbtype":"postgis","featureType":"begroeidterreindeel","filter":"class = 'grasland'","request":"SELECT * FROM \\"public\\".\\"begroeidterreindeel\\" WHERE class = 'grasland' LIMIT 100","rows":100}]
+""")))
+  public ResponseEntity<List<SlowQueryLog.SlowQuery>> getSlowQueries() {
+    return ResponseEntity.ok(slowQueryLog.getSlowQueries());
+  }
+
+  @Operation(summary = "clear the slowest feature source queries")
+  @DeleteMapping(path = "${tailormap-api.admin.base-path}/slow-queries")
+  @ApiResponse(responseCode = "204", description = "The slow queries are cleared.")
+  public ResponseEntity<Void> clearSlowQueries() {
+    slowQueryLog.clear();
+    return ResponseEntity.noContent().build();
+  }
+}
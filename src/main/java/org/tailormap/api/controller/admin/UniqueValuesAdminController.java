@@ -21,6 +21,7 @@
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.server.ResponseStatusException;
 import org.tailormap.api.geotools.featuresources.FeatureSourceFactoryHelper;
+import org.tailormap.api.geotools.featuresources.FeatureSourceObservations;
 import org.tailormap.api.persistence.TMFeatureType;
 import org.tailormap.api.persistence.helper.UniqueValuesHelper;
 import org.tailormap.api.persistence.json.TMAttributeDescriptor;
@@ -34,15 +35,20 @@ public class UniqueValuesAdminController {
 
   private final FeatureSourceFactoryHelper featureSourceFactoryHelper;
 
+  private final FeatureSourceObservations featureSourceObservations;
+
   @Value("${tailormap-api.unique.use_geotools_unique_function:true}")
   private boolean useGeotoolsUniqueFunction;
 
   private final FilterFactory ff = CommonFactoryFinder.getFilterFactory(GeoTools.getDefaultHints());
 
   public UniqueValuesAdminController(
-      FeatureTypeRepository featureTypeRepository, FeatureSourceFactoryHelper featureSourceFactoryHelper) {
+      FeatureTypeRepository featureTypeRepository,
+      FeatureSourceFactoryHelper featureSourceFactoryHelper,
+      FeatureSourceObservations featureSourceObservations) {
     this.featureTypeRepository = featureTypeRepository;
     this.featureSourceFactoryHelper = featureSourceFactoryHelper;
+    this.featureSourceObservations = featureSourceObservations;
   }
 
   @ExceptionHandler({ResponseStatusException.class})
@@ -84,7 +90,14 @@ public ResponseEntity<Serializable> getUniqueValues(
     }
 
     UniqueValuesResponse response = UniqueValuesHelper.getUniqueValues(
-        null, tmft, attributeName, nonSpatialFilter, ff, featureSourceFactoryHelper, useGeotoolsUniqueFunction);
+        null,
+        tmft,
+        attributeName,
+        nonSpatialFilter,
+        ff,
+        featureSourceFactoryHelper,
+        featureSourceObservations,
+        useGeotoolsUniqueFunction);
     return ResponseEntity.status(HttpStatus.OK).body(response);
   }
 }
@@ -8,12 +8,18 @@
 import static org.tailormap.api.persistence.helper.AdminAdditionalPropertyHelper.KEY_DRAWINGS_ADMIN;
 import static org.tailormap.api.persistence.helper.AdminAdditionalPropertyHelper.KEY_DRAWINGS_READ_ALL;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.lang.invoke.MethodHandles;
+import java.nio.charset.StandardCharsets;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.time.OffsetDateTime;
 import java.time.ZoneId;
-import java.util.Comparator;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
@@ -21,8 +27,10 @@
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
-import java.util.stream.Collectors;
+import javax.sql.DataSource;
 import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+import org.locationtech.jts.geom.Envelope;
 import org.postgresql.util.PGobject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -30,6 +38,8 @@
 import org.springframework.core.convert.support.DefaultConversionService;
 import org.springframework.core.convert.support.GenericConversionService;
 import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.jdbc.core.SimplePropertyRowMapper;
 import org.springframework.jdbc.core.simple.JdbcClient;
@@ -40,7 +50,10 @@
 import org.springframework.web.server.ResponseStatusException;
 import org.tailormap.api.security.TailormapUserDetails;
 import org.tailormap.api.viewer.model.Drawing;
+import org.tailormap.api.viewer.model.DrawingPatchRequest;
+import org.tailormap.api.viewer.model.DrawingPatchResponse;
 import tools.jackson.core.JacksonException;
+import tools.jackson.core.JsonGenerator;
 import tools.jackson.databind.JsonNode;
 import tools.jackson.databind.json.JsonMapper;
 import tools.jackson.databind.node.ArrayNode;
@@ -58,14 +71,56 @@ public class DrawingService {
   private static final Logger logger =
       LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
 
+  /** The default maximum number of decimal places of GeoJSON coordinates, same as the PostGIS default. */
+  public static final int DEFAULT_GEOJSON_PRECISION = 9;
+
+  /**
+   * Selects the features of the {@code :features} JSON array as rows with the feature id (when it is a UUID), the
+   * geometry in {@code :srid} transformed to the SRID the drawing is stored in ({@code :storedSrid}) and the
+   * properties. The {@code id} and {@code drawing_id} properties are added to the features returned by this service,
+   * so they are not stored with the other properties.
+   */
+  private static final String INCOMING_FEATURES_CTE =
+      """
+incoming AS (
+SELECT CASE WHEN f.fid ~* '^[0-9a-f]{8}-([0-9a-f]{4}-){3}[0-9a-f]{12}$' THEN f.fid::uuid END AS id,
+ST_Transform(ST_SetSRID(ST_GeomFromGeoJSON(feature ->> 'geometry'), :srid), :storedSrid) AS geometry,
+CASE WHEN jsonb_typeof(feature -> 'properties') = 'object'
+THEN (feature -> 'properties') - 'id' - 'drawing_id' END AS properties
+FROM jsonb_array_elements(:features::jsonb) AS feature
+CROSS JOIN LATERAL (SELECT coalesce(feature ->> 'id', feature -> 'properties' ->> 'id') AS fid) AS f)
+""";
+
+  /**
+   * A stored feature as a GeoJSON feature with the geometry in {@code :srid}, in the same form as the features of
+   * {@link #getFeatureCollection}.
+   */
+  private static final String FEATURE_JSON =
+      """
+json_build_object(
+'type', 'Feature',
+'id', id,
+'geometry', ST_AsGeoJSON(ST_Transform(geometry, :srid), :precision)::json,
+'properties', coalesce(properties, '{}'::jsonb) || jsonb_build_object('id', id, 'drawing_id', drawing_id))
+""";
+
+  /** The number of features fetched at a time when writing the features of a drawing. */
+  private static final int FEATURE_FETCH_SIZE = 500;
+
   private final JdbcClient jdbcClient;
+  private final JdbcClient streamingJdbcClient;
   private final RowMapper<Drawing> drawingRowMapper;
   private final JsonMapper mapper;
 
-  public DrawingService(JdbcClient jdbcClient, JsonMapper jsonMapper) {
+  public DrawingService(JdbcClient jdbcClient, DataSource dataSource, JsonMapper jsonMapper) {
     this.jdbcClient = jdbcClient;
     this.mapper = jsonMapper;
 
+    // with a fetch size PostgreSQL uses a cursor in a transaction, instead of reading all rows into memory
+    final JdbcTemplate streamingJdbcTemplate = new JdbcTemplate(dataSource);
+    streamingJdbcTemplate.setFetchSize(FEATURE_FETCH_SIZE);
+    this.streamingJdbcClient = JdbcClient.create(streamingJdbcTemplate);
+
     final GenericConversionService conversionService = new GenericConversionService();
     DefaultConversionService.addDefaultConverters(conversionService);
 
@@ -131,66 +186,116 @@ public Drawing createDrawing(@NonNull Drawing drawing, @NonNull Authentication a
         .single();
 
     if (drawing.getFeatureCollection() != null) {
-      ObjectNode featureCollection = insertGeoJsonFeatureCollection(
+      ArrayNode features = insertFeatures(
           storedDrawing.getId(),
           drawing.getSrid(),
-          mapper.writeValueAsString(drawing.getFeatureCollection()));
-      storedDrawing.setFeatureCollection(featureCollection);
+          drawing.getSrid(),
+          getFeaturesJson(drawing.getFeatureCollection()));
+      storedDrawing.setFeatureCollection(toFeatureCollection(features));
     }
 
     logger.trace("stored new drawing: {}", storedDrawing);
     return storedDrawing;
   }
 
-  private ObjectNode insertGeoJsonFeatureCollection(UUID drawingId, int srid, String featureCollectionToStore)
-      throws JacksonException {
-    List<JsonNode> storedFeatures = jdbcClient
-        .sql("""
-WITH jsonData AS (SELECT :featureCollectionToStore::json AS featureCollection)
+  /**
+   * @param featureCollection a GeoJSON FeatureCollection
+   * @return the features array of the feature collection as JSON
+   */
+  private String getFeaturesJson(Object featureCollection) throws JacksonException {
+    JsonNode features = mapper.valueToTree(featureCollection).get("features");
+    return features == null || !features.isArray() ? "[]" : mapper.writeValueAsString(features);
+  }
+
+  private ObjectNode toFeatureCollection(ArrayNode features) {
+    return mapper.createObjectNode().put("type", "FeatureCollection").set("features", features);
+  }
+
+  /** Map the single row with a JSON array (or null) of a data-modifying statement to an array node. */
+  private ArrayNode queryFeatureArray(JdbcClient.StatementSpec statement) {
+    List<String> rows = statement.query(String.class).list();
+    String json = rows.isEmpty() ? null : rows.getFirst();
+    return json == null ? mapper.createArrayNode() : (ArrayNode) mapper.readTree(json);
+  }
+
+  /**
+   * Insert the features without an id of an existing feature of the drawing, with a new id.
+   *
+   * @return the inserted features
+   */
+  private ArrayNode insertFeatures(UUID drawingId, int srid, int storedSrid, String featuresJson) {
+    return queryFeatureArray(jdbcClient
+        .sql("WITH " + INCOMING_FEATURES_CTE + """
+, inserted AS (
 INSERT INTO data.drawing_feature (drawing_id, geometry, properties)
-SELECT :drawingId::uuid AS drawing_id,
-ST_SetSRID(ST_GeomFromGeoJSON(feature ->> 'geometry'), :srid) AS geometry,
-feature -> 'properties' AS properties
-FROM (SELECT json_array_elements(featureCollection -> 'features') AS feature
-FROM jsonData)
-AS f
-RETURNING
--- since we cannot use aggregate functions in a returning clause, we will return a list of geojson
--- features and aggregate them into a featureCollection in the next step
-ST_AsGeoJSON(data.drawing_feature.*, geom_column =>'geometry', id_column => 'id')::json;
-""")
-        .param("featureCollectionToStore", featureCollectionToStore)
+SELECT :drawingId::uuid, i.geometry, i.properties FROM incoming i
+WHERE i.id IS NULL
+OR NOT EXISTS (SELECT 1 FROM data.drawing_feature d WHERE d.id = i.id AND d.drawing_id = :drawingId::uuid)
+RETURNING *)
+SELECT json_agg(""" + FEATURE_JSON + ") FROM inserted")
+        .param("features", featuresJson)
         .param("drawingId", drawingId)
         .param("srid", srid)
-        .query(new RowMapper<JsonNode>() {
-          @Override
-          public JsonNode mapRow(@NonNull ResultSet rs, int rowNum) throws SQLException {
-            try {
-              JsonNode jsonNode = mapper.readTree(rs.getString(1));
-              // merge/un-nest properties with nested properties, because we have a jsonb
-              // column
-              // called "properties" and we are using the `ST_AsGeoJSON(::record,...)`
-              // function
-              final ObjectNode properties = (ObjectNode) jsonNode.get("properties");
-              JsonNode nestedProperties = properties.get("properties");
-              if (nestedProperties != null) {
-                nestedProperties.properties().stream()
-                    .iterator()
-                    .forEachRemaining(
-                        entry -> properties.putIfAbsent(entry.getKey(), entry.getValue()));
-              }
-              properties.remove("properties");
-              return jsonNode;
-            } catch (JacksonException e) {
-              throw new RuntimeException(e);
-            }
-          }
-        })
+        .param("storedSrid", storedSrid)
+        .param("precision", DEFAULT_GEOJSON_PRECISION));
+  }
+
+  /**
+   * Update the existing features of the drawing of which the geometry or properties differ from the given features.
+   *
+   * @return the updated features
+   */
+  private ArrayNode updateChangedFeatures(UUID drawingId, int srid, int storedSrid, String featuresJson) {
+    return queryFeatureArray(jdbcClient
+        .sql("WITH " + INCOMING_FEATURES_CTE + """
+, updated AS (
+UPDATE data.drawing_feature d SET geometry = i.geometry, properties = i.properties
+FROM incoming i
+WHERE d.id = i.id AND d.drawing_id = :drawingId::uuid
+AND (ST_AsEWKB(d.geometry) IS DISTINCT FROM ST_AsEWKB(i.geometry) OR d.properties IS DISTINCT FROM i.properties)
+RETURNING d.*)
+SELECT json_agg(""" + FEATURE_JSON + ") FROM updated")
+        .param("features", featuresJson)
+        .param("drawingId", drawingId)
+        .param("srid", srid)
+        .param("storedSrid", storedSrid)
+        .param("precision", DEFAULT_GEOJSON_PRECISION));
+  }
+
+  /**
+   * Delete the features of the drawing that are not in the given features.
+   *
+   * @return the ids of the deleted features
+   */
+  private List<UUID> deleteOtherFeatures(UUID drawingId, int srid, int storedSrid, String featuresJson) {
+    return jdbcClient
+        .sql("WITH " + INCOMING_FEATURES_CTE + """
+DELETE FROM data.drawing_feature d
+WHERE d.drawing_id = :drawingId::uuid AND NOT EXISTS (SELECT 1 FROM incoming i WHERE i.id = d.id)
+RETURNING d.id""")
+        .param("features", featuresJson)
+        .param("drawingId", drawingId)
+        .param("srid", srid)
+        .param("storedSrid", storedSrid)
+        .query(UUID.class)
         .list();
+  }
 
-    return mapper.createObjectNode()
-        .put("type", "FeatureCollection")
-        .set("features", mapper.createArrayNode().addAll(storedFeatures));
+  /**
+   * Delete features of the drawing by id.
+   *
+   * @return the ids of the deleted features
+   */
+  private List<UUID> deleteFeatures(UUID drawingId, List<UUID> featureIds) {
+    if (featureIds.isEmpty()) {
+      return List.of();
+    }
+    return jdbcClient
+        .sql("DELETE FROM data.drawing_feature WHERE drawing_id = :drawingId::uuid AND id IN (:ids) RETURNING id")
+        .param("drawingId", drawingId)
+        .param("ids", featureIds)
+        .query(UUID.class)
+        .list();
   }
 
   /**
@@ -221,7 +326,100 @@ public Drawing updateDrawing(@NonNull Drawing drawing, @NonNull Authentication a
     }
     drawing.setVersion(drawing.getVersion() + 1);
 
-    Drawing updatedDrawing = jdbcClient
+    Drawing updatedDrawing = updateDrawingRow(drawing, authentication);
+
+    // Apply the differences with the stored features instead of replacing all features, so unchanged features are not
+    // rewritten. Delete even if drawing.getFeatureCollection()==null, because all features could have been removed.
+    String featuresJson =
+        drawing.getFeatureCollection() == null ? "[]" : getFeaturesJson(drawing.getFeatureCollection());
+    // All features are either updated, inserted or deleted, so the drawing can be stored in the new SRID
+    int srid = drawing.getSrid();
+    List<UUID> deleted = deleteOtherFeatures(drawing.getId(), srid, srid, featuresJson);
+    ArrayNode updated = updateChangedFeatures(drawing.getId(), srid, srid, featuresJson);
+    ArrayNode inserted = insertFeatures(drawing.getId(), srid, srid, featuresJson);
+    logger.trace(
+        "updated drawing {}: {} features deleted, {} updated, {} inserted",
+        drawing.getId(),
+        deleted.size(),
+        updated.size(),
+        inserted.size());
+
+    if (drawing.getFeatureCollection() != null) {
+      JsonNode featureCollection =
+          getFeatureCollection(drawing.getId(), drawing.getSrid(), DEFAULT_GEOJSON_PRECISION);
+      if (featureCollection.get("features") == null || featureCollection.get("features").isNull()) {
+        featureCollection = toFeatureCollection(mapper.createArrayNode());
+      }
+      updatedDrawing.setFeatureCollection(featureCollection);
+    }
+
+    logger.trace("stored updated drawing: {}", updatedDrawing);
+    return updatedDrawing;
+  }
+
+  /**
+   * Change a drawing without replacing all its features. Metadata that is not in the patch is kept, features that are
+   * not in the patch are not changed.
+   *
+   * @param drawingId the ID of the drawing
+   * @param patch the changes to the drawing
+   * @param srid the SRID of the geometries of the changed features and of the returned features. The drawing stays
+   *     stored in its own SRID, because features that are not in the patch are not changed.
+   * @param authentication the current user
+   * @return the updated drawing metadata and the added, changed and deleted features
+   */
+  @Transactional
+  public DrawingPatchResponse patchDrawing(
+      @NonNull UUID drawingId,
+      @NonNull DrawingPatchRequest patch,
+      int srid,
+      @NonNull Authentication authentication)
+      throws JacksonException {
+    final Drawing drawing = findDrawing(drawingId)
+        .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Drawing not found"));
+    canReadDrawing(drawing, authentication);
+    canSaveOrDeleteDrawing(drawing, authentication);
+    final int storedSrid = drawing.getSrid();
+
+    if (patch.getVersion() == null || patch.getVersion() < drawing.getVersion()) {
+      throw new ResponseStatusException(HttpStatus.CONFLICT, "Drawing has been updated by another user");
+    }
+    if (patch.getName() != null) {
+      drawing.setName(patch.getName());
+    }
+    if (patch.getDescription() != null) {
+      drawing.setDescription(patch.getDescription());
+    }
+    if (patch.getAccess() != null) {
+      drawing.setAccess(Drawing.AccessEnum.fromValue(patch.getAccess().getValue()));
+    }
+    if (patch.getDomainData() != null) {
+      drawing.setDomainData(patch.getDomainData());
+    }
+    drawing.setVersion(drawing.getVersion() + 1);
+    Drawing updatedDrawing = updateDrawingRow(drawing, authentication);
+    updatedDrawing.setSrid(srid);
+
+    List<UUID> deleted = patch.getDeletedFeatureIds() == null
+        ? List.of()
+        : deleteFeatures(drawingId, patch.getDeletedFeatureIds());
+    ArrayNode changed = mapper.createArrayNode();
+    if (patch.getFeatureCollection() != null) {
+      String featuresJson = getFeaturesJson(patch.getFeatureCollection());
+      changed.addAll(updateChangedFeatures(drawingId, srid, storedSrid, featuresJson));
+      changed.addAll(insertFeatures(drawingId, srid, storedSrid, featuresJson));
+    }
+    logger.trace("patched drawing {}: {} features deleted, {} changed", drawingId, deleted.size(), changed.size());
+
+    return new DrawingPatchResponse()
+        .drawing(updatedDrawing)
+        .changedFeatures(toFeatureCollection(changed))
+        .deletedFeatureIds(deleted);
+  }
+
+  /** Update the drawing metadata, the version of the drawing must already have been incremented. */
+  private Drawing updateDrawingRow(Drawing drawing, Authentication authentication) throws JacksonException {
+    return jdbcClient
         .sql("""
 UPDATE data.drawing SET
 id=:id,
@@ -249,23 +447,14 @@ public Drawing updateDrawing(@NonNull Drawing drawing, @NonNull Authentication a
         .param("version", drawing.getVersion())
         .query(drawingRowMapper)
         .single();
+  }
 
-    // delete even if drawing.getFeatureCollection()==null, because all features could have been
-    // removed, (re)insert the featureCollection afterward
-    jdbcClient
-        .sql("DELETE FROM data.drawing_feature WHERE drawing_id = ?")
-        .param(drawing.getId())
-        .update();
-
-    if (drawing.getFeatureCollection() != null) {
-      ObjectNode featureCollection = insertGeoJsonFeatureCollection(
-          drawing.getId(), drawing.getSrid(), mapper.writeValueAsString(drawing.getFeatureCollection()));
-      updatedDrawing.setFeatureCollection(featureCollection);
-    }
+  /** The columns of a drawing, except the domain data, for listing drawings without their domain data. */
+  private static final String DRAWING_SUMMARY_COLUMNS =
+      "id, name, description, access, created_by, created_at, updated_by, updated_at, srid, version";
 
-    logger.trace("stored updated drawing: {}", updatedDrawing);
-    return updatedDrawing;
-  }
+  /** A page of drawings, with the cursor to get the next page or {@code null} when this is the last page. */
+  public record DrawingPage(Set<Drawing> drawings, @Nullable String nextCursor) {}
 
   /**
    * Get all drawings for the current user.
@@ -274,20 +463,70 @@ public Drawing updateDrawing(@NonNull Drawing drawing, @NonNull Authentication a
    * @return the drawings, a possibly empty set
    */
   public Set<Drawing> getDrawingsForUser(Authentication authentication) throws ResponseStatusException {
+    return getDrawingsForUser(authentication, null, null, false).drawings();
+  }
+
+  /**
+   * Get a page of the drawings the current user can read, ordered by creation time. The access and ownership checks
+   * of {@link #canReadDrawing(Drawing, Authentication)} are done in the database, so only the readable drawings of
+   * the requested page are loaded.
+   *
+   * @param authentication the current user
+   * @param pageSize the maximum number of drawings to return, or {@code null} for all drawings
+   * @param cursor the cursor of the page to get as returned by a previous call, or {@code null} for the first page
+   * @param summary whether to leave out the domain data of the drawings
+   * @return the page of drawings, possibly empty
+   * @throws ResponseStatusException with status BAD_REQUEST when the cursor is invalid
+   */
+  public DrawingPage getDrawingsForUser(
+      Authentication authentication, @Nullable Integer pageSize, @Nullable String cursor, boolean summary)
+      throws ResponseStatusException {
     if (authentication == null || authentication instanceof AnonymousAuthenticationToken) {
-      return Set.of();
+      return new DrawingPage(Set.of(), null);
     }
-    return jdbcClient.sql("SELECT * FROM data.drawing").query(drawingRowMapper).set().stream()
-        .filter(d -> {
-          try {
-            canReadDrawing(d, authentication);
-            return true;
-          } catch (ResponseStatusException e) {
-            return false;
-          }
-        })
-        .sorted(Comparator.comparing(Drawing::getCreatedAt))
-        .collect(Collectors.toCollection(LinkedHashSet::new));
+
+    List<String> conditions = new ArrayList<>();
+    Map<String, Object> params = new HashMap<>();
+    if (!canReadAllDrawings(authentication)) {
+      conditions.add("(access <> 'private' OR created_by = :createdBy)");
+      params.put("createdBy", authentication.getName());
+    }
+    if (cursor != null) {
+      conditions.add("(created_at, id) > (:afterCreatedAt, :afterId)");
+      try {
+        String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(",", 2);
+        params.put("afterCreatedAt", OffsetDateTime.parse(parts[0]));
+        params.put("afterId", UUID.fromString(parts[1]));
+      } catch (IllegalArgumentException | DateTimeParseException | ArrayIndexOutOfBoundsException e) {
+        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+      }
+    }
+    String sql = "SELECT %s FROM data.drawing%s ORDER BY created_at, id"
+        .formatted(
+            summary ? DRAWING_SUMMARY_COLUMNS : "*",
+            conditions.isEmpty() ? "" : " WHERE " + String.join(" AND ", conditions));
+    if (pageSize != null) {
+      // fetch one more drawing to know whether there is a next page
+      sql += " LIMIT :limit";
+      params.put("limit", Math.max(1, pageSize) + 1);
+    }
+
+    List<Drawing> drawings = jdbcClient.sql(sql).params(params).query(drawingRowMapper).list();
+    String nextCursor = null;
+    if (pageSize != null && drawings.size() > Math.max(1, pageSize)) {
+      drawings = drawings.subList(0, drawings.size() - 1);
+      Drawing last = drawings.getLast();
+      nextCursor = Base64.getUrlEncoder()
+          .withoutPadding()
+          .encodeToString((last.getCreatedAt() + "," + last.getId()).getBytes(StandardCharsets.UTF_8));
+    }
+    return new DrawingPage(new LinkedHashSet<>(drawings), nextCursor);
+  }
+
+  private static boolean canReadAllDrawings(Authentication authentication) {
+    return authentication.getPrincipal() instanceof TailormapUserDetails userProperties
+        && (userProperties.hasTruePropertyForKey(KEY_DRAWINGS_ADMIN)
+            || userProperties.hasTruePropertyForKey(KEY_DRAWINGS_READ_ALL));
   }
 
   /**
@@ -317,13 +556,28 @@ public Optional<Drawing> getDrawing(
       @NonNull Authentication authentication,
       boolean withGeometries,
       int requestedSrid) {
-    Optional<Drawing> drawing =
-        jdbcClient
-            .sql("SELECT * FROM data.drawing WHERE id = ?")
-            .param(1, drawingId)
-            .query(drawingRowMapper)
-            .stream()
-            .findFirst();
+    return this.getDrawing(drawingId, authentication, withGeometries, requestedSrid, DEFAULT_GEOJSON_PRECISION);
+  }
+
+  /**
+   * Get a complete drawing by its ID with GeoJSON geometries in the requested srid, with coordinates rounded to the
+   * requested number of decimal places.
+   *
+   * @param drawingId the ID of the drawing
+   * @param authentication the current user
+   * @param withGeometries whether to fetch the geometries for the drawing
+   * @param requestedSrid the SRID to return the geometries in
+   * @param precision the maximum number of decimal places of the coordinates
+   * @return the complete drawing
+   */
+  @Transactional
+  public Optional<Drawing> getDrawing(
+      @NonNull UUID drawingId,
+      @NonNull Authentication authentication,
+      boolean withGeometries,
+      int requestedSrid,
+      int precision) {
+    Optional<Drawing> drawing = findDrawing(drawingId);
 
     drawing.ifPresent(d -> {
       // check if the user is allowed to read the drawing
@@ -331,21 +585,123 @@ public Optional<Drawing> getDrawing(
 
       d.setSrid(requestedSrid);
       if (withGeometries) {
-        d.setFeatureCollection(getFeatureCollection(drawingId, requestedSrid));
+        d.setFeatureCollection(getFeatureCollection(drawingId, requestedSrid, precision));
       }
     });
 
     return drawing;
   }
 
+  /** Get a drawing by its ID without checking access, with the SRID it is stored in. */
+  private Optional<Drawing> findDrawing(UUID drawingId) {
+    return jdbcClient
+        .sql("SELECT * FROM data.drawing WHERE id = ?")
+        .param(1, drawingId)
+        .query(drawingRowMapper)
+        .stream()
+        .findFirst();
+  }
+
+  /**
+   * Write a drawing as JSON, with the features in the feature collection streamed from the database. The features
+   * can be limited to a bounding box and simplified, the GeoJSON of each feature is created by the database and
+   * written as is.
+   *
+   * @param drawing the drawing without features, as returned by {@link #getDrawing(UUID, Authentication)}
+   * @param srid the SRID to return the geometries in
+   * @param precision the maximum number of decimal places of the coordinates
+   * @param bbox only write the features intersecting this bounding box in {@code srid}, or {@code null} for all
+   *     features
+   * @param tolerance the distance tolerance in units of {@code srid} to simplify the geometries with, or {@code null}
+   *     to not simplify
+   * @param out the stream to write to
+   * @throws IOException when writing fails
+   */
+  @Transactional(readOnly = true)
+  public void writeDrawing(
+      @NonNull Drawing drawing,
+      int srid,
+      int precision,
+      @Nullable Envelope bbox,
+      @Nullable Double tolerance,
+      @NonNull OutputStream out)
+      throws IOException {
+    String geometry = "ST_Transform(f.geometry, :srid)";
+    if (tolerance != null && tolerance > 0) {
+      geometry = "ST_SimplifyPreserveTopology(%s, :tolerance)".formatted(geometry);
+    }
+    String sql = """
+SELECT json_build_object(
+'type', 'Feature',
+'id', f.id,
+'geometry', ST_AsGeoJSON(%s, :precision)::json,
+'properties', coalesce(f.properties, '{}'::jsonb) || jsonb_build_object('id', f.id, 'drawing_id', f.drawing_id)
+)::text
+FROM data.drawing_feature f
+"""
+        .formatted(geometry);
+    if (bbox != null) {
+      // transform the bounding box to the SRID of the stored geometries instead of transforming every geometry, so
+      // the spatial index can be used
+      sql += """
+JOIN data.drawing d ON d.id = f.drawing_id
+CROSS JOIN LATERAL (
+SELECT ST_Transform(ST_MakeEnvelope(:minX, :minY, :maxX, :maxY, :srid), d.srid) AS geom) AS bbox
+WHERE f.drawing_id = :drawingId AND ST_Intersects(f.geometry, bbox.geom)
+""";
+    } else {
+      sql += "WHERE f.drawing_id = :drawingId";
+    }
+    JdbcClient.StatementSpec statement = streamingJdbcClient
+        .sql(sql)
+        .param("drawingId", drawing.getId())
+        .param("srid", srid)
+        .param("precision", precision);
+    if (tolerance != null && tolerance > 0) {
+      statement = statement.param("tolerance", tolerance);
+    }
+    if (bbox != null) {
+      statement = statement
+          .param("minX", bbox.getMinX())
+          .param("minY", bbox.getMinY())
+          .param("maxX", bbox.getMaxX())
+          .param("maxY", bbox.getMaxY());
+    }
+
+    drawing.setSrid(srid);
+    drawing.setFeatureCollection(null);
+    ObjectNode drawingNode = mapper.valueToTree(drawing);
+    drawingNode.remove("featureCollection");
+
+    try (JsonGenerator generator = mapper.createGenerator(out)) {
+      generator.writeStartObject();
+      for (Map.Entry<String, JsonNode> property : drawingNode.properties()) {
+        generator.writeName(property.getKey());
+        generator.writeTree(property.getValue());
+      }
+      generator.writeName("featureCollection");
+      generator.writeStartObject();
+      generator.writeStringProperty("type", "FeatureCollection");
+      generator.writeName("features");
+      generator.writeStartArray();
+      statement.query((RowCallbackHandler) rs -> generator.writeRawValue(rs.getString(1)));
+      generator.writeEndArray();
+      generator.writeEndObject();
+      generator.writeEndObject();
+    } catch (JacksonException e) {
+      throw new IOException("Error writing drawing " + drawing.getId(), e);
+    }
+  }
+
   /**
    * Retrieve the feature collection as GeoJSON for a drawing.
    *
    * @param drawingId the ID of the drawing
    * @param srid the SRID to return the geometries in
+   * @param precision the maximum number of decimal places of the coordinates
    * @return the feature collection as GeoJSON
    */
-  private JsonNode getFeatureCollection(UUID drawingId, int srid) {
+  private JsonNode getFeatureCollection(UUID drawingId, int srid, int precision) {
     return jdbcClient
         .sql("""
 SELECT row_to_json(featureCollection) from (
@@ -355,12 +711,13 @@ SELECT row_to_json(featureCollection) from (
 SELECT
 'Feature' AS type,
 id as id,
-ST_ASGeoJSON(ST_Transform(geomTable.geometry, :srid))::json AS geometry,
+ST_ASGeoJSON(ST_Transform(geomTable.geometry, :srid), :precision)::json AS geometry,
 row_to_json((SELECT l from (SELECT id, drawing_id, properties) AS l)) AS properties
 FROM data.drawing_feature AS geomTable WHERE drawing_id = :drawingId::uuid) AS feature) AS featureCollection
 """)
         .param("drawingId", drawingId)
         .param("srid", srid)
+        .param("precision", precision)
         .query(new RowMapper<JsonNode>() {
           @Override
           public JsonNode mapRow(@NonNull ResultSet rs, int rowNum) throws SQLException {
@@ -438,10 +795,7 @@ private void canReadDrawing(@NonNull Drawing drawing, @NonNull Authentication au
                 // is a drawing owner
                 yield true;
               }
-              if (authentication.getPrincipal() instanceof TailormapUserDetails userProperties) {
-                yield userProperties.hasTruePropertyForKey(KEY_DRAWINGS_ADMIN)
-                    || userProperties.hasTruePropertyForKey(KEY_DRAWINGS_READ_ALL);
-              }
+              yield canReadAllDrawings(authentication);
             }
             yield false;
           }
@@ -5,31 +5,45 @@
  */
 package org.tailormap.api.geotools;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandles;
 import java.net.URL;
+import java.nio.file.Files;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.function.BiConsumer;
+import org.apache.commons.io.input.TeeInputStream;
+import org.apache.commons.io.output.DeferredFileOutputStream;
 import org.geotools.http.HTTPClient;
 import org.geotools.http.HTTPResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * Wrapper for a GeoTools HTTPClient that allows access to the response headers and body after the original response has
- * been consumed and disposed of by other code. The response body for the latest request is kept in memory, a consumer
- * can be specified to get responses of earlier requests. Response headers of an unwrapped HTTPClient can only be
- * retrieved when the response isn't disposed, this wrapper allows response headers to be cached for retrieval even
- * after disposal.
+ * been consumed and disposed of by other code. The response body for the latest request is kept in memory up to
+ * {@link #DEFAULT_MEMORY_THRESHOLD} bytes and written to a temporary file when larger, a consumer can be specified to
+ * get responses of earlier requests. The temporary files are deleted when the client is closed. Response headers of an
+ * unwrapped HTTPClient can only be retrieved when the response isn't disposed, this wrapper allows response headers to
+ * be cached for retrieval even after disposal.
  */
-public class ResponseTeeingHTTPClient implements HTTPClient {
+public class ResponseTeeingHTTPClient implements HTTPClient, AutoCloseable {
+  private static final Logger logger =
+      LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+  /** Response bodies larger than this are written to a temporary file instead of kept in memory. */
+  public static final int DEFAULT_MEMORY_THRESHOLD = 1024 * 1024;
 
   public class TeeHTTPResponseWrapper implements HTTPResponse {
     private final HTTPResponse wrapped;
 
     private boolean disposed = false;
-    private final ByteArrayOutputStream copy = new ByteArrayOutputStream();
+    private DeferredFileOutputStream copy;
 
     private String contentType;
     private final Map<String, String> cachedResponseHeaders = new HashMap<>();
@@ -38,8 +52,59 @@ public TeeHTTPResponseWrapper(HTTPResponse wrapped) {
       this.wrapped = wrapped;
     }
 
+    /**
+     * Get the copy of the response body read so far as a byte array. Prefer {@link #getCopyInputStream()} for large
+     * responses.
+     *
+     * @return the response body, empty when the response stream was not requested
+     */
     public byte[] getCopy() {
-      return copy.toByteArray();
+      try (InputStream in = getCopyInputStream()) {
+        return in.readAllBytes();
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+
+    /**
+     * Get the copy of the response body read so far as a stream, read from memory or from the temporary file.
+     *
+     * @return the response body, empty when the response stream was not requested
+     * @throws IOException when reading the temporary file fails
+     */
+    public InputStream getCopyInputStream() throws IOException {
+      if (copy == null) {
+        return InputStream.nullInputStream();
+      }
+      copy.close();
+      return copy.toInputStream();
+    }
+
+    /**
+     * Get at most the first maxBytes of the copy of the response body, for instance to look for an error message
+     * without reading a large response into memory.
+     *
+     * @param maxBytes the maximum number of bytes to return
+     * @return the start of the response body
+     */
+    public byte[] getCopyStart(int maxBytes) {
+      try (InputStream in = getCopyInputStream()) {
+        return in.readNBytes(maxBytes);
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+
+    private void deleteCopy() {
+      if (copy == null || copy.isInMemory()) {
+        return;
+      }
+      try {
+        copy.close();
+        Files.deleteIfExists(copy.getPath());
+      } catch (IOException e) {
+        logger.warn("Error deleting temporary file {}", copy.getPath(), e);
+      }
     }
 
     // <editor-fold desc="methods directly delegated to wrapped object">
@@ -80,7 +145,13 @@ public InputStream getResponseStream() throws IOException {
       for (String header : responseHeadersToCache) {
         cachedResponseHeaders.put(header, wrapped.getResponseHeader(header));
       }
-      return new org.apache.commons.io.input.TeeInputStream(wrapped.getResponseStream(), copy);
+      deleteCopy();
+      copy = DeferredFileOutputStream.builder()
+          .setThreshold(memoryThreshold)
+          .setPrefix("tailormap-response-")
+          .setSuffix(".tmp")
+          .get();
+      return new TeeInputStream(wrapped.getResponseStream(), copy);
     }
 
     @Override
@@ -92,6 +163,10 @@ public String getResponseCharset() {
 
   private TeeHTTPResponseWrapper responseWrapper;
 
+  private final List<TeeHTTPResponseWrapper> responseWrappers = new ArrayList<>();
+
+  private int memoryThreshold = DEFAULT_MEMORY_THRESHOLD;
+
   private final HTTPClient wrapped;
 
   private final BiConsumer<URL, TeeHTTPResponseWrapper> requestConsumer;
@@ -131,6 +206,7 @@ public ResponseTeeingHTTPClient(
   @Override
   public HTTPResponse get(URL url, Map<String, String> headers) throws IOException {
     this.responseWrapper = new TeeHTTPResponseWrapper(wrapped.get(url, headers));
+    responseWrappers.add(responseWrapper);
     requestConsumer.accept(url, this.responseWrapper);
     return responseWrapper;
   }
@@ -138,6 +214,7 @@ public HTTPResponse get(URL url, Map<String, String> headers) throws IOException
   @Override
   public HTTPResponse post(URL url, InputStream inputStream, String s) throws IOException {
     this.responseWrapper = new TeeHTTPResponseWrapper(wrapped.post(url, inputStream, s));
+    responseWrappers.add(responseWrapper);
     requestConsumer.accept(url, this.responseWrapper);
     return responseWrapper;
   }
@@ -145,6 +222,7 @@ public HTTPResponse post(URL url, InputStream inputStream, String s) throws IOEx
   @Override
   public HTTPResponse get(URL url) throws IOException {
     this.responseWrapper = new TeeHTTPResponseWrapper(wrapped.get(url));
+    responseWrappers.add(responseWrapper);
     requestConsumer.accept(url, this.responseWrapper);
     return responseWrapper;
   }
@@ -157,6 +235,35 @@ public byte[] getLatestResponseCopy() {
     return responseWrapper == null ? null : responseWrapper.getCopy();
   }
 
+  public InputStream getLatestResponseCopyInputStream() throws IOException {
+    return responseWrapper == null ? null : responseWrapper.getCopyInputStream();
+  }
+
+  public byte[] getLatestResponseCopyStart(int maxBytes) {
+    return responseWrapper == null ? null : responseWrapper.getCopyStart(maxBytes);
+  }
+
+  public int getMemoryThreshold() {
+    return memoryThreshold;
+  }
+
+  /**
+   * Set the size above which response bodies are written to a temporary file, applies to responses requested after
+   * setting it.
+   *
+   * @param memoryThreshold the maximum size in bytes to keep in memory
+   */
+  public void setMemoryThreshold(int memoryThreshold) {
+    this.memoryThreshold = memoryThreshold;
+  }
+
+  /** Delete the temporary files with the copies of the response bodies. */
+  @Override
+  public void close() {
+    responseWrappers.forEach(TeeHTTPResponseWrapper::deleteCopy);
+    responseWrappers.clear();
+  }
+
   // <editor-fold desc="methods directly delegated to wrapped object">
   @Override
   public String getUser() {
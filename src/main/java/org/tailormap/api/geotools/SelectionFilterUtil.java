@@ -0,0 +1,158 @@
+/*
+ * Copyright (C) 2026 B3Partners B.V.
+ *
+ * SPDX-License-Identifier: MIT
+ */
+package org.tailormap.api.geotools;
+
+import java.lang.invoke.MethodHandles;
+import org.geotools.api.data.DataStore;
+import org.geotools.api.filter.Filter;
+import org.geotools.api.filter.FilterFactory;
+import org.geotools.api.filter.expression.PropertyName;
+import org.geotools.api.referencing.crs.CoordinateReferenceSystem;
+import org.geotools.data.wfs.WFSDataStore;
+import org.geotools.factory.CommonFactoryFinder;
+import org.geotools.geometry.jts.ReferencedEnvelope;
+import org.geotools.jdbc.JDBCDataStore;
+import org.geotools.util.factory.GeoTools;
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.util.GeometricShapeFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/** Creates the spatial filter to select the features around a location clicked on the map. */
+public class SelectionFilterUtil {
+  private static final Logger logger =
+      LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+  private static final FilterFactory ff = CommonFactoryFinder.getFilterFactory(GeoTools.getDefaultHints());
+  private static final GeometryFactory geometryFactory = new GeometryFactory();
+
+  /** How the selection around a clicked location is expressed as a filter. */
+  public enum SelectionFilterStrategy {
+    /** Use {@link #DWITHIN} when the feature source can encode it natively, {@link #CIRCLE} otherwise. */
+    AUTO,
+    /** An intersects filter with a polygon approximating a circle, supported by all feature sources. */
+    CIRCLE,
+    /**
+     * A bounding box prefilter combined with a distance filter, which JDBC feature sources encode as an index-friendly
+     * query such as {@code geom && box AND ST_DWithin(geom, point, distance)} instead of intersecting with a polygon
+     * literal. WFS feature sources use {@link #CIRCLE} instead, because many WFS servers do not support a distance
+     * filter or interpret its units differently.
+     */
+    DWITHIN
+  }
+
+  private SelectionFilterUtil() {
+    // utility class
+  }
+
+  /**
+   * Create a polygon approximating a circle around a location.
+   *
+   * @param x the x coordinate
+   * @param y the y coordinate
+   * @param distance the radius
+   * @return the circle
+   */
+  public static Geometry createSelectionCircle(double x, double y, double distance) {
+    GeometricShapeFactory shapeFact = new GeometricShapeFactory(geometryFactory);
+    shapeFact.setNumPoints(32);
+    shapeFact.setCentre(new Coordinate(x, y));
+    shapeFact.setSize(distance * 2d);
+    Geometry p = shapeFact.createCircle();
+    logger.trace("created selection geometry: {}", p);
+    return p;
+  }
+
+  /**
+   * Calculate the selection radius from a tolerance in pixels at the resolution of the map the user clicked on. When
+   * no resolution is known, the distance in map units is used.
+   *
+   * @param distance the radius in map units
+   * @param resolution the map resolution in map units per pixel, may be {@code null}
+   * @param pixelTolerance the radius in pixels
+   * @return the radius in map units
+   */
+  public static double getSelectionDistance(
+      double distance, @Nullable Double resolution, double pixelTolerance) {
+    if (resolution == null) {
+      return distance;
+    }
+    return resolution * pixelTolerance;
+  }
+
+  /**
+   * Create the filter selecting the features around a location.
+   *
+   * @param dataStore the DataStore that will execute the filter, used to check whether it can encode a distance
+   *     filter
+   * @param geometryAttribute the geometry attribute to filter on
+   * @param selectionCircle the selection circle from {@link #createSelectionCircle(double, double, double)}, in the
+   *     CRS of the feature source
+   * @param crs the CRS of the feature source, may be {@code null}
+   * @param strategy the selection filter strategy
+   * @return the filter
+   */
+  public static @NonNull Filter createSelectionFilter(
+      @Nullable DataStore dataStore,
+      @NonNull String geometryAttribute,
+      @NonNull Geometry selectionCircle,
+      @Nullable CoordinateReferenceSystem crs,
+      @NonNull SelectionFilterStrategy strategy) {
+    if (strategy == SelectionFilterStrategy.CIRCLE || dataStore instanceof WFSDataStore) {
+      return createIntersectsFilter(geometryAttribute, selectionCircle);
+    }
+    Filter dwithin = createDWithinFilter(geometryAttribute, selectionCircle, crs);
+    if (strategy == SelectionFilterStrategy.DWITHIN || supportsNatively(dataStore, dwithin)) {
+      return dwithin;
+    }
+    return createIntersectsFilter(geometryAttribute, selectionCircle);
+  }
+
+  /**
+   * Create an intersects filter with the selection circle.
+   *
+   * @param geometryAttribute the geometry attribute to filter on
+   * @param selectionCircle the selection circle
+   * @return the filter
+   */
+  public static @NonNull Filter createIntersectsFilter(
+      @NonNull String geometryAttribute, @NonNull Geometry selectionCircle) {
+    return ff.intersects(ff.property(geometryAttribute), ff.literal(selectionCircle));
+  }
+
+  /**
+   * Create a bounding box plus distance filter equivalent to intersecting with the selection circle. The centre and
+   * radius are derived from the envelope of the (possibly reprojected) circle, so the distance is in the units of the
+   * CRS of the feature source.
+   *
+   * @param geometryAttribute the geometry attribute to filter on
+   * @param selectionCircle the selection circle
+   * @param crs the CRS of the feature source, may be {@code null}
+   * @return the filter
+   */
+  public static @NonNull Filter createDWithinFilter(
+      @NonNull String geometryAttribute,
+      @NonNull Geometry selectionCircle,
+      @Nullable CoordinateReferenceSystem crs) {
+    Envelope envelope = selectionCircle.getEnvelopeInternal();
+    double distance = Math.max(envelope.getWidth(), envelope.getHeight()) / 2d;
+    PropertyName geometry = ff.property(geometryAttribute);
+    return ff.and(
+        ff.bbox(geometry, new ReferencedEnvelope(envelope, crs)),
+        // units are left empty so the distance is taken to be in the units of the feature source CRS
+        ff.dwithin(
+            geometry, ff.literal(geometryFactory.createPoint(envelope.centre())), distance, null));
+  }
+
+  private static boolean supportsNatively(@Nullable DataStore dataStore, @NonNull Filter filter) {
+    return dataStore instanceof JDBCDataStore jdbcDataStore
+        && jdbcDataStore.getFilterCapabilities().fullySupports(filter);
+  }
+}
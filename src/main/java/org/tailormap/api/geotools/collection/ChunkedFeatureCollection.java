@@ -0,0 +1,237 @@
+/*
+ * Copyright (C) 2026 B3Partners B.V.
+ *
+ * SPDX-License-Identifier: MIT
+ */
+package org.tailormap.api.geotools.collection;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import org.geotools.api.data.Query;
+import org.geotools.api.data.QueryCapabilities;
+import org.geotools.api.data.SimpleFeatureSource;
+import org.geotools.api.feature.FeatureVisitor;
+import org.geotools.api.filter.FilterFactory;
+import org.geotools.api.filter.sort.SortBy;
+import org.geotools.api.filter.sort.SortOrder;
+import org.geotools.api.util.ProgressListener;
+import org.geotools.data.DataUtilities;
+import org.geotools.data.simple.SimpleFeatureIterator;
+import org.geotools.factory.CommonFactoryFinder;
+import org.geotools.feature.collection.DecoratingSimpleFeatureCollection;
+import org.geotools.util.factory.GeoTools;
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * A feature collection that reads the features of a query in chunks of a fixed number of features instead of in a
+ * single query, so a transient error of the source only requires reading the current chunk again and sources that cap
+ * the number of features in a response can be read completely. The iterator resumes after the last feature it
+ * returned, so the consumer sees every feature exactly once.
+ *
+ * <p>Other methods than {@link #features()} (for example {@link #size()} and {@link #getBounds()}) are delegated to the
+ * unchunked query.
+ *
+ * @see PagingMode
+ * @see ChunkedFeatureIterator
+ */
+public class ChunkedFeatureCollection extends DecoratingSimpleFeatureCollection {
+  private static final FilterFactory ff = CommonFactoryFinder.getFilterFactory(GeoTools.getDefaultHints());
+
+  /** How a query is split in chunks. */
+  public enum PagingMode {
+    /**
+     * Each chunk selects the features with a primary key greater than the last key of the previous chunk, ordered by
+     * primary key. The cost of a chunk does not depend on its position, but a custom sort order is not possible.
+     */
+    KEYSET,
+    /** Each chunk uses a start index, ordered by the requested sort order with the primary key to make it stable. */
+    OFFSET,
+    /** The source can not be paged in a stable order, a single query is used and errors can not be resumed. */
+    UNPAGED
+  }
+
+  /** Listener for the chunks read by the iterator. */
+  public interface ChunkListener {
+    /**
+     * Called when all features of a chunk have been returned by the iterator.
+     *
+     * @param chunk the 0-based number of the chunk
+     * @param featuresRead the total number of features returned so far
+     */
+    void chunkCompleted(int chunk, long featuresRead);
+
+    /**
+     * Called when a chunk is read again after a transient error.
+     *
+     * @param chunk the 0-based number of the chunk
+     * @param attempt the retry attempt, starting at 1
+     * @param cause the error
+     */
+    default void chunkRetried(int chunk, int attempt, Throwable cause) {}
+  }
+
+  private final SimpleFeatureSource source;
+  private final Query query;
+  private final PagingMode pagingMode;
+  private final String primaryKey;
+  private final int chunkSize;
+  private final long featureCount;
+  private final int maxRetries;
+  private final long retryDelayMillis;
+  private final ChunkListener chunkListener;
+
+  /**
+   * @param source the feature source
+   * @param query the query to read, must not use a start index or maximum number of features
+   * @param pagingMode the paging mode, see {@link #getPagingMode(SimpleFeatureSource, Query, String)}
+   * @param primaryKey the primary key attribute, required for {@link PagingMode#KEYSET} and used to make the order
+   *     stable for {@link PagingMode#OFFSET}
+   * @param chunkSize the number of features in a chunk, must be greater than {@code 0}
+   * @param maxRetries the maximum number of times a chunk is read again after a transient error
+   * @param retryDelayMillis the delay before reading a chunk again, doubled for each next attempt
+   * @param chunkListener a listener for the chunks read, may be {@code null}
+   * @throws IOException if the source can not be queried
+   */
+  public ChunkedFeatureCollection(
+      @NonNull SimpleFeatureSource source,
+      @NonNull Query query,
+      @NonNull PagingMode pagingMode,
+      @Nullable String primaryKey,
+      int chunkSize,
+      int maxRetries,
+      long retryDelayMillis,
+      @Nullable ChunkListener chunkListener)
+      throws IOException {
+    this(source, query, pagingMode, primaryKey, chunkSize, -1, maxRetries, retryDelayMillis, chunkListener);
+  }
+
+  /**
+   * @param source the feature source
+   * @param query the query to read, must not use a start index or maximum number of features
+   * @param pagingMode the paging mode, see {@link #getPagingMode(SimpleFeatureSource, Query, String)}
+   * @param primaryKey the primary key attribute, required for {@link PagingMode#KEYSET} and used to make the order
+   *     stable for {@link PagingMode#OFFSET}
+   * @param chunkSize the number of features in a chunk, must be greater than {@code 0}
+   * @param featureCount the number of features of the query when known upfront, so no query is needed to find out
+   *     there are no more features; negative when unknown
+   * @param maxRetries the maximum number of times a chunk is read again after a transient error
+   * @param retryDelayMillis the delay before reading a chunk again, doubled for each next attempt
+   * @param chunkListener a listener for the chunks read, may be {@code null}
+   * @throws IOException if the source can not be queried
+   */
+  public ChunkedFeatureCollection(
+      @NonNull SimpleFeatureSource source,
+      @NonNull Query query,
+      @NonNull PagingMode pagingMode,
+      @Nullable String primaryKey,
+      int chunkSize,
+      long featureCount,
+      int maxRetries,
+      long retryDelayMillis,
+      @Nullable ChunkListener chunkListener)
+      throws IOException {
+    super(source.getFeatures(query));
+    if (chunkSize <= 0) {
+      throw new IllegalArgumentException("chunkSize must be greater than 0");
+    }
+    if (pagingMode == PagingMode.KEYSET && primaryKey == null) {
+      throw new IllegalArgumentException("Keyset paging requires a primary key");
+    }
+    this.source = source;
+    this.query = query;
+    this.pagingMode = pagingMode;
+    this.primaryKey = primaryKey;
+    this.chunkSize = chunkSize;
+    this.featureCount = featureCount;
+    this.maxRetries = Math.max(0, maxRetries);
+    this.retryDelayMillis = Math.max(0, retryDelayMillis);
+    this.chunkListener = chunkListener;
+  }
+
+  /**
+   * Determine the most efficient paging mode the source supports for a query. Keyset paging is used when the query
+   * has no sort order and the source can sort on the primary key, offset paging when the source supports offsets and
+   * sorting in a stable order, otherwise the query is not paged.
+   *
+   * @param source the feature source
+   * @param query the query
+   * @param primaryKey the primary key attribute, may be {@code null} when unknown
+   * @return the paging mode
+   */
+  public static PagingMode getPagingMode(
+      @NonNull SimpleFeatureSource source, @NonNull Query query, @Nullable String primaryKey) {
+    QueryCapabilities capabilities = source.getQueryCapabilities();
+    boolean hasSortBy = query.getSortBy() != null && query.getSortBy().length > 0;
+    if (primaryKey == null) {
+      return PagingMode.UNPAGED;
+    }
+    if (!hasSortBy && capabilities.supportsSorting(ff.sort(primaryKey, SortOrder.ASCENDING))) {
+      return PagingMode.KEYSET;
+    }
+    if (capabilities.isOffsetSupported() && capabilities.supportsSorting(getStableSortBy(query, primaryKey))) {
+      return PagingMode.OFFSET;
+    }
+    return PagingMode.UNPAGED;
+  }
+
+  /**
+   * @param query the query
+   * @param primaryKey the primary key attribute
+   * @return the sort order of the query, followed by the primary key if the query does not sort on it already
+   */
+  static SortBy[] getStableSortBy(@NonNull Query query, @NonNull String primaryKey) {
+    SortBy[] sortBy = query.getSortBy() == null ? new SortBy[0] : query.getSortBy();
+    if (Arrays.stream(sortBy)
+        .anyMatch(s -> s.getPropertyName() != null
+            && primaryKey.equals(s.getPropertyName().getPropertyName()))) {
+      return sortBy;
+    }
+    SortBy[] stable = Arrays.copyOf(sortBy, sortBy.length + 1);
+    stable[sortBy.length] = ff.sort(primaryKey, SortOrder.ASCENDING);
+    return stable;
+  }
+
+  /**
+   * @return the property names to query, including the primary key for keyset paging, or {@code null} for all
+   */
+  String @Nullable [] getQueryPropertyNames() {
+    String[] propertyNames = query.getPropertyNames();
+    if (propertyNames == null || pagingMode != PagingMode.KEYSET) {
+      return propertyNames;
+    }
+    Set<String> names = new LinkedHashSet<>(Arrays.asList(propertyNames));
+    names.add(primaryKey);
+    return names.toArray(new String[0]);
+  }
+
+  public PagingMode getPagingMode() {
+    return pagingMode;
+  }
+
+  @Override
+  public SimpleFeatureIterator features() {
+    String[] propertyNames = getQueryPropertyNames();
+    boolean primaryKeyAdded = propertyNames != null && propertyNames.length > query.getPropertyNames().length;
+    return new ChunkedFeatureIterator(
+        source,
+        query,
+        propertyNames,
+        primaryKeyAdded ? getSchema() : null,
+        pagingMode,
+        primaryKey,
+        chunkSize,
+        featureCount,
+        maxRetries,
+        retryDelayMillis,
+        chunkListener);
+  }
+
+  @Override
+  public void accepts(FeatureVisitor visitor, ProgressListener progress) throws IOException {
+    // visit the chunked features, not the features of the delegate
+    DataUtilities.visit(this, visitor, progress);
+  }
+}
@@ -0,0 +1,265 @@
+/*
+ * Copyright (C) 2026 B3Partners B.V.
+ *
+ * SPDX-License-Identifier: MIT
+ */
+package org.tailormap.api.geotools.collection;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.sql.SQLException;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CancellationException;
+import org.geotools.api.data.Query;
+import org.geotools.api.data.SimpleFeatureSource;
+import org.geotools.api.feature.simple.SimpleFeature;
+import org.geotools.api.feature.simple.SimpleFeatureType;
+import org.geotools.api.filter.Filter;
+import org.geotools.api.filter.FilterFactory;
+import org.geotools.api.filter.sort.SortBy;
+import org.geotools.api.filter.sort.SortOrder;
+import org.geotools.data.simple.SimpleFeatureIterator;
+import org.geotools.factory.CommonFactoryFinder;
+import org.geotools.feature.simple.SimpleFeatureBuilder;
+import org.geotools.util.factory.GeoTools;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Iterator for a {@link ChunkedFeatureCollection}. A chunk query is opened when the previous chunk is exhausted. When
+ * reading a chunk fails with a transient error (caused by an {@link IOException} or {@link SQLException}) the chunk
+ * is queried again, starting after the last feature returned by this iterator.
+ *
+ * <p>A chunk query may return fewer features than requested when the source caps the number of features in a response,
+ * so the remainder of the chunk is queried until a query returns no features or the number of features known upfront
+ * has been returned.
+ *
+ * <p>When the reading thread is interrupted, {@link #hasNext()} closes the current chunk and throws a
+ * {@link CancellationException}, so a long-running read can be cancelled between features.
+ */
+public class ChunkedFeatureIterator implements SimpleFeatureIterator {
+  private static final Logger logger =
+      LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+  private static final FilterFactory ff = CommonFactoryFinder.getFilterFactory(GeoTools.getDefaultHints());
+
+  private final SimpleFeatureSource source;
+  private final Query query;
+  private final String[] propertyNames;
+  /** The feature type to retype features to when the primary key was added to the query for keyset paging. */
+  private final SimpleFeatureType retypeTo;
+  private final ChunkedFeatureCollection.PagingMode pagingMode;
+  private final String primaryKey;
+  private final int chunkSize;
+  /** The number of features known upfront, negative when unknown. */
+  private final long featureCount;
+  private final int maxRetries;
+  private final long retryDelayMillis;
+  private final ChunkedFeatureCollection.ChunkListener chunkListener;
+
+  private SimpleFeatureIterator chunkIterator;
+  private SimpleFeature next;
+  private boolean exhausted;
+  private int chunk;
+  private int retries;
+  /** Number of features returned from the current chunk by this iterator. */
+  private int returnedInChunk;
+  /** Number of features read from the current chunk query, which may have started halfway the chunk. */
+  private int readFromQuery;
+  /** Maximum number of features of the current chunk query. */
+  private int requestedFromQuery;
+
+  private long returned;
+  private Object lastKey;
+
+  ChunkedFeatureIterator(
+      SimpleFeatureSource source,
+      Query query,
+      String @Nullable [] propertyNames,
+      @Nullable SimpleFeatureType retypeTo,
+      ChunkedFeatureCollection.PagingMode pagingMode,
+      @Nullable String primaryKey,
+      int chunkSize,
+      long featureCount,
+      int maxRetries,
+      long retryDelayMillis,
+      ChunkedFeatureCollection.@Nullable ChunkListener chunkListener) {
+    this.source = source;
+    this.query = query;
+    this.propertyNames = propertyNames;
+    this.retypeTo = retypeTo;
+    this.pagingMode = pagingMode;
+    this.primaryKey = primaryKey;
+    this.chunkSize = chunkSize;
+    this.featureCount = featureCount;
+    this.maxRetries = maxRetries;
+    this.retryDelayMillis = retryDelayMillis;
+    this.chunkListener = chunkListener;
+  }
+
+  @Override
+  public boolean hasNext() {
+    while (next == null && !exhausted) {
+      if (Thread.currentThread().isInterrupted()) {
+        close();
+        throw new CancellationException("Reading features was interrupted");
+      }
+      try {
+        if (chunkIterator == null) {
+          openChunk();
+        }
+        if (chunkIterator.hasNext()) {
+          next = chunkIterator.next();
+          readFromQuery++;
+        } else {
+          closeChunk();
+          if (pagingMode == ChunkedFeatureCollection.PagingMode.UNPAGED
+              || readFromQuery == 0
+              || (featureCount >= 0 && returned >= featureCount)) {
+            exhausted = true;
+            if (returnedInChunk > 0) {
+              chunkCompleted();
+            }
+          } else if (readFromQuery == requestedFromQuery) {
+            chunkCompleted();
+          }
+          // otherwise the source returned less features than requested, query the remainder of the chunk
+        }
+      } catch (IOException | RuntimeException e) {
+        closeChunk();
+        retryOrThrow(e);
+      }
+    }
+    return next != null;
+  }
+
+  @Override
+  public SimpleFeature next() {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+    SimpleFeature feature = next;
+    next = null;
+    if (pagingMode == ChunkedFeatureCollection.PagingMode.KEYSET) {
+      lastKey = feature.getAttribute(primaryKey);
+    }
+    returned++;
+    returnedInChunk++;
+    retries = 0;
+    if (pagingMode == ChunkedFeatureCollection.PagingMode.UNPAGED && returnedInChunk == chunkSize) {
+      // only report progress, an unpaged query is not split
+      chunkCompleted();
+    }
+    if (retypeTo != null) {
+      feature = SimpleFeatureBuilder.retype(feature, retypeTo);
+    }
+    return feature;
+  }
+
+  @Override
+  public void close() {
+    closeChunk();
+    exhausted = true;
+    next = null;
+  }
+
+  private void chunkCompleted() {
+    if (chunkListener != null) {
+      chunkListener.chunkCompleted(chunk, returned);
+    }
+    chunk++;
+    returnedInChunk = 0;
+  }
+
+  private void openChunk() throws IOException {
+    Query chunkQuery = new Query(query);
+    chunkQuery.setPropertyNames(propertyNames);
+    switch (pagingMode) {
+      case KEYSET -> {
+        requestedFromQuery = chunkSize - returnedInChunk;
+        chunkQuery.setMaxFeatures(requestedFromQuery);
+        chunkQuery.setSortBy(ff.sort(primaryKey, SortOrder.ASCENDING));
+        if (lastKey != null) {
+          Filter afterLastKey = ff.greater(ff.property(primaryKey), ff.literal(lastKey));
+          chunkQuery.setFilter(
+              query.getFilter() == null || query.getFilter() == Filter.INCLUDE
+                  ? afterLastKey
+                  : ff.and(query.getFilter(), afterLastKey));
+        }
+      }
+      case OFFSET -> {
+        requestedFromQuery = chunkSize - returnedInChunk;
+        chunkQuery.setMaxFeatures(requestedFromQuery);
+        chunkQuery.setStartIndex(Math.toIntExact(returned));
+        SortBy[] sortBy = primaryKey == null
+            ? query.getSortBy()
+            : ChunkedFeatureCollection.getStableSortBy(query, primaryKey);
+        chunkQuery.setSortBy(sortBy);
+      }
+      default -> requestedFromQuery = Integer.MAX_VALUE;
+    }
+    logger.trace("Opening chunk {} with query {}", chunk, chunkQuery);
+    readFromQuery = 0;
+    chunkIterator = source.getFeatures(chunkQuery).features();
+  }
+
+  private void closeChunk() {
+    if (chunkIterator != null) {
+      try {
+        chunkIterator.close();
+      } catch (RuntimeException e) {
+        logger.debug("Error closing chunk iterator", e);
+      }
+      chunkIterator = null;
+    }
+  }
+
+  private void retryOrThrow(Exception e) {
+    if (Thread.currentThread().isInterrupted()) {
+      // the error is probably caused by the interrupt, do not retry
+      exhausted = true;
+      throw new CancellationException("Reading features was interrupted");
+    }
+    boolean resumable = pagingMode != ChunkedFeatureCollection.PagingMode.UNPAGED || returned == 0;
+    if (!resumable || !isTransient(e) || retries >= maxRetries) {
+      exhausted = true;
+      if (e instanceof RuntimeException runtimeException) {
+        throw runtimeException;
+      }
+      throw new RuntimeException(e);
+    }
+    retries++;
+    long delay = retryDelayMillis * (1L << Math.min(retries - 1, 10));
+    logger.warn(
+        "Error reading chunk {} after {} features, retrying in {} ms (attempt {} of {})",
+        chunk,
+        returned,
+        delay,
+        retries,
+        maxRetries,
+        e);
+    if (chunkListener != null) {
+      chunkListener.chunkRetried(chunk, retries, e);
+    }
+    try {
+      Thread.sleep(delay);
+    } catch (InterruptedException ie) {
+      Thread.currentThread().interrupt();
+      exhausted = true;
+      throw new CancellationException("Interrupted while waiting to retry reading features");
+    }
+  }
+
+  static boolean isTransient(Throwable e) {
+    for (Throwable t = e; t != null; t = t.getCause()) {
+      if (t instanceof IOException || t instanceof SQLException) {
+        return true;
+      }
+      if (t.getCause() == t) {
+        break;
+      }
+    }
+    return false;
+  }
+}
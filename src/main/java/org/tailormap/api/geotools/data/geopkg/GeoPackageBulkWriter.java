@@ -0,0 +1,288 @@
+/*
+ * Copyright (C) 2026 B3Partners B.V.
+ *
+ * SPDX-License-Identifier: MIT
+ */
+package org.tailormap.api.geotools.data.geopkg;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.stream.Collectors;
+import org.geotools.api.feature.simple.SimpleFeature;
+import org.geotools.api.feature.simple.SimpleFeatureType;
+import org.geotools.api.feature.type.AttributeDescriptor;
+import org.geotools.api.feature.type.GeometryDescriptor;
+import org.geotools.data.simple.SimpleFeatureCollection;
+import org.geotools.data.simple.SimpleFeatureIterator;
+import org.geotools.geometry.jts.ReferencedEnvelope;
+import org.geotools.geopkg.FeatureEntry;
+import org.geotools.geopkg.GeoPackage;
+import org.geotools.geopkg.geom.GeoPkgGeomWriter;
+import org.geotools.util.factory.Hints;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.LinearRing;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Bulk loads features into a new GeoPackage feature table, as a faster alternative to
+ * {@link GeoPackage#add(FeatureEntry, SimpleFeatureCollection)} for large extracts.
+ *
+ * <ul>
+ *   <li>the features are inserted with batched prepared statements in a single transaction, with
+ *       {@code synchronous=OFF} and {@code journal_mode=MEMORY} because the GeoPackage is a new file that is discarded
+ *       when writing fails
+ *   <li>while the next batch is read, the geometries of previous batches are encoded to GeoPackage WKB on the
+ *       encoding executor
+ *   <li>the bounds are computed while loading instead of by reading the features before loading
+ * </ul>
+ *
+ * The spatial index should be created after loading with {@link GeoPackage#createSpatialIndex(FeatureEntry)}, which
+ * fills the R-tree in a single statement.
+ */
+public class GeoPackageBulkWriter {
+  private static final Logger logger =
+      LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+  /** The formats GeoTools uses for dates and timestamps in a GeoPackage. */
+  private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ISO_LOCAL_DATE;
+
+  private static final DateTimeFormatter TIMESTAMP_FORMAT =
+      DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'").withZone(ZoneOffset.UTC);
+
+  private final GeoPackage geoPackage;
+  private final Executor encodingExecutor;
+  private final int batchSize;
+  private final int maxPendingBatches;
+
+  /**
+   * @param geoPackage the initialized GeoPackage
+   * @param encodingExecutor the executor to encode batches of features on
+   * @param batchSize the number of features per batch
+   * @param maxPendingBatches the maximum number of batches read but not yet inserted, limiting memory use
+   */
+  public GeoPackageBulkWriter(
+      GeoPackage geoPackage, Executor encodingExecutor, int batchSize, int maxPendingBatches) {
+    this.geoPackage = geoPackage;
+    this.encodingExecutor = encodingExecutor;
+    this.batchSize = Math.max(1, batchSize);
+    this.maxPendingBatches = Math.max(1, maxPendingBatches);
+  }
+
+  /** The encoded column values of a batch of features and their bounds. */
+  private record EncodedBatch(List<Object[]> rows, Envelope bounds) {}
+
+  /**
+   * Create a feature table and load the features into it.
+   *
+   * @param entry the feature entry, the table name must be set
+   * @param schema the feature type of the features, must have a geometry
+   * @param features the features to write
+   * @return the number of features written
+   * @throws IOException when writing fails
+   * @throws CancellationException when the thread is interrupted
+   */
+  public long write(FeatureEntry entry, SimpleFeatureType schema, SimpleFeatureCollection features)
+      throws IOException {
+    GeometryDescriptor geometryDescriptor = schema.getGeometryDescriptor();
+    if (geometryDescriptor == null) {
+      throw new IllegalArgumentException("Feature type " + schema.getTypeName() + " has no geometry");
+    }
+    // the real bounds are only known after loading
+    entry.setBounds(new ReferencedEnvelope(schema.getCoordinateReferenceSystem()));
+    geoPackage.create(entry, schema);
+
+    List<AttributeDescriptor> descriptors = schema.getAttributeDescriptors();
+    int geometryIndex = descriptors.indexOf(geometryDescriptor);
+    int dimension = geometryDescriptor.getUserData().get(Hints.COORDINATE_DIMENSION) instanceof Integer d ? d : 2;
+    String sql = "INSERT INTO %s (%s) VALUES (%s)"
+        .formatted(
+            quote(entry.getTableName()),
+            descriptors.stream()
+                .map(descriptor -> quote(descriptor.getLocalName()))
+                .collect(Collectors.joining(", ")),
+            descriptors.stream().map(descriptor -> "?").collect(Collectors.joining(", ")));
+
+    Envelope bounds = new Envelope();
+    long count = 0;
+    Deque<CompletableFuture<EncodedBatch>> pending = new ArrayDeque<>();
+    try (Connection connection = geoPackage.getDataSource().getConnection()) {
+      int srid = getSrid(connection, entry.getTableName());
+      try (Statement statement = connection.createStatement()) {
+        // the pragmas only apply to this connection
+        statement.execute("PRAGMA synchronous = OFF");
+        statement.execute("PRAGMA journal_mode = MEMORY");
+      }
+      connection.setAutoCommit(false);
+      try (PreparedStatement insert = connection.prepareStatement(sql);
+          SimpleFeatureIterator iterator = features.features()) {
+        List<SimpleFeature> batch = new ArrayList<>(batchSize);
+        while (iterator.hasNext()) {
+          batch.add(iterator.next());
+          if (batch.size() == batchSize || !iterator.hasNext()) {
+            List<SimpleFeature> toEncode = batch;
+            pending.add(CompletableFuture.supplyAsync(
+                () -> encode(toEncode, geometryIndex, dimension, srid), encodingExecutor));
+            batch = new ArrayList<>(batchSize);
+          }
+          while (pending.size() >= maxPendingBatches || (!iterator.hasNext() && !pending.isEmpty())) {
+            EncodedBatch encoded = await(pending.removeFirst());
+            insert(insert, encoded.rows());
+            bounds.expandToInclude(encoded.bounds());
+            count += encoded.rows().size();
+          }
+        }
+        connection.commit();
+      } catch (SQLException | IOException | RuntimeException e) {
+        connection.rollback();
+        throw e;
+      }
+
+      try (PreparedStatement update = connection.prepareStatement(
+          "UPDATE gpkg_contents SET min_x = ?, min_y = ?, max_x = ?, max_y = ? WHERE table_name = ?")) {
+        // an empty table has no bounds, the null envelope has min 0 and max -1
+        double[] extent = {bounds.getMinX(), bounds.getMinY(), bounds.getMaxX(), bounds.getMaxY()};
+        for (int i = 0; i < extent.length; i++) {
+          if (bounds.isNull()) {
+            update.setNull(i + 1, Types.DOUBLE);
+          } else {
+            update.setDouble(i + 1, extent[i]);
+          }
+        }
+        update.setString(5, entry.getTableName());
+        update.executeUpdate();
+        connection.commit();
+      }
+    } catch (SQLException e) {
+      throw new IOException("Error writing features to GeoPackage table " + entry.getTableName(), e);
+    } finally {
+      pending.forEach(future -> future.cancel(true));
+    }
+    entry.setBounds(new ReferencedEnvelope(bounds, schema.getCoordinateReferenceSystem()));
+    logger.debug("Wrote {} features to GeoPackage table {}", count, entry.getTableName());
+    return count;
+  }
+
+  private static int getSrid(Connection connection, String tableName) throws SQLException {
+    try (PreparedStatement statement =
+        connection.prepareStatement("SELECT srs_id FROM gpkg_geometry_columns WHERE table_name = ?")) {
+      statement.setString(1, tableName);
+      try (ResultSet rs = statement.executeQuery()) {
+        return rs.next() ? rs.getInt(1) : 0;
+      }
+    }
+  }
+
+  private static EncodedBatch encode(List<SimpleFeature> features, int geometryIndex, int dimension, int srid) {
+    GeoPkgGeomWriter geomWriter = new GeoPkgGeomWriter(dimension);
+    Envelope bounds = new Envelope();
+    List<Object[]> rows = new ArrayList<>(features.size());
+    for (SimpleFeature feature : features) {
+      List<Object> attributes = feature.getAttributes();
+      Object[] row = new Object[attributes.size()];
+      for (int i = 0; i < row.length; i++) {
+        Object value = attributes.get(i);
+        if (i == geometryIndex && value instanceof Geometry geometry) {
+          bounds.expandToInclude(geometry.getEnvelopeInternal());
+          row[i] = encodeGeometry(geomWriter, geometry, srid);
+        } else {
+          row[i] = toSqliteValue(value);
+        }
+      }
+      rows.add(row);
+    }
+    return new EncodedBatch(rows, bounds);
+  }
+
+  private static byte[] encodeGeometry(GeoPkgGeomWriter geomWriter, Geometry geometry, int srid) {
+    if (geometry instanceof LinearRing ring) {
+      // not a valid GeoPackage geometry type, written as a line string like GeoTools does
+      geometry = geometry.getFactory().createLineString(ring.getCoordinateSequence());
+    } else if (geometry.getSRID() != srid) {
+      // do not change the geometry of the feature from the source
+      geometry = geometry.copy();
+    }
+    // the GeoPackage geometry header includes the srs id of the geometry
+    geometry.setSRID(srid);
+    try {
+      return geomWriter.write(geometry);
+    } catch (IOException e) {
+      throw new CompletionException(e);
+    }
+  }
+
+  /** Convert a value to a type the SQLite JDBC driver binds like GeoTools does. */
+  private static Object toSqliteValue(Object value) {
+    return switch (value) {
+      case null -> null;
+      case String s -> s;
+      case Integer i -> i;
+      case Long l -> l;
+      case Double d -> d;
+      case Float f -> f;
+      case Short s -> s;
+      case Byte b -> b;
+      case byte[] bytes -> bytes;
+      case Boolean b -> b ? 1 : 0;
+      case BigDecimal bd -> bd.doubleValue();
+      case BigInteger bi -> bi.longValue();
+      case java.sql.Date date -> DATE_FORMAT.format(date.toLocalDate());
+      case java.sql.Time time -> time.toString();
+      case java.util.Date date -> TIMESTAMP_FORMAT.format(date.toInstant());
+      case Geometry geometry -> geometry.toText();
+      default -> value.toString();
+    };
+  }
+
+  private static void insert(PreparedStatement insert, List<Object[]> rows) throws SQLException {
+    for (Object[] row : rows) {
+      for (int i = 0; i < row.length; i++) {
+        insert.setObject(i + 1, row[i]);
+      }
+      insert.addBatch();
+    }
+    insert.executeBatch();
+  }
+
+  private static EncodedBatch await(CompletableFuture<EncodedBatch> future) throws IOException {
+    try {
+      return future.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new CancellationException("Writing GeoPackage was interrupted");
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause() instanceof CompletionException ce ? ce.getCause() : e.getCause();
+      if (cause instanceof IOException ioe) {
+        throw ioe;
+      }
+      if (cause instanceof RuntimeException re) {
+        throw re;
+      }
+      throw new IOException(cause);
+    }
+  }
+
+  private static String quote(String identifier) {
+    return "\"" + identifier.replace("\"", "\"\"") + "\"";
+  }
+}
@@ -8,6 +8,8 @@
 import jakarta.validation.constraints.NotNull;
 import java.io.IOException;
 import java.lang.invoke.MethodHandles;
+import java.math.BigDecimal;
+import java.math.BigInteger;
 import java.nio.ByteBuffer;
 import java.sql.Connection;
 import java.sql.DatabaseMetaData;
@@ -19,6 +21,7 @@
 import java.time.OffsetDateTime;
 import java.time.ZoneId;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
@@ -378,9 +381,9 @@ private static byte[] asBytes(UUID uuid) {
     return bb.array();
   }
 
-  public static AttachmentMetadata insertAttachment(
-      TMFeatureType featureType, AttachmentMetadata attachment, Object primaryKey, byte[] fileData)
-      throws IOException, SQLException {
+  static AttachmentMetadata insertAttachment(
+      JDBCDataStore ds, TMFeatureType featureType, AttachmentMetadata attachment, Object primaryKey, byte[] fileData)
+      throws SQLException {
 
     // create uuid here so we don't have to deal with DB-specific returning/generated key syntax
     attachment.setAttachmentId(UUID.randomUUID());
@@ -398,291 +401,183 @@ public static AttachmentMetadata insertAttachment(
         attachment,
         fileData.length);
 
-    JDBCDataStore ds = null;
-    try {
-      ds = (JDBCDataStore) new JDBCFeatureSourceHelper().createDataStore(featureType.getFeatureSource());
-
-      String insertSql = MessageFormat.format(
-          """
+    String insertSql = MessageFormat.format("""
 INSERT INTO {1}{0}_attachments (
 {0}_pk, attachment_id, file_name, attribute_name, description, attachment, attachment_size,
 mime_type, created_at, created_by) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
-""", featureType.getName(), ds.getDatabaseSchema().isEmpty() ? "" : ds.getDatabaseSchema() + ".");
-
-      logger.debug("Insert attachment SQL: {}", insertSql);
-      try (Connection conn = ds.getDataSource().getConnection();
-          PreparedStatement stmt = conn.prepareStatement(insertSql)) {
-
-        stmt.setObject(1, primaryKey);
-        if (featureType
-            .getFeatureSource()
-            .getJdbcConnection()
-            .getDbtype()
-            .equals(JDBCConnectionProperties.DbtypeEnum.ORACLE)) {
-
-          stmt.setBytes(2, asBytes(attachment.getAttachmentId()));
-        } else {
-          stmt.setObject(2, attachment.getAttachmentId());
-        }
-        stmt.setString(3, attachment.getFileName());
-        stmt.setString(4, attachment.getAttributeName());
-        stmt.setString(5, attachment.getDescription());
-        stmt.setBytes(6, fileData);
-        stmt.setLong(7, fileData.length);
-        stmt.setString(8, attachment.getMimeType());
-        stmt.setTimestamp(
-            9, java.sql.Timestamp.from(attachment.getCreatedAt().toInstant()));
-        stmt.setString(10, attachment.getCreatedBy());
-
-        stmt.executeUpdate();
-
-        return attachment;
-      }
-    } finally {
-      if (ds != null) {
-        ds.dispose();
+""", featureType.getName(), getSchemaPrefix(ds));
+
+    logger.debug("Insert attachment SQL: {}", insertSql);
+    try (Connection conn = ds.getDataSource().getConnection();
+        PreparedStatement stmt = conn.prepareStatement(insertSql)) {
+
+      stmt.setObject(1, primaryKey);
+      if (featureType
+          .getFeatureSource()
+          .getJdbcConnection()
+          .getDbtype()
+          .equals(JDBCConnectionProperties.DbtypeEnum.ORACLE)) {
+
+        stmt.setBytes(2, asBytes(attachment.getAttachmentId()));
+      } else {
+        stmt.setObject(2, attachment.getAttachmentId());
       }
+      stmt.setString(3, attachment.getFileName());
+      stmt.setString(4, attachment.getAttributeName());
+      stmt.setString(5, attachment.getDescription());
+      stmt.setBytes(6, fileData);
+      stmt.setLong(7, fileData.length);
+      stmt.setString(8, attachment.getMimeType());
+      stmt.setTimestamp(9, java.sql.Timestamp.from(attachment.getCreatedAt().toInstant()));
+      stmt.setString(10, attachment.getCreatedBy());
+
+      stmt.executeUpdate();
+
+      return attachment;
     }
   }
 
-  public static void deleteAttachment(UUID attachmentId, TMFeatureType featureType) throws IOException, SQLException {
-    JDBCDataStore ds = null;
-    try {
-      ds = (JDBCDataStore) new JDBCFeatureSourceHelper().createDataStore(featureType.getFeatureSource());
-
-      String deleteSql = MessageFormat.format(
-          """
+  static void deleteAttachment(JDBCDataStore ds, UUID attachmentId, TMFeatureType featureType) throws SQLException {
+    String deleteSql = MessageFormat.format("""
 DELETE FROM {1}{0}_attachments WHERE attachment_id = ?
-""", featureType.getName(), ds.getDatabaseSchema().isEmpty() ? "" : ds.getDatabaseSchema() + ".");
-
-      try (Connection conn = ds.getDataSource().getConnection();
-          PreparedStatement stmt = conn.prepareStatement(deleteSql)) {
-        if (featureType
-            .getFeatureSource()
-            .getJdbcConnection()
-            .getDbtype()
-            .equals(JDBCConnectionProperties.DbtypeEnum.ORACLE)) {
-          stmt.setBytes(1, asBytes(attachmentId));
-        } else {
-          stmt.setObject(1, attachmentId);
-        }
-
-        stmt.executeUpdate();
-      }
-    } finally {
-      if (ds != null) {
-        ds.dispose();
+""", featureType.getName(), getSchemaPrefix(ds));
+
+    try (Connection conn = ds.getDataSource().getConnection();
+        PreparedStatement stmt = conn.prepareStatement(deleteSql)) {
+      if (featureType
+          .getFeatureSource()
+          .getJdbcConnection()
+          .getDbtype()
+          .equals(JDBCConnectionProperties.DbtypeEnum.ORACLE)) {
+        stmt.setBytes(1, asBytes(attachmentId));
+      } else {
+        stmt.setObject(1, attachmentId);
       }
+
+      stmt.executeUpdate();
     }
   }
 
-  public static List<AttachmentMetadata> listAttachmentsForFeature(TMFeatureType featureType, Object primaryKey)
-      throws IOException, SQLException {
+  static List<AttachmentMetadata> listAttachmentsForFeature(
+      JDBCDataStore ds, TMFeatureType featureType, Object primaryKey) throws SQLException {
 
     List<AttachmentMetadata> attachments = new ArrayList<>();
-    JDBCDataStore ds = null;
-    try {
-      ds = (JDBCDataStore) new JDBCFeatureSourceHelper().createDataStore(featureType.getFeatureSource());
-      String querySql = MessageFormat.format(
-          """
-SELECT
-{0}_pk,
-attachment_id,
-file_name,
-attribute_name,
-description,
-attachment_size,
-mime_type,
-created_at,
-created_by
-FROM {1}{0}_attachments WHERE {0}_pk = ?
-""", featureType.getName(), ds.getDatabaseSchema().isEmpty() ? "" : ds.getDatabaseSchema() + ".");
-      try (Connection conn = ds.getDataSource().getConnection();
-          PreparedStatement stmt = conn.prepareStatement(querySql)) {
+    String querySql = MessageFormat.format(
+        "{0} WHERE {1}_pk = ?", getSelectAttachmentMetadataSql(ds, featureType), featureType.getName());
+    try (Connection conn = ds.getDataSource().getConnection();
+        PreparedStatement stmt = conn.prepareStatement(querySql)) {
 
-        stmt.setObject(1, primaryKey);
+      stmt.setObject(1, primaryKey);
 
-        try (ResultSet rs = stmt.executeQuery()) {
-          while (rs.next()) {
-            AttachmentMetadata a = getAttachmentMetadata(rs);
-            attachments.add(a);
-          }
+      try (ResultSet rs = stmt.executeQuery()) {
+        while (rs.next()) {
+          AttachmentMetadata a = getAttachmentMetadata(rs);
+          attachments.add(a);
         }
       }
-    } finally {
-      if (ds != null) {
-        ds.dispose();
-      }
     }
     return attachments;
   }
 
-  public static AttachmentWithBinary getAttachment(TMFeatureType featureType, UUID attachmentId)
-      throws IOException, SQLException {
-
-    JDBCDataStore ds = null;
-    try {
-      byte[] attachment;
-      ds = (JDBCDataStore) new JDBCFeatureSourceHelper().createDataStore(featureType.getFeatureSource());
-      String querySql = MessageFormat.format(
-          "SELECT attachment, attachment_size, mime_type, file_name FROM {1}{0}_attachments WHERE attachment_id = ?",
-          featureType.getName(), ds.getDatabaseSchema().isEmpty() ? "" : ds.getDatabaseSchema() + ".");
-      try (Connection conn = ds.getDataSource().getConnection();
-          PreparedStatement stmt = conn.prepareStatement(querySql)) {
-
-        if (featureType
-            .getFeatureSource()
-            .getJdbcConnection()
-            .getDbtype()
-            .equals(JDBCConnectionProperties.DbtypeEnum.ORACLE)) {
-          stmt.setBytes(1, asBytes(attachmentId));
-        } else {
-          stmt.setObject(1, attachmentId);
-        }
+  static AttachmentWithBinary getAttachment(JDBCDataStore ds, TMFeatureType featureType, UUID attachmentId)
+      throws SQLException {
+    byte[] attachment;
+    String querySql = MessageFormat.format(
+        "SELECT attachment, attachment_size, mime_type, file_name FROM {1}{0}_attachments WHERE attachment_id = ?",
+        featureType.getName(), getSchemaPrefix(ds));
+    try (Connection conn = ds.getDataSource().getConnection();
+        PreparedStatement stmt = conn.prepareStatement(querySql)) {
+
+      if (featureType
+          .getFeatureSource()
+          .getJdbcConnection()
+          .getDbtype()
+          .equals(JDBCConnectionProperties.DbtypeEnum.ORACLE)) {
+        stmt.setBytes(1, asBytes(attachmentId));
+      } else {
+        stmt.setObject(1, attachmentId);
+      }
 
-        try (ResultSet rs = stmt.executeQuery()) {
-          if (rs.next()) {
-            attachment = rs.getBytes("attachment");
-            AttachmentMetadata a = new AttachmentMetadata();
-            long size = rs.getLong("attachment_size");
-            if (!rs.wasNull()) {
-              a.setAttachmentSize(size);
-            }
-            a.setMimeType(rs.getString("mime_type"));
-            a.setFileName(rs.getString("file_name"));
-            return new AttachmentWithBinary(
-                a, ByteBuffer.wrap(attachment).asReadOnlyBuffer());
-          } else {
-            return null;
+      try (ResultSet rs = stmt.executeQuery()) {
+        if (rs.next()) {
+          attachment = rs.getBytes("attachment");
+          AttachmentMetadata a = new AttachmentMetadata();
+          long size = rs.getLong("attachment_size");
+          if (!rs.wasNull()) {
+            a.setAttachmentSize(size);
           }
+          a.setMimeType(rs.getString("mime_type"));
+          a.setFileName(rs.getString("file_name"));
+          return new AttachmentWithBinary(a, ByteBuffer.wrap(attachment).asReadOnlyBuffer());
+        } else {
+          return null;
         }
       }
-    } finally {
-      if (ds != null) {
-        ds.dispose();
-      }
     }
   }
 
   /**
-   * List attachments for multiple features grouped by their FIDs. <br>
-   * <strong>NOTE</strong>: the featurePKs list should contain objects that can be used as primary keys.
+   * List attachments for multiple features grouped by their FIDs, using the given DataStore. On PostGIS the primary
+   * keys are bound as a single array parameter ({@code = ANY(?)}) when the key type allows it, otherwise the keys are
+   * split into {@code IN} lists no longer than the database allows (see {@link #getMaxInListSize}). The {@code IN}
+   * lists are padded to a limited number of sizes so the pool of the DataStore can reuse the prepared statements.
    *
+   * @param ds the DataStore of the feature source of the feature type, this will not be disposed
    * @param featureType the feature type
    * @param featurePKs the feature primary keys
    * @return map of feature ID to list of attachments
-   * @throws IOException when an IO error occurs connecting to the database
    */
-  public static @NonNull Map<String, List<AttachmentMetadata>> listAttachmentsForFeaturesByFeatureId(
-      TMFeatureType featureType, List<Object> featurePKs) throws IOException {
+  static @NonNull Map<String, List<AttachmentMetadata>> listAttachmentsForFeaturesByFeatureId(
+      JDBCDataStore ds, TMFeatureType featureType, List<Object> featurePKs) {
     List<AttachmentMetadataListItem> attachments = new ArrayList<>();
     if (featurePKs == null || featurePKs.isEmpty()) {
       return new HashMap<>();
     }
 
-    JDBCDataStore ds = null;
-    try {
-      ds = (JDBCDataStore) new JDBCFeatureSourceHelper().createDataStore(featureType.getFeatureSource());
-      String querySql = MessageFormat.format(
-          """
-SELECT
-{0}_pk,
-attachment_id,
-file_name,
-attribute_name,
-description,
-attachment_size,
-mime_type,
-created_at,
-created_by
-FROM {2}{0}_attachments WHERE {0}_pk IN ( {1} )
-""",
-          featureType.getName(),
-          String.join(", ", featurePKs.stream().map(id -> "?").toArray(String[]::new)),
-          ds.getDatabaseSchema().isEmpty() ? "" : ds.getDatabaseSchema() + ".");
-
-      try (Connection conn = ds.getDataSource().getConnection();
-          PreparedStatement stmt = conn.prepareStatement(querySql)) {
-
-        Object firstPK = featurePKs.getFirst();
-        boolean isUUID = firstPK instanceof UUID;
-        boolean isByteBuffer = firstPK instanceof ByteBuffer;
-
-        switch (featureType.getFeatureSource().getJdbcConnection().getDbtype()) {
-          case ORACLE -> {
-            for (int i = 0; i < featurePKs.size(); i++) {
-              if (isUUID) {
-                // Oracle (RAW(16)): Comparisons are possible, but the values in the IN list must be
-                // correctly formatted binary literals (hextoraw('...')).
-                stmt.setBytes(i + 1, asBytes((UUID) featurePKs.get(i)));
-              } else if (isByteBuffer) {
-                // unwrap ByteBuffer to byte[] for the query
-                stmt.setBytes(i + 1, ((ByteBuffer) featurePKs.get(i)).array());
-              } else {
-                stmt.setObject(i + 1, featurePKs.get(i));
-              }
-            }
-          }
-          case SQLSERVER -> {
-            for (int i = 0; i < featurePKs.size(); i++) {
-              if (isUUID) {
-                // use uppercase string representation for SQL Server UNIQUEIDENTIFIER
-                stmt.setString(
-                    i + 1, featurePKs.get(i).toString().toUpperCase(Locale.ROOT));
-              } else {
-                stmt.setObject(i + 1, featurePKs.get(i));
-              }
-            }
-          }
-          case POSTGIS -> {
-            for (int i = 0; i < featurePKs.size(); i++) {
-              stmt.setObject(i + 1, featurePKs.get(i));
-            }
-          }
-          default ->
-            throw new UnsupportedOperationException("Unsupported database type: "
-                + featureType
-                    .getFeatureSource()
-                    .getJdbcConnection()
-                    .getDbtype());
+    JDBCConnectionProperties.DbtypeEnum dbtype =
+        featureType.getFeatureSource().getJdbcConnection().getDbtype();
+    String selectSql = getSelectAttachmentMetadataSql(ds, featureType);
+
+    Object firstPK = featurePKs.getFirst();
+    boolean isUUID = firstPK instanceof UUID;
+    boolean isByteBuffer = firstPK instanceof ByteBuffer;
+
+    try (Connection conn = ds.getDataSource().getConnection()) {
+      String postgreSQLArrayType = dbtype == JDBCConnectionProperties.DbtypeEnum.POSTGIS
+          ? getPostgreSQLArrayElementType(firstPK)
+          : null;
+
+      if (postgreSQLArrayType != null) {
+        String querySql =
+            MessageFormat.format("{0} WHERE {1}_pk = ANY(?)", selectSql, featureType.getName());
+        try (PreparedStatement stmt = conn.prepareStatement(querySql)) {
+          stmt.setArray(
+              1,
+              conn.createArrayOf(
+                  postgreSQLArrayType,
+                  featurePKs.stream().map(String::valueOf).toArray(String[]::new)));
+          addAttachmentListItems(stmt, featureType, dbtype, isUUID, isByteBuffer, attachments);
         }
-
-        try (ResultSet rs = stmt.executeQuery()) {
-          while (rs.next()) {
-            Object keyObject = rs.getObject(1);
-            if (isUUID
-                && featureType
-                    .getFeatureSource()
-                    .getJdbcConnection()
-                    .getDbtype()
-                    .equals(JDBCConnectionProperties.DbtypeEnum.ORACLE)) {
-              // convert RAW(16) back to UUID
-              byte[] rawBytes = rs.getBytes(1);
-              ByteBuffer bb = ByteBuffer.wrap(rawBytes);
-              keyObject = new UUID(bb.getLong(), bb.getLong());
-            } else if (isUUID
-                && featureType
-                    .getFeatureSource()
-                    .getJdbcConnection()
-                    .getDbtype()
-                    .equals(JDBCConnectionProperties.DbtypeEnum.SQLSERVER)) {
-              // convert uppercase string back to UUID
-              keyObject = UUID.fromString(rs.getString(1));
-            } else if (isByteBuffer) {
-              assert keyObject instanceof byte[];
-              keyObject = ByteBuffer.wrap((byte[]) keyObject);
+      } else {
+        int maxInListSize = getMaxInListSize(dbtype);
+        for (int start = 0; start < featurePKs.size(); start += maxInListSize) {
+          List<Object> chunk = featurePKs.subList(start, Math.min(start + maxInListSize, featurePKs.size()));
+          int paddedSize = getPaddedInListSize(chunk.size(), maxInListSize);
+          String querySql = MessageFormat.format(
+              "{0} WHERE {1}_pk IN ( {2} )",
+              selectSql, featureType.getName(), String.join(", ", Collections.nCopies(paddedSize, "?")));
+
+          try (PreparedStatement stmt = conn.prepareStatement(querySql)) {
+            for (int i = 0; i < paddedSize; i++) {
+              // pad with the last key, duplicates in an IN list do not change the result
+              bindPrimaryKey(stmt, i + 1, chunk.get(Math.min(i, chunk.size() - 1)), dbtype, isUUID, isByteBuffer);
             }
-            attachments.add(new AttachmentMetadataListItem(
-                AttachmentsHelper.fidFromPK(featureType, keyObject), getAttachmentMetadata(rs)));
+            addAttachmentListItems(stmt, featureType, dbtype, isUUID, isByteBuffer, attachments);
           }
         }
-      } catch (SQLException ex) {
-        logger.error("Failed to get attachments for {}", featureType.getName(), ex);
-      }
-    } finally {
-      if (ds != null) {
-        ds.dispose();
       }
+    } catch (SQLException ex) {
+      logger.error("Failed to get attachments for {}", featureType.getName(), ex);
     }
     logger.debug(
         "Found {} attachments for {} features (features: {}, attachments: {})",
@@ -697,6 +592,143 @@ public static AttachmentWithBinary getAttachment(TMFeatureType featureType, UUID
             Collectors.mapping(AttachmentMetadataListItem::value, Collectors.toList())));
   }
 
+  private static void bindPrimaryKey(
+      PreparedStatement stmt,
+      int index,
+      Object featurePK,
+      JDBCConnectionProperties.DbtypeEnum dbtype,
+      boolean isUUID,
+      boolean isByteBuffer)
+      throws SQLException {
+    switch (dbtype) {
+      case ORACLE -> {
+        if (isUUID) {
+          // Oracle (RAW(16)): Comparisons are possible, but the values in the IN list must be
+          // correctly formatted binary literals (hextoraw('...')).
+          stmt.setBytes(index, asBytes((UUID) featurePK));
+        } else if (isByteBuffer) {
+          // unwrap ByteBuffer to byte[] for the query
+          stmt.setBytes(index, ((ByteBuffer) featurePK).array());
+        } else {
+          stmt.setObject(index, featurePK);
+        }
+      }
+      case SQLSERVER -> {
+        if (isUUID) {
+          // use uppercase string representation for SQL Server UNIQUEIDENTIFIER
+          stmt.setString(index, featurePK.toString().toUpperCase(Locale.ROOT));
+        } else {
+          stmt.setObject(index, featurePK);
+        }
+      }
+      case POSTGIS -> stmt.setObject(index, featurePK);
+      default -> throw new UnsupportedOperationException("Unsupported database type: " + dbtype);
+    }
+  }
+
+  private static void addAttachmentListItems(
+      PreparedStatement stmt,
+      TMFeatureType featureType,
+      JDBCConnectionProperties.DbtypeEnum dbtype,
+      boolean isUUID,
+      boolean isByteBuffer,
+      List<AttachmentMetadataListItem> attachments)
+      throws SQLException {
+    try (ResultSet rs = stmt.executeQuery()) {
+      while (rs.next()) {
+        Object keyObject = rs.getObject(1);
+        if (isUUID && dbtype.equals(JDBCConnectionProperties.DbtypeEnum.ORACLE)) {
+          // convert RAW(16) back to UUID
+          byte[] rawBytes = rs.getBytes(1);
+          ByteBuffer bb = ByteBuffer.wrap(rawBytes);
+          keyObject = new UUID(bb.getLong(), bb.getLong());
+        } else if (isUUID && dbtype.equals(JDBCConnectionProperties.DbtypeEnum.SQLSERVER)) {
+          // convert uppercase string back to UUID
+          keyObject = UUID.fromString(rs.getString(1));
+        } else if (isByteBuffer) {
+          assert keyObject instanceof byte[];
+          keyObject = ByteBuffer.wrap((byte[]) keyObject);
+        }
+        attachments.add(new AttachmentMetadataListItem(
+            AttachmentsHelper.fidFromPK(featureType, keyObject), getAttachmentMetadata(rs)));
+      }
+    }
+  }
+
+  private static String getSchemaPrefix(JDBCDataStore ds) {
+    return ds.getDatabaseSchema() == null || ds.getDatabaseSchema().isEmpty() ? "" : ds.getDatabaseSchema() + ".";
+  }
+
+  private static String getSelectAttachmentMetadataSql(JDBCDataStore ds, TMFeatureType featureType) {
+    return MessageFormat.format("""
+SELECT
+{0}_pk,
+attachment_id,
+file_name,
+attribute_name,
+description,
+attachment_size,
+mime_type,
+created_at,
+created_by
+FROM {1}{0}_attachments""", featureType.getName(), getSchemaPrefix(ds));
+  }
+
+  /**
+   * Get the PostgreSQL element type name to bind the primary keys as an array parameter.
+   *
+   * @param featurePK a feature primary key
+   * @return the PostgreSQL type name, or {@code null} if the keys should be bound in an {@code IN} list
+   */
+  static String getPostgreSQLArrayElementType(Object featurePK) {
+    if (featurePK instanceof Short) {
+      return "int2";
+    } else if (featurePK instanceof Integer) {
+      return "int4";
+    } else if (featurePK instanceof Long) {
+      return "int8";
+    } else if (featurePK instanceof BigInteger || featurePK instanceof BigDecimal) {
+      return "numeric";
+    } else if (featurePK instanceof UUID) {
+      return "uuid";
+    } else if (featurePK instanceof String) {
+      return "text";
+    }
+    return null;
+  }
+
+  /**
+   * Get the maximum number of primary keys to put in a single {@code IN} list. Oracle does not allow more than 1000
+   * expressions in a list and SQL Server does not allow more than 2100 parameters in a statement.
+   *
+   * @param dbtype the database type
+   * @return the maximum number of parameters in an {@code IN} list
+   */
+  static int getMaxInListSize(JDBCConnectionProperties.DbtypeEnum dbtype) {
+    return switch (dbtype) {
+      case ORACLE -> 1000;
+      // keep some room below the 2100 limit for parameters added by the driver
+      case SQLSERVER -> 2000;
+      // the PostgreSQL wire protocol allows at most 32767 parameters
+      case POSTGIS -> 10000;
+    };
+  }
+
+  /**
+   * Get the number of parameters for an {@code IN} list with the given number of keys. The size is rounded up to the
+   * next power of two (but not more than the maximum), so a small number of distinct statements is used.
+   *
+   * @param size the number of keys
+   * @param maxInListSize the maximum size of the {@code IN} list
+   * @return the padded size
+   */
+  static int getPaddedInListSize(int size, int maxInListSize) {
+    if (size <= 1) {
+      return size;
+    }
+    return Math.min(Integer.highestOneBit(size - 1) << 1, maxInListSize);
+  }
+
   /**
    * Constructs a Feature ID (FID) string from a feature type and primary key value. The FID format is
    * "{featureTypeName}.{primaryKey}". For byte[] primary keys, the bytes are converted to UUID format.
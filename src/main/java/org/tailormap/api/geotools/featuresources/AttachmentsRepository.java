@@ -0,0 +1,78 @@
+/*
+ * Copyright (C) 2026 B3Partners B.V.
+ *
+ * SPDX-License-Identifier: MIT
+ */
+package org.tailormap.api.geotools.featuresources;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.jspecify.annotations.NonNull;
+import org.springframework.stereotype.Service;
+import org.tailormap.api.persistence.TMFeatureType;
+import org.tailormap.api.viewer.model.AttachmentMetadata;
+
+/**
+ * Access to the {@code <FT>_attachments} sidecar tables using the shared, pooled DataStore of the feature source from
+ * {@link JDBCDataStoreCache} instead of creating and disposing a DataStore for every call. The statements are in
+ * {@link AttachmentsHelper}.
+ */
+@Service
+public class AttachmentsRepository {
+  private final JDBCDataStoreCache dataStoreCache;
+
+  public AttachmentsRepository(JDBCDataStoreCache dataStoreCache) {
+    this.dataStoreCache = dataStoreCache;
+  }
+
+  public AttachmentMetadata insertAttachment(
+      TMFeatureType featureType, AttachmentMetadata attachment, Object primaryKey, byte[] fileData)
+      throws IOException, SQLException {
+    try (JDBCDataStoreCache.Lease lease = dataStoreCache.acquire(featureType.getFeatureSource())) {
+      return AttachmentsHelper.insertAttachment(lease.getDataStore(), featureType, attachment, primaryKey, fileData);
+    }
+  }
+
+  public void deleteAttachment(UUID attachmentId, TMFeatureType featureType) throws IOException, SQLException {
+    try (JDBCDataStoreCache.Lease lease = dataStoreCache.acquire(featureType.getFeatureSource())) {
+      AttachmentsHelper.deleteAttachment(lease.getDataStore(), attachmentId, featureType);
+    }
+  }
+
+  public List<AttachmentMetadata> listAttachmentsForFeature(TMFeatureType featureType, Object primaryKey)
+      throws IOException, SQLException {
+    try (JDBCDataStoreCache.Lease lease = dataStoreCache.acquire(featureType.getFeatureSource())) {
+      return AttachmentsHelper.listAttachmentsForFeature(lease.getDataStore(), featureType, primaryKey);
+    }
+  }
+
+  public AttachmentsHelper.AttachmentWithBinary getAttachment(TMFeatureType featureType, UUID attachmentId)
+      throws IOException, SQLException {
+    try (JDBCDataStoreCache.Lease lease = dataStoreCache.acquire(featureType.getFeatureSource())) {
+      return AttachmentsHelper.getAttachment(lease.getDataStore(), featureType, attachmentId);
+    }
+  }
+
+  /**
+   * List attachments for multiple features grouped by their FIDs. <br>
+   * <strong>NOTE</strong>: the featurePKs list should contain objects that can be used as primary keys.
+   *
+   * @param featureType the feature type
+   * @param featurePKs the feature primary keys
+   * @return map of feature ID to list of attachments
+   * @throws IOException when an IO error occurs connecting to the database
+   */
+  public @NonNull Map<String, List<AttachmentMetadata>> listAttachmentsForFeaturesByFeatureId(
+      TMFeatureType featureType, List<Object> featurePKs) throws IOException {
+    if (featurePKs == null || featurePKs.isEmpty()) {
+      return new HashMap<>();
+    }
+    try (JDBCDataStoreCache.Lease lease = dataStoreCache.acquire(featureType.getFeatureSource())) {
+      return AttachmentsHelper.listAttachmentsForFeaturesByFeatureId(lease.getDataStore(), featureType, featurePKs);
+    }
+  }
+}
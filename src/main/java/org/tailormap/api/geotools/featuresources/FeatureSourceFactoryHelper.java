@@ -6,7 +6,9 @@
 package org.tailormap.api.geotools.featuresources;
 
 import java.io.IOException;
+import org.geotools.api.data.DataStore;
 import org.geotools.api.data.SimpleFeatureSource;
+import org.geotools.jdbc.JDBCDataStore;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.tailormap.api.persistence.TMFeatureSource;
@@ -18,13 +20,47 @@ public class FeatureSourceFactoryHelper {
   @Value("${tailormap-api.timeout}")
   private int timeout;
 
+  private final JDBCPoolMetrics poolMetrics;
+
+  public FeatureSourceFactoryHelper(JDBCPoolMetrics poolMetrics) {
+    this.poolMetrics = poolMetrics;
+  }
+
   public SimpleFeatureSource openGeoToolsFeatureSource(TMFeatureType tmft) throws IOException {
     return openGeoToolsFeatureSource(tmft, timeout);
   }
 
   public SimpleFeatureSource openGeoToolsFeatureSource(TMFeatureType tmft, int timeout) throws IOException {
-    FeatureSourceHelper sh = getHelper(tmft.getFeatureSource());
-    return sh.openGeoToolsFeatureSource(tmft, timeout);
+    DataStore ds = createDataStore(tmft.getFeatureSource(), timeout);
+    return ds.getFeatureSource(tmft.getName());
+  }
+
+  /**
+   * Create a DataStore for a feature source, for opening the GeoTools feature sources of multiple feature types of the
+   * same feature source. The caller must dispose the DataStore.
+   *
+   * @param tmfs the feature source
+   * @return the DataStore
+   * @throws IOException if an error occurs while creating the DataStore
+   */
+  public DataStore createDataStore(TMFeatureSource tmfs) throws IOException {
+    return createDataStore(tmfs, timeout);
+  }
+
+  /**
+   * Create a DataStore for a feature source with a specific timeout. The caller must dispose the DataStore.
+   *
+   * @param tmfs the feature source
+   * @param timeout the timeout in milliseconds for datastore operations, if supported by the datastore
+   * @return the DataStore
+   * @throws IOException if an error occurs while creating the DataStore
+   */
+  public DataStore createDataStore(TMFeatureSource tmfs, int timeout) throws IOException {
+    DataStore ds = getHelper(tmfs).createDataStore(tmfs, timeout);
+    if (ds instanceof JDBCDataStore jdbcDataStore) {
+      poolMetrics.instrument(tmfs, jdbcDataStore);
+    }
+    return ds;
   }
 
   private FeatureSourceHelper getHelper(TMFeatureSource fs) {
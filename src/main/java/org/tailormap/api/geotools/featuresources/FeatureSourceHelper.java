@@ -11,10 +11,13 @@
 
 import java.io.IOException;
 import java.lang.invoke.MethodHandles;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import org.apache.commons.lang3.StringUtils;
 import org.geotools.api.data.DataStore;
 import org.geotools.api.data.DataStoreFinder;
@@ -39,6 +42,9 @@ public abstract class FeatureSourceHelper {
   private static final Logger logger =
       LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
 
+  /** The maximum number of feature types loaded at the same time by {@link #loadCapabilities}. */
+  public static final int INTROSPECTION_PARALLELISM = 4;
+
   public DataStore createDataStore(TMFeatureSource tmfs) throws IOException {
     return createDataStore(tmfs, null);
   }
@@ -115,71 +121,95 @@ public void loadCapabilities(TMFeatureSource tmfs, Integer timeout) throws IOExc
         }
       });
 
+      Map<String, TMFeatureType> existingFeatureTypes = new HashMap<>();
+      tmfs.getFeatureTypes().forEach(ft -> existingFeatureTypes.putIfAbsent(ft.getName(), ft));
+      List<TMFeatureType> featureTypes = new ArrayList<>();
       for (String typeName : typeNames) {
-        TMFeatureType pft = tmfs.getFeatureTypes().stream()
-            .filter(ft -> ft.getName().equals(typeName))
-            .findFirst()
-            .orElseGet(() -> new TMFeatureType().setName(typeName).setFeatureSource(tmfs));
-        if (!tmfs.getFeatureTypes().contains(pft)) {
+        TMFeatureType pft = existingFeatureTypes.get(typeName);
+        if (pft == null) {
+          pft = new TMFeatureType().setName(typeName).setFeatureSource(tmfs);
           tmfs.getFeatureTypes().add(pft);
         }
-        try {
-          logger.debug("Get feature source from GeoTools datastore for type \"{}\"", typeName);
-          SimpleFeatureSource gtFs = ds.getFeatureSource(typeName);
-          ResourceInfo info = gtFs.getInfo();
-          if (info != null) {
-            pft.setTitle(info.getTitle());
-            pft.setInfo(getFeatureTypeInfo(pft, info, gtFs));
-            pft.getAttributes().clear();
-
-            SimpleFeatureType gtFt = gtFs.getSchema();
-            pft.setWriteable(gtFs instanceof JDBCFeatureStore
-                && !Boolean.TRUE.equals(gtFt.getUserData().get(JDBC_READ_ONLY)));
-            String primaryKeyName = null;
-            for (AttributeDescriptor gtAttr : gtFt.getAttributeDescriptors()) {
-              AttributeType type = gtAttr.getType();
-              if (Boolean.TRUE.equals(gtAttr.getUserData().get(JDBC_PRIMARY_KEY_COLUMN))) {
-                if (primaryKeyName == null) {
-                  logger.debug(
-                      "Found primary key attribute \"{}\" for type \"{}\"",
-                      gtAttr.getLocalName(),
-                      typeName);
-                  primaryKeyName = gtAttr.getLocalName();
-                } else {
-                  logger.warn(
-                      "Multiple primary key attributes found for type \"{}\": \"{}\" and \"{}\". Composite primary keys are not supported for writing at the moment, setting as read-only.",
-                      typeName,
-                      primaryKeyName,
-                      gtAttr.getLocalName());
-                  pft.setWriteable(false);
-                }
-              }
-              TMAttributeDescriptor tmAttr = new TMAttributeDescriptor()
-                  .name(gtAttr.getLocalName())
-                  .type(GeoToolsHelper.toAttributeType(type))
-                  .nullable(gtAttr.isNillable())
-                  .defaultValue(
-                      gtAttr.getDefaultValue() == null
-                          ? null
-                          : gtAttr.getDefaultValue().toString())
-                  .description(
-                      type.getDescription() == null
-                          ? null
-                          : type.getDescription().toString());
-              if (tmAttr.getType() == TMAttributeType.OBJECT) {
-                tmAttr.setUnknownTypeClassName(type.getBinding().getName());
-              }
-              pft.getAttributes().add(tmAttr);
+        featureTypes.add(pft);
+      }
+      loadFeatureTypes(ds, featureTypes);
+    } finally {
+      ds.dispose();
+    }
+  }
+
+  /**
+   * Load the attributes and info of feature types from a DataStore. For a WFS every feature type needs a
+   * DescribeFeatureType request and for a database a few metadata queries, so feature types are loaded in parallel
+   * with at most {@link #INTROSPECTION_PARALLELISM} at a time.
+   */
+  private void loadFeatureTypes(DataStore ds, List<TMFeatureType> featureTypes) {
+    int threads = Math.min(INTROSPECTION_PARALLELISM, featureTypes.size());
+    if (threads <= 1) {
+      featureTypes.forEach(pft -> loadFeatureType(ds, pft));
+      return;
+    }
+    try (ExecutorService executor = Executors.newFixedThreadPool(
+        threads, Thread.ofPlatform().name("feature-type-introspection-", 0).factory())) {
+      featureTypes.forEach(pft -> executor.execute(() -> loadFeatureType(ds, pft)));
+    }
+  }
+
+  private void loadFeatureType(DataStore ds, TMFeatureType pft) {
+    String typeName = pft.getName();
+    try {
+      logger.debug("Get feature source from GeoTools datastore for type \"{}\"", typeName);
+      SimpleFeatureSource gtFs = ds.getFeatureSource(typeName);
+      ResourceInfo info = gtFs.getInfo();
+      if (info != null) {
+        pft.setTitle(info.getTitle());
+        pft.setInfo(getFeatureTypeInfo(pft, info, gtFs));
+        pft.getAttributes().clear();
+
+        SimpleFeatureType gtFt = gtFs.getSchema();
+        pft.setWriteable(gtFs instanceof JDBCFeatureStore
+            && !Boolean.TRUE.equals(gtFt.getUserData().get(JDBC_READ_ONLY)));
+        String primaryKeyName = null;
+        for (AttributeDescriptor gtAttr : gtFt.getAttributeDescriptors()) {
+          AttributeType type = gtAttr.getType();
+          if (Boolean.TRUE.equals(gtAttr.getUserData().get(JDBC_PRIMARY_KEY_COLUMN))) {
+            if (primaryKeyName == null) {
+              logger.debug(
+                  "Found primary key attribute \"{}\" for type \"{}\"",
+                  gtAttr.getLocalName(),
+                  typeName);
+              primaryKeyName = gtAttr.getLocalName();
+            } else {
+              logger.warn(
+                  "Multiple primary key attributes found for type \"{}\": \"{}\" and \"{}\". Composite primary keys are not supported for writing at the moment, setting as read-only.",
+                  typeName,
+                  primaryKeyName,
+                  gtAttr.getLocalName());
+              pft.setWriteable(false);
             }
-            pft.setPrimaryKeyAttribute(primaryKeyName);
-            pft.setDefaultGeometryAttribute(pft.findDefaultGeometryAttribute());
           }
-        } catch (Exception e) {
-          logger.error("Exception reading feature type \"{}\"", typeName, e);
+          TMAttributeDescriptor tmAttr = new TMAttributeDescriptor()
+              .name(gtAttr.getLocalName())
+              .type(GeoToolsHelper.toAttributeType(type))
+              .nullable(gtAttr.isNillable())
+              .defaultValue(
+                  gtAttr.getDefaultValue() == null
+                      ? null
+                      : gtAttr.getDefaultValue().toString())
+              .description(
+                  type.getDescription() == null
+                      ? null
+                      : type.getDescription().toString());
+          if (tmAttr.getType() == TMAttributeType.OBJECT) {
+            tmAttr.setUnknownTypeClassName(type.getBinding().getName());
+          }
+          pft.getAttributes().add(tmAttr);
         }
+        pft.setPrimaryKeyAttribute(primaryKeyName);
+        pft.setDefaultGeometryAttribute(pft.findDefaultGeometryAttribute());
       }
-    } finally {
-      ds.dispose();
+    } catch (Exception e) {
+      logger.error("Exception reading feature type \"{}\"", typeName, e);
     }
   }
 
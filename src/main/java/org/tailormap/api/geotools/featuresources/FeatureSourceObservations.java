@@ -0,0 +1,186 @@
+/*
+ * Copyright (C) 2026 B3Partners B.V.
+ *
+ * SPDX-License-Identifier: MIT
+ */
+package org.tailormap.api.geotools.featuresources;
+
+import io.micrometer.common.KeyValue;
+import io.micrometer.common.KeyValues;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToLongFunction;
+import org.geotools.api.data.Query;
+import org.geotools.api.data.SimpleFeatureSource;
+import org.jspecify.annotations.Nullable;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.tailormap.api.persistence.TMFeatureSource;
+import org.tailormap.api.persistence.TMFeatureType;
+
+/**
+ * Observes the stages of requests that query a feature source, such as creating the DataStore, counting, querying and
+ * processing the features. Each stage is recorded as a {@value #OBSERVATION_NAME} observation, which is published as a
+ * timer on the Prometheus actuator endpoint and as a span when tracing is configured.
+ *
+ * <p>The observations only have low cardinality tags: the operation, the stage, and the protocol, database type and id
+ * of the feature source. Queries observed with {@link #observeQuery} are also recorded in the {@link SlowQueryLog}.
+ * Stages that are interleaved with another stage, such as encoding the geometries of features while they are streamed
+ * from a query, are recorded with {@link #record} as a timer with the same name and tags, but not as a span.
+ */
+@Component
+public class FeatureSourceObservations {
+  public static final String OBSERVATION_NAME = "tailormap.feature.source.stage";
+
+  public static final String OPERATION = "operation";
+  public static final String STAGE = "stage";
+  public static final String PROTOCOL = "protocol";
+  public static final String DBTYPE = "dbtype";
+  public static final String FEATURE_SOURCE = "feature.source";
+
+  private static final String NONE = "none";
+
+  // the tag the DefaultMeterObservationHandler adds to the timers of observations
+  private static final String ERROR = "error";
+
+  private final ObservationRegistry observationRegistry;
+
+  private final @Nullable MeterRegistry meterRegistry;
+
+  private final @Nullable SlowQueryLog slowQueryLog;
+
+  @Autowired
+  public FeatureSourceObservations(
+      ObjectProvider<ObservationRegistry> observationRegistry,
+      ObjectProvider<MeterRegistry> meterRegistry,
+      SlowQueryLog slowQueryLog) {
+    this(
+        observationRegistry.getIfAvailable(() -> ObservationRegistry.NOOP),
+        meterRegistry.getIfAvailable(),
+        slowQueryLog);
+  }
+
+  public FeatureSourceObservations(ObservationRegistry observationRegistry) {
+    this(observationRegistry, null, null);
+  }
+
+  public FeatureSourceObservations(
+      ObservationRegistry observationRegistry,
+      @Nullable MeterRegistry meterRegistry,
+      @Nullable SlowQueryLog slowQueryLog) {
+    this.observationRegistry = observationRegistry;
+    this.meterRegistry = meterRegistry;
+    this.slowQueryLog = slowQueryLog;
+  }
+
+  /**
+   * Create an observation for a stage of an operation, which is not started yet.
+   *
+   * @param operation the operation, for example {@code features} or {@code bounds}
+   * @param stage the stage of the operation, for example {@code datastore} or {@code query}
+   * @param featureType the feature type that is queried, {@code null} when not querying a feature source
+   * @return the observation
+   */
+  public Observation stage(String operation, String stage, @Nullable TMFeatureType featureType) {
+    return Observation.createNotStarted(OBSERVATION_NAME, observationRegistry)
+        .lowCardinalityKeyValues(keyValues(operation, stage, featureType));
+  }
+
+  private static KeyValues keyValues(String operation, String stage, @Nullable TMFeatureType featureType) {
+    TMFeatureSource featureSource = featureType == null ? null : featureType.getFeatureSource();
+    String protocol = NONE;
+    String dbtype = NONE;
+    String featureSourceId = NONE;
+    if (featureSource != null) {
+      protocol = featureSource.getProtocol().getValue();
+      if (featureSource.getJdbcConnection() != null
+          && featureSource.getJdbcConnection().getDbtype() != null) {
+        dbtype = featureSource.getJdbcConnection().getDbtype().getValue();
+      }
+      featureSourceId = String.valueOf(featureSource.getId());
+    }
+    return KeyValues.of(OPERATION, operation)
+        .and(STAGE, stage)
+        .and(PROTOCOL, protocol)
+        .and(DBTYPE, dbtype)
+        .and(FEATURE_SOURCE, featureSourceId);
+  }
+
+  /**
+   * Record the total time of a stage that is interleaved with another stage, for example encoding the geometries of
+   * features while they are streamed from a query. The time is recorded as a timer with the same name and tags as the
+   * observations of other stages, but not as a span.
+   *
+   * @param nanos the total time of the stage in nanoseconds
+   * @see #stage(String, String, TMFeatureType)
+   */
+  public void record(String operation, String stage, @Nullable TMFeatureType featureType, long nanos) {
+    if (meterRegistry == null) {
+      return;
+    }
+    Tags tags = Tags.of(ERROR, NONE);
+    for (KeyValue keyValue : keyValues(operation, stage, featureType)) {
+      tags = tags.and(keyValue.getKey(), keyValue.getValue());
+    }
+    Timer.builder(OBSERVATION_NAME).tags(tags).register(meterRegistry).record(nanos, TimeUnit.NANOSECONDS);
+  }
+
+  /**
+   * Run a stage of an operation in an observation.
+   *
+   * @see #stage(String, String, TMFeatureType)
+   */
+  public <T, E extends Throwable> T observe(
+      String operation,
+      String stage,
+      @Nullable TMFeatureType featureType,
+      Observation.CheckedCallable<T, E> callable)
+      throws E {
+    return stage(operation, stage, featureType).observeChecked(callable);
+  }
+
+  /**
+   * Run a stage of an operation without a result in an observation.
+   *
+   * @see #stage(String, String, TMFeatureType)
+   */
+  public <E extends Throwable> void run(
+      String operation,
+      String stage,
+      @Nullable TMFeatureType featureType,
+      Observation.CheckedRunnable<E> runnable)
+      throws E {
+    stage(operation, stage, featureType).observeChecked(runnable);
+  }
+
+  /**
+   * Run a query on a feature source in an observation, and record it in the slow query log.
+   *
+   * @param featureSource the feature source the query is made on
+   * @param query the query
+   * @param rows gets the number of features or the count from the result, for the slow query log
+   * @see #stage(String, String, TMFeatureType)
+   */
+  public <T, E extends Throwable> T observeQuery(
+      String operation,
+      String stage,
+      TMFeatureType featureType,
+      SimpleFeatureSource featureSource,
+      Query query,
+      ToLongFunction<? super T> rows,
+      Observation.CheckedCallable<T, E> callable)
+      throws E {
+    long start = System.nanoTime();
+    T result = observe(operation, stage, featureType, callable);
+    if (slowQueryLog != null) {
+      slowQueryLog.record(
+          operation, featureType, featureSource, query, System.nanoTime() - start, rows.applyAsLong(result));
+    }
+    return result;
+  }
+}
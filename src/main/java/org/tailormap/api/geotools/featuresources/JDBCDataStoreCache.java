@@ -0,0 +1,161 @@
+/*
+ * Copyright (C) 2026 B3Partners B.V.
+ *
+ * SPDX-License-Identifier: MIT
+ */
+package org.tailormap.api.geotools.featuresources;
+
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandles;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import org.geotools.jdbc.JDBCDataStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.tailormap.api.persistence.TMFeatureSource;
+
+/**
+ * Keeps one long-lived {@link JDBCDataStore} (and thereby one JDBC connection pool) per JDBC feature source, for code
+ * that issues plain SQL against a feature source database and should not pay for creating and disposing a DataStore
+ * for each statement. A cached DataStore is replaced when the version of the feature source changes, for instance
+ * after the connection properties have been edited.
+ *
+ * <p>The DataStore is used through a {@link Lease}. A replaced or evicted DataStore is disposed when the last lease
+ * on it is closed, so callers that are still using it are not affected.
+ */
+@Component
+public class JDBCDataStoreCache {
+  private static final Logger logger =
+      LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+  /** A cached DataStore with a reference for the cache and a reference for each open lease. */
+  private static final class SharedDataStore {
+    private final Long featureSourceId;
+    private final Long version;
+    private final JDBCDataStore dataStore;
+    private final AtomicInteger references = new AtomicInteger(1);
+
+    private SharedDataStore(Long featureSourceId, Long version, JDBCDataStore dataStore) {
+      this.featureSourceId = featureSourceId;
+      this.version = version;
+      this.dataStore = dataStore;
+    }
+
+    private void release() {
+      if (references.decrementAndGet() == 0) {
+        logger.debug("Disposing shared datastore for feature source {} version {}", featureSourceId, version);
+        dataStore.dispose();
+      }
+    }
+  }
+
+  /** The use of a shared DataStore, which must be closed when done. */
+  public static final class Lease implements AutoCloseable {
+    private final SharedDataStore shared;
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    private Lease(SharedDataStore shared) {
+      this.shared = shared;
+    }
+
+    /**
+     * @return the shared DataStore, which must not be disposed and must not be used after closing this lease
+     */
+    public JDBCDataStore getDataStore() {
+      return shared.dataStore;
+    }
+
+    @Override
+    public void close() {
+      if (closed.compareAndSet(false, true)) {
+        shared.release();
+      }
+    }
+  }
+
+  private final Map<Long, SharedDataStore> dataStores = new ConcurrentHashMap<>();
+
+  private final FeatureSourceFactoryHelper featureSourceFactoryHelper;
+
+  public JDBCDataStoreCache(FeatureSourceFactoryHelper featureSourceFactoryHelper) {
+    this.featureSourceFactoryHelper = featureSourceFactoryHelper;
+  }
+
+  /**
+   * Lease the shared DataStore for a JDBC feature source, creating it if needed. Callers must close the lease when
+   * done, and must close any connections they get from the DataStore before that.
+   *
+   * @param tmfs the JDBC feature source
+   * @return a lease on the shared DataStore
+   * @throws IOException when the DataStore can not be created
+   */
+  public Lease acquire(TMFeatureSource tmfs) throws IOException {
+    Objects.requireNonNull(tmfs.getId(), "Only persisted feature sources can be cached");
+    AtomicReference<SharedDataStore> replaced = new AtomicReference<>();
+    SharedDataStore shared;
+    try {
+      // The reference of the lease is added while the key is locked, so the reference of the cache is still held
+      shared = dataStores.compute(tmfs.getId(), (id, cached) -> {
+        if (cached != null && Objects.equals(cached.version, tmfs.getVersion())) {
+          cached.references.incrementAndGet();
+          return cached;
+        }
+        JDBCDataStore ds;
+        try {
+          logger.debug("Creating shared datastore for feature source {}", id);
+          ds = (JDBCDataStore) featureSourceFactoryHelper.createDataStore(tmfs);
+        } catch (IOException e) {
+          throw new UncheckedIOException(e);
+        }
+        if (cached != null) {
+          logger.debug(
+              "Feature source {} changed from version {} to {}, replacing cached datastore",
+              id,
+              cached.version,
+              tmfs.getVersion());
+          replaced.set(cached);
+        }
+        SharedDataStore created = new SharedDataStore(id, tmfs.getVersion(), ds);
+        created.references.incrementAndGet();
+        return created;
+      });
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    } finally {
+      // Release the reference of the cache outside of compute(), disposing it when it is not in use
+      SharedDataStore old = replaced.get();
+      if (old != null) {
+        old.release();
+      }
+    }
+    return new Lease(shared);
+  }
+
+  /**
+   * Remove the shared DataStore for a feature source, if any. It is disposed when it is no longer in use.
+   *
+   * @param featureSourceId the id of the feature source
+   */
+  public void evict(Long featureSourceId) {
+    if (featureSourceId == null) {
+      return;
+    }
+    SharedDataStore cached = dataStores.remove(featureSourceId);
+    if (cached != null) {
+      logger.debug("Evicting shared datastore for feature source {}", featureSourceId);
+      cached.release();
+    }
+  }
+
+  @PreDestroy
+  public void disposeAll() {
+    dataStores.keySet().forEach(this::evict);
+  }
+}
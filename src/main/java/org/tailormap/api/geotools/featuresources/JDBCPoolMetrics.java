@@ -0,0 +1,211 @@
+/*
+ * Copyright (C) 2026 B3Partners B.V.
+ *
+ * SPDX-License-Identifier: MIT
+ */
+package org.tailormap.api.geotools.featuresources;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import java.lang.invoke.MethodHandles;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.ToIntFunction;
+import org.apache.commons.dbcp.BasicDataSource;
+import org.geotools.data.jdbc.datasource.DBCPDataSource;
+import org.geotools.jdbc.JDBCDataStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.tailormap.api.persistence.TMFeatureSource;
+
+/**
+ * Publishes metrics of the connection pools GeoTools creates for JDBC feature sources, which are not covered by the
+ * Hikari metrics of the application datasource. Every JDBCDataStore has its own pool, so the gauges of a feature
+ * source are summed over the pools of its DataStores that are not disposed yet. All meters are tagged with the id and
+ * database type of the feature source:
+ *
+ * <ul>
+ *   <li>{@value #ACTIVE}, {@value #IDLE} and {@value #MAX}: connections in use, idle and the maximum per pool
+ *   <li>{@value #WAITING}: threads checking out a connection
+ *   <li>{@value #POOLS}: DataStores (pools) not disposed yet
+ *   <li>{@value #OPENED} and {@value #DISPOSED}: the number of DataStores (pools) created and disposed
+ *   <li>{@value #WAIT}: the time to check out a connection, to compare with the {@code MAXWAIT} timeout
+ * </ul>
+ *
+ * <p>DataStores are instrumented by {@link FeatureSourceFactoryHelper}, DataStores created directly by a
+ * {@link JDBCFeatureSourceHelper} are not.
+ */
+@Component
+public class JDBCPoolMetrics {
+  private static final Logger logger =
+      LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+  public static final String ACTIVE = "tailormap.feature.source.connections.active";
+  public static final String IDLE = "tailormap.feature.source.connections.idle";
+  public static final String MAX = "tailormap.feature.source.connections.max";
+  public static final String WAITING = "tailormap.feature.source.connections.waiting";
+  public static final String WAIT = "tailormap.feature.source.connections.wait";
+  public static final String POOLS = "tailormap.feature.source.pools";
+  public static final String OPENED = "tailormap.feature.source.datastores.opened";
+  public static final String DISPOSED = "tailormap.feature.source.datastores.disposed";
+
+  private final MeterRegistry meterRegistry;
+
+  private final Map<String, PoolStats> stats = new ConcurrentHashMap<>();
+
+  private static final class PoolStats {
+    private final String dbtype;
+    private final Set<BasicDataSource> pools = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final List<Meter> meters;
+    private final Counter opened;
+    private final Counter disposed;
+    private final Timer wait;
+
+    private PoolStats(MeterRegistry registry, String featureSourceId, String dbtype) {
+      this.dbtype = dbtype;
+      Tags tags = Tags.of(
+          FeatureSourceObservations.FEATURE_SOURCE, featureSourceId, FeatureSourceObservations.DBTYPE, dbtype);
+      this.opened = Counter.builder(OPENED)
+          .description("JDBC DataStores and connection pools created for the feature source")
+          .tags(tags)
+          .register(registry);
+      this.disposed = Counter.builder(DISPOSED)
+          .description("JDBC DataStores and connection pools disposed for the feature source")
+          .tags(tags)
+          .register(registry);
+      this.wait = Timer.builder(WAIT)
+          .description("Time to check out a connection from a connection pool of the feature source")
+          .tags(tags)
+          .register(registry);
+      this.meters = List.of(
+          opened,
+          disposed,
+          wait,
+          gauge(registry, tags, ACTIVE, "Connections in use", BasicDataSource::getNumActive),
+          gauge(registry, tags, IDLE, "Idle connections", BasicDataSource::getNumIdle),
+          gauge(registry, tags, MAX, "Maximum connections", BasicDataSource::getMaxActive),
+          Gauge.builder(WAITING, waiting, AtomicInteger::get)
+              .description("Threads checking out a connection from a connection pool of the feature source")
+              .tags(tags)
+              .register(registry),
+          Gauge.builder(POOLS, pools, Set::size)
+              .description("Connection pools of the feature source that are not disposed")
+              .tags(tags)
+              .register(registry));
+    }
+
+    private Gauge gauge(
+        MeterRegistry registry, Tags tags, String name, String description, ToIntFunction<BasicDataSource> value) {
+      return Gauge.builder(name, pools, p -> p.stream()
+              .filter(pool -> !pool.isClosed())
+              .mapToInt(value)
+              .sum())
+          .description(description + " in the connection pools of the feature source")
+          .tags(tags)
+          .register(registry);
+    }
+  }
+
+  /** A pool of a JDBCDataStore which records connection checkouts and disposal in the stats of the feature source. */
+  private static class MeteredDataSource extends DBCPDataSource {
+    private final BasicDataSource pool;
+    private final PoolStats stats;
+
+    MeteredDataSource(BasicDataSource pool, PoolStats stats) {
+      super(pool);
+      this.pool = pool;
+      this.stats = stats;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+      stats.waiting.incrementAndGet();
+      long start = System.nanoTime();
+      try {
+        return super.getConnection();
+      } finally {
+        stats.waiting.decrementAndGet();
+        stats.wait.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+      }
+    }
+
+    @Override
+    public void close() throws SQLException {
+      if (stats.pools.remove(pool)) {
+        stats.disposed.increment();
+      }
+      super.close();
+    }
+  }
+
+  public JDBCPoolMetrics(MeterRegistry meterRegistry) {
+    this.meterRegistry = meterRegistry;
+  }
+
+  /**
+   * Record the metrics of the connection pool of a newly created JDBCDataStore, until it is disposed. The pool of the
+   * DataStore is replaced by a pool that records connection checkouts. Pools not created by GeoTools (for instance
+   * JNDI datasources) are not instrumented. When the database type of the feature source has changed, the meters
+   * with the previous database type are replaced.
+   *
+   * @param tmfs the feature source the DataStore was created for
+   * @param dataStore the new DataStore
+   */
+  public void instrument(TMFeatureSource tmfs, JDBCDataStore dataStore) {
+    if (!(dataStore.getDataSource() instanceof DBCPDataSource dataSource)
+        || dataSource instanceof MeteredDataSource) {
+      return;
+    }
+    BasicDataSource pool;
+    try {
+      pool = dataSource.unwrap(BasicDataSource.class);
+    } catch (SQLException e) {
+      logger.debug("Not recording connection pool metrics for feature source {}", tmfs.getId(), e);
+      return;
+    }
+    String featureSourceId = tmfs.getId() == null ? "none" : String.valueOf(tmfs.getId());
+    String dbtype = tmfs.getJdbcConnection() == null || tmfs.getJdbcConnection().getDbtype() == null
+        ? "none"
+        : tmfs.getJdbcConnection().getDbtype().getValue();
+    PoolStats poolStats = stats.compute(featureSourceId, (id, existing) -> {
+      if (existing != null && existing.dbtype.equals(dbtype)) {
+        return existing;
+      }
+      if (existing != null) {
+        // the pools with the previous database type are disposed when the feature source is saved
+        existing.meters.forEach(meterRegistry::remove);
+      }
+      return new PoolStats(meterRegistry, id, dbtype);
+    });
+    poolStats.pools.add(pool);
+    poolStats.opened.increment();
+    dataStore.setDataSource(new MeteredDataSource(pool, poolStats));
+  }
+
+  /**
+   * Remove the meters of a deleted feature source.
+   *
+   * @param featureSourceId the id of the feature source
+   */
+  public void remove(Long featureSourceId) {
+    if (featureSourceId == null) {
+      return;
+    }
+    PoolStats poolStats = stats.remove(String.valueOf(featureSourceId));
+    if (poolStats != null) {
+      poolStats.meters.forEach(meterRegistry::remove);
+    }
+  }
+}
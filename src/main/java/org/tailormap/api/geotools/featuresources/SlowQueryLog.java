@@ -0,0 +1,243 @@
+/*
+ * Copyright (C) 2026 B3Partners B.V.
+ *
+ * SPDX-License-Identifier: MIT
+ */
+package org.tailormap.api.geotools.featuresources;
+
+import java.lang.invoke.MethodHandles;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.geotools.api.data.Query;
+import org.geotools.api.data.SimpleFeatureSource;
+import org.geotools.api.filter.Filter;
+import org.geotools.api.filter.sort.SortBy;
+import org.geotools.data.jdbc.FilterToSQL;
+import org.geotools.filter.text.ecql.ECQL;
+import org.geotools.jdbc.JDBCDataStore;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.tailormap.api.persistence.TMFeatureSource;
+import org.tailormap.api.persistence.TMFeatureType;
+
+/**
+ * Keeps the slowest feature source queries, so admins can find queries that need an index in the database. Only
+ * queries taking at least {@code tailormap-api.slow-query.threshold-ms} are kept, up to
+ * {@code tailormap-api.slow-query.size} queries. When the log is full a query replaces the fastest query in the log if
+ * it is slower.
+ *
+ * <p>The request of a query is described only when it is kept: the SQL for a JDBC feature source, with the filter
+ * encoded by the SQL dialect of the datastore, or the GetFeature parameters for a WFS feature source.
+ */
+@Component
+public class SlowQueryLog {
+  private static final Logger logger =
+      LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+  /**
+   * A slow query.
+   *
+   * @param time when the query finished
+   * @param durationMillis the duration of the query in milliseconds
+   * @param operation the operation the query was made for, for example {@code features}
+   * @param featureSourceId the id of the feature source
+   * @param featureSourceTitle the title of the feature source
+   * @param protocol the protocol of the feature source
+   * @param dbtype the database type of a JDBC feature source
+   * @param featureType the name of the feature type
+   * @param filter the filter of the query as ECQL, {@code null} when not filtered
+   * @param request the SQL or WFS request of the query
+   * @param rows the number of features or the count returned, -1 when unknown
+   */
+  public record SlowQuery(
+      Instant time,
+      long durationMillis,
+      String operation,
+      @Nullable Long featureSourceId,
+      @Nullable String featureSourceTitle,
+      @Nullable String protocol,
+      @Nullable String dbtype,
+      String featureType,
+      @Nullable String filter,
+      @Nullable String request,
+      long rows) {}
+
+  private final PriorityQueue<SlowQuery> slowest =
+      new PriorityQueue<>(Comparator.comparingLong(SlowQuery::durationMillis));
+
+  @Value("${tailormap-api.slow-query.threshold-ms:1000}")
+  private long thresholdMillis;
+
+  @Value("${tailormap-api.slow-query.size:50}")
+  private int size;
+
+  /**
+   * Record a query, which is only kept when it is slow enough.
+   *
+   * @param operation the operation the query was made for
+   * @param featureType the feature type
+   * @param featureSource the GeoTools feature source the query was made on, must not be disposed yet
+   * @param query the query
+   * @param durationNanos the duration of the query in nanoseconds
+   * @param rows the number of features or the count returned, -1 when unknown
+   */
+  public void record(
+      String operation,
+      TMFeatureType featureType,
+      SimpleFeatureSource featureSource,
+      Query query,
+      long durationNanos,
+      long rows) {
+    long durationMillis = TimeUnit.NANOSECONDS.toMillis(durationNanos);
+    if (!isKept(durationMillis)) {
+      return;
+    }
+    TMFeatureSource tmfs = featureType.getFeatureSource();
+    add(new SlowQuery(
+        Instant.now(),
+        durationMillis,
+        operation,
+        tmfs == null ? null : tmfs.getId(),
+        tmfs == null ? null : tmfs.getTitle(),
+        tmfs == null ? null : tmfs.getProtocol().getValue(),
+        tmfs == null || tmfs.getJdbcConnection() == null || tmfs.getJdbcConnection().getDbtype() == null
+            ? null
+            : tmfs.getJdbcConnection().getDbtype().getValue(),
+        featureType.getName(),
+        describeFilter(query.getFilter()),
+        describeRequest(featureSource, query),
+        rows));
+  }
+
+  /**
+   * Add a slow query to the log, if it is slow enough.
+   *
+   * @param slowQuery the slow query
+   */
+  public synchronized void add(SlowQuery slowQuery) {
+    if (!isKept(slowQuery.durationMillis())) {
+      return;
+    }
+    slowest.add(slowQuery);
+    if (slowest.size() > size) {
+      slowest.poll();
+    }
+    logger.debug(
+        "Slow {} query on feature type {} took {} ms",
+        slowQuery.operation(),
+        slowQuery.featureType(),
+        slowQuery.durationMillis());
+  }
+
+  /**
+   * Get the slow queries.
+   *
+   * @return the slow queries, the slowest first
+   */
+  public synchronized List<SlowQuery> getSlowQueries() {
+    return slowest.stream()
+        .sorted(Comparator.comparingLong(SlowQuery::durationMillis).reversed())
+        .toList();
+  }
+
+  public synchronized void clear() {
+    slowest.clear();
+  }
+
+  private synchronized boolean isKept(long durationMillis) {
+    if (durationMillis < thresholdMillis || size <= 0) {
+      return false;
+    }
+    return slowest.size() < size || durationMillis > slowest.peek().durationMillis();
+  }
+
+  private static @Nullable String describeFilter(@Nullable Filter filter) {
+    if (filter == null || filter == Filter.INCLUDE) {
+      return null;
+    }
+    try {
+      return ECQL.toCQL(filter);
+    } catch (RuntimeException e) {
+      return filter.toString();
+    }
+  }
+
+  private static @Nullable String describeRequest(SimpleFeatureSource featureSource, Query query) {
+    try {
+      if (featureSource.getDataStore() instanceof JDBCDataStore jdbcDataStore) {
+        return describeSQL(jdbcDataStore, featureSource, query);
+      }
+      return describeGetFeature(featureSource, query);
+    } catch (Exception e) {
+      logger.debug("Could not describe slow query on {}", featureSource.getName(), e);
+      return null;
+    }
+  }
+
+  /**
+   * Describe the SQL statement GeoTools creates for a query. The columns and paging are not encoded by the SQL
+   * dialect, but the table name and filter are.
+   */
+  private static String describeSQL(JDBCDataStore jdbcDataStore, SimpleFeatureSource featureSource, Query query)
+      throws Exception {
+    StringBuffer sql = new StringBuffer("SELECT ");
+    sql.append(query.getPropertyNames() == null ? "*" : String.join(", ", query.getPropertyNames()));
+    sql.append(" FROM ");
+    if (jdbcDataStore.getDatabaseSchema() != null) {
+      jdbcDataStore.getSQLDialect().encodeSchemaName(jdbcDataStore.getDatabaseSchema(), sql);
+      sql.append('.');
+    }
+    jdbcDataStore.getSQLDialect().encodeTableName(featureSource.getSchema().getTypeName(), sql);
+    if (query.getFilter() != null && query.getFilter() != Filter.INCLUDE) {
+      FilterToSQL filterToSQL = jdbcDataStore.createFilterToSQL(featureSource.getSchema());
+      sql.append(' ').append(filterToSQL.encodeToString(query.getFilter()));
+    }
+    if (query.getSortBy() != null && query.getSortBy().length > 0) {
+      sql.append(" ORDER BY ").append(describeSortBy(query.getSortBy()));
+    }
+    if (query.getStartIndex() != null && query.getStartIndex() > 0) {
+      sql.append(" OFFSET ").append(query.getStartIndex());
+    }
+    if (!query.isMaxFeaturesUnlimited()) {
+      sql.append(" LIMIT ").append(query.getMaxFeatures());
+    }
+    return sql.toString();
+  }
+
+  private static String describeGetFeature(SimpleFeatureSource featureSource, Query query) {
+    StringBuilder request = new StringBuilder("GetFeature typeNames=")
+        .append(featureSource.getName().getLocalPart());
+    if (query.getPropertyNames() != null) {
+      request.append(" propertyName=").append(String.join(",", query.getPropertyNames()));
+    }
+    String filter = describeFilter(query.getFilter());
+    if (filter != null) {
+      request.append(" filter=").append(filter);
+    }
+    if (query.getSortBy() != null && query.getSortBy().length > 0) {
+      request.append(" sortBy=").append(describeSortBy(query.getSortBy()));
+    }
+    if (query.getStartIndex() != null && query.getStartIndex() > 0) {
+      request.append(" startIndex=").append(query.getStartIndex());
+    }
+    if (!query.isMaxFeaturesUnlimited()) {
+      request.append(" count=").append(query.getMaxFeatures());
+    }
+    return request.toString();
+  }
+
+  private static String describeSortBy(SortBy[] sortBy) {
+    return Arrays.stream(sortBy)
+        .filter(s -> s.getPropertyName() != null)
+        .map(s -> s.getPropertyName().getPropertyName() + " " + s.getSortOrder().toSQL())
+        .collect(Collectors.joining(", "));
+  }
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright (C) 2026 B3Partners B.V.
+ *
+ * SPDX-License-Identifier: MIT
+ */
+package org.tailormap.api.geotools.mvt;
+
+import org.jspecify.annotations.NonNull;
+import org.locationtech.jts.geom.Envelope;
+import org.tailormap.api.persistence.json.Bounds;
+
+/**
+ * A quadtree tile grid in the CRS of an application. Zoom level 0 is a single square tile with its upper left corner at
+ * the upper left corner of the extent and covering the largest dimension of the extent, each next level halves the
+ * tile size. Tile rows are counted from the top. This is the same grid as OpenLayers creates with
+ * {@code createXYZ({extent})}, and for EPSG:3857 with the world extent the same as the usual XYZ grid.
+ *
+ * @param originX the left of the grid
+ * @param originY the top of the grid
+ * @param size the width and height of the tile at zoom level 0
+ */
+public record TileGrid(double originX, double originY, double size) {
+  public static final int MAX_ZOOM = 30;
+
+  public static @NonNull TileGrid fromBounds(@NonNull Bounds bounds) {
+    return new TileGrid(
+        bounds.getMinx(),
+        bounds.getMaxy(),
+        Math.max(bounds.getMaxx() - bounds.getMinx(), bounds.getMaxy() - bounds.getMiny()));
+  }
+
+  /**
+   * @param z the zoom level
+   * @param x the tile column
+   * @param y the tile row
+   * @return whether the tile exists in this grid
+   */
+  public boolean isValidTile(int z, int x, int y) {
+    if (z < 0 || z > MAX_ZOOM) {
+      return false;
+    }
+    long tiles = 1L << z;
+    return x >= 0 && y >= 0 && x < tiles && y < tiles;
+  }
+
+  /**
+   * @param z the zoom level
+   * @param x the tile column
+   * @param y the tile row
+   * @return the envelope of the tile
+   */
+  public @NonNull Envelope getTileEnvelope(int z, int x, int y) {
+    double tileSize = size / (1L << z);
+    double minX = originX + x * tileSize;
+    double maxY = originY - y * tileSize;
+    return new Envelope(minX, minX + tileSize, maxY - tileSize, maxY);
+  }
+}
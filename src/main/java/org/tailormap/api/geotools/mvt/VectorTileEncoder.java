@@ -0,0 +1,441 @@
+/*
+ * Copyright (C) 2026 B3Partners B.V.
+ *
+ * SPDX-License-Identifier: MIT
+ */
+package org.tailormap.api.geotools.mvt;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.geotools.geometry.jts.GeometryClipper;
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.LineString;
+import org.locationtech.jts.geom.LinearRing;
+import org.locationtech.jts.geom.Point;
+import org.locationtech.jts.geom.Polygon;
+
+/**
+ * Encodes features into a single layer <a href="https://github.com/mapbox/vector-tile-spec/tree/master/2.1">Mapbox
+ * Vector Tile</a>. Geometries are clipped to the tile (plus a buffer) and converted to integer tile coordinates with
+ * the origin in the upper left corner of the tile.
+ */
+public class VectorTileEncoder {
+  public static final int DEFAULT_EXTENT = 4096;
+  public static final int DEFAULT_BUFFER = 64;
+
+  // Tile message
+  private static final int TILE_LAYERS = 3;
+  // Layer message
+  private static final int LAYER_NAME = 1;
+  private static final int LAYER_FEATURES = 2;
+  private static final int LAYER_KEYS = 3;
+  private static final int LAYER_VALUES = 4;
+  private static final int LAYER_EXTENT = 5;
+  private static final int LAYER_VERSION = 15;
+  // Feature message
+  private static final int FEATURE_ID = 1;
+  private static final int FEATURE_TAGS = 2;
+  private static final int FEATURE_TYPE = 3;
+  private static final int FEATURE_GEOMETRY = 4;
+  // Value message
+  private static final int VALUE_STRING = 1;
+  private static final int VALUE_FLOAT = 2;
+  private static final int VALUE_DOUBLE = 3;
+  private static final int VALUE_UINT = 5;
+  private static final int VALUE_SINT = 6;
+  private static final int VALUE_BOOL = 7;
+
+  private static final int GEOM_TYPE_POINT = 1;
+  private static final int GEOM_TYPE_LINESTRING = 2;
+  private static final int GEOM_TYPE_POLYGON = 3;
+
+  private static final int CMD_MOVE_TO = 1;
+  private static final int CMD_LINE_TO = 2;
+  private static final int CMD_CLOSE_PATH = 7;
+
+  private static final int WIRE_VARINT = 0;
+  private static final int WIRE_FIXED64 = 1;
+  private static final int WIRE_LENGTH_DELIMITED = 2;
+  private static final int WIRE_FIXED32 = 5;
+
+  private final String layerName;
+  private final Envelope tileEnvelope;
+  private final int extent;
+  private final GeometryClipper clipper;
+
+  private final Map<String, Integer> keys = new LinkedHashMap<>();
+  private final Map<Object, Integer> values = new LinkedHashMap<>();
+  private final List<byte[]> features = new ArrayList<>();
+
+  /**
+   * @param layerName the name of the layer in the tile
+   * @param tileEnvelope the envelope of the tile in the CRS of the geometries that will be added
+   * @param extent the size of the tile in tile coordinates
+   * @param buffer the number of tile coordinates around the tile to include when clipping geometries
+   */
+  public VectorTileEncoder(@NonNull String layerName, @NonNull Envelope tileEnvelope, int extent, int buffer) {
+    this.layerName = layerName;
+    this.tileEnvelope = tileEnvelope;
+    this.extent = extent;
+    Envelope clipEnvelope = new Envelope(tileEnvelope);
+    clipEnvelope.expandBy(
+        tileEnvelope.getWidth() * buffer / extent, tileEnvelope.getHeight() * buffer / extent);
+    this.clipper = new GeometryClipper(clipEnvelope);
+  }
+
+  public VectorTileEncoder(@NonNull String layerName, @NonNull Envelope tileEnvelope) {
+    this(layerName, tileEnvelope, DEFAULT_EXTENT, DEFAULT_BUFFER);
+  }
+
+  /**
+   * Add a feature to the tile. Features with a geometry that is empty after clipping and rounding to tile coordinates
+   * are skipped.
+   *
+   * @param id the feature id, may be {@code null}
+   * @param attributes the attributes, {@code null} values are omitted
+   * @param geometry the geometry in the CRS of the tile envelope
+   * @return whether the feature was added
+   */
+  public boolean addFeature(@Nullable Long id, @NonNull Map<String, Object> attributes, @Nullable Geometry geometry) {
+    if (geometry == null || geometry.isEmpty()) {
+      return false;
+    }
+    Geometry clipped = clipper.clip(geometry, false);
+    if (clipped == null || clipped.isEmpty()) {
+      return false;
+    }
+
+    GeometryWriter geometryWriter = new GeometryWriter();
+    int type = geometryWriter.write(clipped);
+    if (type == 0 || geometryWriter.commands.isEmpty()) {
+      return false;
+    }
+
+    ProtobufWriter feature = new ProtobufWriter();
+    if (id != null && id >= 0) {
+      feature.writeVarintField(FEATURE_ID, id);
+    }
+    List<Integer> tags = new ArrayList<>();
+    for (Map.Entry<String, Object> attribute : attributes.entrySet()) {
+      Object value = normalizeValue(attribute.getValue());
+      if (value == null) {
+        continue;
+      }
+      tags.add(keys.computeIfAbsent(attribute.getKey(), k -> keys.size()));
+      tags.add(values.computeIfAbsent(value, v -> values.size()));
+    }
+    if (!tags.isEmpty()) {
+      feature.writePackedVarintField(FEATURE_TAGS, tags);
+    }
+    feature.writeVarintField(FEATURE_TYPE, type);
+    feature.writePackedVarintField(FEATURE_GEOMETRY, geometryWriter.commands);
+    features.add(feature.toByteArray());
+    return true;
+  }
+
+  /**
+   * @return the number of features added to the tile
+   */
+  public int getFeatureCount() {
+    return features.size();
+  }
+
+  /**
+   * Encode the tile. A tile without features is encoded as an empty byte array, which is a valid empty tile.
+   *
+   * @return the encoded tile
+   */
+  public byte[] encode() {
+    if (features.isEmpty()) {
+      return new byte[0];
+    }
+    ProtobufWriter layer = new ProtobufWriter();
+    layer.writeVarintField(LAYER_VERSION, 2);
+    layer.writeStringField(LAYER_NAME, layerName);
+    for (byte[] feature : features) {
+      layer.writeBytesField(LAYER_FEATURES, feature);
+    }
+    for (String key : keys.keySet()) {
+      layer.writeStringField(LAYER_KEYS, key);
+    }
+    for (Object value : values.keySet()) {
+      layer.writeBytesField(LAYER_VALUES, encodeValue(value));
+    }
+    layer.writeVarintField(LAYER_EXTENT, extent);
+
+    ProtobufWriter tile = new ProtobufWriter();
+    tile.writeBytesField(TILE_LAYERS, layer.toByteArray());
+    return tile.toByteArray();
+  }
+
+  private static @Nullable Object normalizeValue(@Nullable Object value) {
+    if (value == null || value instanceof String || value instanceof Boolean || value instanceof Double
+        || value instanceof Float) {
+      return value;
+    }
+    if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte) {
+      return ((Number) value).longValue();
+    }
+    if (value instanceof BigInteger bigInteger) {
+      return bigInteger.bitLength() < 64 ? bigInteger.longValue() : bigInteger.toString();
+    }
+    if (value instanceof BigDecimal bigDecimal) {
+      return bigDecimal.scale() <= 0 && bigDecimal.precision() - bigDecimal.scale() < 19
+          ? (Object) bigDecimal.longValue()
+          : (Object) bigDecimal.doubleValue();
+    }
+    if (value instanceof Geometry) {
+      // only the geometry of the feature is encoded
+      return null;
+    }
+    return value.toString();
+  }
+
+  private static byte[] encodeValue(Object value) {
+    ProtobufWriter writer = new ProtobufWriter();
+    if (value instanceof String s) {
+      writer.writeStringField(VALUE_STRING, s);
+    } else if (value instanceof Boolean b) {
+      writer.writeVarintField(VALUE_BOOL, b ? 1 : 0);
+    } else if (value instanceof Long l) {
+      if (l >= 0) {
+        writer.writeVarintField(VALUE_UINT, l);
+      } else {
+        writer.writeVarintField(VALUE_SINT, (l << 1) ^ (l >> 63));
+      }
+    } else if (value instanceof Float f) {
+      writer.writeTag(VALUE_FLOAT, WIRE_FIXED32);
+      writer.writeFixed32(Float.floatToIntBits(f));
+    } else if (value instanceof Double d) {
+      writer.writeTag(VALUE_DOUBLE, WIRE_FIXED64);
+      writer.writeFixed64(Double.doubleToLongBits(d));
+    }
+    return writer.toByteArray();
+  }
+
+  /** Writes the geometry commands of a single feature, the cursor position is shared by all parts. */
+  private class GeometryWriter {
+    private final List<Integer> commands = new ArrayList<>();
+    private int cursorX;
+    private int cursorY;
+
+    int write(Geometry geometry) {
+      int type = 0;
+      List<Point> points = new ArrayList<>();
+      for (int i = 0; i < geometry.getNumGeometries(); i++) {
+        Geometry part = geometry.getGeometryN(i);
+        int partType = getGeometryType(part);
+        // A feature has a single geometry type, skip parts of other types (and nested collections)
+        if (partType == 0 || (type != 0 && type != partType)) {
+          continue;
+        }
+        type = partType;
+        if (part instanceof Point point) {
+          points.add(point);
+        } else if (part instanceof LineString lineString) {
+          writeLineString(lineString);
+        } else if (part instanceof Polygon polygon) {
+          writePolygon(polygon);
+        }
+      }
+      if (!points.isEmpty()) {
+        writePoints(points);
+      }
+      return type;
+    }
+
+    private int toTileX(double x) {
+      return (int) Math.round((x - tileEnvelope.getMinX()) / tileEnvelope.getWidth() * extent);
+    }
+
+    private int toTileY(double y) {
+      return (int) Math.round((tileEnvelope.getMaxY() - y) / tileEnvelope.getHeight() * extent);
+    }
+
+    /** Converts coordinates to tile coordinates, without consecutive duplicates. */
+    private List<int[]> toTileCoordinates(Coordinate[] coordinates) {
+      List<int[]> result = new ArrayList<>(coordinates.length);
+      int[] previous = null;
+      for (Coordinate c : coordinates) {
+        int[] p = {toTileX(c.x), toTileY(c.y)};
+        if (previous == null || p[0] != previous[0] || p[1] != previous[1]) {
+          result.add(p);
+          previous = p;
+        }
+      }
+      return result;
+    }
+
+    /** All points of a (multi)point are written with a single MoveTo command. */
+    private void writePoints(List<Point> points) {
+      List<Point> nonEmpty = points.stream().filter(p -> !p.isEmpty()).toList();
+      if (nonEmpty.isEmpty()) {
+        return;
+      }
+      commands.add(command(CMD_MOVE_TO, nonEmpty.size()));
+      for (Point point : nonEmpty) {
+        moveCursor(toTileX(point.getX()), toTileY(point.getY()));
+      }
+    }
+
+    private void writeLineString(LineString lineString) {
+      List<int[]> points = toTileCoordinates(lineString.getCoordinates());
+      if (points.size() < 2) {
+        return;
+      }
+      writePath(points, false);
+    }
+
+    private void writePolygon(Polygon polygon) {
+      if (!writeRing(polygon.getExteriorRing(), true)) {
+        // holes without an exterior ring would turn into exterior rings
+        return;
+      }
+      for (int i = 0; i < polygon.getNumInteriorRing(); i++) {
+        writeRing(polygon.getInteriorRingN(i), false);
+      }
+    }
+
+    private boolean writeRing(LinearRing ring, boolean exterior) {
+      List<int[]> points = toTileCoordinates(ring.getCoordinates());
+      if (points.size() > 1 && isSame(points.getFirst(), points.getLast())) {
+        points.removeLast();
+      }
+      if (points.size() < 3) {
+        return false;
+      }
+      long area = signedArea(points);
+      if (area == 0) {
+        return false;
+      }
+      // With the y-axis pointing down exterior rings must have a positive area and interior rings a negative area
+      if ((area > 0) != exterior) {
+        // reverse, keeping the same starting point
+        points = new ArrayList<>(points.reversed());
+        Collections.rotate(points, 1);
+      }
+      writePath(points, true);
+      return true;
+    }
+
+    private void writePath(List<int[]> points, boolean close) {
+      commands.add(command(CMD_MOVE_TO, 1));
+      moveCursor(points.getFirst()[0], points.getFirst()[1]);
+      commands.add(command(CMD_LINE_TO, points.size() - 1));
+      for (int i = 1; i < points.size(); i++) {
+        moveCursor(points.get(i)[0], points.get(i)[1]);
+      }
+      if (close) {
+        commands.add(command(CMD_CLOSE_PATH, 1));
+      }
+    }
+
+    private void moveCursor(int x, int y) {
+      commands.add(zigZag(x - cursorX));
+      commands.add(zigZag(y - cursorY));
+      cursorX = x;
+      cursorY = y;
+    }
+  }
+
+  private static int getGeometryType(Geometry geometry) {
+    if (geometry instanceof Point) {
+      return GEOM_TYPE_POINT;
+    } else if (geometry instanceof LineString) {
+      return GEOM_TYPE_LINESTRING;
+    } else if (geometry instanceof Polygon) {
+      return GEOM_TYPE_POLYGON;
+    }
+    return 0;
+  }
+
+  private static boolean isSame(int[] a, int[] b) {
+    return a[0] == b[0] && a[1] == b[1];
+  }
+
+  private static long signedArea(List<int[]> ring) {
+    long sum = 0;
+    for (int i = 0; i < ring.size(); i++) {
+      int[] p1 = ring.get(i);
+      int[] p2 = ring.get((i + 1) % ring.size());
+      sum += (long) p1[0] * p2[1] - (long) p2[0] * p1[1];
+    }
+    return sum;
+  }
+
+  private static int command(int id, int count) {
+    return (id & 0x7) | (count << 3);
+  }
+
+  private static int zigZag(int n) {
+    return (n << 1) ^ (n >> 31);
+  }
+
+  /** Minimal protocol buffers writer for the messages of the vector tile schema. */
+  private static class ProtobufWriter {
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    void writeTag(int field, int wireType) {
+      writeVarint(((long) field << 3) | wireType);
+    }
+
+    void writeVarint(long value) {
+      while ((value & ~0x7FL) != 0) {
+        out.write((int) ((value & 0x7F) | 0x80));
+        value >>>= 7;
+      }
+      out.write((int) value);
+    }
+
+    void writeFixed32(int value) {
+      for (int i = 0; i < 4; i++) {
+        out.write((value >>> (8 * i)) & 0xFF);
+      }
+    }
+
+    void writeFixed64(long value) {
+      for (int i = 0; i < 8; i++) {
+        out.write((int) ((value >>> (8 * i)) & 0xFF));
+      }
+    }
+
+    void writeVarintField(int field, long value) {
+      writeTag(field, WIRE_VARINT);
+      writeVarint(value);
+    }
+
+    void writeBytesField(int field, byte[] bytes) {
+      writeTag(field, WIRE_LENGTH_DELIMITED);
+      writeVarint(bytes.length);
+      out.writeBytes(bytes);
+    }
+
+    void writeStringField(int field, String value) {
+      writeBytesField(field, value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    void writePackedVarintField(int field, List<Integer> values) {
+      ProtobufWriter packed = new ProtobufWriter();
+      for (int value : values) {
+        // values are unsigned 32 bit
+        packed.writeVarint(Integer.toUnsignedLong(value));
+      }
+      writeBytesField(field, packed.toByteArray());
+    }
+
+    byte[] toByteArray() {
+      return out.toByteArray();
+    }
+  }
+}
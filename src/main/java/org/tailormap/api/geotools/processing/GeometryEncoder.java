@@ -0,0 +1,277 @@
+/*
+ * Copyright (C) 2026 B3Partners B.V.
+ *
+ * SPDX-License-Identifier: MIT
+ */
+package org.tailormap.api.geotools.processing;
+
+import java.io.ByteArrayOutputStream;
+import java.lang.invoke.MethodHandles;
+import java.util.Base64;
+import org.geotools.data.geojson.GeoJSONWriter;
+import org.jspecify.annotations.NonNull;
+import org.locationtech.jts.geom.CoordinateSequence;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.LineString;
+import org.locationtech.jts.geom.LinearRing;
+import org.locationtech.jts.geom.MultiLineString;
+import org.locationtech.jts.geom.MultiPoint;
+import org.locationtech.jts.geom.MultiPolygon;
+import org.locationtech.jts.geom.Point;
+import org.locationtech.jts.geom.Polygon;
+import org.locationtech.jts.geom.PrecisionModel;
+import org.locationtech.jts.io.ByteOrderValues;
+import org.locationtech.jts.io.WKBWriter;
+import org.locationtech.jts.io.WKTConstants;
+import org.locationtech.jts.io.WKTWriter;
+import org.locationtech.jts.precision.GeometryPrecisionReducer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import tools.jackson.databind.util.RawValue;
+
+/**
+ * Encodes geometries as a string in one of the {@link GeometryEncoding}s, optionally quantized to a number of decimal
+ * places. Only the X and Y ordinates are encoded and curves are linearized, like for the WKT of feature geometries.
+ * GeoJSON is written with the GeoTools {@link GeoJSONWriter}.
+ *
+ * <p>The precision is the number of decimal places to keep, a negative precision rounds to tens, hundreds etc. The
+ * TWKB encoding always quantizes coordinates, when no precision is given {@link #DEFAULT_TWKB_PRECISION} is used. The
+ * four bits for the precision in the TWKB header limit the precision to {@link #MIN_PRECISION} to
+ * {@link #MAX_PRECISION}, this range is used for all encodings.
+ *
+ * @see <a href="https://github.com/TWKB/Specification/blob/master/twkb.md">TWKB specification</a>
+ */
+public final class GeometryEncoder {
+  private static final Logger logger =
+      LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+  /** The minimum precision, limited by the four bits for the precision in the TWKB header. */
+  public static final int MIN_PRECISION = -7;
+
+  /** The maximum precision, limited by the four bits for the precision in the TWKB header. */
+  public static final int MAX_PRECISION = 7;
+
+  public static final int DEFAULT_TWKB_PRECISION = MAX_PRECISION;
+
+  private static final int TWKB_POINT = 1;
+  private static final int TWKB_LINESTRING = 2;
+  private static final int TWKB_POLYGON = 3;
+  private static final int TWKB_MULTIPOINT = 4;
+  private static final int TWKB_MULTILINESTRING = 5;
+  private static final int TWKB_MULTIPOLYGON = 6;
+  private static final int TWKB_COLLECTION = 7;
+  private static final int TWKB_EMPTY_GEOMETRY = 0x10;
+
+  private GeometryEncoder() {}
+
+  /**
+   * @param precision the requested precision, can be {@code null}
+   * @throws IllegalArgumentException if the precision is out of range
+   */
+  public static void validatePrecision(Integer precision) {
+    if (precision != null && (precision < MIN_PRECISION || precision > MAX_PRECISION)) {
+      throw new IllegalArgumentException(
+          "Precision must be between %d and %d".formatted(MIN_PRECISION, MAX_PRECISION));
+    }
+  }
+
+  /**
+   * Encode a geometry.
+   *
+   * @param geometry the geometry to encode
+   * @param encoding the encoding
+   * @param precision the number of decimal places to quantize the coordinates to, {@code null} to not quantize
+   *     (except for TWKB)
+   * @return the encoded geometry
+   */
+  public static @NonNull String encode(
+      @NonNull Geometry geometry, @NonNull GeometryEncoding encoding, Integer precision) {
+    validatePrecision(precision);
+    if (encoding == GeometryEncoding.TWKB_BASE64) {
+      int twkbPrecision = precision == null ? DEFAULT_TWKB_PRECISION : precision;
+      return Base64.getEncoder().encodeToString(toTWKB(geometry, twkbPrecision));
+    }
+    if (precision != null) {
+      geometry = quantize(geometry, precision);
+    }
+    return switch (encoding) {
+      case GEOJSON -> toGeoJSON(geometry);
+      case WKB_BASE64 ->
+        Base64.getEncoder().encodeToString(new WKBWriter(2, ByteOrderValues.LITTLE_ENDIAN).write(geometry));
+      default -> toLinearWKT(geometry);
+    };
+  }
+
+  /**
+   * Encode a geometry for a JSON response. A GeoJSON geometry is returned as a {@link RawValue}, so it is written as a
+   * JSON object instead of as a string that clients would have to parse again. The other encodings are strings.
+   *
+   * @param geometry the geometry to encode
+   * @param encoding the encoding
+   * @param precision the number of decimal places to quantize the coordinates to, {@code null} to not quantize
+   *     (except for TWKB)
+   * @return the encoded geometry
+   */
+  public static @NonNull Object encodeForJson(
+      @NonNull Geometry geometry, @NonNull GeometryEncoding encoding, Integer precision) {
+    String encoded = encode(geometry, encoding, precision);
+    return encoding == GeometryEncoding.GEOJSON ? new RawValue(encoded) : encoded;
+  }
+
+  /**
+   * Round the coordinates of a geometry to a number of decimal places. The topology is not fixed, the result is meant
+   * for display only.
+   *
+   * @param geometry the geometry
+   * @param precision the number of decimal places
+   * @return the quantized geometry, or the original geometry when it could not be quantized
+   */
+  public static @NonNull Geometry quantize(@NonNull Geometry geometry, int precision) {
+    try {
+      return GeometryPrecisionReducer.reducePointwise(geometry, new PrecisionModel(Math.pow(10, precision)));
+    } catch (IllegalArgumentException e) {
+      logger.error("Failed to reduce geometry precision", e);
+      return geometry;
+    }
+  }
+
+  static String toLinearWKT(Geometry geometry) {
+    String wkt = new WKTWriter(2).write(geometry);
+    // LINEARRING is non-standard WKT, but the JTS WKTWriter will write it anyway!
+    if (wkt.startsWith(WKTConstants.LINEARRING)) {
+      wkt = WKTConstants.LINESTRING + wkt.substring(WKTConstants.LINEARRING.length());
+    }
+    return wkt;
+  }
+
+  static String toGeoJSON(Geometry geometry) {
+    // A LinearRing is not a GeoJSON geometry type, write it as LineString like for WKT
+    if (geometry instanceof LinearRing ring) {
+      geometry = ring.getFactory().createLineString(ring.getCoordinateSequence());
+    }
+    return GeoJSONWriter.toGeoJSON(geometry);
+  }
+
+  static byte[] toTWKB(Geometry geometry, int precision) {
+    TWKBWriter writer = new TWKBWriter(precision);
+    writer.writeGeometry(geometry);
+    return writer.out.toByteArray();
+  }
+
+  /** Writes a single TWKB geometry with delta encoded coordinates, without the optional bbox, size and id list. */
+  private static final class TWKBWriter {
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    private final int precision;
+    private final double scale;
+    private long lastX;
+    private long lastY;
+
+    private TWKBWriter(int precision) {
+      this.precision = precision;
+      this.scale = Math.pow(10, precision);
+    }
+
+    private void writeGeometry(Geometry geometry) {
+      int type = getType(geometry);
+      out.write((type & 0x0f) | ((int) zigZag(precision) << 4));
+      if (geometry.isEmpty()) {
+        out.write(TWKB_EMPTY_GEOMETRY);
+        return;
+      }
+      out.write(0);
+      lastX = 0;
+      lastY = 0;
+      switch (type) {
+        case TWKB_POINT -> writePoint((Point) geometry);
+        case TWKB_LINESTRING -> writeCoordinates(((LineString) geometry).getCoordinateSequence());
+        case TWKB_POLYGON -> writePolygon((Polygon) geometry);
+        case TWKB_MULTIPOINT -> {
+          writeUnsignedVarint(geometry.getNumGeometries());
+          for (int i = 0; i < geometry.getNumGeometries(); i++) {
+            writePoint((Point) geometry.getGeometryN(i));
+          }
+        }
+        case TWKB_MULTILINESTRING -> {
+          writeUnsignedVarint(geometry.getNumGeometries());
+          for (int i = 0; i < geometry.getNumGeometries(); i++) {
+            writeCoordinates(((LineString) geometry.getGeometryN(i)).getCoordinateSequence());
+          }
+        }
+        case TWKB_MULTIPOLYGON -> {
+          writeUnsignedVarint(geometry.getNumGeometries());
+          for (int i = 0; i < geometry.getNumGeometries(); i++) {
+            writePolygon((Polygon) geometry.getGeometryN(i));
+          }
+        }
+        default -> {
+          writeUnsignedVarint(geometry.getNumGeometries());
+          for (int i = 0; i < geometry.getNumGeometries(); i++) {
+            // every member of a collection is a complete TWKB geometry with its own header
+            writeGeometry(geometry.getGeometryN(i));
+          }
+        }
+      }
+    }
+
+    private static int getType(Geometry geometry) {
+      if (geometry instanceof Point) {
+        return TWKB_POINT;
+      } else if (geometry instanceof LineString) {
+        return TWKB_LINESTRING;
+      } else if (geometry instanceof Polygon) {
+        return TWKB_POLYGON;
+      } else if (geometry instanceof MultiPoint) {
+        return TWKB_MULTIPOINT;
+      } else if (geometry instanceof MultiLineString) {
+        return TWKB_MULTILINESTRING;
+      } else if (geometry instanceof MultiPolygon) {
+        return TWKB_MULTIPOLYGON;
+      }
+      return TWKB_COLLECTION;
+    }
+
+    private void writePoint(Point point) {
+      writeCoordinate(point.getCoordinateSequence(), 0);
+    }
+
+    private void writePolygon(Polygon polygon) {
+      if (polygon.isEmpty()) {
+        writeUnsignedVarint(0);
+        return;
+      }
+      writeUnsignedVarint(1 + polygon.getNumInteriorRing());
+      writeCoordinates(polygon.getExteriorRing().getCoordinateSequence());
+      for (int i = 0; i < polygon.getNumInteriorRing(); i++) {
+        writeCoordinates(polygon.getInteriorRingN(i).getCoordinateSequence());
+      }
+    }
+
+    private void writeCoordinates(CoordinateSequence coordinates) {
+      writeUnsignedVarint(coordinates.size());
+      for (int i = 0; i < coordinates.size(); i++) {
+        writeCoordinate(coordinates, i);
+      }
+    }
+
+    private void writeCoordinate(CoordinateSequence coordinates, int index) {
+      long x = Math.round(coordinates.getX(index) * scale);
+      long y = Math.round(coordinates.getY(index) * scale);
+      writeUnsignedVarint(zigZag(x - lastX));
+      writeUnsignedVarint(zigZag(y - lastY));
+      lastX = x;
+      lastY = y;
+    }
+
+    private static long zigZag(long value) {
+      return (value << 1) ^ (value >> 63);
+    }
+
+    private void writeUnsignedVarint(long value) {
+      while ((value & ~0x7fL) != 0) {
+        out.write((int) ((value & 0x7f) | 0x80));
+        value >>>= 7;
+      }
+      out.write((int) value);
+    }
+  }
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright (C) 2026 B3Partners B.V.
+ *
+ * SPDX-License-Identifier: MIT
+ */
+package org.tailormap.api.geotools.processing;
+
+import java.util.Arrays;
+import java.util.stream.Collectors;
+import org.jspecify.annotations.NonNull;
+
+/**
+ * The encoding of geometries in responses. WKT is the default, the binary encodings are much more compact for large
+ * polygons and faster to parse for clients.
+ *
+ * @see GeometryEncoder
+ */
+public enum GeometryEncoding {
+  /** Well-known text. */
+  WKT("wkt"),
+  /** A GeoJSON geometry object, written as a JSON object in responses. */
+  GEOJSON("geojson"),
+  /** Well-known binary (little endian, 2D), base64 encoded. */
+  WKB_BASE64("wkb-base64"),
+  /** Tiny well-known binary, base64 encoded. Coordinates are always quantized, see {@link GeometryEncoder}. */
+  TWKB_BASE64("twkb-base64");
+
+  private final String value;
+
+  GeometryEncoding(String value) {
+    this.value = value;
+  }
+
+  public String getValue() {
+    return value;
+  }
+
+  @Override
+  public String toString() {
+    return value;
+  }
+
+  /**
+   * @param value the value of the encoding as used in request parameters, {@code null} for the default
+   * @return the encoding
+   * @throws IllegalArgumentException if the value is not a known encoding
+   */
+  public static @NonNull GeometryEncoding fromValue(String value) {
+    if (value == null || value.isBlank()) {
+      return WKT;
+    }
+    for (GeometryEncoding encoding : values()) {
+      if (encoding.value.equalsIgnoreCase(value.trim())) {
+        return encoding;
+      }
+    }
+    throw new IllegalArgumentException("Unknown geometry encoding: %s, supported are: %s"
+        .formatted(
+            value,
+            Arrays.stream(values()).map(GeometryEncoding::getValue).collect(Collectors.joining(", "))));
+  }
+}
@@ -17,8 +17,6 @@
 import org.locationtech.jts.geom.Geometry;
 import org.locationtech.jts.geom.PrecisionModel;
 import org.locationtech.jts.io.ParseException;
-import org.locationtech.jts.io.WKTConstants;
-import org.locationtech.jts.io.WKTWriter;
 import org.locationtech.jts.precision.GeometryPrecisionReducer;
 import org.locationtech.jts.simplify.TopologyPreservingSimplifier;
 import org.slf4j.Logger;
@@ -68,6 +66,59 @@ private GeometryProcessor() {}
     return geometry.toString();
   }
 
+  /**
+   * process the geometry into a (optionally simplified) representation in the requested encoding.
+   *
+   * @param geometry An object representing a geometry
+   * @param simplifyGeometry set to {@code true} to simplify
+   * @param transform the transformation that should be applied to the geometry, can be {@code null}
+   * @param encoding the encoding of the geometry
+   * @param precision the number of decimal places to quantize the coordinates to, can be {@code null}
+   * @return the representation of the argument in the requested encoding or {@code null} when the given geometry was
+   *     {@code null}, see {@link GeometryEncoder#encodeForJson(Geometry, GeometryEncoding, Integer)}
+   * @see GeometryEncoder
+   */
+  @NotNull public static Object processGeometry(
+      Object geometry,
+      @NotNull final Boolean simplifyGeometry,
+      @NotNull Boolean linearizeGeomToWKT,
+      MathTransform transform,
+      @NotNull GeometryEncoding encoding,
+      Integer precision) {
+    if (encoding == GeometryEncoding.WKT && precision == null) {
+      return processGeometry(geometry, simplifyGeometry, linearizeGeomToWKT, transform);
+    }
+    if (null == geometry) {
+      return null;
+    }
+    if (Geometry.class.isAssignableFrom(geometry.getClass())) {
+      Geometry g = transformGeometry((Geometry) geometry, transform);
+      if (simplifyGeometry) {
+        g = simplifyToGeometry(g);
+      }
+      return GeometryEncoder.encodeForJson(g, encoding, precision);
+    }
+    // cannot cast to JTS geom
+    return geometry.toString();
+  }
+
+  /**
+   * Encode a geometry attribute value. Uses {@link #geometryToWKT(Geometry)} for WKT without a precision, so curves are
+   * preserved as before.
+   *
+   * @param geometry the geometry
+   * @param encoding the encoding of the geometry
+   * @param precision the number of decimal places to quantize the coordinates to, can be {@code null}
+   * @return the encoded geometry, see {@link GeometryEncoder#encodeForJson(Geometry, GeometryEncoding, Integer)}
+   */
+  public static Object encodeGeometry(
+      @NotNull Geometry geometry, @NotNull GeometryEncoding encoding, Integer precision) {
+    if (encoding == GeometryEncoding.WKT && precision == null) {
+      return geometryToWKT(geometry);
+    }
+    return GeometryEncoder.encodeForJson(geometry, encoding, precision);
+  }
+
   public static Geometry transformGeometry(@NotNull Geometry geometry, MathTransform transform) {
     if (null == transform) {
       return geometry;
@@ -94,13 +145,7 @@ public static Envelope transformEnvelope(@NotNull Envelope envelope, MathTransfo
 
   private static String linearizeGeomToWKT(Geometry geometry) {
     // return linearized WKT
-    final WKTWriter writer = new WKTWriter(2);
-    String wkt = writer.write(geometry);
-    // LINEARRING is non-standard WKT, but the JTS WKTWriter will write it anyway!
-    if (wkt.startsWith(WKTConstants.LINEARRING)) {
-      wkt = WKTConstants.LINESTRING + wkt.substring(WKTConstants.LINEARRING.length());
-    }
-    return wkt;
+    return GeometryEncoder.toLinearWKT(geometry);
   }
 
   /**
@@ -112,6 +157,15 @@ private static String linearizeGeomToWKT(Geometry geometry) {
    * @return simplified geometry as WKT string
    */
   @NotNull private static String simplify(@NotNull Geometry geom) {
+    return linearizeGeomToWKT(simplifyToGeometry(geom));
+  }
+
+  /**
+   * @param geom geometry to simplify
+   * @return simplified geometry or its bounding box
+   * @see #simplify(Geometry)
+   */
+  @NotNull private static Geometry simplifyToGeometry(@NotNull Geometry geom) {
     final int megabytes = 2097152 /* 2MB is the default tomcat max post size */ - 100 * 1024;
 
     Geometry bbox = geom.getEnvelope();
@@ -140,9 +194,9 @@ private static String linearizeGeomToWKT(Geometry geometry) {
 
     if (distanceTolerance > 9999) {
       logger.debug("Maximum number of simplify cycles reached, returning bounding box instead");
-      return bbox.toText();
+      return bbox;
     } else {
-      return linearizeGeomToWKT(geom);
+      return geom;
     }
   }
 
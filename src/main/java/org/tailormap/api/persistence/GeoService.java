@@ -19,6 +19,12 @@
 import jakarta.persistence.Transient;
 import jakarta.persistence.Version;
 import jakarta.validation.constraints.NotNull;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.lang.invoke.MethodHandles;
 import java.nio.charset.StandardCharsets;
 import java.time.Instant;
@@ -27,6 +33,8 @@
 import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 import org.apache.commons.lang3.StringUtils;
 import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.envers.Audited;
@@ -96,7 +104,8 @@ public class GeoService extends AuditMetadata {
 
   /**
    * Original capabilities as received from the service. This can be used for capability information not already
-   * parsed in this entity, such as tiling information.
+   * parsed in this entity, such as tiling information. Stored gzip-compressed, capabilities stored before compression
+   * was introduced are returned as is by {@link #getCapabilities()}.
    */
   @NotAudited
   @Basic(fetch = FetchType.LAZY)
@@ -206,15 +215,57 @@ public GeoService setAuthentication(ServiceAuthentication authentication) {
     return this;
   }
 
+  /**
+   * Get the uncompressed capabilities.
+   *
+   * @return the capabilities as received from the service, or null
+   */
   public byte[] getCapabilities() {
-    return capabilities;
+    if (capabilities == null || !isGzipped(capabilities)) {
+      return capabilities;
+    }
+    try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(capabilities))) {
+      return in.readAllBytes();
+    } catch (IOException e) {
+      throw new UncheckedIOException("Error decompressing capabilities of service " + id, e);
+    }
   }
 
   public GeoService setCapabilities(byte[] capabilities) {
-    this.capabilities = capabilities;
+    if (capabilities == null) {
+      this.capabilities = null;
+      return this;
+    }
+    try {
+      return setCapabilities(new ByteArrayInputStream(capabilities));
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * Compress and set the capabilities from a stream, so large capabilities do not need to be read into memory
+   * uncompressed.
+   *
+   * @param capabilities the capabilities as received from the service, not closed
+   * @return this
+   * @throws IOException when reading the stream fails
+   */
+  public GeoService setCapabilities(InputStream capabilities) throws IOException {
+    ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+    try (OutputStream out = new GZIPOutputStream(compressed)) {
+      capabilities.transferTo(out);
+    }
+    this.capabilities = compressed.toByteArray();
     return this;
   }
 
+  private static boolean isGzipped(byte[] data) {
+    return data.length >= 2
+        && (data[0] & 0xff) == (GZIPInputStream.GZIP_MAGIC & 0xff)
+        && (data[1] & 0xff) == (GZIPInputStream.GZIP_MAGIC >> 8);
+  }
+
   public String getCapabilitiesContentType() {
     return capabilitiesContentType;
   }
@@ -7,16 +7,26 @@
 
 import static org.tailormap.api.persistence.json.GeoServiceProtocol.QUANTIZEDMESH;
 import static org.tailormap.api.persistence.json.GeoServiceProtocol.TILES3D;
+import static org.tailormap.api.persistence.json.GeoServiceProtocol.WMS;
+import static org.tailormap.api.persistence.json.GeoServiceProtocol.WMTS;
 import static org.tailormap.api.persistence.json.GeoServiceProtocol.XYZ;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.lang.invoke.MethodHandles;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
@@ -38,6 +48,8 @@
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.UriComponentsBuilder;
@@ -54,12 +66,22 @@
 import org.tailormap.api.persistence.json.TMServiceCapsCapabilities;
 import org.tailormap.api.persistence.json.TMServiceInfo;
 import org.tailormap.api.persistence.json.WMSStyle;
+import org.tailormap.api.util.HttpProxyUtil;
 
 @Service
 public class GeoServiceHelper {
 
   private static final Logger logger =
       LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+  private static final String CORS_HEADER = "Access-Control-Allow-Origin";
+
+  /** How much of a response to a conditional GetCapabilities request is read to find a CurrentUpdateSequence error. */
+  private static final int UPDATE_SEQUENCE_EXCEPTION_MAX_BYTES = 8192;
+
+  /** How much of a response which is not capabilities is read to find a service exception message. */
+  private static final int MAX_SERVICE_EXCEPTION_SIZE = 64 * 1024;
+
   private final TailormapConfig tailormapConfig;
 
   @Autowired
@@ -122,33 +144,35 @@ public void loadServiceCapabilities(GeoService geoService) throws Exception {
       return;
     }
 
-    ResponseTeeingHTTPClient client = new ResponseTeeingHTTPClient(
-        HTTPClientFinder.createClient(), null, Set.of("Access-Control-Allow-Origin"));
-
-    ServiceAuthentication auth = geoService.getAuthentication();
-    if (auth != null && auth.getMethod() == ServiceAuthentication.MethodEnum.PASSWORD) {
-      client.setUser(auth.getUsername());
-      client.setPassword(auth.getPassword());
-    }
-
-    client.setReadTimeout(this.tailormapConfig.getTimeout());
-    client.setConnectTimeout(this.tailormapConfig.getTimeout());
-    client.setTryGzip(true);
+    // Large capabilities are written to a temporary file which is deleted when the client is closed
+    try (ResponseTeeingHTTPClient client = new ResponseTeeingHTTPClient(
+        HTTPClientFinder.createClient(), null, Set.of(CORS_HEADER, HttpHeaders.ETAG, HttpHeaders.LAST_MODIFIED))) {
 
-    logger.info(
-        "Get capabilities for {} {} from URL {}",
-        geoService.getProtocol(),
-        geoService.getId() == null ? "(new)" : "id " + geoService.getId(),
-        geoService.getUrl());
+      ServiceAuthentication auth = geoService.getAuthentication();
+      if (auth != null && auth.getMethod() == ServiceAuthentication.MethodEnum.PASSWORD) {
+        client.setUser(auth.getUsername());
+        client.setPassword(auth.getPassword());
+      }
 
-    // TODO: micrometer met tags voor URL/id van service
+      client.setReadTimeout(this.tailormapConfig.getTimeout());
+      client.setConnectTimeout(this.tailormapConfig.getTimeout());
+      client.setTryGzip(true);
 
-    switch (geoService.getProtocol()) {
-      case WMS -> loadWMSCapabilities(geoService, client);
-      case WMTS -> loadWMTSCapabilities(geoService, client);
-      default ->
-        throw new UnsupportedOperationException(
-            "Unsupported geo service protocol: " + geoService.getProtocol());
+      logger.info(
+          "Get capabilities for {} {} from URL {}",
+          geoService.getProtocol(),
+          geoService.getId() == null ? "(new)" : "id " + geoService.getId(),
+          geoService.getUrl());
+
+      // TODO: micrometer met tags voor URL/id van service
+
+      switch (geoService.getProtocol()) {
+        case WMS -> loadWMSCapabilities(geoService, client);
+        case WMTS -> loadWMTSCapabilities(geoService, client);
+        default ->
+          throw new UnsupportedOperationException(
+              "Unsupported geo service protocol: " + geoService.getProtocol());
+      }
     }
 
     if (geoService.getTitle() == null) {
@@ -170,6 +194,96 @@ public void loadServiceCapabilities(GeoService geoService) throws Exception {
     }
   }
 
+  /**
+   * Check whether the capabilities of a WMS or WMTS service have changed since they were loaded, using a conditional
+   * GetCapabilities request. The request has the {@code If-None-Match} and {@code If-Modified-Since} headers when the
+   * service returned an ETag or Last-Modified header before, and for a WMS the {@code UPDATESEQUENCE} parameter when
+   * the capabilities had an update sequence. The capabilities are not changed when the service responds with 304 Not
+   * Modified, the same ETag or Last-Modified value or a CurrentUpdateSequence service exception. Only the start of the
+   * response body is read.
+   *
+   * @param geoService the service with previously loaded capabilities
+   * @return {@code false} when the capabilities are not changed, {@code true} when they may have changed or there is
+   *     nothing to check them with
+   */
+  public boolean isCapabilitiesModified(GeoService geoService) {
+    if (geoService.getProtocol() != WMS && geoService.getProtocol() != WMTS) {
+      return true;
+    }
+    TMServiceCaps caps = geoService.getServiceCapabilities();
+    String etag = caps == null ? null : caps.getEtag();
+    String lastModified = caps == null ? null : caps.getLastModified();
+    String updateSequence = geoService.getProtocol() == WMS && caps != null && caps.getCapabilities() != null
+        ? caps.getCapabilities().getUpdateSequence()
+        : null;
+    if (etag == null && lastModified == null && updateSequence == null) {
+      return true;
+    }
+
+    UriComponentsBuilder uri = UriComponentsBuilder.fromUriString(geoService.getUrl());
+    uri.build().getQueryParams().keySet().stream()
+        .filter(param -> Set.of("service", "request", "updatesequence").contains(param.toLowerCase(Locale.ROOT)))
+        .toList()
+        .forEach(uri::replaceQueryParam);
+    uri.queryParam("SERVICE", geoService.getProtocol().getValue().toUpperCase(Locale.ROOT))
+        .queryParam("REQUEST", "GetCapabilities");
+    if (updateSequence != null) {
+      uri.queryParam("UPDATESEQUENCE", URLEncoder.encode(updateSequence, StandardCharsets.UTF_8));
+    }
+
+    HttpRequest.Builder request;
+    try {
+      // the service URL is validated as a URI, so it is already encoded
+      request = HttpRequest.newBuilder(uri.build(true).toUri());
+    } catch (IllegalArgumentException e) {
+      return true;
+    }
+    request.timeout(Duration.ofMillis(tailormapConfig.getTimeout()));
+    if (etag != null) {
+      request.header(HttpHeaders.IF_NONE_MATCH, etag);
+    }
+    if (lastModified != null) {
+      request.header(HttpHeaders.IF_MODIFIED_SINCE, lastModified);
+    }
+    ServiceAuthentication auth = geoService.getAuthentication();
+    if (auth != null && auth.getMethod() == ServiceAuthentication.MethodEnum.PASSWORD) {
+      HttpProxyUtil.setHttpBasicAuthenticationHeader(request, auth.getUsername(), auth.getPassword());
+    }
+
+    try (HttpClient httpClient = HttpClient.newBuilder()
+        .followRedirects(HttpClient.Redirect.NORMAL)
+        .connectTimeout(Duration.ofMillis(tailormapConfig.getTimeout()))
+        .build()) {
+      HttpResponse<InputStream> response =
+          httpClient.send(request.build(), HttpResponse.BodyHandlers.ofInputStream());
+      try (InputStream body = response.body()) {
+        if (response.statusCode() == HttpStatus.NOT_MODIFIED.value()) {
+          return false;
+        }
+        if (response.statusCode() != HttpStatus.OK.value()) {
+          return true;
+        }
+        if ((etag != null
+                && etag.equals(response.headers().firstValue(HttpHeaders.ETAG).orElse(null)))
+            || (lastModified != null
+                && lastModified.equals(response.headers()
+                    .firstValue(HttpHeaders.LAST_MODIFIED)
+                    .orElse(null)))) {
+          return false;
+        }
+        return updateSequence == null
+            || !new String(body.readNBytes(UPDATE_SEQUENCE_EXCEPTION_MAX_BYTES), StandardCharsets.UTF_8)
+                .contains("CurrentUpdateSequence");
+      }
+    } catch (IOException e) {
+      logger.debug("Conditional GetCapabilities request for service {} failed", geoService.getId(), e);
+      return true;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return true;
+    }
+  }
+
   private static void setXyzCapabilities(GeoService geoService) {
     geoService.setLayers(List.of(new GeoServiceLayer()
         .id("0")
@@ -205,7 +319,11 @@ private void setServiceInfo(
       GeoService geoService,
       ResponseTeeingHTTPClient client,
       AbstractOpenWebService<? extends Capabilities, Layer> ows) {
-    geoService.setCapabilities(client.getLatestResponseCopy());
+    try (InputStream capabilities = client.getLatestResponseCopyInputStream()) {
+      geoService.setCapabilities(capabilities);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
     geoService.setCapabilitiesContentType(MediaType.APPLICATION_XML_VALUE);
     geoService.setCapabilitiesFetched(Instant.now());
 
@@ -214,7 +332,9 @@ private void setServiceInfo(
     TMServiceCaps caps = new TMServiceCaps();
     geoService.setServiceCapabilities(caps);
 
-    caps.setCorsAllowOrigin(client.getLatestResponse().getResponseHeader("Access-Control-Allow-Origin"));
+    caps.setCorsAllowOrigin(client.getLatestResponse().getResponseHeader(CORS_HEADER));
+    caps.setEtag(client.getLatestResponse().getResponseHeader(HttpHeaders.ETAG));
+    caps.setLastModified(client.getLatestResponse().getResponseHeader(HttpHeaders.LAST_MODIFIED));
 
     if (info != null) {
       if (StringUtils.isBlank(geoService.getTitle())) {
@@ -315,12 +435,11 @@ private void loadWMSCapabilities(GeoService geoService, ResponseTeeingHTTPClient
       // In these cases, try to extract a message from the HTTP response
       String contentType = client.getLatestResponse().getContentType();
       if (contentType != null && contentType.contains("text/xml")) {
-        String wmsException =
-            WMSServiceExceptionUtil.tryGetServiceExceptionMessage(client.getLatestResponseCopy());
+        // A service exception is small, don't read a large response into memory
+        byte[] response = client.getLatestResponseCopyStart(MAX_SERVICE_EXCEPTION_SIZE);
+        String wmsException = WMSServiceExceptionUtil.tryGetServiceExceptionMessage(response);
         throw new Exception("Error loading WMS capabilities: "
-            + (wmsException != null
-                ? wmsException
-                : new String(client.getLatestResponseCopy(), StandardCharsets.UTF_8)));
+            + (wmsException != null ? wmsException : new String(response, StandardCharsets.UTF_8)));
       } else {
         throw e;
       }
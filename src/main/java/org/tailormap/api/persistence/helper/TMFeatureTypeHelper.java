@@ -19,11 +19,13 @@
 import java.util.stream.Collectors;
 import org.springframework.stereotype.Service;
 import org.tailormap.api.persistence.Application;
+import org.tailormap.api.persistence.TMFeatureSource;
 import org.tailormap.api.persistence.TMFeatureType;
 import org.tailormap.api.persistence.json.AppLayerSettings;
 import org.tailormap.api.persistence.json.AppTreeLayerNode;
 import org.tailormap.api.persistence.json.AttachmentAttributeType;
 import org.tailormap.api.persistence.json.AttributeSettings;
+import org.tailormap.api.persistence.json.JDBCConnectionProperties;
 import org.tailormap.api.persistence.json.TMAttributeDescriptor;
 
 @Service
@@ -60,6 +62,38 @@ public static boolean isEditable(
     return editable;
   }
 
+  /**
+   * Whether two feature types read the same table, or the same WFS feature type. For JDBC feature sources the database
+   * and schema are compared, so feature sources with other credentials for the same database match. Tables read
+   * through a database view or a WFS over the same database are not detected.
+   *
+   * @param featureType a feature type
+   * @param other another feature type
+   * @return {@code true} if both feature types read the same table
+   */
+  public static boolean isSameTable(@NotNull TMFeatureType featureType, @NotNull TMFeatureType other) {
+    TMFeatureSource source = featureType.getFeatureSource();
+    TMFeatureSource otherSource = other.getFeatureSource();
+    if (!Objects.equals(featureType.getName(), other.getName())
+        || source == null
+        || otherSource == null
+        || source.getProtocol() != otherSource.getProtocol()) {
+      return false;
+    }
+    if (source.getProtocol() == TMFeatureSource.Protocol.JDBC) {
+      JDBCConnectionProperties connection = source.getJdbcConnection();
+      JDBCConnectionProperties otherConnection = otherSource.getJdbcConnection();
+      return connection != null
+          && otherConnection != null
+          && Objects.equals(connection.getDbtype(), otherConnection.getDbtype())
+          && Objects.equals(connection.getHost(), otherConnection.getHost())
+          && Objects.equals(connection.getPort(), otherConnection.getPort())
+          && Objects.equals(connection.getDatabase(), otherConnection.getDatabase())
+          && Objects.equals(connection.getSchema(), otherConnection.getSchema());
+    }
+    return Objects.equals(source.getUrl(), otherSource.getUrl());
+  }
+
   public static Set<String> getHiddenAttributes(
       @NotNull TMFeatureType featureType, @NotNull AppLayerSettings appLayerSettings) {
     Set<String> hiddenAttributes = new HashSet<>();
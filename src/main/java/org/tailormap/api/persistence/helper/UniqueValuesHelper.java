@@ -25,6 +25,7 @@
 import org.springframework.web.server.ResponseStatusException;
 import org.tailormap.api.geotools.FilterUtil;
 import org.tailormap.api.geotools.featuresources.FeatureSourceFactoryHelper;
+import org.tailormap.api.geotools.featuresources.FeatureSourceObservations;
 import org.tailormap.api.persistence.Application;
 import org.tailormap.api.persistence.TMFeatureType;
 import org.tailormap.api.viewer.model.UniqueValuesResponse;
@@ -33,6 +34,8 @@ public class UniqueValuesHelper {
   private static final Logger logger =
       LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
 
+  private static final String UNIQUE_VALUES_OPERATION = "unique-values";
+
   public static UniqueValuesResponse getUniqueValues(
       @Nullable Application application,
       TMFeatureType tmft,
@@ -40,12 +43,17 @@ public static UniqueValuesResponse getUniqueValues(
       String filter,
       FilterFactory ff,
       FeatureSourceFactoryHelper featureSourceFactoryHelper,
+      FeatureSourceObservations featureSourceObservations,
       Boolean useGeotoolsUniqueFunction) {
     final UniqueValuesResponse uniqueValuesResponse = new UniqueValuesResponse().filterApplied(false);
     SimpleFeatureSource fs = null;
     try {
       Filter existingFilter = null;
-      fs = featureSourceFactoryHelper.openGeoToolsFeatureSource(tmft);
+      fs = featureSourceObservations.observe(
+          UNIQUE_VALUES_OPERATION,
+          "datastore",
+          tmft,
+          () -> featureSourceFactoryHelper.openGeoToolsFeatureSource(tmft));
       if (null != filter) {
         if (application == null) {
           existingFilter = ECQL.toFilter(filter); // NOPMD - admin usage does not have application context
@@ -69,25 +77,32 @@ public static UniqueValuesResponse getUniqueValues(
 
       // and then there are 2 scenarios:
       // there might be a performance benefit for one or the other
-      if (!useGeotoolsUniqueFunction) {
-        // #1 use a feature visitor to get the unique values
-        // not recommended, as it may not be performant
-        logger.trace("Using feature visitor to get unique values");
-        fs.getFeatures(q)
-            .accepts(
-                feature -> uniqueValuesResponse.addValuesItem(
-                    feature.getProperty(attributeName).getValue()),
-                null);
-      } else {
-        // #2 or use a Function to get the unique values
-        // this is the recommended way, uses SQL "distinct"
-        logger.trace("Using geotools unique collection function to get unique values");
-        Function unique = ff.function("Collection_Unique", ff.property(attributeName));
-        Object o = unique.evaluate(fs.getFeatures(q));
-        if (o instanceof Set<?> uniqueValues) {
-          uniqueValuesResponse.setValues(new TreeSet<>(uniqueValues));
+      final SimpleFeatureSource featureSource = fs;
+      featureSourceObservations.observeQuery(UNIQUE_VALUES_OPERATION, "query", tmft, featureSource, q, n -> n, () -> {
+        if (!useGeotoolsUniqueFunction) {
+          // #1 use a feature visitor to get the unique values
+          // not recommended, as it may not be performant
+          logger.trace("Using feature visitor to get unique values");
+          featureSource
+              .getFeatures(q)
+              .accepts(
+                  feature -> uniqueValuesResponse.addValuesItem(
+                      feature.getProperty(attributeName).getValue()),
+                  null);
+        } else {
+          // #2 or use a Function to get the unique values
+          // this is the recommended way, uses SQL "distinct"
+          logger.trace("Using geotools unique collection function to get unique values");
+          Function unique = ff.function("Collection_Unique", ff.property(attributeName));
+          Object o = unique.evaluate(featureSource.getFeatures(q));
+          if (o instanceof Set<?> uniqueValues) {
+            uniqueValuesResponse.setValues(new TreeSet<>(uniqueValues));
+          }
         }
-      }
+        return uniqueValuesResponse.getValues() == null
+            ? 0
+            : uniqueValuesResponse.getValues().size();
+      });
     } catch (CQLException | FactoryException | UnsupportedOperationException e) {
       logger.error("Could not parse requested filter", e);
       throw new ResponseStatusException(
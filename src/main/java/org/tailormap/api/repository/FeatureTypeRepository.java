@@ -5,6 +5,7 @@
  */
 package org.tailormap.api.repository;
 
+import java.util.List;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.repository.history.RevisionRepository;
@@ -30,4 +31,14 @@
    */
   @PreAuthorize("permitAll()")
   Optional<TMFeatureType> getTMFeatureTypeByNameAndFeatureSource(String name, TMFeatureSource featureSource);
+
+  /**
+   * Get all feature types with a name, of any feature source. Used to find the feature types of other feature sources
+   * over the same table, see {@link org.tailormap.api.persistence.helper.TMFeatureTypeHelper#isSameTable}.
+   *
+   * @param name The name of the feature types
+   * @return The feature types
+   */
+  @PreAuthorize("permitAll()")
+  List<TMFeatureType> findByName(String name);
 }
@@ -0,0 +1,41 @@
+/*
+ * Copyright (C) 2026 B3Partners B.V.
+ *
+ * SPDX-License-Identifier: MIT
+ */
+package org.tailormap.api.repository.events;
+
+import org.springframework.data.rest.core.annotation.HandleAfterDelete;
+import org.springframework.data.rest.core.annotation.HandleAfterSave;
+import org.springframework.data.rest.core.annotation.RepositoryEventHandler;
+import org.springframework.stereotype.Component;
+import org.tailormap.api.geotools.featuresources.JDBCDataStoreCache;
+import org.tailormap.api.geotools.featuresources.JDBCPoolMetrics;
+import org.tailormap.api.persistence.TMFeatureSource;
+
+/**
+ * Event handler for feature sources; disposes shared DataStores when a feature source is changed or deleted, and
+ * removes the connection pool metrics of a deleted feature source.
+ */
+@Component
+@RepositoryEventHandler
+public class FeatureSourceEventHandler {
+  private final JDBCDataStoreCache dataStoreCache;
+  private final JDBCPoolMetrics poolMetrics;
+
+  public FeatureSourceEventHandler(JDBCDataStoreCache dataStoreCache, JDBCPoolMetrics poolMetrics) {
+    this.dataStoreCache = dataStoreCache;
+    this.poolMetrics = poolMetrics;
+  }
+
+  @HandleAfterSave
+  public void afterSaveFeatureSourceEventHandler(TMFeatureSource featureSource) {
+    dataStoreCache.evict(featureSource.getId());
+  }
+
+  @HandleAfterDelete
+  public void afterDeleteFeatureSourceEventHandler(TMFeatureSource featureSource) {
+    dataStoreCache.evict(featureSource.getId());
+    poolMetrics.remove(featureSource.getId());
+  }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright (C) 2026 B3Partners B.V.
+ *
+ * SPDX-License-Identifier: MIT
+ */
+package org.tailormap.api.scheduling;
+
+import java.lang.invoke.MethodHandles;
+import java.util.Map;
+import java.util.UUID;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Schedules the {@link CapabilitiesRefreshTask} on startup when {@code tailormap-api.capabilities-refresh.cron} is
+ * set. Like the ping tasks there is only one capabilities refresh task, it is replaced on every startup.
+ */
+@Component
+public class CapabilitiesRefreshScheduler implements InitializingBean {
+  private static final Logger logger =
+      LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+  private final TaskManagerService taskManagerService;
+
+  @Value("${tailormap-api.capabilities-refresh.cron:}")
+  private String cron;
+
+  public CapabilitiesRefreshScheduler(TaskManagerService taskManagerService) {
+    this.taskManagerService = taskManagerService;
+  }
+
+  @Override
+  public void afterPropertiesSet() {
+    try {
+      taskManagerService.deleteTasksByGroupName(TaskType.CAPABILITIES_REFRESH.getValue());
+      if (StringUtils.isBlank(cron)) {
+        logger.debug("No cron expression for refreshing capabilities, not scheduling a refresh task");
+        return;
+      }
+      final UUID taskUuid = taskManagerService.createTask(
+          CapabilitiesRefreshTask.class,
+          new TMJobDataMap(Map.of(
+              Task.TYPE_KEY,
+              TaskType.CAPABILITIES_REFRESH.getValue(),
+              Task.DESCRIPTION_KEY,
+              "Refresh the capabilities of services and feature sources.",
+              Task.PRIORITY_KEY,
+              10)),
+          cron);
+      logger.debug("Added capabilities refresh task with UUID: {}", taskUuid);
+    } catch (Exception e) {
+      logger.error("Error initializing capabilities refresh task", e);
+    }
+  }
+}
@@ -0,0 +1,284 @@
+/*
+ * Copyright (C) 2026 B3Partners B.V.
+ *
+ * SPDX-License-Identifier: MIT
+ */
+package org.tailormap.api.scheduling;
+
+import static ch.rasc.sse.eventbus.SseEvent.DEFAULT_EVENT;
+import static org.tailormap.api.admin.model.ServerSentEvent.EventTypeEnum.TASK_PROGRESS;
+
+import ch.rasc.sse.eventbus.SseEvent;
+import ch.rasc.sse.eventbus.SseEventBus;
+import io.micrometer.core.annotation.Timed;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandles;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import org.jspecify.annotations.NonNull;
+import org.quartz.DisallowConcurrentExecution;
+import org.quartz.JobDataMap;
+import org.quartz.JobExecutionContext;
+import org.quartz.JobExecutionException;
+import org.quartz.PersistJobDataAfterExecution;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.quartz.QuartzJobBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.tailormap.api.admin.model.ServerSentEvent;
+import org.tailormap.api.admin.model.TaskProgressEvent;
+import org.tailormap.api.geotools.featuresources.JDBCFeatureSourceHelper;
+import org.tailormap.api.geotools.featuresources.WFSFeatureSourceHelper;
+import org.tailormap.api.persistence.GeoService;
+import org.tailormap.api.persistence.TMFeatureSource;
+import org.tailormap.api.persistence.TMFeatureType;
+import org.tailormap.api.persistence.helper.GeoServiceHelper;
+import org.tailormap.api.persistence.json.GeoServiceLayer;
+import org.tailormap.api.persistence.json.GeoServiceProtocol;
+import org.tailormap.api.persistence.json.TMAttributeDescriptor;
+import org.tailormap.api.persistence.json.TMFeatureTypeInfo;
+import org.tailormap.api.persistence.json.TMServiceCaps;
+import org.tailormap.api.repository.FeatureSourceRepository;
+import org.tailormap.api.repository.GeoServiceRepository;
+import org.tailormap.api.security.InternalAdminAuthentication;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Refreshes the capabilities of all WMS and WMTS services and all WFS and JDBC feature sources, like the refresh
+ * capabilities action in the admin does for a single service. The services and feature sources are refreshed in
+ * parallel, with at most {@code tailormap-api.capabilities-refresh.parallelism} at a time.
+ *
+ * <p>The capabilities of a service are only loaded when a conditional request shows they may have changed, see
+ * {@link GeoServiceHelper#isCapabilitiesModified(GeoService)}. Services and feature sources are only saved when their
+ * layers or feature types have changed, so an unchanged service does not get a new revision.
+ */
+@DisallowConcurrentExecution
+@PersistJobDataAfterExecution
+public class CapabilitiesRefreshTask extends QuartzJobBean implements Task {
+  private static final Logger logger =
+      LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+  private enum Outcome {
+    UNCHANGED,
+    UPDATED,
+    FAILED
+  }
+
+  private record FeatureTypeSnapshot(
+      String title,
+      TMFeatureTypeInfo info,
+      List<TMAttributeDescriptor> attributes,
+      String primaryKeyAttribute,
+      boolean writeable) {
+    FeatureTypeSnapshot(TMFeatureType featureType) {
+      this(
+          featureType.getTitle(),
+          featureType.getInfo(),
+          List.copyOf(featureType.getAttributes()),
+          featureType.getPrimaryKeyAttribute(),
+          featureType.isWriteable());
+    }
+  }
+
+  private final GeoServiceRepository geoServiceRepository;
+  private final FeatureSourceRepository featureSourceRepository;
+  private final GeoServiceHelper geoServiceHelper;
+  private final TransactionTemplate transactionTemplate;
+  private final SseEventBus eventBus;
+  private final JsonMapper mapper;
+
+  @Value("${tailormap-api.capabilities-refresh.parallelism:4}")
+  private int parallelism;
+
+  private String description;
+
+  public CapabilitiesRefreshTask(
+      @Autowired GeoServiceRepository geoServiceRepository,
+      @Autowired FeatureSourceRepository featureSourceRepository,
+      @Autowired GeoServiceHelper geoServiceHelper,
+      @Autowired PlatformTransactionManager transactionManager,
+      @Autowired SseEventBus eventBus,
+      @Autowired JsonMapper mapper) {
+    this.geoServiceRepository = geoServiceRepository;
+    this.featureSourceRepository = featureSourceRepository;
+    this.geoServiceHelper = geoServiceHelper;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.eventBus = eventBus;
+    this.mapper = mapper;
+  }
+
+  @Timed(value = "capabilitiesRefreshTask", description = "Time taken to refresh the capabilities")
+  @Override
+  protected void executeInternal(@NonNull JobExecutionContext context) throws JobExecutionException {
+    final JobDataMap persistedJobData = context.getJobDetail().getJobDataMap();
+    final UUID taskUuid = UUID.fromString(context.getJobDetail().getKey().getName());
+    final Instant startedAt = Instant.now();
+    logger.info("Start refreshing capabilities, task {}", context.getJobDetail().getKey());
+
+    List<Callable<Outcome>> refreshes = new ArrayList<>();
+    InternalAdminAuthentication.setInSecurityContext();
+    try {
+      geoServiceRepository.findAll().stream()
+          .filter(geoService -> geoService.getProtocol() == GeoServiceProtocol.WMS
+              || geoService.getProtocol() == GeoServiceProtocol.WMTS)
+          .forEach(geoService -> refreshes.add(() -> refreshGeoService(geoService)));
+      featureSourceRepository.findAll().stream()
+          .filter(featureSource -> featureSource.getProtocol() == TMFeatureSource.Protocol.WFS
+              || featureSource.getProtocol() == TMFeatureSource.Protocol.JDBC)
+          .map(TMFeatureSource::getId)
+          .forEach(id -> refreshes.add(() -> refreshFeatureSource(id)));
+    } finally {
+      InternalAdminAuthentication.clearSecurityContextAuthentication();
+    }
+
+    final TaskProgressEvent progressEvent = new TaskProgressEvent()
+        .type(getType().getValue())
+        .uuid(taskUuid)
+        .startedAt(startedAt.atOffset(ZoneId.systemDefault().getRules().getOffset(startedAt)))
+        .total(refreshes.size())
+        .progress(0);
+    taskProgress(progressEvent);
+
+    final AtomicInteger progress = new AtomicInteger();
+    final Map<Outcome, AtomicInteger> outcomes = Map.of(
+        Outcome.UNCHANGED, new AtomicInteger(),
+        Outcome.UPDATED, new AtomicInteger(),
+        Outcome.FAILED, new AtomicInteger());
+
+    try (ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, parallelism))) {
+      for (Callable<Outcome> refresh : refreshes) {
+        executor.execute(() -> {
+          Outcome outcome = run(refresh);
+          outcomes.get(outcome).incrementAndGet();
+          taskProgress(new TaskProgressEvent()
+              .type(progressEvent.getType())
+              .uuid(taskUuid)
+              .startedAt(progressEvent.getStartedAt())
+              .total(refreshes.size())
+              .progress(progress.incrementAndGet()));
+        });
+      }
+    }
+
+    String result = "Capabilities refreshed in %d seconds: %d updated, %d unchanged, %d failed"
+        .formatted(
+            (Instant.now().getEpochSecond() - startedAt.getEpochSecond()),
+            outcomes.get(Outcome.UPDATED).get(),
+            outcomes.get(Outcome.UNCHANGED).get(),
+            outcomes.get(Outcome.FAILED).get());
+    logger.info(result);
+    persistedJobData.put(
+        EXECUTION_COUNT_KEY, (1 + (int) context.getMergedJobDataMap().getOrDefault(EXECUTION_COUNT_KEY, 0)));
+    persistedJobData.put(EXECUTION_FINISHED_KEY, Instant.now());
+    persistedJobData.put(LAST_RESULT_KEY, result);
+    context.setResult(result);
+  }
+
+  private static Outcome run(Callable<Outcome> refresh) {
+    InternalAdminAuthentication.setInSecurityContext();
+    try {
+      return refresh.call();
+    } catch (Exception e) {
+      logger.warn("Error refreshing capabilities: {}", e.getMessage(), e);
+      return Outcome.FAILED;
+    } finally {
+      InternalAdminAuthentication.clearSecurityContextAuthentication();
+    }
+  }
+
+  private Outcome refreshGeoService(GeoService geoService) throws Exception {
+    if (!geoServiceHelper.isCapabilitiesModified(geoService)) {
+      logger.debug("Capabilities of service {} not modified", geoService.getId());
+      return Outcome.UNCHANGED;
+    }
+    List<GeoServiceLayer> layers = List.copyOf(geoService.getLayers());
+    TMServiceCaps serviceCapabilities = geoService.getServiceCapabilities();
+
+    geoServiceHelper.loadServiceCapabilities(geoService);
+
+    if (layers.equals(geoService.getLayers())
+        && Objects.equals(serviceCapabilities, geoService.getServiceCapabilities())) {
+      logger.debug("Layers of service {} not changed", geoService.getId());
+      return Outcome.UNCHANGED;
+    }
+    geoServiceRepository.save(geoService);
+    logger.info("Refreshed capabilities of service {}", geoService.getId());
+    return Outcome.UPDATED;
+  }
+
+  private Outcome refreshFeatureSource(Long id) {
+    // The feature types are loaded lazily, so introspect the feature source in a transaction. Only the changed feature
+    // types are updated when the transaction is committed.
+    return transactionTemplate.execute(status -> {
+      TMFeatureSource featureSource = featureSourceRepository.findById(id).orElse(null);
+      if (featureSource == null) {
+        return Outcome.UNCHANGED;
+      }
+      Map<String, FeatureTypeSnapshot> featureTypes = snapshot(featureSource);
+      try {
+        if (featureSource.getProtocol() == TMFeatureSource.Protocol.WFS) {
+          new WFSFeatureSourceHelper().loadCapabilities(featureSource);
+        } else {
+          new JDBCFeatureSourceHelper().loadCapabilities(featureSource);
+        }
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+      if (featureTypes.equals(snapshot(featureSource))) {
+        logger.debug("Feature types of feature source {} not changed", id);
+        status.setRollbackOnly();
+        return Outcome.UNCHANGED;
+      }
+      logger.info("Refreshed capabilities of feature source {}", id);
+      return Outcome.UPDATED;
+    });
+  }
+
+  private static Map<String, FeatureTypeSnapshot> snapshot(TMFeatureSource featureSource) {
+    return featureSource.getFeatureTypes().stream()
+        .collect(Collectors.toMap(TMFeatureType::getName, FeatureTypeSnapshot::new, (a, b) -> a));
+  }
+
+  @Override
+  public void taskProgress(TaskProgressEvent event) {
+    ServerSentEvent serverSentEvent =
+        new ServerSentEvent().eventType(TASK_PROGRESS).details(event);
+    try {
+      eventBus.handleEvent(SseEvent.of(DEFAULT_EVENT, mapper.writeValueAsString(serverSentEvent)));
+    } catch (JacksonException e) {
+      logger.error("Error publishing capabilities refresh task progress event", e);
+    }
+  }
+
+  // <editor-fold desc="Getters and Setters">
+  @Override
+  public TaskType getType() {
+    return TaskType.CAPABILITIES_REFRESH;
+  }
+
+  @Override
+  public String getDescription() {
+    return description;
+  }
+
+  @Override
+  public void setDescription(String description) {
+    this.description = description;
+  }
+  // </editor-fold>
+}
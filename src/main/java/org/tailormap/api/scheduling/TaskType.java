@@ -6,6 +6,7 @@
 package org.tailormap.api.scheduling;
 
 public enum TaskType {
+  CAPABILITIES_REFRESH("capabilities_refresh"),
   INDEX("index"),
   PROMETHEUS_PING("prometheus_ping"),
   SOLR_PING("solr_ping");
@@ -5,9 +5,8 @@
  */
 package org.tailormap.api.service;
 
-import ch.rasc.sse.eventbus.SseEvent;
-import ch.rasc.sse.eventbus.SseEventBus;
 import jakarta.annotation.PostConstruct;
+import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.UncheckedIOException;
@@ -15,31 +14,33 @@
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Stream;
+import java.util.zip.Deflater;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipOutputStream;
 import org.apache.commons.lang3.StringUtils;
-import org.geotools.api.data.FeatureEvent;
 import org.geotools.api.data.FileDataStore;
 import org.geotools.api.data.Query;
 import org.geotools.api.data.SimpleFeatureSource;
 import org.geotools.api.data.SimpleFeatureStore;
-import org.geotools.api.data.Transaction;
 import org.geotools.api.feature.simple.SimpleFeatureType;
 import org.geotools.api.filter.Filter;
 import org.geotools.api.filter.FilterFactory;
 import org.geotools.api.filter.sort.SortOrder;
 import org.geotools.data.DataUtilities;
-import org.geotools.data.DefaultTransaction;
 import org.geotools.data.csv.CSVDataStoreFactory;
 import org.geotools.data.geojson.store.GeoJSONDataStoreFactory;
 import org.geotools.data.shapefile.ShapefileDumper;
@@ -54,15 +55,16 @@
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.tailormap.api.controller.LayerExtractController;
-import org.tailormap.api.geotools.collection.ProgressReportingFeatureCollection;
+import org.tailormap.api.geotools.collection.ChunkedFeatureCollection;
 import org.tailormap.api.geotools.data.excel.ExcelDataStore;
 import org.tailormap.api.geotools.data.excel.ExcelDataStoreFactory;
+import org.tailormap.api.geotools.data.geopkg.GeoPackageBulkWriter;
 import org.tailormap.api.geotools.featuresources.FeatureSourceFactoryHelper;
+import org.tailormap.api.geotools.featuresources.FeatureSourceObservations;
 import org.tailormap.api.persistence.TMFeatureType;
 import org.tailormap.api.util.UUIDv7;
 import org.tailormap.api.viewer.model.ServerSentEventResponse;
@@ -73,12 +75,17 @@
 public class CreateLayerExtractService {
   private static final Logger logger =
       LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
-  private final SseEventBus eventBus;
+  private final ViewerEventRelay viewerEventRelay;
   private final JsonMapper jsonMapper;
   private final FeatureSourceFactoryHelper featureSourceFactoryHelper;
+  private final ExtractResultCache extractResultCache;
+  private final Executor encodingExecutor;
+  private final FeatureSourceObservations featureSourceObservations;
   private final FilterFactory ff = CommonFactoryFinder.getFilterFactory(GeoTools.getDefaultHints());
 
   private static final String EXTRACT_SUBDIRECTORY = "tm-extracts";
+  private static final int ZIP_BUFFER_SIZE = 256 * 1024;
+  private static final String EXTRACT_OPERATION = "extract";
   // we can safely use the tmp dir as a default here because we are running in a docker container without a shell so
   // access is limited
   // Base directory from config; actual export dir is <base>/tm-extracts
@@ -90,12 +97,24 @@ public class CreateLayerExtractService {
   @Value("${tailormap-api.extract.cleanup-minutes:120}")
   private int cleanupIntervalMinutes;
 
-  @Value("#{T(java.lang.Math).max(1, ${tailormap-api.extract.progress-report-interval:100})}")
-  private int progressReportInterval;
-
   @Value("${tailormap-api.features.wfs_count_exact:false}")
   private boolean exactWfsCounts;
 
+  @Value("#{T(java.lang.Math).max(1, ${tailormap-api.extract.chunk-size:10000})}")
+  private int chunkSize;
+
+  @Value("${tailormap-api.extract.chunk-max-retries:3}")
+  private int chunkMaxRetries;
+
+  @Value("${tailormap-api.extract.chunk-retry-delay-ms:2000}")
+  private long chunkRetryDelayMillis;
+
+  @Value("${tailormap-api.extract.geopackage.bulk-load:true}")
+  private boolean geoPackageBulkLoad;
+
+  @Value("${tailormap-api.extract.geopackage.batch-size:1000}")
+  private int geoPackageBatchSize;
+
   @PostConstruct
   void initializeExtractDirectory() {
     try {
@@ -110,11 +129,17 @@ void initializeExtractDirectory() {
   }
 
   public CreateLayerExtractService(
-      @Qualifier("viewerSseEventBus") SseEventBus eventBus,
+      ViewerEventRelay viewerEventRelay,
       JsonMapper jsonMapper,
-      FeatureSourceFactoryHelper featureSourceFactoryHelper) {
-    this.eventBus = eventBus;
+      FeatureSourceFactoryHelper featureSourceFactoryHelper,
+      ExtractResultCache extractResultCache,
+      @Qualifier("extractEncodingExecutor") Executor encodingExecutor,
+      FeatureSourceObservations featureSourceObservations) {
+    this.viewerEventRelay = viewerEventRelay;
     this.featureSourceFactoryHelper = featureSourceFactoryHelper;
+    this.extractResultCache = extractResultCache;
+    this.encodingExecutor = encodingExecutor;
+    this.featureSourceObservations = featureSourceObservations;
     // force unindented/single line output for SSE messages, because we may have set
     // spring.jackson.serialization.indent_output=true for debugging/development/test
     if (jsonMapper.isEnabled(SerializationFeature.INDENT_OUTPUT)) {
@@ -132,14 +157,13 @@ public String getExportFilesLocation() {
   }
 
   private void emitError(@NonNull String clientId, String details) {
-    eventBus.handleEvent(SseEvent.builder()
-        .addClientId(clientId)
-        .data(jsonMapper.writeValueAsString(new ServerSentEventResponse()
+    viewerEventRelay.send(
+        clientId,
+        jsonMapper.writeValueAsString(new ServerSentEventResponse()
             .eventType(ServerSentEventResponse.EventTypeEnum.EXTRACT_FAILED)
             .id(UUIDv7.randomV7())
             .details(Map.of(
-                "message", "An error occurred during extract creation", "explanation", details))))
-        .build());
+                "message", "An error occurred during extract creation", "explanation", details))));
   }
 
   public void emitProgress(
@@ -152,9 +176,9 @@ public void emitProgress(
     fileId = StringUtils.isBlank(fileId) ? "" : fileId;
     logger.debug("Emitting progress {}% for client [{}], message: '{}'", progress, clientId, message);
 
-    eventBus.handleEvent(SseEvent.builder()
-        .addClientId(clientId)
-        .data(jsonMapper.writeValueAsString(new ServerSentEventResponse()
+    viewerEventRelay.send(
+        clientId,
+        jsonMapper.writeValueAsString(new ServerSentEventResponse()
             .eventType(
                 completed
                     ? ServerSentEventResponse.EventTypeEnum.EXTRACT_COMPLETED
@@ -166,15 +190,64 @@ public void emitProgress(
                 "message",
                 completed ? "Extract task completed" : message,
                 "downloadId",
-                fileId))))
-        .build());
+                fileId))));
+  }
+
+  /**
+   * Emit the position of a queued extract.
+   *
+   * @param clientId the SSE client id
+   * @param fileId the download id of the extract
+   * @param position the 1-based position in the queue
+   */
+  public void emitQueued(@NonNull String clientId, @NonNull String fileId, int position) {
+    logger.debug("Emitting queue position {} for client [{}], extract {}", position, clientId, fileId);
+    viewerEventRelay.send(
+        clientId,
+        jsonMapper.writeValueAsString(new ServerSentEventResponse()
+            .eventType(ServerSentEventResponse.EventTypeEnum.EXTRACT_QUEUED)
+            .id(UUIDv7.randomV7())
+            .details(Map.of(
+                "queuePosition",
+                position,
+                "message",
+                "Extract task queued at position %d".formatted(position),
+                "downloadId",
+                fileId))));
+  }
+
+  public void emitCancelled(@NonNull String clientId, @NonNull String fileId) {
+    viewerEventRelay.send(
+        clientId,
+        jsonMapper.writeValueAsString(new ServerSentEventResponse()
+            .eventType(ServerSentEventResponse.EventTypeEnum.EXTRACT_CANCELLED)
+            .id(UUIDv7.randomV7())
+            .details(Map.of("message", "Extract task cancelled", "downloadId", fileId))));
+  }
+
+  /**
+   * Delete the (partial) output file of an extract, for example after it was cancelled.
+   *
+   * @param outputFileName the output filename
+   */
+  public void deleteExtractFile(@NonNull String outputFileName) {
+    Path exportRoot = Path.of(exportFilesLocation);
+    Path outputPath = exportRoot.resolve(outputFileName).normalize();
+    if (!outputPath.startsWith(exportRoot)) {
+      return;
+    }
+    try {
+      Files.deleteIfExists(outputPath);
+    } catch (IOException e) {
+      logger.warn("Failed to delete extract file {}", outputFileName, e);
+    }
   }
 
   /**
    * Check that the sse client id is valid and exists.
    *
    * @param clientId the SSE client id
-   * @throws IllegalArgumentException when the SSE client id is invalid or not found on the event bus
+   * @throws IllegalArgumentException when the SSE client id is invalid or not found on the event bus of any node
    */
   public void validateClientId(@NonNull String clientId) throws IllegalArgumentException {
     if (!clientId.matches("[A-Za-z0-9_-]+")) {
@@ -182,13 +255,11 @@ public void validateClientId(@NonNull String clientId) throws IllegalArgumentExc
       throw new IllegalArgumentException("Invalid clientId");
     }
 
-    // validate the given clientId is known on the event bus
-    this.eventBus.getAllClientIds().stream()
-        .filter(id -> Objects.equals(id, clientId))
-        .findFirst()
-        .ifPresentOrElse(id -> logger.debug("Validated clientId {}", id), () -> {
-          throw new IllegalArgumentException("No active subscription found for clientId " + clientId);
-        });
+    // validate the given clientId is known on the event bus of this node or, in a cluster, of another node
+    if (!viewerEventRelay.isKnownClient(clientId)) {
+      throw new IllegalArgumentException("No active subscription found for clientId " + clientId);
+    }
+    logger.debug("Validated clientId {}", clientId);
   }
 
   /**
@@ -223,7 +294,12 @@ public String createExtractFilename(
     return "%s_%s_%s%s".formatted(cleanFTName, clientId, UUIDv7.randomV7(), outputFormat.getExtension());
   }
 
-  @Async("extractTaskExecutor")
+  /**
+   * Create an extract. This is run on the extract executor by the {@link ExtractScheduler}, call
+   * {@link ExtractScheduler#submit} to schedule an extract.
+   *
+   * @param cacheKey when not {@code null}, the extract is stored in the {@link ExtractResultCache} with this key
+   */
   @Transactional
   public void createLayerExtract(
       @NonNull String clientId,
@@ -233,31 +309,59 @@ public void createLayerExtract(
       String sortBy,
       SortOrder sortOrder,
       LayerExtractController.@NonNull ExtractOutputFormat extractOutputFormat,
-      @NonNull String outputFileName) {
+      @NonNull String outputFileName,
+      ExtractResultCache.@Nullable ExtractKey cacheKey) {
 
     this.emitProgress(clientId, outputFileName, 0, false, "Starting extract");
 
-    switch (extractOutputFormat) {
-      case GEOPACKAGE ->
-        this.handleGeoPackage(
-            clientId, inputTmFeatureType, attributes, filter, sortBy, sortOrder, outputFileName);
-      case SHAPE ->
-        this.handleWithShapeDumper(
-            clientId, inputTmFeatureType, attributes, filter, sortBy, sortOrder, outputFileName);
-      case CSV, GEOJSON, XLSX ->
-        this.handleSingleFileFormats(
-            clientId,
-            inputTmFeatureType,
-            attributes,
-            filter,
-            sortBy,
-            sortOrder,
-            extractOutputFormat,
-            outputFileName);
+    final long cacheGeneration = extractResultCache.getGeneration(inputTmFeatureType.getId());
+    boolean completed =
+        switch (extractOutputFormat) {
+          case GEOPACKAGE ->
+            this.handleGeoPackage(
+                clientId, inputTmFeatureType, attributes, filter, sortBy, sortOrder, outputFileName);
+          case SHAPE ->
+            this.handleWithShapeDumper(
+                clientId, inputTmFeatureType, attributes, filter, sortBy, sortOrder, outputFileName);
+          case CSV, GEOJSON, XLSX ->
+            this.handleSingleFileFormats(
+                clientId,
+                inputTmFeatureType,
+                attributes,
+                filter,
+                sortBy,
+                sortOrder,
+                extractOutputFormat,
+                outputFileName);
+        };
+    if (completed && cacheKey != null) {
+      extractResultCache.put(cacheKey, cacheGeneration, Path.of(exportFilesLocation, outputFileName));
     }
   }
 
-  private void handleGeoPackage(
+  /**
+   * Complete an extract request with a cached extract, if there is one.
+   *
+   * @param clientId the SSE client id
+   * @param cacheKey the cache key of the requested extract
+   * @param outputFileName the output filename for the request
+   * @return {@code true} if the extract was completed from the cache
+   */
+  public boolean completeFromCache(
+      @NonNull String clientId,
+      ExtractResultCache.@NonNull ExtractKey cacheKey,
+      @NonNull String outputFileName) {
+    Path exportRoot = Path.of(exportFilesLocation);
+    Path outputPath = exportRoot.resolve(outputFileName).normalize();
+    if (!outputPath.startsWith(exportRoot) || !extractResultCache.linkCached(cacheKey, outputPath)) {
+      return false;
+    }
+    logger.debug("Completed extract {} from cache", outputFileName);
+    this.emitProgress(clientId, outputFileName, 100, true, "Extract completed from cache");
+    return true;
+  }
+
+  private boolean handleGeoPackage(
       @NonNull String clientId,
       @NonNull TMFeatureType inputTmFeatureType,
       @NonNull Set<String> attributes,
@@ -279,21 +383,24 @@ private void handleGeoPackage(
     } catch (IOException e) {
       emitError(clientId, e.getMessage());
       logger.error("Creating extract failed", e);
-      return;
+      return false;
     }
 
     try (GeoPackage geopkg = new GeoPackage(outputFile)) {
       geopkg.init();
 
-      inputFeatureSource = featureSourceFactoryHelper.openGeoToolsFeatureSource(inputTmFeatureType);
+      inputFeatureSource = featureSourceObservations.observe(
+          EXTRACT_OPERATION,
+          "datastore",
+          inputTmFeatureType,
+          () -> featureSourceFactoryHelper.openGeoToolsFeatureSource(inputTmFeatureType));
 
       Query q = createQuery(inputFeatureSource, attributes, filter, sortBy, sortOrder);
 
-      int featCount = getFeatureCount(inputFeatureSource, q);
+      int featCount = getFeatureCount(inputTmFeatureType, inputFeatureSource, q);
       if (featCount < 0) {
         logger.warn("Could not determine feature count for extract, progress reporting will be inaccurate");
       }
-      final boolean hasKnownFeatureCount = featCount > 0;
 
       SimpleFeatureType fType =
           DataUtilities.createSubType(inputFeatureSource.getSchema(), attributes.toArray(new String[0]));
@@ -303,18 +410,20 @@ private void handleGeoPackage(
       entry.setDescription(fType.getTypeName());
 
       AtomicInteger lastProgress = new AtomicInteger(0);
-      geopkg.add(
-          entry,
-          new ProgressReportingFeatureCollection(
-              inputFeatureSource.getFeatures(q), progressReportInterval, processed -> {
-                int progress = hasKnownFeatureCount ? (int) ((processed / (double) featCount) * 99) : 0;
-                lastProgress.set(progress);
-                String progressMessage = hasKnownFeatureCount
-                    ? "Extracting geopackage: %d/%d features processed"
-                        .formatted(processed, featCount)
-                    : "Extracting geopackage: %d features processed".formatted(processed);
-                this.emitProgress(clientId, outputFileName, progress, false, progressMessage);
-              }));
+      ChunkedFeatureCollection features = getChunkedFeatures(
+          inputFeatureSource, q, inputTmFeatureType, clientId, outputFileName, "geopackage", featCount, lastProgress);
+      featureSourceObservations.run(EXTRACT_OPERATION, "write", inputTmFeatureType, () -> {
+        if (geoPackageBulkLoad && features.getSchema().getGeometryDescriptor() != null) {
+          new GeoPackageBulkWriter(
+                  geopkg,
+                  encodingExecutor,
+                  geoPackageBatchSize,
+                  Math.max(2, 2 * Runtime.getRuntime().availableProcessors()))
+              .write(entry, features.getSchema(), features);
+        } else {
+          geopkg.add(entry, features);
+        }
+      });
 
       this.emitProgress(
           clientId,
@@ -322,9 +431,11 @@ private void handleGeoPackage(
           Math.max(99, lastProgress.get()),
           false,
           "Extract geopackage created successfully");
-      geopkg.createSpatialIndex(entry);
+      featureSourceObservations.run(
+          EXTRACT_OPERATION, "index", inputTmFeatureType, () -> geopkg.createSpatialIndex(entry));
       geopkg.close();
       this.emitProgress(clientId, outputFileName, 100, true, "Extract completed successfully");
+      return true;
     } catch (SchemaException | IOException | IllegalArgumentException e) {
       emitError(clientId, e.getMessage());
       logger.error("Creating extract failed", e);
@@ -337,9 +448,10 @@ private void handleGeoPackage(
         }
       }
     }
+    return false;
   }
 
-  private void handleSingleFileFormats(
+  private boolean handleSingleFileFormats(
       @NonNull String clientId,
       @NonNull TMFeatureType inputTmFeatureType,
       @NonNull Set<String> attributes,
@@ -351,12 +463,16 @@ private void handleSingleFileFormats(
 
     SimpleFeatureSource inputFeatureSource = null;
     FileDataStore outputDataStore = null;
-    try (Transaction outputTransaction = new DefaultTransaction("tailormap-extract-output")) {
-      inputFeatureSource = featureSourceFactoryHelper.openGeoToolsFeatureSource(inputTmFeatureType);
+    try {
+      inputFeatureSource = featureSourceObservations.observe(
+          EXTRACT_OPERATION,
+          "datastore",
+          inputTmFeatureType,
+          () -> featureSourceFactoryHelper.openGeoToolsFeatureSource(inputTmFeatureType));
 
       Query q = createQuery(inputFeatureSource, attributes, filter, sortBy, sortOrder);
 
-      int featCount = getFeatureCount(inputFeatureSource, q);
+      int featCount = getFeatureCount(inputTmFeatureType, inputFeatureSource, q);
 
       if (extractOutputFormat == LayerExtractController.ExtractOutputFormat.XLSX
           && featCount >= ExcelDataStore.getMaxRows()) {
@@ -372,7 +488,7 @@ private void handleSingleFileFormats(
         // extract file.
         // The client will receive no extract completed event, and we have already emitted an error message with
         // details.
-        return;
+        return false;
       }
 
       outputDataStore = this.getExtractDataStore(
@@ -381,28 +497,23 @@ private void handleSingleFileFormats(
           DataUtilities.createSubType(inputFeatureSource.getSchema(), attributes.toArray(new String[0]));
       outputDataStore.createSchema(fType);
 
-      final AtomicInteger featsAdded = new AtomicInteger();
       if (outputDataStore.getFeatureSource() instanceof SimpleFeatureStore featureStore) {
-        featureStore.setTransaction(outputTransaction);
-        featureStore.addFeatureListener(event -> {
-          if (event.getType().equals(FeatureEvent.Type.ADDED)) {
-            featsAdded.getAndIncrement();
-          }
-          if (featCount > 0) {
-            if (featsAdded.get() % progressReportInterval == 0) {
-              this.emitProgress(
-                  clientId,
-                  outputFileName,
-                  (int) ((featsAdded.doubleValue() / featCount) * 100),
-                  false,
-                  null);
-            }
-          }
-        });
-        featureStore.addFeatures(inputFeatureSource.getFeatures(q));
-        outputTransaction.commit();
+        // Use auto commit so the features of each chunk are written to the output file as they arrive, instead of
+        // collecting all features in the transaction state until the commit
+        ChunkedFeatureCollection features = getChunkedFeatures(
+            inputFeatureSource,
+            q,
+            inputTmFeatureType,
+            clientId,
+            outputFileName,
+            extractOutputFormat.name().toLowerCase(Locale.ROOT),
+            featCount,
+            new AtomicInteger(0));
+        featureSourceObservations.run(
+            EXTRACT_OPERATION, "write", inputTmFeatureType, () -> featureStore.addFeatures(features));
         outputDataStore.dispose();
         this.emitProgress(clientId, outputFileName, 100, true, "Extract completed successfully");
+        return true;
       } else {
         outputDataStore.dispose();
         this.emitError(clientId, "Output datastore is not a SimpleFeatureStore, cannot write features");
@@ -423,6 +534,7 @@ private void handleSingleFileFormats(
         }
       }
     }
+    return false;
   }
 
   private File getValidatedOutputFile(String outputFileName) throws IOException {
@@ -502,16 +614,89 @@ private FileDataStore getExtractDataStore(
     };
   }
 
-  private int getFeatureCount(SimpleFeatureSource source, Query query) throws IOException {
-    int count = source.getCount(query);
-    logger.debug("Filtered source counts {} features", count);
-    if (count < 0 && exactWfsCounts) {
-      count = source.getFeatures(query).size();
+  private int getFeatureCount(TMFeatureType tmFeatureType, SimpleFeatureSource source, Query query)
+      throws IOException {
+    return featureSourceObservations.observeQuery(
+        EXTRACT_OPERATION, "count", tmFeatureType, source, query, total -> total, () -> {
+          int count = source.getCount(query);
+          logger.debug("Filtered source counts {} features", count);
+          if (count < 0 && exactWfsCounts) {
+            count = source.getFeatures(query).size();
+          }
+          return count;
+        });
+  }
+
+  /**
+   * Wrap the query in a {@link ChunkedFeatureCollection}, which reads the features in chunks of
+   * {@code tailormap-api.extract.chunk-size} features (by primary key or start index when the source supports it),
+   * retries a chunk after a transient error and reports progress after each chunk.
+   *
+   * @param source the input feature source
+   * @param query the query for the extract
+   * @param tmFeatureType the input feature type, for the primary key
+   * @param clientId the SSE client id
+   * @param outputFileName the output filename
+   * @param label the label for progress messages
+   * @param featCount the number of features, negative when unknown
+   * @param lastProgress updated with the last reported progress percentage
+   * @return the chunked feature collection
+   * @throws IOException if the source can not be queried
+   */
+  private ChunkedFeatureCollection getChunkedFeatures(
+      SimpleFeatureSource source,
+      Query query,
+      TMFeatureType tmFeatureType,
+      String clientId,
+      String outputFileName,
+      String label,
+      int featCount,
+      AtomicInteger lastProgress)
+      throws IOException {
+    String primaryKey = tmFeatureType.getPrimaryKeyAttribute();
+    if (primaryKey != null && source.getSchema().getDescriptor(primaryKey) == null) {
+      primaryKey = null;
     }
-    return count;
+    ChunkedFeatureCollection.PagingMode pagingMode =
+        ChunkedFeatureCollection.getPagingMode(source, query, primaryKey);
+    logger.debug(
+        "Reading extract of {} in chunks of {} features using {} paging", source.getName(), chunkSize, pagingMode);
+    final boolean hasKnownFeatureCount = featCount > 0;
+
+    return new ChunkedFeatureCollection(
+        source,
+        query,
+        pagingMode,
+        primaryKey,
+        chunkSize,
+        featCount,
+        chunkMaxRetries,
+        chunkRetryDelayMillis,
+        new ChunkedFeatureCollection.ChunkListener() {
+          @Override
+          public void chunkCompleted(int chunk, long featuresRead) {
+            int progress =
+                hasKnownFeatureCount ? (int) Math.min(99, (featuresRead / (double) featCount) * 99) : 0;
+            lastProgress.set(progress);
+            String progressMessage = hasKnownFeatureCount
+                ? "Extracting %s: %d/%d features processed".formatted(label, featuresRead, featCount)
+                : "Extracting %s: %d features processed".formatted(label, featuresRead);
+            emitProgress(clientId, outputFileName, progress, false, progressMessage);
+          }
+
+          @Override
+          public void chunkRetried(int chunk, int attempt, Throwable cause) {
+            emitProgress(
+                clientId,
+                outputFileName,
+                lastProgress.get(),
+                false,
+                "Error reading features, retrying (attempt %d of %d)".formatted(attempt, chunkMaxRetries));
+          }
+        });
   }
 
-  private void handleWithShapeDumper(
+  private boolean handleWithShapeDumper(
       @NonNull String clientId,
       @NonNull TMFeatureType inputTmFeatureType,
       @NonNull Set<String> attributes,
@@ -548,24 +733,21 @@ private void handleWithShapeDumper(
       dumper.setCharset(StandardCharsets.UTF_8);
       dumper.setEmptyShapefileAllowed(false);
 
-      inputFeatureSource = featureSourceFactoryHelper.openGeoToolsFeatureSource(inputTmFeatureType);
+      inputFeatureSource = featureSourceObservations.observe(
+          EXTRACT_OPERATION,
+          "datastore",
+          inputTmFeatureType,
+          () -> featureSourceFactoryHelper.openGeoToolsFeatureSource(inputTmFeatureType));
 
       Query q = createQuery(inputFeatureSource, attributes, filter, sortBy, sortOrder);
 
-      final int featCount = getFeatureCount(inputFeatureSource, q);
-      final boolean hasKnownFeatureCount = featCount > 0;
+      final int featCount = getFeatureCount(inputTmFeatureType, inputFeatureSource, q);
 
       AtomicInteger lastProgress = new AtomicInteger(0);
 
-      dumper.dump(new ProgressReportingFeatureCollection(
-          inputFeatureSource.getFeatures(q), progressReportInterval, processed -> {
-            int progress = hasKnownFeatureCount ? (int) ((processed / (double) featCount) * 99) : 0;
-            lastProgress.set(progress);
-            String progressMessage = hasKnownFeatureCount
-                ? "Extracting shapes: %d/%d features processed".formatted(processed, featCount)
-                : "Extracting shapes: %d features processed".formatted(processed);
-            this.emitProgress(clientId, outputFileName, progress, false, progressMessage);
-          }));
+      ChunkedFeatureCollection features = getChunkedFeatures(
+          inputFeatureSource, q, inputTmFeatureType, clientId, outputFileName, "shapes", featCount, lastProgress);
+      featureSourceObservations.run(EXTRACT_OPERATION, "write", inputTmFeatureType, () -> dumper.dump(features));
       this.emitProgress(
           clientId,
           outputFileName,
@@ -573,8 +755,11 @@ private void handleWithShapeDumper(
           false,
           "Extract shapes dumped successfully");
 
-      zipDirectory(outputDirectory.toPath(), outputFile.toPath());
+      final Path outputDirectoryPath = outputDirectory.toPath();
+      featureSourceObservations.run(
+          EXTRACT_OPERATION, "zip", inputTmFeatureType, () -> zipDirectory(outputDirectoryPath, outputFile.toPath()));
       this.emitProgress(clientId, outputFileName, 100, true, "Extract completed successfully");
+      return true;
     } catch (IOException | IllegalArgumentException e) {
       emitError(clientId, e.getMessage());
       logger.error("Creating extract failed", e);
@@ -594,6 +779,7 @@ private void handleWithShapeDumper(
         }
       }
     }
+    return false;
   }
 
   private Query createQuery(
@@ -625,7 +811,8 @@ private Query createQuery(
   public void cleanupExpiredExtracts() {
     logger.debug("Running expired extracts cleanup in {}", exportFilesLocation);
     List<FileWithAttributes> oldDownloadFilesOnDisk = new ArrayList<>();
-    Set<String> validClientIds = eventBus.getAllClientIds();
+    // in a cluster the extract location is shared, so keep the files of clients connected to other nodes
+    Set<String> validClientIds = viewerEventRelay.getAllClientIds();
 
     // list download files in export location and delete those that are not bound to an active sse stream client
     try (Stream<Path> stream = Files.walk(Path.of(exportFilesLocation))) {
@@ -706,24 +893,38 @@ public void cleanupExpiredExtracts() {
     }
   }
 
+  /**
+   * Move the files in a directory into a ZIP file. Each file is deleted as soon as it is added, so the peak temporary
+   * space needed is about the size of the shapefiles instead of the shapefiles plus the ZIP file. The largest files are
+   * added first for the same reason. This does not reduce the disk I/O: every file is still written, read back and
+   * written compressed. The shapefiles can not be written to the ZIP file directly, because their headers contain the
+   * file length, bounds and record count which are only known when all features are written.
+   *
+   * <p>Entries are compressed with the fastest deflate level; the {@code .shp} coordinates and padded {@code .dbf}
+   * records still compress well, but much faster than with the default level.
+   */
   private void zipDirectory(Path sourceDir, Path zipFile) throws IOException {
-    try (ZipOutputStream zos = new ZipOutputStream(Files.newOutputStream(zipFile));
-        Stream<Path> pathStream = Files.walk(sourceDir)) {
-      pathStream.filter(Files::isRegularFile).forEach(path -> {
-        String entryName = sourceDir.relativize(path).toString().replace(File.separatorChar, '/');
-        try {
-          zos.putNextEntry(new ZipEntry(entryName));
-          Files.copy(path, zos);
-          zos.closeEntry();
-        } catch (IOException e) {
-          throw new RuntimeException("Failed to add file to zip: " + path, e);
-        }
-      });
-    } catch (RuntimeException e) {
-      if (e.getCause() instanceof IOException ioException) {
-        throw ioException;
+    List<Path> files;
+    try (Stream<Path> pathStream = Files.walk(sourceDir)) {
+      files = new ArrayList<>(pathStream.filter(Files::isRegularFile).toList());
+    }
+    Map<Path, Long> sizes = new HashMap<>();
+    for (Path file : files) {
+      sizes.put(file, Files.size(file));
+    }
+    files.sort(Comparator.comparing((Path file) -> sizes.get(file)).reversed());
+
+    try (ZipOutputStream zos = new ZipOutputStream(new BufferedOutputStream(
+        Files.newOutputStream(zipFile, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING),
+        ZIP_BUFFER_SIZE))) {
+      zos.setLevel(Deflater.BEST_SPEED);
+      for (Path file : files) {
+        String entryName = sourceDir.relativize(file).toString().replace(File.separatorChar, '/');
+        zos.putNextEntry(new ZipEntry(entryName));
+        Files.copy(file, zos);
+        zos.closeEntry();
+        Files.delete(file);
       }
-      throw e;
     }
   }
 
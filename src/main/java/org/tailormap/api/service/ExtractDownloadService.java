@@ -0,0 +1,193 @@
+/*
+ * Copyright (C) 2026 B3Partners B.V.
+ *
+ * SPDX-License-Identifier: MIT
+ */
+package org.tailormap.api.service;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.BaseUnits;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRange;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.tailormap.api.controller.LayerExtractController.ExtractOutputFormat;
+
+/**
+ * Sends extract files to the client. Downloads support a single byte range ({@code Range} and {@code If-Range}
+ * headers), so an interrupted download of a large extract can be resumed. When the servlet container supports it
+ * (Tomcat with the NIO connector) the file is sent by the container with {@code sendfile}, otherwise with
+ * {@link FileChannel#transferTo(long, long, WritableByteChannel)}, in both cases without copying the file through heap
+ * buffers of the application.
+ */
+@Service
+public class ExtractDownloadService {
+  private static final Logger logger =
+      LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+  static final String SENDFILE_SUPPORTED_ATTRIBUTE = "org.apache.tomcat.sendfile.support";
+  static final String SENDFILE_FILENAME_ATTRIBUTE = "org.apache.tomcat.sendfile.filename";
+  static final String SENDFILE_START_ATTRIBUTE = "org.apache.tomcat.sendfile.start";
+  static final String SENDFILE_END_ATTRIBUTE = "org.apache.tomcat.sendfile.end";
+
+  /** Throughput is not recorded for short transfers, where it mostly reflects request overhead. */
+  private static final long MIN_THROUGHPUT_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+  private final MeterRegistry meterRegistry;
+
+  public ExtractDownloadService(MeterRegistry meterRegistry) {
+    this.meterRegistry = meterRegistry;
+  }
+
+  /**
+   * Send (a range of) an extract file as an attachment.
+   *
+   * @param file the extract file, must be a readable regular file
+   * @param outputFormat the output format of the extract, determines the content type; {@code null} if unknown
+   * @param request the request
+   * @param response the response
+   * @throws IOException when the file can not be read
+   */
+  public void send(
+      @NonNull Path file,
+      @Nullable ExtractOutputFormat outputFormat,
+      @NonNull HttpServletRequest request,
+      @NonNull HttpServletResponse response)
+      throws IOException {
+    BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+    long length = attributes.size();
+    long lastModified = attributes.lastModifiedTime().toMillis();
+    String eTag = "\"%x-%x\"".formatted(length, lastModified);
+
+    response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+    response.setHeader(HttpHeaders.ETAG, eTag);
+    response.setDateHeader(HttpHeaders.LAST_MODIFIED, lastModified);
+    response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + file.getFileName() + "\"");
+    response.setContentType(
+        outputFormat == null ? MediaType.APPLICATION_OCTET_STREAM_VALUE : outputFormat.getMediaType());
+
+    long start = 0;
+    long end = length - 1;
+    HttpRange range = getRange(request, eTag, lastModified);
+    if (range != null) {
+      try {
+        start = range.getRangeStart(length);
+        end = range.getRangeEnd(length);
+      } catch (IllegalArgumentException e) {
+        response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+        response.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+        return;
+      }
+      response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+      response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes %d-%d/%d".formatted(start, end, length));
+    } else {
+      response.setStatus(HttpServletResponse.SC_OK);
+    }
+    long count = end - start + 1;
+    response.setContentLengthLong(count);
+
+    if (HttpMethod.HEAD.matches(request.getMethod()) || count == 0) {
+      return;
+    }
+
+    String format = outputFormat == null ? "unknown" : outputFormat.getValue();
+    if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED_ATTRIBUTE))) {
+      // the container sends the file after this request has been handled, so the throughput is not known
+      request.setAttribute(SENDFILE_FILENAME_ATTRIBUTE, file.toAbsolutePath().toString());
+      request.setAttribute(SENDFILE_START_ATTRIBUTE, start);
+      request.setAttribute(SENDFILE_END_ATTRIBUTE, end + 1);
+      recordBytes(format, count);
+      return;
+    }
+
+    long transferred = 0;
+    long startTime = System.nanoTime();
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+      while (transferred < count) {
+        long n = channel.transferTo(start + transferred, count - transferred, out);
+        if (n <= 0) {
+          break;
+        }
+        transferred += n;
+      }
+      response.flushBuffer();
+    } catch (IOException e) {
+      // most likely the client disconnected, it can resume the download with a range request
+      logger.debug("Download of extract {} aborted after {} of {} bytes", file.getFileName(), transferred, count, e);
+    } finally {
+      recordBytes(format, transferred);
+      recordThroughput(format, transferred, System.nanoTime() - startTime);
+    }
+  }
+
+  /**
+   * @return the requested range, or {@code null} when the complete file should be sent: when no or multiple ranges
+   *     are requested, the range header is invalid or the {@code If-Range} validator does not match
+   */
+  private static @Nullable HttpRange getRange(HttpServletRequest request, String eTag, long lastModified) {
+    String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+    if (rangeHeader == null) {
+      return null;
+    }
+    String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+    if (ifRange != null && !ifRange.equals(eTag)) {
+      try {
+        // HTTP dates have a resolution of seconds
+        if (request.getDateHeader(HttpHeaders.IF_RANGE) / 1000 != lastModified / 1000) {
+          return null;
+        }
+      } catch (IllegalArgumentException e) {
+        // a weak or different entity tag
+        return null;
+      }
+    }
+    try {
+      List<HttpRange> ranges = HttpRange.parseRanges(rangeHeader);
+      return ranges.size() == 1 ? ranges.getFirst() : null;
+    } catch (IllegalArgumentException e) {
+      logger.debug("Ignoring invalid range header: {}", rangeHeader);
+      return null;
+    }
+  }
+
+  private void recordBytes(String format, long bytes) {
+    DistributionSummary.builder("tailormap_api_extract_download_size")
+        .description("Bytes sent per layer extract download")
+        .baseUnit(BaseUnits.BYTES)
+        .tag("format", format)
+        .register(meterRegistry)
+        .record(bytes);
+  }
+
+  private void recordThroughput(String format, long bytes, long nanos) {
+    if (nanos < MIN_THROUGHPUT_NANOS) {
+      return;
+    }
+    DistributionSummary.builder("tailormap_api_extract_download_throughput")
+        .description("Throughput of layer extract downloads")
+        .baseUnit("bytes_per_second")
+        .tag("format", format)
+        .register(meterRegistry)
+        .record(bytes * (double) TimeUnit.SECONDS.toNanos(1) / nanos);
+  }
+}
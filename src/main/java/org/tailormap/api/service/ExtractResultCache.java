@@ -0,0 +1,321 @@
+/*
+ * Copyright (C) 2026 B3Partners B.V.
+ *
+ * SPDX-License-Identifier: MIT
+ */
+package org.tailormap.api.service;
+
+import jakarta.annotation.PostConstruct;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandles;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import org.geotools.api.filter.Filter;
+import org.geotools.api.filter.sort.SortOrder;
+import org.geotools.filter.text.ecql.ECQL;
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.tailormap.api.controller.LayerExtractController;
+
+/**
+ * On-disk cache for completed layer extracts, so an extract with the same feature type, attributes, filter, sort order
+ * and output format as an earlier one is completed without querying the feature source again. The cached file is hard
+ * linked to the output file of the request, so both can be deleted independently without copying the data.
+ *
+ * <p>The cache does not know when the data of a feature source changes outside of Tailormap, so cached extracts
+ * expire after {@code tailormap-api.extract.cache.max-age-minutes}. Edits through Tailormap evict the cached extracts
+ * of the feature type. When the cache grows beyond {@code tailormap-api.extract.cache.max-size-mb} the oldest extracts
+ * are removed. This is independent of the cleanup of the output files per SSE client.
+ */
+@Component
+public class ExtractResultCache {
+  private static final Logger logger =
+      LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+  private static final String CACHE_SUBDIRECTORY = "tm-extract-cache";
+
+  private final String cacheBaseLocation;
+  private final boolean enabled;
+  private final long maxAgeMinutes;
+  private final long maxSizeBytes;
+
+  private Path cacheLocation;
+
+  /**
+   * Incremented when the extracts of a feature type are evicted, so an extract that was being created from data read
+   * before an edit is not stored after the eviction.
+   */
+  private final Map<Long, AtomicLong> generations = new ConcurrentHashMap<>();
+
+  public ExtractResultCache(
+      @Value("${tailormap-api.extract.location:#{systemProperties['java.io.tmpdir']}}") String cacheBaseLocation,
+      @Value("${tailormap-api.extract.cache.enabled:true}") boolean enabled,
+      @Value("${tailormap-api.extract.cache.max-age-minutes:60}") long maxAgeMinutes,
+      @Value("${tailormap-api.extract.cache.max-size-mb:1024}") long maxSizeMb) {
+    this.cacheBaseLocation = cacheBaseLocation;
+    this.enabled = enabled;
+    this.maxAgeMinutes = maxAgeMinutes;
+    this.maxSizeBytes = maxSizeMb * 1024 * 1024;
+  }
+
+  /**
+   * Everything that determines the content of an extract besides the data.
+   *
+   * @param featureTypeId the feature type id
+   * @param featureTypeSettings the feature type settings, so configuration changes do not serve stale extracts
+   * @param attributes the requested attributes, empty for all
+   * @param filter the parsed filter, may be {@code null}
+   * @param sortBy the sort attribute, may be {@code null}
+   * @param sortOrder the sort order
+   * @param outputFormat the output format
+   */
+  public record ExtractKey(
+      @NonNull Long featureTypeId,
+      @Nullable String featureTypeSettings,
+      @NonNull Set<String> attributes,
+      @Nullable Filter filter,
+      @Nullable String sortBy,
+      @Nullable SortOrder sortOrder,
+      LayerExtractController.@NonNull ExtractOutputFormat outputFormat) {
+
+    /**
+     * @return a hex encoded SHA-256 digest of the key, with the attributes in a stable order and the filter in its
+     *     normalized ECQL form
+     */
+    String digest() {
+      String normalized = String.join(
+          "\n",
+          String.valueOf(featureTypeId),
+          Objects.toString(featureTypeSettings, ""),
+          String.join(",", new TreeSet<>(attributes)),
+          filter == null || filter == Filter.INCLUDE ? "" : ECQL.toCQL(filter),
+          Objects.toString(sortBy, ""),
+          sortBy == null ? "" : Objects.toString(sortOrder, ""),
+          outputFormat.getValue());
+      try {
+        return HexFormat.of()
+            .formatHex(MessageDigest.getInstance("SHA-256").digest(normalized.getBytes(StandardCharsets.UTF_8)));
+      } catch (NoSuchAlgorithmException e) {
+        throw new IllegalStateException(e);
+      }
+    }
+  }
+
+  @PostConstruct
+  void initializeCacheDirectory() {
+    if (!enabled) {
+      return;
+    }
+    try {
+      Path root = Path.of(cacheBaseLocation, CACHE_SUBDIRECTORY);
+      Files.createDirectories(root);
+      this.cacheLocation = root.toRealPath();
+      logger.info("Using extract cache directory: {}", this.cacheLocation);
+    } catch (IOException e) {
+      throw new UncheckedIOException(
+          "Failed to initialize extract cache directory under base path: " + cacheBaseLocation, e);
+    }
+  }
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * @param featureTypeId the feature type id
+   * @return the current generation of the cached extracts of the feature type, to pass to
+   *     {@link #put(ExtractKey, long, Path)}
+   */
+  public long getGeneration(Long featureTypeId) {
+    return generations.computeIfAbsent(featureTypeId, id -> new AtomicLong()).get();
+  }
+
+  /**
+   * Link a cached extract to the output file of a request.
+   *
+   * @param key the extract key
+   * @param target the output file, must not exist
+   * @return {@code true} if a cached extract that has not expired was linked to the target
+   */
+  public boolean linkCached(@NonNull ExtractKey key, @NonNull Path target) {
+    if (!enabled) {
+      return false;
+    }
+    Path cached = getCachePath(key);
+    try {
+      if (isExpired(Files.readAttributes(cached, BasicFileAttributes.class))) {
+        return false;
+      }
+      linkOrCopy(cached, target);
+      return true;
+    } catch (NoSuchFileException e) {
+      // not cached, or evicted in the meantime
+      return false;
+    } catch (IOException e) {
+      logger.warn("Error linking cached extract {} to {}", cached, target, e);
+      return false;
+    }
+  }
+
+  /**
+   * Store a completed extract, unless the extracts of the feature type were evicted after the extract creation
+   * started.
+   *
+   * @param key the extract key
+   * @param generation the generation from {@link #getGeneration(Long)} before the extract creation started
+   * @param extract the completed extract file
+   */
+  public void put(@NonNull ExtractKey key, long generation, @NonNull Path extract) {
+    if (!enabled || getGeneration(key.featureTypeId()) != generation) {
+      return;
+    }
+    Path cachePath = getCachePath(key);
+    try {
+      // Link to a temporary name and move it in place so readers never see a partially linked or copied extract
+      Path temp = cacheLocation.resolve(cachePath.getFileName() + "." + System.nanoTime() + ".tmp");
+      try {
+        linkOrCopy(extract, temp);
+        Files.move(temp, cachePath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      } finally {
+        Files.deleteIfExists(temp);
+      }
+      logger.debug("Cached extract {} as {}", extract.getFileName(), cachePath.getFileName());
+    } catch (IOException e) {
+      logger.warn("Error caching extract {}", extract, e);
+      return;
+    }
+    evictToMaxSize();
+  }
+
+  /**
+   * Remove all cached extracts of a feature type.
+   *
+   * @param featureTypeId the feature type id
+   */
+  public void evict(Long featureTypeId) {
+    if (featureTypeId == null) {
+      return;
+    }
+    generations.computeIfAbsent(featureTypeId, id -> new AtomicLong()).incrementAndGet();
+    if (!enabled) {
+      return;
+    }
+    logger.debug("Evicting cached extracts for feature type {}", featureTypeId);
+    String prefix = featureTypeId + "_";
+    for (CachedExtract cached : listCachedExtracts()) {
+      if (cached.path().getFileName().toString().startsWith(prefix)) {
+        delete(cached.path());
+      }
+    }
+  }
+
+  /** Remove expired extracts and the oldest extracts when the cache is larger than the maximum size. */
+  @Scheduled(fixedDelay = 5, timeUnit = TimeUnit.MINUTES, initialDelay = 15)
+  public synchronized void evictExpired() {
+    if (!enabled) {
+      return;
+    }
+    for (CachedExtract cached : listCachedExtracts()) {
+      if (isExpired(cached.attributes())) {
+        delete(cached.path());
+      }
+    }
+    evictToMaxSize();
+  }
+
+  private synchronized void evictToMaxSize() {
+    List<CachedExtract> cachedExtracts = listCachedExtracts();
+    long size = cachedExtracts.stream()
+        .mapToLong(cached -> cached.attributes().size())
+        .sum();
+    if (size <= maxSizeBytes) {
+      return;
+    }
+    cachedExtracts.sort(Comparator.comparing(
+        (CachedExtract cached) -> cached.attributes().lastModifiedTime()));
+    for (CachedExtract cached : cachedExtracts) {
+      if (size <= maxSizeBytes) {
+        break;
+      }
+      logger.debug("Evicting cached extract {} to limit the cache size", cached.path().getFileName());
+      delete(cached.path());
+      size -= cached.attributes().size();
+    }
+  }
+
+  private record CachedExtract(Path path, BasicFileAttributes attributes) {}
+
+  private List<CachedExtract> listCachedExtracts() {
+    List<CachedExtract> cachedExtracts = new ArrayList<>();
+    try (Stream<Path> paths = Files.list(cacheLocation)) {
+      paths.filter(path -> !path.getFileName().toString().endsWith(".tmp")).forEach(path -> {
+        try {
+          cachedExtracts.add(new CachedExtract(path, Files.readAttributes(path, BasicFileAttributes.class)));
+        } catch (IOException e) {
+          // deleted in the meantime
+          logger.trace("Could not read attributes of cached extract {}", path, e);
+        }
+      });
+    } catch (IOException e) {
+      logger.warn("Error listing cached extracts in {}", cacheLocation, e);
+    }
+    return cachedExtracts;
+  }
+
+  private boolean isExpired(BasicFileAttributes attributes) {
+    return attributes
+        .lastModifiedTime()
+        .toInstant()
+        .isBefore(Instant.now().minusSeconds(TimeUnit.MINUTES.toSeconds(maxAgeMinutes)));
+  }
+
+  private static void delete(Path path) {
+    try {
+      Files.deleteIfExists(path);
+    } catch (IOException e) {
+      logger.warn("Failed to delete cached extract {}", path, e);
+    }
+  }
+
+  /** Hard link the target to the source, or copy it when the file system does not support hard links. */
+  private static void linkOrCopy(Path source, Path target) throws IOException {
+    try {
+      Files.createLink(target, source);
+    } catch (FileAlreadyExistsException e) {
+      throw e;
+    } catch (UnsupportedOperationException | IOException e) {
+      logger.debug("Could not hard link {} to {}, copying instead: {}", target, source, e.getMessage());
+      Files.copy(source, target, StandardCopyOption.REPLACE_EXISTING);
+    }
+  }
+
+  private Path getCachePath(ExtractKey key) {
+    return cacheLocation.resolve(key.featureTypeId() + "_" + key.digest() + key.outputFormat().getExtension());
+  }
+}
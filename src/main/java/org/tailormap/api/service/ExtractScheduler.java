@@ -0,0 +1,377 @@
+/*
+ * Copyright (C) 2026 B3Partners B.V.
+ *
+ * SPDX-License-Identifier: MIT
+ */
+package org.tailormap.api.service;
+
+import java.lang.invoke.MethodHandles;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.Stream;
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+/**
+ * Schedules layer extracts on the extract executor. Instead of handing all extracts to the executor in order of
+ * arrival, extracts are kept in a queue and started when there is room:
+ *
+ * <ul>
+ *   <li>at most {@code tailormap-api.extract.max-concurrent} extracts run at the same time;
+ *   <li>at most {@code tailormap-api.extract.max-concurrent-per-feature-source} extracts read from the same feature
+ *       source at the same time, so a single database is not hit by many full scans in parallel;
+ *   <li>the next extract is taken from the application with the fewest running extracts that has waited longest for
+ *       its turn, then in the same way from the users of that application and then in order of arrival, so a user
+ *       queueing many extracts can not starve others.
+ * </ul>
+ *
+ * <p>The position of queued extracts is sent to the SSE client when it changes. Queued and running extracts can be
+ * cancelled; a running extract is cancelled by interrupting its thread, which stops the
+ * {@link org.tailormap.api.geotools.collection.ChunkedFeatureIterator} reading the features.
+ */
+@Service
+public class ExtractScheduler {
+  private static final Logger logger =
+      LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+  private final Executor executor;
+  private final CreateLayerExtractService createLayerExtractService;
+  private final int maxConcurrent;
+  private final int maxConcurrentPerFeatureSource;
+  private final int queueCapacity;
+  private final int maxQueuedPerUser;
+
+  private final List<ExtractJob> queue = new ArrayList<>();
+  private final List<ExtractJob> running = new ArrayList<>();
+  /** The value of {@link #startCount} when an application or user last had an extract started. */
+  private final Map<String, Long> lastStarted = new HashMap<>();
+
+  private long sequence;
+  private long startCount;
+
+  public ExtractScheduler(
+      @Qualifier("extractTaskExecutor") Executor executor,
+      CreateLayerExtractService createLayerExtractService,
+      @Value("${tailormap-api.extract.max-concurrent:4}") int maxConcurrent,
+      @Value("${tailormap-api.extract.max-concurrent-per-feature-source:1}") int maxConcurrentPerFeatureSource,
+      @Value("${tailormap-api.extract.queue-capacity:100}") int queueCapacity,
+      @Value("${tailormap-api.extract.max-queued-per-user:10}") int maxQueuedPerUser) {
+    this.executor = executor;
+    this.createLayerExtractService = createLayerExtractService;
+    this.maxConcurrent = Math.max(1, maxConcurrent);
+    this.maxConcurrentPerFeatureSource = Math.max(1, maxConcurrentPerFeatureSource);
+    this.queueCapacity = Math.max(1, queueCapacity);
+    this.maxQueuedPerUser = Math.max(1, maxQueuedPerUser);
+  }
+
+  /**
+   * An extract to schedule.
+   *
+   * @param downloadId the download id (output file name) of the extract
+   * @param clientId the SSE client id to send queue events to
+   * @param user the user name, or {@code null} for an anonymous user in which case the client id is used for fairness
+   * @param application the application the extract is requested for, may be {@code null}
+   * @param featureSourceId the id of the feature source the extract reads from, may be {@code null}
+   */
+  public record ExtractRequest(
+      @NonNull String downloadId,
+      @NonNull String clientId,
+      @Nullable String user,
+      @Nullable String application,
+      @Nullable Long featureSourceId) {
+    String userKey() {
+      return user == null ? "client:" + clientId : "user:" + user;
+    }
+  }
+
+  /** A scheduled extract. */
+  static final class ExtractJob {
+    private final ExtractRequest request;
+    private final Runnable task;
+    private final long sequence;
+    private volatile boolean cancelled;
+    private Thread thread;
+    private int lastReportedPosition;
+
+    private ExtractJob(ExtractRequest request, Runnable task, long sequence) {
+      this.request = request;
+      this.task = task;
+      this.sequence = sequence;
+    }
+
+    private synchronized void setThread(Thread thread) {
+      this.thread = thread;
+    }
+
+    private synchronized void cancel() {
+      cancelled = true;
+      if (thread != null) {
+        thread.interrupt();
+      }
+    }
+  }
+
+  private record QueuePosition(ExtractJob job, int position) {}
+
+  /**
+   * Queue an extract, it is started as soon as the limits allow.
+   *
+   * @param request the extract to schedule
+   * @param task the task creating the extract
+   * @throws RejectedExecutionException when the queue is full or the user has too many queued extracts
+   */
+  public void submit(@NonNull ExtractRequest request, @NonNull Runnable task) throws RejectedExecutionException {
+    List<QueuePosition> positions;
+    synchronized (this) {
+      if (queue.size() >= queueCapacity) {
+        throw new RejectedExecutionException("Too many extracts are queued, please try again later");
+      }
+      long queuedForUser = queue.stream()
+          .filter(j -> j.request.userKey().equals(request.userKey()))
+          .count();
+      if (queuedForUser >= maxQueuedPerUser) {
+        throw new RejectedExecutionException("Too many of your extracts are queued, please try again later");
+      }
+      queue.add(new ExtractJob(request, task, sequence++));
+      logger.debug("Queued extract {}, {} queued and {} running", request.downloadId(), queue.size(), running.size());
+      positions = dispatch();
+    }
+    emitQueuePositions(positions);
+  }
+
+  /**
+   * Cancel a queued or running extract.
+   *
+   * @param clientId the SSE client id the extract was requested with
+   * @param downloadId the download id of the extract
+   * @return {@code true} when the extract was found and cancelled
+   */
+  public boolean cancel(@NonNull String clientId, @NonNull String downloadId) {
+    ExtractJob job;
+    boolean wasQueued;
+    List<QueuePosition> positions = List.of();
+    synchronized (this) {
+      job = findJob(queue, clientId, downloadId);
+      wasQueued = job != null;
+      if (job == null) {
+        job = findJob(running, clientId, downloadId);
+      }
+      if (job == null || job.cancelled) {
+        return false;
+      }
+      job.cancel();
+      if (wasQueued) {
+        queue.remove(job);
+        positions = queuePositions();
+      }
+    }
+    logger.info("Cancelled {} extract {}", wasQueued ? "queued" : "running", downloadId);
+    if (wasQueued) {
+      createLayerExtractService.emitCancelled(clientId, downloadId);
+    }
+    emitQueuePositions(positions);
+    return true;
+  }
+
+  /**
+   * Cancel an extract on request of another cluster node, ignored when the extract is not queued or running here.
+   *
+   * @param event the cancel request
+   */
+  @EventListener
+  public void onCancelExtract(ViewerEventRelay.CancelExtractEvent event) {
+    cancel(event.clientId(), event.downloadId());
+  }
+
+  /**
+   * @return the number of queued extracts
+   */
+  public synchronized int getQueuedCount() {
+    return queue.size();
+  }
+
+  /**
+   * @return the number of running extracts
+   */
+  public synchronized int getRunningCount() {
+    return running.size();
+  }
+
+  private static @Nullable ExtractJob findJob(List<ExtractJob> jobs, String clientId, String downloadId) {
+    return jobs.stream()
+        .filter(j -> j.request.clientId().equals(clientId)
+            && j.request.downloadId().equals(downloadId))
+        .findFirst()
+        .orElse(null);
+  }
+
+  /**
+   * Start queued jobs as long as the limits allow. Must be called while holding the lock.
+   *
+   * @return the queue positions of the jobs still queued
+   */
+  private List<QueuePosition> dispatch() {
+    Turns turns = new Turns(lastStarted);
+    Map<Long, Integer> runningPerFeatureSource = new HashMap<>();
+    for (ExtractJob job : running) {
+      turns.running(job);
+      if (job.request.featureSourceId() != null) {
+        runningPerFeatureSource.merge(job.request.featureSourceId(), 1, Integer::sum);
+      }
+    }
+    while (running.size() < maxConcurrent) {
+      ExtractJob next = queue.stream()
+          .filter(j -> j.request.featureSourceId() == null
+              || runningPerFeatureSource.getOrDefault(j.request.featureSourceId(), 0)
+                  < maxConcurrentPerFeatureSource)
+          .min(turns.order())
+          .orElse(null);
+      if (next == null) {
+        break;
+      }
+      queue.remove(next);
+      running.add(next);
+      turns.started(next, ++startCount);
+      if (next.request.featureSourceId() != null) {
+        runningPerFeatureSource.merge(next.request.featureSourceId(), 1, Integer::sum);
+      }
+      start(next);
+    }
+    // remember when applications and users last had their turn, for those with extracts still queued or running
+    lastStarted.clear();
+    Stream.concat(queue.stream(), running.stream()).forEach(j -> {
+      lastStarted.put(Turns.applicationKey(j), turns.lastStarted.getOrDefault(Turns.applicationKey(j), 0L));
+      lastStarted.put(j.request.userKey(), turns.lastStarted.getOrDefault(j.request.userKey(), 0L));
+    });
+    return queuePositions();
+  }
+
+  private void start(ExtractJob job) {
+    logger.debug("Starting extract {}", job.request.downloadId());
+    try {
+      executor.execute(() -> run(job));
+    } catch (RejectedExecutionException e) {
+      // only happens when shutting down
+      logger.error("Extract executor rejected extract {}", job.request.downloadId(), e);
+      running.remove(job);
+    }
+  }
+
+  private void run(ExtractJob job) {
+    job.setThread(Thread.currentThread());
+    try {
+      if (!job.cancelled) {
+        job.task.run();
+      }
+    } catch (RuntimeException e) {
+      if (!job.cancelled) {
+        logger.error("Unexpected error creating extract {}", job.request.downloadId(), e);
+      }
+    } finally {
+      job.setThread(null);
+      // clear the interrupted status before the thread is returned to the pool
+      boolean interrupted = Thread.interrupted();
+      if (job.cancelled) {
+        logger.debug("Extract {} stopped after cancel (interrupted: {})", job.request.downloadId(), interrupted);
+        createLayerExtractService.deleteExtractFile(job.request.downloadId());
+        createLayerExtractService.emitCancelled(job.request.clientId(), job.request.downloadId());
+      }
+      finished(job);
+    }
+  }
+
+  private void finished(ExtractJob job) {
+    List<QueuePosition> positions;
+    synchronized (this) {
+      running.remove(job);
+      positions = dispatch();
+    }
+    emitQueuePositions(positions);
+  }
+
+  /**
+   * Keeps track of the running extracts and the last start per application and per user, to determine whose turn it
+   * is.
+   */
+  private static final class Turns {
+    private final Map<String, Integer> running = new HashMap<>();
+    private final Map<String, Long> lastStarted;
+
+    Turns(Map<String, Long> lastStarted) {
+      this.lastStarted = new HashMap<>(lastStarted);
+    }
+
+    static String applicationKey(ExtractJob job) {
+      return "app:" + Objects.toString(job.request.application(), "");
+    }
+
+    void running(ExtractJob job) {
+      running.merge(applicationKey(job), 1, Integer::sum);
+      running.merge(job.request.userKey(), 1, Integer::sum);
+    }
+
+    void started(ExtractJob job, long tick) {
+      running(job);
+      lastStarted.put(applicationKey(job), tick);
+      lastStarted.put(job.request.userKey(), tick);
+    }
+
+    /**
+     * @return the order in which queued jobs get their turn: first the application with the fewest running jobs and
+     *     the longest ago start, then the same for users within the application, then in order of arrival
+     */
+    Comparator<ExtractJob> order() {
+      return Comparator.<ExtractJob>comparingInt(j -> running.getOrDefault(applicationKey(j), 0))
+          .thenComparingLong(j -> lastStarted.getOrDefault(applicationKey(j), 0L))
+          .thenComparingInt(j -> running.getOrDefault(j.request.userKey(), 0))
+          .thenComparingLong(j -> lastStarted.getOrDefault(j.request.userKey(), 0L))
+          .thenComparingLong(j -> j.sequence);
+    }
+  }
+
+  /**
+   * Estimate the position of each queued job by repeatedly taking the next job in turn, as if each job is started
+   * when the previous one is. Feature source limits are not taken into account. Must be called while holding the
+   * lock.
+   *
+   * @return the 1-based queue positions of the jobs for which the position changed since it was last reported
+   */
+  private List<QueuePosition> queuePositions() {
+    Turns turns = new Turns(lastStarted);
+    running.forEach(turns::running);
+    List<ExtractJob> remaining = new ArrayList<>(queue);
+    List<QueuePosition> changed = new ArrayList<>();
+    long tick = startCount;
+    int position = 1;
+    while (!remaining.isEmpty()) {
+      ExtractJob next = remaining.stream().min(turns.order()).orElseThrow();
+      remaining.remove(next);
+      turns.started(next, ++tick);
+      if (next.lastReportedPosition != position) {
+        next.lastReportedPosition = position;
+        changed.add(new QueuePosition(next, position));
+      }
+      position++;
+    }
+    return changed;
+  }
+
+  private void emitQueuePositions(List<QueuePosition> positions) {
+    for (QueuePosition p : positions) {
+      createLayerExtractService.emitQueued(
+          p.job().request.clientId(), p.job().request.downloadId(), p.position());
+    }
+  }
+}
@@ -0,0 +1,269 @@
+/*
+ * Copyright (C) 2026 B3Partners B.V.
+ *
+ * SPDX-License-Identifier: MIT
+ */
+package org.tailormap.api.service;
+
+import jakarta.annotation.PostConstruct;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandles;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * On-disk cache for vector tiles. Tiles are stored per feature type so all tiles of a feature type can be evicted when
+ * one of its features is edited. Within a feature type tiles are stored per variant, which callers derive from
+ * everything that determines the content of a tile besides the data (such as the configured attributes), so
+ * configuration changes never serve stale tiles.
+ *
+ * <p>Tiles expire after {@code tailormap-api.vector-tiles.cache.max-age-minutes}. A scheduled job removes expired
+ * tiles and, when the cache is larger than {@code tailormap-api.vector-tiles.cache.max-size-mb}, the oldest tiles.
+ */
+@Component
+public class VectorTileCache {
+  private static final Logger logger =
+      LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+  private static final String TILES_SUBDIRECTORY = "tm-vector-tiles";
+
+  private final String cacheBaseLocation;
+  private final boolean enabled;
+  private final long maxAgeMinutes;
+  private final long maxSizeBytes;
+
+  private Path cacheLocation;
+
+  /**
+   * Incremented when the tiles of a feature type are evicted, so a tile that was being created from data read before
+   * an edit is not stored after the eviction.
+   */
+  private final Map<Long, AtomicLong> generations = new ConcurrentHashMap<>();
+
+  public record TileKey(Long featureTypeId, String variant, int z, int x, int y) {}
+
+  public VectorTileCache(
+      @Value("${tailormap-api.vector-tiles.cache.location:#{systemProperties['java.io.tmpdir']}}")
+          String cacheBaseLocation,
+      @Value("${tailormap-api.vector-tiles.cache.enabled:true}") boolean enabled,
+      @Value("${tailormap-api.vector-tiles.cache.max-age-minutes:1440}") long maxAgeMinutes,
+      @Value("${tailormap-api.vector-tiles.cache.max-size-mb:1024}") long maxSizeMb) {
+    this.cacheBaseLocation = cacheBaseLocation;
+    this.enabled = enabled;
+    this.maxAgeMinutes = maxAgeMinutes;
+    this.maxSizeBytes = maxSizeMb * 1024 * 1024;
+  }
+
+  @PostConstruct
+  void initializeCacheDirectory() {
+    if (!enabled) {
+      return;
+    }
+    try {
+      Path root = Path.of(cacheBaseLocation, TILES_SUBDIRECTORY);
+      Files.createDirectories(root);
+      this.cacheLocation = root.toRealPath();
+      logger.info("Using vector tile cache directory: {}", this.cacheLocation);
+    } catch (IOException e) {
+      throw new UncheckedIOException(
+          "Failed to initialize vector tile cache directory under base path: " + cacheBaseLocation, e);
+    }
+  }
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * @param featureTypeId the feature type id
+   * @return the current generation of the cached tiles of the feature type, to pass to
+   *     {@link #put(TileKey, long, byte[])}
+   */
+  public long getGeneration(Long featureTypeId) {
+    return generations.computeIfAbsent(featureTypeId, id -> new AtomicLong()).get();
+  }
+
+  /**
+   * @param key the tile key
+   * @return the cached tile or {@code null} if not cached or expired
+   */
+  public byte @Nullable [] get(TileKey key) {
+    if (!enabled) {
+      return null;
+    }
+    Path tile = getTilePath(key);
+    try {
+      if (isExpired(Files.getLastModifiedTime(tile))) {
+        return null;
+      }
+      return Files.readAllBytes(tile);
+    } catch (NoSuchFileException e) {
+      return null;
+    } catch (IOException e) {
+      logger.warn("Error reading cached vector tile {}", tile, e);
+      return null;
+    }
+  }
+
+  /**
+   * Store a tile, unless the tiles of the feature type were evicted after the tile creation started.
+   *
+   * @param key the tile key
+   * @param generation the generation from {@link #getGeneration(Long)} before the tile creation started
+   * @param tile the tile
+   */
+  public void put(TileKey key, long generation, byte[] tile) {
+    if (!enabled || getGeneration(key.featureTypeId()) != generation) {
+      return;
+    }
+    Path tilePath = getTilePath(key);
+    try {
+      Files.createDirectories(tilePath.getParent());
+      // Write to a temporary file and move it in place so readers never see a partially written tile
+      Path temp = Files.createTempFile(tilePath.getParent(), "tile", ".tmp");
+      try {
+        Files.write(temp, tile);
+        Files.move(temp, tilePath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      } finally {
+        Files.deleteIfExists(temp);
+      }
+    } catch (IOException e) {
+      logger.warn("Error caching vector tile {}", tilePath, e);
+    }
+  }
+
+  /**
+   * Remove all cached tiles of a feature type.
+   *
+   * @param featureTypeId the feature type id
+   */
+  public void evict(Long featureTypeId) {
+    if (featureTypeId == null) {
+      return;
+    }
+    generations.computeIfAbsent(featureTypeId, id -> new AtomicLong()).incrementAndGet();
+    if (!enabled) {
+      return;
+    }
+    Path featureTypeDir = cacheLocation.resolve(String.valueOf(featureTypeId));
+    if (!Files.exists(featureTypeDir)) {
+      return;
+    }
+    logger.debug("Evicting cached vector tiles for feature type {}", featureTypeId);
+    try (Stream<Path> paths = Files.walk(featureTypeDir)) {
+      paths.sorted(Comparator.reverseOrder()).forEach(path -> {
+        try {
+          Files.deleteIfExists(path);
+        } catch (IOException e) {
+          // a concurrent put may have created a new file in this directory
+          logger.debug("Could not delete cached vector tile path {}", path, e);
+        }
+      });
+    } catch (IOException | UncheckedIOException e) {
+      logger.warn("Error evicting cached vector tiles for feature type {}", featureTypeId, e);
+    }
+  }
+
+  /** Remove expired tiles and the oldest tiles when the cache is larger than the maximum size. */
+  @Scheduled(fixedDelay = 5, timeUnit = TimeUnit.MINUTES, initialDelay = 15)
+  public synchronized void evictExpired() {
+    if (!enabled) {
+      return;
+    }
+    List<CachedTile> cachedTiles = new ArrayList<>();
+    long size = 0;
+    for (CachedTile cached : listCachedTiles()) {
+      if (isExpired(cached.attributes().lastModifiedTime())) {
+        delete(cached.path());
+      } else {
+        cachedTiles.add(cached);
+        size += cached.attributes().size();
+      }
+    }
+    if (size > maxSizeBytes) {
+      cachedTiles.sort(Comparator.comparing(
+          (CachedTile cached) -> cached.attributes().lastModifiedTime()));
+      int evicted = 0;
+      for (CachedTile cached : cachedTiles) {
+        if (size <= maxSizeBytes) {
+          break;
+        }
+        delete(cached.path());
+        size -= cached.attributes().size();
+        evicted++;
+      }
+      logger.debug("Evicted {} cached vector tiles to limit the cache size", evicted);
+    }
+  }
+
+  private record CachedTile(Path path, BasicFileAttributes attributes) {}
+
+  private List<CachedTile> listCachedTiles() {
+    List<CachedTile> cachedTiles = new ArrayList<>();
+    try {
+      Files.walkFileTree(cacheLocation, new SimpleFileVisitor<>() {
+        @Override
+        public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) {
+          // temporary files of a put in progress are moved in place or deleted by the put
+          if (attributes.isRegularFile() && file.getFileName().toString().endsWith(".mvt")) {
+            cachedTiles.add(new CachedTile(file, attributes));
+          }
+          return FileVisitResult.CONTINUE;
+        }
+
+        @Override
+        public FileVisitResult visitFileFailed(Path file, IOException e) {
+          // deleted in the meantime
+          logger.trace("Could not read attributes of cached vector tile {}", file, e);
+          return FileVisitResult.CONTINUE;
+        }
+      });
+    } catch (IOException e) {
+      logger.warn("Error listing cached vector tiles in {}", cacheLocation, e);
+    }
+    return cachedTiles;
+  }
+
+  private boolean isExpired(FileTime lastModified) {
+    return lastModified.toInstant().isBefore(Instant.now().minusSeconds(TimeUnit.MINUTES.toSeconds(maxAgeMinutes)));
+  }
+
+  private static void delete(Path path) {
+    try {
+      Files.deleteIfExists(path);
+    } catch (IOException e) {
+      logger.warn("Failed to delete cached vector tile {}", path, e);
+    }
+  }
+
+  private Path getTilePath(TileKey key) {
+    return cacheLocation
+        .resolve(String.valueOf(key.featureTypeId()))
+        .resolve(key.variant())
+        .resolve(String.valueOf(key.z()))
+        .resolve(String.valueOf(key.x()))
+        .resolve(key.y() + ".mvt");
+  }
+}
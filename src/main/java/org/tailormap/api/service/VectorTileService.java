@@ -0,0 +1,396 @@
+/*
+ * Copyright (C) 2026 B3Partners B.V.
+ *
+ * SPDX-License-Identifier: MIT
+ */
+package org.tailormap.api.service;
+
+import static org.tailormap.api.persistence.helper.TMAttributeTypeHelper.isGeometry;
+import static org.tailormap.api.persistence.helper.TMFeatureTypeHelper.getConfiguredAttributes;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.geotools.api.data.Query;
+import org.geotools.api.data.SimpleFeatureSource;
+import org.geotools.api.feature.simple.SimpleFeature;
+import org.geotools.api.feature.type.AttributeDescriptor;
+import org.geotools.api.filter.Filter;
+import org.geotools.api.filter.FilterFactory;
+import org.geotools.api.referencing.FactoryException;
+import org.geotools.api.referencing.operation.MathTransform;
+import org.geotools.api.referencing.operation.TransformException;
+import org.geotools.data.simple.SimpleFeatureIterator;
+import org.geotools.factory.CommonFactoryFinder;
+import org.geotools.geometry.jts.JTS;
+import org.geotools.geometry.jts.ReferencedEnvelope;
+import org.geotools.jdbc.JDBCDataStore;
+import org.geotools.jdbc.SQLDialect;
+import org.geotools.referencing.CRS;
+import org.geotools.util.factory.GeoTools;
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Geometry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import org.tailormap.api.geotools.TransformationUtil;
+import org.tailormap.api.geotools.featuresources.FeatureSourceFactoryHelper;
+import org.tailormap.api.geotools.featuresources.JDBCDataStoreCache;
+import org.tailormap.api.geotools.mvt.TileGrid;
+import org.tailormap.api.geotools.mvt.VectorTileEncoder;
+import org.tailormap.api.persistence.Application;
+import org.tailormap.api.persistence.TMFeatureSource;
+import org.tailormap.api.persistence.TMFeatureType;
+import org.tailormap.api.persistence.helper.GeoToolsHelper;
+import org.tailormap.api.persistence.helper.TMFeatureTypeHelper;
+import org.tailormap.api.persistence.json.AppLayerSettings;
+import org.tailormap.api.persistence.json.AppTreeLayerNode;
+import org.tailormap.api.persistence.json.Bounds;
+import org.tailormap.api.persistence.json.JDBCConnectionProperties;
+import org.tailormap.api.persistence.json.TMAttributeDescriptor;
+import org.tailormap.api.persistence.json.TMAttributeType;
+import org.tailormap.api.util.Constants;
+
+/**
+ * Creates Mapbox Vector Tiles for feature types, in a {@link TileGrid} for the CRS and extent of the application. Only
+ * the attributes configured to be visible for the application layer are included. On PostGIS tiles are created by the
+ * database with {@code ST_AsMVT}, for other feature sources the features are clipped and encoded in the JVM. Tiles are
+ * cached in the {@link VectorTileCache}.
+ */
+@Service
+public class VectorTileService implements Constants {
+  private static final Logger logger =
+      LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+  public static final String MVT_MEDIA_TYPE = "application/vnd.mapbox-vector-tile";
+
+  private static final String MVT_GEOMETRY_COLUMN = "tm_mvt_geom";
+  private static final String MVT_ID_COLUMN = "tm_mvt_id";
+
+  private final FeatureSourceFactoryHelper featureSourceFactoryHelper;
+  private final JDBCDataStoreCache dataStoreCache;
+  private final VectorTileCache tileCache;
+  private final FilterFactory ff = CommonFactoryFinder.getFilterFactory(GeoTools.getDefaultHints());
+
+  @Value("${tailormap-api.vector-tiles.max-features:10000}")
+  private int maxFeatures;
+
+  @Value("${tailormap-api.vector-tiles.postgis-push-down:true}")
+  private boolean postgisPushDown;
+
+  public VectorTileService(
+      FeatureSourceFactoryHelper featureSourceFactoryHelper,
+      JDBCDataStoreCache dataStoreCache,
+      VectorTileCache tileCache) {
+    this.featureSourceFactoryHelper = featureSourceFactoryHelper;
+    this.dataStoreCache = dataStoreCache;
+    this.tileCache = tileCache;
+  }
+
+  /**
+   * Get a vector tile with the features of a feature type, from the cache if available.
+   *
+   * @param application the application, which determines the tile grid
+   * @param appTreeLayerNode the application layer
+   * @param featureType the feature type
+   * @param appLayerSettings the settings of the application layer
+   * @param z the zoom level
+   * @param x the tile column
+   * @param y the tile row
+   * @return the encoded tile, an empty array for an empty tile
+   * @throws IOException when the features could not be retrieved
+   */
+  public byte[] getTile(
+      @NonNull Application application,
+      @NonNull AppTreeLayerNode appTreeLayerNode,
+      @NonNull TMFeatureType featureType,
+      @NonNull AppLayerSettings appLayerSettings,
+      int z,
+      int x,
+      int y)
+      throws IOException {
+    Bounds bounds = application.getMaxExtent() != null
+        ? application.getMaxExtent()
+        : GeoToolsHelper.fromCRS(application.getGeoToolsCoordinateReferenceSystem());
+    if (bounds == null) {
+      throw new ResponseStatusException(
+          HttpStatus.BAD_REQUEST, "Application has no extent to create a tile grid for");
+    }
+    TileGrid grid = TileGrid.fromBounds(bounds);
+    if (!grid.isValidTile(z, x, y)) {
+      throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Tile outside of tile grid");
+    }
+
+    List<String> attributes = getConfiguredAttributes(featureType, appLayerSettings).values().stream()
+        .map(TMFeatureTypeHelper.AttributeWithSettings::attributeDescriptor)
+        .filter(a -> !isGeometry(a.getType()))
+        .map(TMAttributeDescriptor::getName)
+        .toList();
+
+    VectorTileCache.TileKey key = new VectorTileCache.TileKey(
+        featureType.getId(), getVariant(application, appTreeLayerNode, featureType, attributes), z, x, y);
+    byte[] tile = tileCache.get(key);
+    if (tile != null) {
+      return tile;
+    }
+    long generation = tileCache.getGeneration(featureType.getId());
+    tile = createTile(application, featureType, attributes, grid.getTileEnvelope(z, x, y));
+    tileCache.put(key, generation, tile);
+    return tile;
+  }
+
+  /**
+   * The variant of the cached tiles of a feature type for an application layer, changes when the configuration of the
+   * application or feature type changes.
+   */
+  private static String getVariant(
+      Application application, AppTreeLayerNode appTreeLayerNode, TMFeatureType featureType, List<String> attributes) {
+    String variant = String.join(
+        "|",
+        String.valueOf(application.getId()),
+        String.valueOf(application.getVersion()),
+        appTreeLayerNode.getId(),
+        String.valueOf(featureType.getVersion()),
+        String.join(",", attributes));
+    return UUID.nameUUIDFromBytes(variant.getBytes(StandardCharsets.UTF_8)).toString();
+  }
+
+  private byte[] createTile(
+      Application application, TMFeatureType featureType, List<String> attributes, Envelope tileEnvelope)
+      throws IOException {
+    if (featureType.getDefaultGeometryAttribute() == null) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Feature type has no geometry attribute");
+    }
+    TMFeatureSource featureSource = featureType.getFeatureSource();
+    if (featureSource.getProtocol() == TMFeatureSource.Protocol.JDBC) {
+      try (JDBCDataStoreCache.Lease lease = dataStoreCache.acquire(featureSource)) {
+        JDBCDataStore ds = lease.getDataStore();
+        if (postgisPushDown
+            && featureSource.getJdbcConnection().getDbtype() == JDBCConnectionProperties.DbtypeEnum.POSTGIS) {
+          byte[] tile = createTileWithPostGIS(ds, application, featureType, attributes, tileEnvelope);
+          if (tile != null) {
+            return tile;
+          }
+        }
+        return createTileInJvm(
+            ds.getFeatureSource(featureType.getName()), application, featureType, attributes, tileEnvelope);
+      }
+    }
+
+    SimpleFeatureSource fs = featureSourceFactoryHelper.openGeoToolsFeatureSource(featureType);
+    try {
+      return createTileInJvm(fs, application, featureType, attributes, tileEnvelope);
+    } finally {
+      fs.getDataStore().dispose();
+    }
+  }
+
+  private byte[] createTileInJvm(
+      SimpleFeatureSource fs,
+      Application application,
+      TMFeatureType featureType,
+      List<String> attributes,
+      Envelope tileEnvelope)
+      throws IOException {
+    MathTransform toApplication;
+    MathTransform toDataSource;
+    try {
+      toApplication = TransformationUtil.getTransformationToApplication(application, fs);
+      toDataSource = TransformationUtil.getTransformationToDataSource(application, fs);
+    } catch (FactoryException e) {
+      throw new IOException("Can not transform between application and feature source CRS", e);
+    }
+
+    VectorTileEncoder encoder = new VectorTileEncoder(featureType.getName(), tileEnvelope);
+    Envelope queryEnvelope = getBufferedEnvelope(tileEnvelope);
+    if (toDataSource != null) {
+      try {
+        queryEnvelope = JTS.transform(queryEnvelope, null, toDataSource, 10);
+      } catch (TransformException e) {
+        throw new IOException("Can not transform tile envelope to feature source CRS", e);
+      }
+    }
+
+    String geometryAttribute = featureType.getDefaultGeometryAttribute();
+    Filter filter = ff.bbox(
+        ff.property(geometryAttribute),
+        new ReferencedEnvelope(queryEnvelope, fs.getSchema().getCoordinateReferenceSystem()));
+    Query q = new Query(fs.getName().toString(), filter);
+    List<String> propertyNames = new ArrayList<>(attributes);
+    propertyNames.add(geometryAttribute);
+    q.setPropertyNames(propertyNames);
+    q.setMaxFeatures(maxFeatures);
+
+    try (SimpleFeatureIterator features = fs.getFeatures(q).features()) {
+      while (features.hasNext()) {
+        SimpleFeature feature = features.next();
+        Geometry geometry = (Geometry) feature.getAttribute(geometryAttribute);
+        if (geometry != null && toApplication != null) {
+          try {
+            geometry = JTS.transform(geometry, toApplication);
+          } catch (TransformException e) {
+            logger.debug("Can not transform geometry of feature {}, skipping", feature.getID(), e);
+            continue;
+          }
+        }
+        Map<String, Object> properties = new LinkedHashMap<>();
+        properties.put(FID, feature.getID());
+        for (String attribute : attributes) {
+          properties.put(attribute, feature.getAttribute(attribute));
+        }
+        encoder.addFeature(getNumericId(feature.getID()), properties, geometry);
+      }
+    }
+    logger.trace("Encoded {} features in vector tile for {}", encoder.getFeatureCount(), featureType.getName());
+    return encoder.encode();
+  }
+
+  /**
+   * Create a tile with ST_AsMVT.
+   *
+   * @return the tile or {@code null} when the tile can not be created by PostGIS
+   */
+  private byte @Nullable [] createTileWithPostGIS(
+      JDBCDataStore ds,
+      Application application,
+      TMFeatureType featureType,
+      List<String> attributes,
+      Envelope tileEnvelope)
+      throws IOException {
+    Integer applicationSrid;
+    try {
+      applicationSrid = CRS.lookupEpsgCode(application.getGeoToolsCoordinateReferenceSystem(), false);
+    } catch (FactoryException e) {
+      applicationSrid = null;
+    }
+    AttributeDescriptor geometryDescriptor =
+        ds.getSchema(featureType.getName()).getDescriptor(featureType.getDefaultGeometryAttribute());
+    Integer dataSrid = geometryDescriptor == null
+        ? null
+        : (Integer) geometryDescriptor.getUserData().get(JDBCDataStore.JDBC_NATIVE_SRID);
+    if (applicationSrid == null || dataSrid == null) {
+      return null;
+    }
+
+    SQLDialect dialect = ds.getSQLDialect();
+    StringBuffer table = new StringBuffer();
+    if (ds.getDatabaseSchema() != null) {
+      dialect.encodeSchemaName(ds.getDatabaseSchema(), table);
+      table.append('.');
+    }
+    dialect.encodeTableName(featureType.getName(), table);
+
+    StringBuffer columns = new StringBuffer();
+    for (String attribute : attributes) {
+      columns.append(", t.");
+      dialect.encodeColumnName(null, attribute, columns);
+    }
+    String primaryKey = featureType.getPrimaryKeyAttribute();
+    boolean hasNumericId = false;
+    if (primaryKey != null) {
+      // Same feature id as GeoTools JDBC DataStores use
+      columns.append(", cast(? as text) || t.");
+      dialect.encodeColumnName(null, primaryKey, columns);
+      columns.append(" as ");
+      dialect.encodeColumnName(null, FID, columns);
+      hasNumericId = featureType.getAttributes().stream()
+          .anyMatch(a -> primaryKey.equals(a.getName()) && a.getType() == TMAttributeType.INTEGER);
+      if (hasNumericId) {
+        columns.append(", cast(t.");
+        dialect.encodeColumnName(null, primaryKey, columns);
+        columns.append(" as bigint) as ").append(MVT_ID_COLUMN);
+      }
+    }
+    StringBuffer geometry = new StringBuffer("t.");
+    dialect.encodeColumnName(null, featureType.getDefaultGeometryAttribute(), geometry);
+
+    String sql =
+        """
+        select ST_AsMVT(tile, ?, %d, '%s'%s) from (
+          select ST_AsMVTGeom(ST_Transform(%s, %d), ST_MakeEnvelope(?, ?, ?, ?, %d), %d, %d, true) as %s%s
+          from %s t
+          where %s && ST_Transform(ST_MakeEnvelope(?, ?, ?, ?, %d), %d)
+          limit %d
+        ) tile
+        where %s is not null"""
+            .formatted(
+                VectorTileEncoder.DEFAULT_EXTENT,
+                MVT_GEOMETRY_COLUMN,
+                hasNumericId ? ", '" + MVT_ID_COLUMN + "'" : "",
+                geometry,
+                applicationSrid,
+                applicationSrid,
+                VectorTileEncoder.DEFAULT_EXTENT,
+                VectorTileEncoder.DEFAULT_BUFFER,
+                MVT_GEOMETRY_COLUMN,
+                columns,
+                table,
+                geometry,
+                applicationSrid,
+                dataSrid,
+                maxFeatures,
+                MVT_GEOMETRY_COLUMN);
+    logger.trace("Vector tile query: {}", sql);
+
+    Envelope queryEnvelope = getBufferedEnvelope(tileEnvelope);
+    try (Connection conn = ds.getDataSource().getConnection();
+        PreparedStatement ps = conn.prepareStatement(sql)) {
+      int i = 1;
+      ps.setString(i++, featureType.getName());
+      i = setEnvelope(ps, i, tileEnvelope);
+      if (primaryKey != null) {
+        ps.setString(i++, featureType.getName() + ".");
+      }
+      setEnvelope(ps, i, queryEnvelope);
+      try (ResultSet rs = ps.executeQuery()) {
+        byte[] tile = rs.next() ? rs.getBytes(1) : null;
+        return tile == null ? new byte[0] : tile;
+      }
+    } catch (SQLException e) {
+      logger.warn(
+          "Error creating vector tile with PostGIS for feature type {}, encoding in JVM instead",
+          featureType.getName(),
+          e);
+      return null;
+    }
+  }
+
+  private static int setEnvelope(PreparedStatement ps, int index, Envelope envelope) throws SQLException {
+    ps.setDouble(index++, envelope.getMinX());
+    ps.setDouble(index++, envelope.getMinY());
+    ps.setDouble(index++, envelope.getMaxX());
+    ps.setDouble(index++, envelope.getMaxY());
+    return index;
+  }
+
+  private static Envelope getBufferedEnvelope(Envelope tileEnvelope) {
+    Envelope envelope = new Envelope(tileEnvelope);
+    envelope.expandBy(tileEnvelope.getWidth() * VectorTileEncoder.DEFAULT_BUFFER / VectorTileEncoder.DEFAULT_EXTENT);
+    return envelope;
+  }
+
+  /** Use the primary key as feature id when it is numeric, feature ids in vector tiles are unsigned integers. */
+  private static @Nullable Long getNumericId(String fid) {
+    String id = fid.substring(fid.lastIndexOf('.') + 1);
+    try {
+      long numericId = Long.parseLong(id);
+      return numericId >= 0 ? numericId : null;
+    } catch (NumberFormatException e) {
+      return null;
+    }
+  }
+}
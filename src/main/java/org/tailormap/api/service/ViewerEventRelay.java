@@ -0,0 +1,297 @@
+/*
+ * Copyright (C) 2026 B3Partners B.V.
+ *
+ * SPDX-License-Identifier: MIT
+ */
+package org.tailormap.api.service;
+
+import ch.rasc.sse.eventbus.SseEvent;
+import ch.rasc.sse.eventbus.SseEventBus;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.lang.invoke.MethodHandles;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import javax.sql.DataSource;
+import org.jspecify.annotations.NonNull;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.simple.JdbcClient;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Delivers viewer server-sent events to the SSE client, also when the client is connected to another node of a
+ * cluster. When {@code tailormap-api.cluster.enabled} is set, events for clients not connected to this node are
+ * published with PostgreSQL {@code NOTIFY} on the {@value #CHANNEL} channel; every node listens on the channel and
+ * delivers the events for its own clients. The client ids of all nodes are registered in the {@code sse_client} table,
+ * so a request for an SSE client connected to another node can be validated.
+ *
+ * <p>The notification channel is also used to cancel an extract running on another node, which is published as a
+ * {@link CancelExtractEvent} application event on every node.
+ */
+@Service
+public class ViewerEventRelay {
+  private static final Logger logger =
+      LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+  static final String CHANNEL = "tailormap_viewer_events";
+
+  /** PostgreSQL refuses notification payloads of 8000 bytes or more. */
+  private static final int MAX_PAYLOAD_BYTES = 7999;
+
+  /** Registered client ids not refreshed for this long are considered disconnected. */
+  private static final long CLIENT_TIMEOUT_MINUTES = 5;
+
+  private final SseEventBus eventBus;
+  private final JdbcClient jdbcClient;
+  private final DataSource dataSource;
+  private final JsonMapper jsonMapper;
+  private final ApplicationEventPublisher applicationEventPublisher;
+  private final String nodeId = UUID.randomUUID().toString();
+
+  @Value("${tailormap-api.cluster.enabled:false}")
+  private boolean clusterEnabled;
+
+  private volatile boolean listening;
+  private Thread listenerThread;
+
+  /** Request to cancel an extract, received from another node or this node. */
+  public record CancelExtractEvent(String clientId, String downloadId) {}
+
+  public ViewerEventRelay(
+      @Qualifier("viewerSseEventBus") SseEventBus eventBus,
+      JdbcClient jdbcClient,
+      DataSource dataSource,
+      JsonMapper jsonMapper,
+      ApplicationEventPublisher applicationEventPublisher) {
+    this.eventBus = eventBus;
+    this.jdbcClient = jdbcClient;
+    this.dataSource = dataSource;
+    this.jsonMapper = jsonMapper;
+    this.applicationEventPublisher = applicationEventPublisher;
+  }
+
+  @PostConstruct
+  void startListening() {
+    if (!clusterEnabled) {
+      return;
+    }
+    logger.info("Relaying viewer events between cluster nodes, this node has id {}", nodeId);
+    listening = true;
+    listenerThread = new Thread(this::listen, "viewer-event-relay");
+    listenerThread.setDaemon(true);
+    listenerThread.start();
+  }
+
+  @PreDestroy
+  void stopListening() {
+    listening = false;
+    if (listenerThread != null) {
+      listenerThread.interrupt();
+    }
+    if (clusterEnabled) {
+      try {
+        jdbcClient.sql("DELETE FROM sse_client WHERE node_id = ?").param(nodeId).update();
+      } catch (RuntimeException e) {
+        logger.debug("Could not unregister SSE clients of this node", e);
+      }
+    }
+  }
+
+  public boolean isClusterEnabled() {
+    return clusterEnabled;
+  }
+
+  /**
+   * Register a client that connected to this node, so other nodes accept requests for it.
+   *
+   * @param clientId the SSE client id
+   */
+  public void registerClient(@NonNull String clientId) {
+    if (!clusterEnabled) {
+      return;
+    }
+    jdbcClient
+        .sql(
+            """
+            INSERT INTO sse_client (client_id, node_id, last_seen) VALUES (:clientId, :nodeId, now())
+            ON CONFLICT (client_id) DO UPDATE SET node_id = excluded.node_id, last_seen = excluded.last_seen
+            """)
+        .param("clientId", clientId)
+        .param("nodeId", nodeId)
+        .update();
+  }
+
+  /** Refresh the registration of the clients connected to this node and remove clients that timed out. */
+  @Scheduled(fixedRate = 1, timeUnit = TimeUnit.MINUTES)
+  public void refreshClients() {
+    if (!clusterEnabled) {
+      return;
+    }
+    for (String clientId : eventBus.getAllClientIds()) {
+      registerClient(clientId);
+    }
+    jdbcClient
+        .sql("DELETE FROM sse_client WHERE last_seen < now() - make_interval(mins => :minutes)")
+        .param("minutes", CLIENT_TIMEOUT_MINUTES)
+        .update();
+  }
+
+  /**
+   * @param clientId the SSE client id
+   * @return whether the client is connected to this node or, in a cluster, to any node
+   */
+  public boolean isKnownClient(@NonNull String clientId) {
+    if (eventBus.getAllClientIds().contains(clientId)) {
+      return true;
+    }
+    return clusterEnabled
+        && jdbcClient
+            .sql(
+                """
+                SELECT count(*) FROM sse_client
+                WHERE client_id = :clientId AND last_seen >= now() - make_interval(mins => :minutes)
+                """)
+            .param("clientId", clientId)
+            .param("minutes", CLIENT_TIMEOUT_MINUTES)
+            .query(Long.class)
+            .single()
+        > 0;
+  }
+
+  /**
+   * @return the ids of the clients connected to this node and, in a cluster, to any node
+   */
+  public Set<String> getAllClientIds() {
+    Set<String> clientIds = new HashSet<>(eventBus.getAllClientIds());
+    if (clusterEnabled) {
+      clientIds.addAll(jdbcClient
+          .sql("SELECT client_id FROM sse_client")
+          .query(String.class)
+          .set());
+    }
+    return clientIds;
+  }
+
+  /**
+   * Send an event to a client, on this node or relayed to the node the client is connected to.
+   *
+   * @param clientId the SSE client id
+   * @param data the event data
+   */
+  public void send(@NonNull String clientId, @NonNull String data) {
+    if (!clusterEnabled || eventBus.getAllClientIds().contains(clientId)) {
+      deliver(clientId, data);
+      return;
+    }
+    notify(Map.of("type", "event", "clientId", clientId, "data", data));
+  }
+
+  /**
+   * Request an extract to be cancelled on the node it is queued or running on. The {@link CancelExtractEvent} is
+   * published on all nodes, including this one.
+   *
+   * @param clientId the SSE client id the extract was requested with
+   * @param downloadId the download id of the extract
+   */
+  public void requestCancel(@NonNull String clientId, @NonNull String downloadId) {
+    if (!clusterEnabled) {
+      applicationEventPublisher.publishEvent(new CancelExtractEvent(clientId, downloadId));
+      return;
+    }
+    notify(Map.of("type", "cancel", "clientId", clientId, "downloadId", downloadId));
+  }
+
+  private void deliver(String clientId, String data) {
+    eventBus.handleEvent(SseEvent.builder().addClientId(clientId).data(data).build());
+  }
+
+  private void notify(Map<String, String> message) {
+    String payload = jsonMapper.writeValueAsString(message);
+    if (payload.getBytes(StandardCharsets.UTF_8).length > MAX_PAYLOAD_BYTES) {
+      logger.warn("Viewer event for client {} is too large to relay to other nodes", message.get("clientId"));
+      return;
+    }
+    jdbcClient
+        .sql("SELECT pg_notify(:channel, :payload)")
+        .param("channel", CHANNEL)
+        .param("payload", payload)
+        .query()
+        .listOfRows();
+  }
+
+  /** Handle a notification, ignoring events for clients that are not connected to this node. */
+  void handleNotification(String payload) {
+    try {
+      JsonNode message = jsonMapper.readTree(payload);
+      String clientId = message.path("clientId").asString();
+      switch (message.path("type").asString()) {
+        case "event" -> {
+          if (eventBus.getAllClientIds().contains(clientId)) {
+            deliver(clientId, message.path("data").asString());
+          }
+        }
+        case "cancel" ->
+          applicationEventPublisher.publishEvent(
+              new CancelExtractEvent(clientId, message.path("downloadId").asString()));
+        default -> logger.debug("Ignoring unknown viewer event notification: {}", payload);
+      }
+    } catch (JacksonException e) {
+      logger.warn("Invalid viewer event notification: {}", payload, e);
+    }
+  }
+
+  /**
+   * Listen for notifications on a dedicated connection from the pool, reconnecting after an error. The connection is
+   * held for as long as the application runs.
+   */
+  private void listen() {
+    while (listening) {
+      try (Connection connection = dataSource.getConnection()) {
+        PGConnection pgConnection = connection.unwrap(PGConnection.class);
+        try (Statement statement = connection.createStatement()) {
+          statement.execute("LISTEN " + CHANNEL);
+        }
+        if (!connection.getAutoCommit()) {
+          connection.commit();
+        }
+        logger.debug("Listening for viewer event notifications");
+        while (listening) {
+          PGNotification[] notifications = pgConnection.getNotifications(10_000);
+          if (notifications != null) {
+            for (PGNotification notification : notifications) {
+              handleNotification(notification.getParameter());
+            }
+          }
+        }
+      } catch (SQLException e) {
+        if (!listening) {
+          break;
+        }
+        logger.warn("Error listening for viewer event notifications, reconnecting", e);
+        try {
+          Thread.sleep(5_000);
+        } catch (InterruptedException ie) {
+          Thread.currentThread().interrupt();
+          break;
+        }
+      }
+    }
+  }
+}
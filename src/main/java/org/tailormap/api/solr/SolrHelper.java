@@ -7,6 +7,8 @@
 
 import static org.tailormap.api.scheduling.IndexTask.INDEX_KEY;
 
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
 import java.io.IOException;
@@ -49,6 +51,7 @@
 import org.tailormap.api.admin.model.SearchIndexSummary;
 import org.tailormap.api.admin.model.TaskProgressEvent;
 import org.tailormap.api.geotools.featuresources.FeatureSourceFactoryHelper;
+import org.tailormap.api.geotools.featuresources.FeatureSourceObservations;
 import org.tailormap.api.geotools.processing.GeometryProcessor;
 import org.tailormap.api.persistence.SearchIndex;
 import org.tailormap.api.persistence.TMFeatureType;
@@ -70,6 +73,8 @@ public class SolrHelper implements AutoCloseable, Constants {
   /** the Solr field type name geometry fields: {@value #SOLR_SPATIAL_FIELDNAME}. */
   private static final String SOLR_SPATIAL_FIELDNAME = "tm_geometry_rpt";
 
+  private static final String SEARCH_OPERATION = "search";
+
   private final SolrClient solrClient;
 
   /** the Solr search field definition requests for Tailormap. */
@@ -108,6 +113,7 @@ public class SolrHelper implements AutoCloseable, Constants {
   private int solrQueryTimeout = 7000;
   private int solrBatchSize = 1000;
   private String solrGeometryValidationRule = "repairBuffer0";
+  private FeatureSourceObservations featureSourceObservations = new FeatureSourceObservations(ObservationRegistry.NOOP);
 
   /**
    * Create a configured {@code SolrHelper} object.
@@ -154,6 +160,16 @@ public SolrHelper withGeometryValidationRule(@NonNull String solrGeometryValidat
     return this;
   }
 
+  /**
+   * Configure this {@code SolrHelper} to observe the stages of searching in an index.
+   *
+   * @param featureSourceObservations the feature source observations
+   */
+  public SolrHelper withObservations(@NonNull FeatureSourceObservations featureSourceObservations) {
+    this.featureSourceObservations = featureSourceObservations;
+    return this;
+  }
+
   /**
    * Add or update a feature type index for a layer.
    *
@@ -489,26 +505,38 @@ public SearchResponse findInIndex(
     query.set("q.op", "AND");
     logger.info("Solr query: {}", query);
 
-    final QueryResponse response = solrClient.query(query);
+    final QueryResponse response;
+    // not using Observation.observeChecked() because it can only rethrow a single checked exception type
+    final Observation observation =
+        featureSourceObservations.stage(SEARCH_OPERATION, "query", null).start();
+    try (Observation.Scope ignored = observation.openScope()) {
+      response = solrClient.query(query);
+    } catch (IOException | SolrServerException | RuntimeException e) {
+      observation.error(e);
+      throw e;
+    } finally {
+      observation.stop();
+    }
     logger.trace("response: {}", response);
 
-    final SolrDocumentList solrDocumentList = response.getResults();
-    logger.debug("Found {} solr documents", solrDocumentList.getNumFound());
-    final SearchResponse searchResponse = new SearchResponse()
-        .total(solrDocumentList.getNumFound())
-        .start(response.getResults().getStart())
-        .maxScore(solrDocumentList.getMaxScore());
-    response.getResults().forEach(solrDocument -> {
-      List<String> displayValues = solrDocument.getFieldValues(INDEX_DISPLAY_FIELD).stream()
-          .map(Object::toString)
-          .toList();
-      searchResponse.addDocumentsItem(new SearchDocument()
-          .fid(solrDocument.getFieldValue(SEARCH_ID_FIELD).toString())
-          .geometry(solrDocument.getFieldValue(INDEX_GEOM_FIELD).toString())
-          .displayValues(displayValues));
+    return featureSourceObservations.observe(SEARCH_OPERATION, "response", null, () -> {
+      final SolrDocumentList solrDocumentList = response.getResults();
+      logger.debug("Found {} solr documents", solrDocumentList.getNumFound());
+      final SearchResponse searchResponse = new SearchResponse()
+          .total(solrDocumentList.getNumFound())
+          .start(response.getResults().getStart())
+          .maxScore(solrDocumentList.getMaxScore());
+      response.getResults().forEach(solrDocument -> {
+        List<String> displayValues = solrDocument.getFieldValues(INDEX_DISPLAY_FIELD).stream()
+            .map(Object::toString)
+            .toList();
+        searchResponse.addDocumentsItem(new SearchDocument()
+            .fid(solrDocument.getFieldValue(SEARCH_ID_FIELD).toString())
+            .geometry(solrDocument.getFieldValue(INDEX_GEOM_FIELD).toString())
+            .displayValues(displayValues));
+      });
+      return searchResponse;
     });
-
-    return searchResponse;
   }
 
   /**
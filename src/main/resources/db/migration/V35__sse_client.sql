@@ -0,0 +1,7 @@
+-- SSE clients connected to the nodes of a cluster, so a node can accept requests for clients connected to another
+-- node. Unlogged because the rows are refreshed every minute and are of no use after a database restart.
+create unlogged table sse_client (
+    client_id varchar(255) not null primary key,
+    node_id varchar(255) not null,
+    last_seen timestamp with time zone not null
+);
@@ -0,0 +1,6 @@
+-- Indexes for listing drawings in creation order: all drawings for drawing admins, otherwise the shared and public
+-- drawings combined with the drawings of the user.
+CREATE INDEX IF NOT EXISTS drawing_created_at_id ON data.drawing (created_at, id);
+CREATE INDEX IF NOT EXISTS drawing_not_private_created_at_id ON data.drawing (created_at, id) WHERE access <> 'private';
+DROP INDEX IF EXISTS data.drawing_created_by;
+CREATE INDEX IF NOT EXISTS drawing_created_by_created_at_id ON data.drawing (created_by, created_at, id);
@@ -0,0 +1,97 @@
+/*
+ * Copyright (C) 2026 B3Partners B.V.
+ *
+ * SPDX-License-Identifier: MIT
+ */
+package org.tailormap.api.configuration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcOperations;
+import org.springframework.session.FindByIndexNameSessionRepository;
+import org.springframework.session.MapSession;
+
+class NearCacheSessionRepositoryTest {
+  private FindByIndexNameSessionRepository<MapSession> delegate;
+  private JdbcOperations jdbcOperations;
+  private NearCacheSessionRepository<MapSession> repository;
+  private MapSession session;
+
+  @BeforeEach
+  @SuppressWarnings("unchecked")
+  void setUp() {
+    delegate = mock(FindByIndexNameSessionRepository.class);
+    jdbcOperations = mock(JdbcOperations.class);
+    repository = new NearCacheSessionRepository<>(
+        delegate, jdbcOperations, "SPRING_SESSION", Duration.ofMinutes(1), 100);
+    session = new MapSession();
+    session.setAttribute("user", "tm-admin");
+    // The JDBC session repository returns a new instance for every lookup
+    when(delegate.findById(session.getId())).thenAnswer(invocation -> new MapSession(session));
+  }
+
+  @Test
+  void writes_last_access_time_behind() {
+    NearCacheSessionRepository.CachedSession cached = repository.findById(session.getId());
+    assertEquals("tm-admin", cached.getAttribute("user"));
+    Instant lastAccessedTime = Instant.now().plusSeconds(1);
+    cached.setLastAccessedTime(lastAccessedTime);
+    repository.save(cached);
+
+    cached = repository.findById(session.getId());
+    assertEquals(lastAccessedTime, cached.getLastAccessedTime());
+    verify(delegate, times(1)).findById(session.getId());
+    verify(delegate, never()).save(any());
+
+    repository.flush();
+
+    @SuppressWarnings("unchecked")
+    ArgumentCaptor<List<Object[]>> updates = ArgumentCaptor.forClass(List.class);
+    verify(jdbcOperations).batchUpdate(anyString(), updates.capture());
+    assertEquals(1, updates.getValue().size());
+    assertEquals(lastAccessedTime.toEpochMilli(), updates.getValue().getFirst()[0]);
+    assertEquals(session.getId(), updates.getValue().getFirst()[2]);
+
+    repository.flush();
+    verify(jdbcOperations, times(1)).batchUpdate(anyString(), anyList());
+  }
+
+  @Test
+  void saves_changed_session() {
+    NearCacheSessionRepository.CachedSession cached = repository.findById(session.getId());
+    cached.setAttribute("user", "other");
+    repository.save(cached);
+
+    verify(delegate).save(any(MapSession.class));
+    // the cached session is evicted
+    repository.findById(session.getId());
+    verify(delegate, times(3)).findById(session.getId());
+  }
+
+  @Test
+  void evicts_deleted_session() {
+    assertNotNull(repository.findById(session.getId()));
+
+    repository.deleteById(session.getId());
+    when(delegate.findById(session.getId())).thenReturn(null);
+
+    assertNull(repository.findById(session.getId()));
+    verify(delegate).deleteById(session.getId());
+  }
+}
@@ -6,13 +6,17 @@
 package org.tailormap.api.controller;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.closeTo;
 import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.lessThan;
 import static org.hamcrest.Matchers.matchesPattern;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.fail;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
@@ -22,6 +26,7 @@
 
 import com.jayway.jsonpath.JsonPath;
 import java.nio.charset.Charset;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import org.junit.jupiter.api.BeforeAll;
@@ -34,12 +39,16 @@
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.util.UriComponentsBuilder;
 import org.tailormap.api.annotation.PostgresIntegrationTest;
 import org.tailormap.api.viewer.model.Drawing;
 import tools.jackson.databind.json.JsonMapper;
@@ -176,6 +185,63 @@ void list_drawings_for_admin() throws Exception {
         .andExpect(jsonPath("$[-1].description").value("Drawing 1 description"));
   }
 
+  @Test
+  @WithMockUser(
+      username = "tm-admin",
+      authorities = {ADMIN})
+  @Order(20)
+  void list_drawings_in_pages_for_admin() throws Exception {
+    final String url = apiBasePath + "/drawing/list";
+    String body = mockMvc.perform(get(url).accept(MediaType.APPLICATION_JSON).with(setServletPath(url)))
+        .andExpect(status().isOk())
+        .andReturn()
+        .getResponse()
+        .getContentAsString();
+    List<String> allIds = JsonPath.read(body, "$[*].id");
+
+    List<String> pagedIds = new ArrayList<>();
+    String after = null;
+    do {
+      MockHttpServletRequestBuilder request = get(url).accept(MediaType.APPLICATION_JSON)
+          .with(setServletPath(url))
+          .param("pageSize", "1")
+          .param("summary", "true");
+      if (after != null) {
+        request.param("after", after);
+      }
+      MockHttpServletResponse response = mockMvc.perform(request)
+          .andExpect(status().isOk())
+          .andExpect(jsonPath("$.length()").value(1))
+          .andExpect(jsonPath("$[0].domainData").doesNotExist())
+          .andReturn()
+          .getResponse();
+      pagedIds.add(JsonPath.read(response.getContentAsString(), "$[0].id"));
+      String link = response.getHeader(HttpHeaders.LINK);
+      after = link == null
+          ? null
+          : UriComponentsBuilder.fromUriString(link.substring(1, link.indexOf('>')))
+              .build()
+              .getQueryParams()
+              .getFirst("after");
+    } while (after != null && pagedIds.size() <= allIds.size());
+
+    assertEquals(allIds, pagedIds);
+  }
+
+  @Test
+  @WithMockUser(
+      username = "tm-admin",
+      authorities = {ADMIN})
+  @Order(20)
+  void list_drawings_with_invalid_cursor() throws Exception {
+    final String url = apiBasePath + "/drawing/list";
+    mockMvc.perform(get(url).accept(MediaType.APPLICATION_JSON)
+            .with(setServletPath(url))
+            .param("pageSize", "10")
+            .param("after", "invalid"))
+        .andExpect(status().isBadRequest());
+  }
+
   @Test
   @WithMockUser(
       username = "user",
@@ -270,6 +336,159 @@ void update_drawing_by_admin() throws Exception {
             .value("red"));
   }
 
+  @Test
+  @Order(40)
+  @WithMockUser(
+      username = "tm-admin",
+      authorities = {ADMIN})
+  void patch_drawing_by_admin() throws Exception {
+    String url = apiBasePath + "/drawing/list";
+    String body = mockMvc.perform(get(url).accept(MediaType.APPLICATION_JSON).with(setServletPath(url)))
+        .andExpect(status().isOk())
+        .andReturn()
+        .getResponse()
+        .getContentAsString();
+    Drawing drawing = Arrays.stream(new JsonMapper().readValue(body, Drawing[].class))
+        .reduce((first, second) -> second)
+        .orElseThrow();
+    String drawingId = drawing.getId().toString();
+    assertNotEquals(KNOWN_DRAWING_ID, drawingId);
+
+    url = apiBasePath + "/app/default/drawing/" + drawingId;
+    body = mockMvc.perform(get(url).accept(MediaType.APPLICATION_JSON).with(setServletPath(url)))
+        .andExpect(status().isOk())
+        .andReturn()
+        .getResponse()
+        .getContentAsString();
+    List<String> featureIds = JsonPath.read(body, "$.featureCollection.features[*].id");
+    assertEquals(2, featureIds.size());
+
+    // change the properties of the second feature, delete the first and add a new feature
+    String patch = """
+{
+"version": %d,
+"name": "Patched drawing",
+"featureCollection": {
+"type": "FeatureCollection",
+"features": [
+{ "type": "Feature", "id": "%s", "geometry": { "type": "Point", "coordinates": [ 132300, 458629 ] },
+"properties": { "prop0": "changed" } },
+{ "type": "Feature", "geometry": { "type": "Point", "coordinates": [ 132400, 458700 ] },
+"properties": { "prop0": "new" } }
+] },
+"deletedFeatureIds": [ "%s" ]
+}
+"""
+        .formatted(drawing.getVersion(), featureIds.get(1), featureIds.get(0));
+
+    mockMvc.perform(patch(url).accept(MediaType.APPLICATION_JSON)
+            .with(setServletPath(url))
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(patch))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.drawing.id").value(drawingId))
+        .andExpect(jsonPath("$.drawing.name").value("Patched drawing"))
+        .andExpect(jsonPath("$.drawing.description").value(drawing.getDescription()))
+        .andExpect(jsonPath("$.drawing.version").value(drawing.getVersion() + 1))
+        .andExpect(jsonPath("$.changedFeatures.features.length()").value(2))
+        .andExpect(jsonPath("$.changedFeatures.features[0].id").value(featureIds.get(1)))
+        .andExpect(jsonPath("$.changedFeatures.features[0].properties.prop0").value("changed"))
+        .andExpect(jsonPath("$.changedFeatures.features[1].id", matchesPattern(UUID_REGEX)))
+        .andExpect(jsonPath("$.changedFeatures.features[1].properties.prop0").value("new"))
+        .andExpect(jsonPath("$.deletedFeatureIds.length()").value(1))
+        .andExpect(jsonPath("$.deletedFeatureIds[0]").value(featureIds.get(0)));
+
+    // an outdated version is refused
+    mockMvc.perform(patch(url).accept(MediaType.APPLICATION_JSON)
+            .with(setServletPath(url))
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(patch))
+        .andExpect(status().isConflict());
+
+    mockMvc.perform(get(url).accept(MediaType.APPLICATION_JSON).with(setServletPath(url)))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.featureCollection.features.length()").value(2))
+        .andExpect(jsonPath("$.featureCollection.features[*].properties.prop0", hasItem("changed")))
+        .andExpect(jsonPath("$.featureCollection.features[*].properties.prop0", hasItem("new")));
+  }
+
+  @Test
+  @Order(45)
+  @WithMockUser(
+      username = "tm-admin",
+      authorities = {ADMIN})
+  void patch_drawing_in_foreign_application_srs() throws Exception {
+    String url = apiBasePath + "/drawing/list";
+    String body = mockMvc.perform(get(url).accept(MediaType.APPLICATION_JSON).with(setServletPath(url)))
+        .andExpect(status().isOk())
+        .andReturn()
+        .getResponse()
+        .getContentAsString();
+    Drawing drawing = Arrays.stream(new JsonMapper().readValue(body, Drawing[].class))
+        .reduce((first, second) -> second)
+        .orElseThrow();
+    String drawingId = drawing.getId().toString();
+    assertEquals(28992, drawing.getSrid());
+
+    // the feature added by patch_drawing_by_admin at 132400 458700 in EPSG:28992, in EPSG:3857
+    url = apiBasePath + "/app/austria/drawing/" + drawingId;
+    body = mockMvc.perform(get(url).accept(MediaType.APPLICATION_JSON).with(setServletPath(url)))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.srid").value(3857))
+        .andReturn()
+        .getResponse()
+        .getContentAsString();
+    List<List<Number>> points = JsonPath.read(body, pointCoordinatesPath("new"));
+    double x = points.getFirst().get(0).doubleValue();
+    double y = points.getFirst().get(1).doubleValue();
+
+    String patch = """
+{
+"version": %d,
+"featureCollection": {
+"type": "FeatureCollection",
+"features": [
+{ "type": "Feature", "geometry": { "type": "Point", "coordinates": [ %s, %s ] },
+"properties": { "prop0": "foreign" } }
+] }
+}
+"""
+        .formatted(drawing.getVersion(), x, y);
+
+    mockMvc.perform(patch(url).accept(MediaType.APPLICATION_JSON)
+            .with(setServletPath(url))
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(patch))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.drawing.srid").value(3857))
+        .andExpect(jsonPath("$.changedFeatures.features.length()").value(1))
+        .andExpect(jsonPath("$.changedFeatures.features[0].geometry.coordinates[0]", closeTo(x, 0.01)))
+        .andExpect(jsonPath("$.changedFeatures.features[0].geometry.coordinates[1]", closeTo(y, 0.01)));
+
+    // the drawing is still stored in EPSG:28992 and the new feature is transformed to it
+    url = apiBasePath + "/drawing/list";
+    mockMvc.perform(get(url).accept(MediaType.APPLICATION_JSON).with(setServletPath(url)))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$[-1].id").value(drawingId))
+        .andExpect(jsonPath("$[-1].srid").value(28992));
+
+    url = apiBasePath + "/app/default/drawing/" + drawingId;
+    body = mockMvc.perform(get(url).accept(MediaType.APPLICATION_JSON).with(setServletPath(url)))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.featureCollection.features.length()").value(3))
+        .andReturn()
+        .getResponse()
+        .getContentAsString();
+    points = JsonPath.read(body, pointCoordinatesPath("foreign"));
+    assertEquals(1, points.size());
+    assertThat(points.getFirst().get(0).doubleValue(), closeTo(132400, 0.01));
+    assertThat(points.getFirst().get(1).doubleValue(), closeTo(458700, 0.01));
+  }
+
+  private static String pointCoordinatesPath(String prop0) {
+    return "$.featureCollection.features[?(@.properties.prop0 == '%s')].geometry.coordinates".formatted(prop0);
+  }
+
   @Test
   @WithMockUser(
       username = "tm-admin",
@@ -373,6 +592,52 @@ void get_drawing_in_default_application_srs() throws Exception {
             .value("red"));
   }
 
+  @Test
+  @WithMockUser(
+      username = "tm-admin",
+      authorities = {ADMIN})
+  @Order(35)
+  void get_drawing_with_bbox_and_tolerance() throws Exception {
+    final String url = apiBasePath + "/drawing/list";
+    final String body = mockMvc.perform(get(url).accept(MediaType.APPLICATION_JSON).with(setServletPath(url)))
+        .andExpect(status().isOk())
+        .andReturn()
+        .getResponse()
+        .getContentAsString();
+    final String drawingId = JsonPath.read(body, "$[-1].id");
+    final String getDrawingUrl = apiBasePath + "/app/default/drawing/" + drawingId;
+
+    mockMvc.perform(get(getDrawingUrl)
+            .accept(MediaType.APPLICATION_JSON)
+            .with(setServletPath(getDrawingUrl))
+            .param("bbox", "0,0,1000,1000"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.id").value(drawingId))
+        .andExpect(jsonPath("$.featureCollection.type").value("FeatureCollection"))
+        .andExpect(jsonPath("$.featureCollection.features.length()").value(0));
+
+    final String simplified = mockMvc.perform(get(getDrawingUrl)
+            .accept(MediaType.APPLICATION_JSON)
+            .with(setServletPath(getDrawingUrl))
+            .param("bbox", "132000,458000,133000,459000")
+            .param("tolerance", "5"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.featureCollection.features.length()").value(2))
+        .andExpect(jsonPath("$.featureCollection.features[0].geometry.type").value("Polygon"))
+        .andExpect(jsonPath("$.featureCollection.features[0].properties.prop0").value("value0"))
+        .andReturn()
+        .getResponse()
+        .getContentAsString();
+    List<?> ring = JsonPath.read(simplified, "$.featureCollection.features[0].geometry.coordinates[0]");
+    assertThat(ring.size(), lessThan(50));
+
+    mockMvc.perform(get(getDrawingUrl)
+            .accept(MediaType.APPLICATION_JSON)
+            .with(setServletPath(getDrawingUrl))
+            .param("bbox", "132000,458000"))
+        .andExpect(status().isBadRequest());
+  }
+
   @Test
   @WithMockUser(
       username = "tm-admin",
@@ -5,12 +5,17 @@
  */
 package org.tailormap.api.controller;
 
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.hamcrest.Matchers.anyOf;
+import static org.hamcrest.Matchers.is;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.params.provider.Arguments.arguments;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static org.tailormap.api.IntegrationTestOrdering.FIRST_INTEGRATION_TEST_ORDER;
 import static org.tailormap.api.TestRequestProcessor.setServletPath;
@@ -23,8 +28,10 @@
 
 import com.jayway.jsonpath.JsonPath;
 import java.lang.invoke.MethodHandles;
+import java.util.Base64;
 import java.util.List;
 import java.util.stream.Stream;
+import org.awaitility.Awaitility;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Order;
@@ -348,6 +355,66 @@ void should_produce_for_valid_input_pdok_betuurlijkegebieden_without_simplifying
     assertEquals(geometry, geomAttribute, "geometry and geom attribute should be equal when not simplified");
   }
 
+  @Test
+  @WithMockUser(
+      username = "tm-admin",
+      authorities = {"admin"})
+  void should_produce_twkb_geometries_when_requested() throws Exception {
+    final String url = apiBasePath + provinciesWfs;
+    MvcResult result = mockMvc.perform(get(url).accept(MediaType.APPLICATION_JSON)
+            .with(setServletPath(url))
+            .param("x", "141247")
+            .param("y", "458118")
+            .param("geometryInAttributes", "true")
+            .param("geometryEncoding", "twkb-base64")
+            .param("precision", "0"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.geometryEncoding").value("twkb-base64"))
+        .andExpect(jsonPath("$.features[0].attributes.naam").value("Utrecht"))
+        .andReturn();
+
+    String body = result.getResponse().getContentAsString();
+    String geometry = JsonPath.parse(body).read("$.features[0].geometry").toString();
+    String geomAttribute =
+        JsonPath.parse(body).read("$.features[0].attributes.geom").toString();
+    assertEquals(geometry, geomAttribute, "geometry and geom attribute should be equal when not simplified");
+    byte[] twkb = Base64.getDecoder().decode(geometry);
+    int type = twkb[0] & 0x0f;
+    assertTrue(type == 3 || type == 6, "TWKB geometry should be a (multi)polygon");
+  }
+
+  @Test
+  @WithMockUser(
+      username = "tm-admin",
+      authorities = {"admin"})
+  void should_produce_geojson_geometry_objects_when_requested() throws Exception {
+    final String url = apiBasePath + provinciesWfs;
+    mockMvc.perform(get(url).accept(MediaType.APPLICATION_JSON)
+            .with(setServletPath(url))
+            .param("x", "141247")
+            .param("y", "458118")
+            .param("geometryInAttributes", "true")
+            .param("geometryEncoding", "geojson")
+            .param("precision", "0"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.geometryEncoding").value("geojson"))
+        .andExpect(jsonPath("$.features[0].attributes.naam").value("Utrecht"))
+        .andExpect(jsonPath("$.features[0].geometry.type").value(anyOf(is("Polygon"), is("MultiPolygon"))))
+        .andExpect(jsonPath("$.features[0].geometry.coordinates").isArray())
+        .andExpect(jsonPath("$.features[0].attributes.geom.type").value(anyOf(is("Polygon"), is("MultiPolygon"))));
+  }
+
+  @Test
+  void should_error_for_unknown_geometry_encoding() throws Exception {
+    final String url = apiBasePath + provinciesWfs;
+    mockMvc.perform(get(url).accept(MediaType.APPLICATION_JSON)
+            .with(setServletPath(url))
+            .param("x", "141247")
+            .param("y", "458118")
+            .param("geometryEncoding", "gml"))
+        .andExpect(status().isBadRequest());
+  }
+
   /**
    * request 2 pages data from the bestuurlijke gebieden WFS featuretype provincies.
    *
@@ -949,6 +1016,34 @@ void should_produce_reprojected_features_from_database() throws Exception {
         expected2ndCoordinate, g.getCoordinate().getY(), .1, "y coordinate should be " + expected2ndCoordinate);
   }
 
+  @Test
+  @DisplayName("should use the pixel tolerance at the map resolution as selection distance")
+  @WithMockUser(
+      username = "tm-admin",
+      authorities = {"admin"})
+  void should_produce_features_for_pixel_tolerance_and_resolution() throws Exception {
+    final String url = apiBasePath + osm_polygonUrlPostgis;
+
+    mockMvc.perform(get(url).accept(MediaType.APPLICATION_JSON)
+            .with(setServletPath(url))
+            .param("x", "130794")
+            .param("y", "459169")
+            .param("resolution", "1.25")
+            .param("tolerance", "4"))
+        .andExpect(status().isOk())
+        .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+        .andExpect(jsonPath("$.features[0].__fid").value("osm_polygon.-310859"));
+
+    mockMvc.perform(get(url).accept(MediaType.APPLICATION_JSON)
+            .with(setServletPath(url))
+            .param("x", "130794")
+            .param("y", "459169")
+            .param("resolution", "1.25")
+            .param("tolerance", "0"))
+        .andExpect(status().isBadRequest())
+        .andExpect(jsonPath("$.message").value("Buffer distance must be greater than 0"));
+  }
+
   static Stream<Arguments> osmFiltersProvider() {
     return Stream.of(
         Arguments.of(
@@ -1339,4 +1434,61 @@ void should_send_403_for_layer_proxied_with_auth_in_public_app() throws Exceptio
             .param("page", "1"))
         .andExpect(status().isForbidden());
   }
+
+  @Test
+  @WithMockUser(
+      username = "tm-admin",
+      authorities = {"admin"})
+  void should_stream_feature_info_for_multiple_layers() throws Exception {
+    final String url = apiBasePath + "/app/default/features";
+    MvcResult result = mockMvc.perform(get(url).with(setServletPath(url))
+            .param(
+                "layers",
+                "lyr:pdok-kadaster-bestuurlijkegebieden:Provinciegebied",
+                "lyr:snapshot-geoserver:postgis:begroeidterreindeel",
+                "lyr:does-not-exist")
+            .param("x", "141247")
+            .param("y", "458118"))
+        .andExpect(status().isOk())
+        .andExpect(request().asyncStarted())
+        .andReturn();
+
+    Awaitility.await("waiting for all layers in the feature info response")
+        .atMost(30, SECONDS)
+        .until(() -> result.getResponse().getContentAsString().lines().count() == 3);
+
+    List<String> lines = result.getResponse().getContentAsString().lines().toList();
+    String provincies = lines.stream()
+        .filter(l -> l.contains("\"lyr:pdok-kadaster-bestuurlijkegebieden:Provinciegebied\""))
+        .findFirst()
+        .orElseThrow();
+    assertEquals(200, (int) JsonPath.read(provincies, "$.status"));
+    assertEquals("Utrecht", JsonPath.read(provincies, "$.featuresResponse.features[0].attributes.naam"));
+
+    String begroeidterreindeel = lines.stream()
+        .filter(l -> l.contains("\"lyr:snapshot-geoserver:postgis:begroeidterreindeel\""))
+        .findFirst()
+        .orElseThrow();
+    assertEquals(200, (int) JsonPath.read(begroeidterreindeel, "$.status"));
+
+    String notFound = lines.stream()
+        .filter(l -> l.contains("\"lyr:does-not-exist\""))
+        .findFirst()
+        .orElseThrow();
+    assertEquals(404, (int) JsonPath.read(notFound, "$.status"));
+  }
+
+  @Test
+  @WithMockUser(
+      username = "tm-admin",
+      authorities = {"admin"})
+  void should_error_for_feature_info_without_layers() throws Exception {
+    final String url = apiBasePath + "/app/default/features";
+    mockMvc.perform(get(url).accept(MediaType.APPLICATION_JSON)
+            .with(setServletPath(url))
+            .param("layers", "")
+            .param("x", "141247")
+            .param("y", "458118"))
+        .andExpect(status().isBadRequest());
+  }
 }
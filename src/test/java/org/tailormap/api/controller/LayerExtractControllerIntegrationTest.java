@@ -17,6 +17,7 @@
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
@@ -606,4 +607,12 @@ void should_export_to_geopackage() throws Exception {
       Files.deleteIfExists(tempFile);
     }
   }
+
+  @Test
+  void cancel_unknown_extract_should_return_not_found() throws Exception {
+    final String cancelUrl =
+        apiBasePath + layerBegroeidTerreindeelPostgis + extractPath + sseClientId + "/does-not-exist.csv";
+    mockMvc.perform(delete(cancelUrl).with(setServletPath(cancelUrl)).with(csrf()))
+        .andExpect(status().isNotFound());
+  }
 }
@@ -0,0 +1,98 @@
+/*
+ * Copyright (C) 2026 B3Partners B.V.
+ *
+ * SPDX-License-Identifier: MIT
+ */
+package org.tailormap.api.controller;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static org.tailormap.api.TestRequestProcessor.setServletPath;
+import static org.tailormap.api.controller.TestUrls.layerBegroeidTerreindeelPostgis;
+import static org.tailormap.api.controller.TestUrls.layerProvinciesWfs;
+import static org.tailormap.api.controller.TestUrls.layerWaterdeelOracle;
+import static org.tailormap.api.controller.TestUrls.layerWegdeelSqlServer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.junitpioneer.jupiter.Stopwatch;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.tailormap.api.annotation.PostgresIntegrationTest;
+import org.tailormap.api.service.VectorTileService;
+
+@PostgresIntegrationTest
+@AutoConfigureMockMvc
+@Execution(ExecutionMode.CONCURRENT)
+@Stopwatch
+class VectorTileControllerIntegrationTest {
+  @Value("${tailormap-api.base-path}")
+  private String apiBasePath;
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  static Stream<String> layerUrlProvider() {
+    return Stream.of(layerBegroeidTerreindeelPostgis, layerWaterdeelOracle, layerWegdeelSqlServer, layerProvinciesWfs);
+  }
+
+  @ParameterizedTest(name = "#{index}: should return a vector tile for {0}")
+  @MethodSource("layerUrlProvider")
+  void should_return_vector_tile(String layerUrl) throws Exception {
+    final String url = apiBasePath + layerUrl + "/tiles/0/0/0.mvt";
+    MvcResult result = mockMvc.perform(get(url).with(setServletPath(url)))
+        .andExpect(status().isOk())
+        .andExpect(content().contentType(VectorTileService.MVT_MEDIA_TYPE))
+        .andReturn();
+
+    byte[] tile = result.getResponse().getContentAsByteArray();
+    assertTrue(tile.length > 0, "tile should contain features");
+    assertTrue(contains(tile, "__fid"), "tile should contain feature ids");
+  }
+
+  @Test
+  void should_not_include_hidden_attributes() throws Exception {
+    final String url = apiBasePath + layerBegroeidTerreindeelPostgis + "/tiles/0/0/0.mvt";
+    MvcResult result = mockMvc.perform(get(url).with(setServletPath(url)))
+        .andExpect(status().isOk())
+        .andReturn();
+
+    byte[] tile = result.getResponse().getContentAsByteArray();
+    assertTrue(contains(tile, "bronhouder"), "tile should contain visible attribute");
+    assertFalse(contains(tile, "terminationdate"), "tile should not contain hidden attribute");
+  }
+
+  @Test
+  void should_return_not_found_for_tile_outside_grid() throws Exception {
+    final String url = apiBasePath + layerBegroeidTerreindeelPostgis + "/tiles/1/2/0.mvt";
+    mockMvc.perform(get(url).accept(MediaType.APPLICATION_JSON).with(setServletPath(url)))
+        .andExpect(status().isNotFound())
+        .andExpect(jsonPath("$.message").value("Tile outside of tile grid"));
+  }
+
+  @Test
+  void should_return_not_found_for_layer_without_feature_type() throws Exception {
+    final String url =
+        apiBasePath + "/app/default/layer/lyr:pdok-kadaster-bestuurlijkegebieden:Gemeentegebied/tiles/0/0/0.mvt";
+    mockMvc.perform(get(url).accept(MediaType.APPLICATION_JSON).with(setServletPath(url)))
+        .andExpect(status().isNotFound())
+        .andExpect(jsonPath("$.message").value("Layer does not have feature type"));
+  }
+
+  private static boolean contains(byte[] tile, String text) {
+    return new String(tile, StandardCharsets.ISO_8859_1).contains(text);
+  }
+}
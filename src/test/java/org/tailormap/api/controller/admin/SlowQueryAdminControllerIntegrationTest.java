@@ -0,0 +1,93 @@
+/*
+ * Copyright (C) 2026 B3Partners B.V.
+ *
+ * SPDX-License-Identifier: MIT
+ */
+package org.tailormap.api.controller.admin;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.Instant;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junitpioneer.jupiter.Stopwatch;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+import org.tailormap.api.annotation.PostgresIntegrationTest;
+import org.tailormap.api.geotools.featuresources.SlowQueryLog;
+import org.tailormap.api.persistence.Group;
+
+@AutoConfigureMockMvc
+@Stopwatch
+@PostgresIntegrationTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class SlowQueryAdminControllerIntegrationTest {
+  @Autowired
+  private WebApplicationContext context;
+
+  @Autowired
+  private SlowQueryLog slowQueryLog;
+
+  private MockMvc mockMvc;
+
+  @Value("${tailormap-api.admin.base-path}")
+  private String adminBasePath;
+
+  @BeforeAll
+  void initialize() {
+    mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+  }
+
+  private static SlowQueryLog.SlowQuery slowQuery(long durationMillis, String featureType) {
+    return new SlowQueryLog.SlowQuery(
+        Instant.now(),
+        durationMillis,
+        "features",
+        2L,
+        "PostGIS",
+        "jdbc",
+        "postgis",
+        featureType,
+        "class = 'grasland'",
+        "SELECT * FROM \"begroeidterreindeel\" WHERE class = 'grasland'",
+        100);
+  }
+
+  @Test
+  @WithMockUser(
+      username = "tm-admin",
+      authorities = {Group.ADMIN})
+  void lists_and_clears_slow_queries() throws Exception {
+    slowQueryLog.clear();
+    slowQueryLog.add(slowQuery(5000, "slower"));
+    slowQueryLog.add(slowQuery(50000, "slowest"));
+    // below the threshold
+    slowQueryLog.add(slowQuery(1, "fast"));
+
+    mockMvc.perform(get(adminBasePath + "/slow-queries").accept(MediaType.APPLICATION_JSON))
+        .andExpect(status().isOk())
+        .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+        .andExpect(jsonPath("$.length()").value(2))
+        .andExpect(jsonPath("$[0].featureType").value("slowest"))
+        .andExpect(jsonPath("$[0].durationMillis").value(50000))
+        .andExpect(jsonPath("$[0].dbtype").value("postgis"))
+        .andExpect(jsonPath("$[1].featureType").value("slower"));
+
+    mockMvc.perform(delete(adminBasePath + "/slow-queries")).andExpect(status().isNoContent());
+
+    mockMvc.perform(get(adminBasePath + "/slow-queries").accept(MediaType.APPLICATION_JSON))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.length()").value(0));
+  }
+}
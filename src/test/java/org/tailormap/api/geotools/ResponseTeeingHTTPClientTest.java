@@ -0,0 +1,84 @@
+/*
+ * Copyright (C) 2026 B3Partners B.V.
+ *
+ * SPDX-License-Identifier: MIT
+ */
+package org.tailormap.api.geotools;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import org.geotools.http.HTTPClient;
+import org.geotools.http.HTTPResponse;
+import org.junit.jupiter.api.Test;
+
+class ResponseTeeingHTTPClientTest {
+  private static final byte[] BODY = "<WMS_Capabilities>%s</WMS_Capabilities>"
+      .formatted("<Layer/>".repeat(100))
+      .getBytes(StandardCharsets.UTF_8);
+
+  private static ResponseTeeingHTTPClient createClient() throws IOException {
+    HTTPResponse response = mock(HTTPResponse.class);
+    when(response.getResponseStream()).thenAnswer(invocation -> new ByteArrayInputStream(BODY));
+    HTTPClient wrapped = mock(HTTPClient.class);
+    when(wrapped.get(any(URL.class))).thenReturn(response);
+    return new ResponseTeeingHTTPClient(wrapped);
+  }
+
+  private static void request(ResponseTeeingHTTPClient client) throws IOException {
+    try (InputStream in = client.get(URI.create("https://example.com/wms").toURL()).getResponseStream()) {
+      in.transferTo(OutputStream.nullOutputStream());
+    }
+  }
+
+  private static List<Path> tempFiles() throws IOException {
+    try (Stream<Path> files = Files.list(Path.of(System.getProperty("java.io.tmpdir")))) {
+      return files.filter(p -> p.getFileName().toString().startsWith("tailormap-response-"))
+          .toList();
+    }
+  }
+
+  @Test
+  void keeps_small_response_in_memory() throws IOException {
+    try (ResponseTeeingHTTPClient client = createClient()) {
+      request(client);
+      assertArrayEquals(BODY, client.getLatestResponseCopy());
+    }
+  }
+
+  @Test
+  void spills_large_response_to_temp_file_until_closed() throws IOException {
+    List<Path> before = tempFiles();
+    List<Path> during;
+    try (ResponseTeeingHTTPClient client = createClient()) {
+      client.setMemoryThreshold(64);
+      request(client);
+      during = new ArrayList<>(tempFiles());
+      during.removeAll(before);
+      assertEquals(1, during.size());
+
+      try (InputStream in = client.getLatestResponseCopyInputStream()) {
+        assertArrayEquals(BODY, in.readAllBytes());
+      }
+      assertArrayEquals(
+          "<WMS_Capabilities>".getBytes(StandardCharsets.UTF_8), client.getLatestResponseCopyStart(18));
+    }
+    assertTrue(Files.notExists(during.getFirst()));
+  }
+}
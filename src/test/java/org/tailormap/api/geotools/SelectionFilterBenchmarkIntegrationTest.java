@@ -0,0 +1,168 @@
+/*
+ * Copyright (C) 2026 B3Partners B.V.
+ *
+ * SPDX-License-Identifier: MIT
+ */
+package org.tailormap.api.geotools;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.tailormap.api.geotools.SelectionFilterUtil.createSelectionCircle;
+import static org.tailormap.api.geotools.SelectionFilterUtil.createSelectionFilter;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Random;
+import org.geotools.api.data.Query;
+import org.geotools.api.data.SimpleFeatureSource;
+import org.geotools.api.filter.Filter;
+import org.geotools.data.simple.SimpleFeatureIterator;
+import org.geotools.jdbc.JDBCDataStore;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.locationtech.jts.geom.Geometry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.tailormap.api.annotation.PostgresIntegrationTest;
+import org.tailormap.api.geotools.SelectionFilterUtil.SelectionFilterStrategy;
+import org.tailormap.api.geotools.featuresources.JDBCFeatureSourceHelper;
+import org.tailormap.api.persistence.TMFeatureSource;
+import org.tailormap.api.repository.FeatureSourceRepository;
+
+/**
+ * Compares the feature info selection filter strategies on large point and polygon tables in PostGIS. Creates
+ * temporary tables so it is only run on request, using {@code mvn -Ppostgresql verify
+ * -Dselection-filter-benchmark=true -Dit.test=SelectionFilterBenchmarkIntegrationTest}. Timings are logged.
+ */
+@PostgresIntegrationTest
+@EnabledIfSystemProperty(named = "selection-filter-benchmark", matches = "true")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class SelectionFilterBenchmarkIntegrationTest {
+  private static final Logger logger =
+      LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+  private static final int ROWS = 500_000;
+  private static final int CLICKS = 500;
+  private static final int WARMUP_CLICKS = 50;
+  // map units, 4 pixels at a typical zoomed in resolution of 0.84 m/px
+  private static final double DISTANCE = 3.36;
+
+  @Autowired
+  private FeatureSourceRepository featureSourceRepository;
+
+  private JDBCDataStore ds;
+
+  @BeforeAll
+  void create_benchmark_tables() throws IOException, SQLException {
+    TMFeatureSource featureSource = featureSourceRepository
+        .getByTitle("PostGIS")
+        .orElseThrow(() -> new IllegalArgumentException("Feature source not found: PostGIS"));
+    JDBCDataStore setupDs = (JDBCDataStore) new JDBCFeatureSourceHelper().createDataStore(featureSource);
+    try (Connection conn = setupDs.getDataSource().getConnection();
+        Statement stmt = conn.createStatement()) {
+      dropTables(stmt);
+      stmt.execute(
+          """
+          create table selection_benchmark_point as
+            select i as id, ST_SetSRID(ST_MakePoint(130000 + random() * 20000, 450000 + random() * 20000), 28992)
+              ::geometry(Point, 28992) as geom
+            from generate_series(1, %d) i"""
+              .formatted(ROWS));
+      stmt.execute(
+          """
+          create table selection_benchmark_polygon as
+            select id, ST_Buffer(geom, 5 + random() * 20, 8)::geometry(Polygon, 28992) as geom
+            from selection_benchmark_point""");
+      for (String table : new String[] {"selection_benchmark_point", "selection_benchmark_polygon"}) {
+        stmt.execute("alter table " + table + " add primary key (id)");
+        stmt.execute("create index on " + table + " using gist (geom)");
+        stmt.execute("analyze " + table);
+      }
+    } finally {
+      setupDs.dispose();
+    }
+    // A new DataStore so the new tables are known
+    ds = (JDBCDataStore) new JDBCFeatureSourceHelper().createDataStore(featureSource);
+  }
+
+  @AfterAll
+  void drop_benchmark_tables() throws SQLException {
+    if (ds == null) {
+      return;
+    }
+    try (Connection conn = ds.getDataSource().getConnection();
+        Statement stmt = conn.createStatement()) {
+      dropTables(stmt);
+    } finally {
+      ds.dispose();
+    }
+  }
+
+  private static void dropTables(Statement stmt) throws SQLException {
+    stmt.execute("drop table if exists selection_benchmark_point");
+    stmt.execute("drop table if exists selection_benchmark_polygon");
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {"selection_benchmark_point", "selection_benchmark_polygon"})
+  void compare_circle_and_dwithin_selection(String table) throws IOException {
+    SimpleFeatureSource fs = ds.getFeatureSource(table);
+
+    run(fs, SelectionFilterStrategy.CIRCLE, WARMUP_CLICKS);
+    run(fs, SelectionFilterStrategy.DWITHIN, WARMUP_CLICKS);
+
+    long start = System.nanoTime();
+    long circleCount = run(fs, SelectionFilterStrategy.CIRCLE, CLICKS);
+    long circleNanos = System.nanoTime() - start;
+
+    start = System.nanoTime();
+    long dwithinCount = run(fs, SelectionFilterStrategy.DWITHIN, CLICKS);
+    long dwithinNanos = System.nanoTime() - start;
+
+    logger.info(
+        "{} rows in {}, {} clicks: circle {} ms ({} features), dwithin {} ms ({} features)",
+        ROWS,
+        table,
+        CLICKS,
+        circleNanos / 1_000_000,
+        circleCount,
+        dwithinNanos / 1_000_000,
+        dwithinCount);
+
+    // the circle is a polygon inscribed in the real circle, so it never selects more than the distance filter
+    assertThat(dwithinCount, greaterThanOrEqualTo(circleCount));
+  }
+
+  private static long run(SimpleFeatureSource fs, SelectionFilterStrategy strategy, int clicks) throws IOException {
+    // same clicks for each strategy
+    Random random = new Random(42);
+    long count = 0;
+    for (int i = 0; i < clicks; i++) {
+      Geometry circle =
+          createSelectionCircle(130000 + random.nextDouble() * 20000, 450000 + random.nextDouble() * 20000, DISTANCE);
+      Filter filter = createSelectionFilter(
+          fs.getDataStore(),
+          fs.getSchema().getGeometryDescriptor().getLocalName(),
+          circle,
+          fs.getSchema().getCoordinateReferenceSystem(),
+          strategy);
+      Query q = new Query(fs.getName().getLocalPart(), filter);
+      q.setMaxFeatures(30);
+      try (SimpleFeatureIterator features = fs.getFeatures(q).features()) {
+        while (features.hasNext()) {
+          features.next();
+          count++;
+        }
+      }
+    }
+    return count;
+  }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright (C) 2026 B3Partners B.V.
+ *
+ * SPDX-License-Identifier: MIT
+ */
+package org.tailormap.api.geotools;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.mockito.Mockito.mock;
+import static org.tailormap.api.geotools.SelectionFilterUtil.createSelectionCircle;
+import static org.tailormap.api.geotools.SelectionFilterUtil.createSelectionFilter;
+import static org.tailormap.api.geotools.SelectionFilterUtil.getSelectionDistance;
+
+import org.geotools.api.data.DataStore;
+import org.geotools.api.filter.And;
+import org.geotools.api.filter.Filter;
+import org.geotools.api.filter.spatial.BBOX;
+import org.geotools.api.filter.spatial.DWithin;
+import org.geotools.api.filter.spatial.Intersects;
+import org.geotools.data.wfs.WFSDataStore;
+import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.Point;
+import org.tailormap.api.geotools.SelectionFilterUtil.SelectionFilterStrategy;
+
+class SelectionFilterUtilTest {
+  private static final Geometry circle = createSelectionCircle(141247, 458118, 4);
+
+  @Test
+  void selection_distance_uses_pixel_tolerance_at_resolution() {
+    assertEquals(4d, getSelectionDistance(4, null, 5));
+    assertEquals(0.84d * 5, getSelectionDistance(4, 0.84d, 5));
+  }
+
+  @Test
+  void circle_strategy_creates_intersects_filter() {
+    Filter filter = createSelectionFilter(null, "geom", circle, null, SelectionFilterStrategy.CIRCLE);
+    assertInstanceOf(Intersects.class, filter);
+  }
+
+  @Test
+  void dwithin_strategy_creates_bbox_and_distance_filter() {
+    Filter filter = createSelectionFilter(null, "geom", circle, null, SelectionFilterStrategy.DWITHIN);
+    And and = assertInstanceOf(And.class, filter);
+    BBOX bbox = assertInstanceOf(BBOX.class, and.getChildren().get(0));
+    assertEquals(141243d, bbox.getBounds().getMinimum(0), 1e-6);
+    assertEquals(458122d, bbox.getBounds().getMaximum(1), 1e-6);
+
+    DWithin dwithin = assertInstanceOf(DWithin.class, and.getChildren().get(1));
+    assertEquals(4d, dwithin.getDistance(), 1e-6);
+    Point centre = (Point) dwithin.getExpression2().evaluate(null);
+    assertEquals(141247d, centre.getX(), 1e-6);
+    assertEquals(458118d, centre.getY(), 1e-6);
+  }
+
+  @Test
+  void auto_strategy_falls_back_to_circle_for_non_jdbc_datastore() {
+    Filter filter =
+        createSelectionFilter(mock(DataStore.class), "geom", circle, null, SelectionFilterStrategy.AUTO);
+    assertInstanceOf(Intersects.class, filter);
+  }
+
+  @Test
+  void dwithin_strategy_falls_back_to_circle_for_wfs_datastore() {
+    Filter filter =
+        createSelectionFilter(mock(WFSDataStore.class), "geom", circle, null, SelectionFilterStrategy.DWITHIN);
+    assertInstanceOf(Intersects.class, filter);
+  }
+}
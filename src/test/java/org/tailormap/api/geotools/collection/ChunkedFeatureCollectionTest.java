@@ -0,0 +1,326 @@
+/*
+ * Copyright (C) 2026 B3Partners B.V.
+ *
+ * SPDX-License-Identifier: MIT
+ */
+package org.tailormap.api.geotools.collection;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.geotools.api.data.Query;
+import org.geotools.api.data.QueryCapabilities;
+import org.geotools.api.data.SimpleFeatureSource;
+import org.geotools.api.feature.simple.SimpleFeature;
+import org.geotools.api.filter.FilterFactory;
+import org.geotools.api.filter.sort.SortBy;
+import org.geotools.api.filter.sort.SortOrder;
+import org.geotools.data.simple.SimpleFeatureCollection;
+import org.geotools.data.simple.SimpleFeatureIterator;
+import org.geotools.factory.CommonFactoryFinder;
+import org.geotools.feature.SchemaException;
+import org.geotools.feature.collection.DecoratingSimpleFeatureCollection;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.tailormap.api.StaticTestData;
+import org.tailormap.api.geotools.collection.ChunkedFeatureCollection.PagingMode;
+
+class ChunkedFeatureCollectionTest {
+  private static final int randomFeatureCount = 104;
+  private static final int chunkSize = 10;
+  private static final FilterFactory ff = CommonFactoryFinder.getFilterFactory();
+  private SimpleFeatureSource randomFeatureSource = null;
+
+  @BeforeEach
+  void createRandomFeatures() throws IOException, SchemaException {
+    randomFeatureSource = StaticTestData.createRandomFeatureSource(
+        randomFeatureCount,
+        155000,
+        463000,
+        LocalDate.of(2000, 1, 1).toEpochDay() * 86400L * 1000L,
+        LocalDate.of(2025, 12, 31).toEpochDay() * 86400L * 1000L);
+    assumeTrue(randomFeatureSource != null, "Failed to create random feature source");
+  }
+
+  @AfterEach
+  void cleanup() {
+    if (randomFeatureSource != null) {
+      randomFeatureSource.getDataStore().dispose();
+    }
+  }
+
+  private static List<SimpleFeature> readAll(SimpleFeatureCollection collection) {
+    List<SimpleFeature> features = new ArrayList<>();
+    try (SimpleFeatureIterator iterator = collection.features()) {
+      while (iterator.hasNext()) {
+        features.add(iterator.next());
+      }
+    }
+    return features;
+  }
+
+  private static Set<Object> ids(List<SimpleFeature> features) {
+    Set<Object> ids = new HashSet<>();
+    features.forEach(f -> ids.add(f.getID()));
+    return ids;
+  }
+
+  /** A listener that records the number of features read for each completed chunk. */
+  private static class RecordingChunkListener implements ChunkedFeatureCollection.ChunkListener {
+    private final List<Long> completed = new ArrayList<>();
+    private final AtomicInteger retries = new AtomicInteger();
+
+    @Override
+    public void chunkCompleted(int chunk, long featuresRead) {
+      assertEquals(completed.size(), chunk, "chunks should be reported in order");
+      completed.add(featuresRead);
+    }
+
+    @Override
+    public void chunkRetried(int chunk, int attempt, Throwable cause) {
+      retries.incrementAndGet();
+    }
+  }
+
+  @Test
+  void keyset_paging_reads_all_features_once() throws IOException {
+    RecordingChunkListener listener = new RecordingChunkListener();
+    Query query = new Query(randomFeatureSource.getName().getLocalPart());
+    query.setPropertyNames("randomNumber", "location");
+    ChunkedFeatureCollection collection = new ChunkedFeatureCollection(
+        randomFeatureSource, query, PagingMode.KEYSET, "id", chunkSize, 0, 0, listener);
+
+    List<SimpleFeature> features = readAll(collection);
+    assertEquals(randomFeatureCount, features.size());
+    assertEquals(randomFeatureCount, ids(features).size(), "features should be unique");
+    assertNull(
+        features.getFirst().getFeatureType().getDescriptor("id"),
+        "primary key added for paging should not be in the features");
+    assertEquals(collection.getSchema(), features.getFirst().getFeatureType());
+
+    assertEquals((randomFeatureCount + chunkSize - 1) / chunkSize, listener.completed.size());
+    assertEquals(chunkSize, listener.completed.getFirst());
+    assertEquals(randomFeatureCount, listener.completed.getLast());
+  }
+
+  @Test
+  void offset_paging_keeps_requested_order() throws IOException {
+    RecordingChunkListener listener = new RecordingChunkListener();
+    Query query = new Query(randomFeatureSource.getName().getLocalPart());
+    query.setSortBy(ff.sort("randomNumber", SortOrder.DESCENDING));
+    ChunkedFeatureCollection collection = new ChunkedFeatureCollection(
+        randomFeatureSource, query, PagingMode.OFFSET, "id", chunkSize, 0, 0, listener);
+
+    List<SimpleFeature> features = readAll(collection);
+    assertEquals(randomFeatureCount, features.size());
+    assertEquals(randomFeatureCount, ids(features).size(), "features should be unique");
+    for (int i = 1; i < features.size(); i++) {
+      long previous = (Long) features.get(i - 1).getAttribute("randomNumber");
+      long current = (Long) features.get(i).getAttribute("randomNumber");
+      assertTrue(previous >= current, "features should be sorted descending");
+    }
+    assertEquals((randomFeatureCount + chunkSize - 1) / chunkSize, listener.completed.size());
+  }
+
+  @Test
+  void unpaged_reports_progress_per_chunk() throws IOException {
+    RecordingChunkListener listener = new RecordingChunkListener();
+    Query query = new Query(randomFeatureSource.getName().getLocalPart());
+    ChunkedFeatureCollection collection = new ChunkedFeatureCollection(
+        randomFeatureSource, query, PagingMode.UNPAGED, null, chunkSize, 0, 0, listener);
+
+    assertEquals(randomFeatureCount, readAll(collection).size());
+    assertEquals((randomFeatureCount + chunkSize - 1) / chunkSize, listener.completed.size());
+  }
+
+  @Test
+  void reads_all_features_from_source_capping_response_size() throws IOException {
+    for (PagingMode pagingMode : List.of(PagingMode.KEYSET, PagingMode.OFFSET)) {
+      AtomicInteger queries = new AtomicInteger();
+      SimpleFeatureSource cappedSource = createCappedSource(chunkSize - 3, queries);
+      RecordingChunkListener listener = new RecordingChunkListener();
+      Query query = new Query(randomFeatureSource.getName().getLocalPart());
+      ChunkedFeatureCollection collection = new ChunkedFeatureCollection(
+          cappedSource, query, pagingMode, "id", chunkSize, 0, 0, listener);
+
+      List<SimpleFeature> features = readAll(collection);
+      assertEquals(randomFeatureCount, features.size(), "all features should be read for " + pagingMode);
+      assertEquals(randomFeatureCount, ids(features).size(), "features should be unique for " + pagingMode);
+      assertEquals((randomFeatureCount + chunkSize - 1) / chunkSize, listener.completed.size());
+      assertEquals(chunkSize, listener.completed.getFirst());
+      assertEquals(randomFeatureCount, listener.completed.getLast());
+
+      // with a known feature count no query is needed to find out there are no more features
+      queries.set(0);
+      collection = new ChunkedFeatureCollection(
+          cappedSource, query, pagingMode, "id", chunkSize, randomFeatureCount, 0, 0, null);
+      assertEquals(randomFeatureCount, readAll(collection).size());
+      int queriesWithKnownCount = queries.get();
+      queries.set(0);
+      collection = new ChunkedFeatureCollection(cappedSource, query, pagingMode, "id", chunkSize, 0, 0, null);
+      assertEquals(randomFeatureCount, readAll(collection).size());
+      assertEquals(queries.get() - 1, queriesWithKnownCount, "without a count the last query returns no features");
+    }
+  }
+
+  @Test
+  void resumes_after_transient_error() throws IOException {
+    for (PagingMode pagingMode : List.of(PagingMode.KEYSET, PagingMode.OFFSET)) {
+      AtomicBoolean failed = new AtomicBoolean();
+      SimpleFeatureSource failingSource = createFailingSource(() -> {
+        if (failed.compareAndSet(false, true)) {
+          return new RuntimeException(new IOException("Connection reset"));
+        }
+        return null;
+      });
+      RecordingChunkListener listener = new RecordingChunkListener();
+      Query query = new Query(randomFeatureSource.getName().getLocalPart());
+      ChunkedFeatureCollection collection = new ChunkedFeatureCollection(
+          failingSource, query, pagingMode, "id", chunkSize, 2, 0, listener);
+
+      List<SimpleFeature> features = readAll(collection);
+      assertEquals(1, listener.retries.get(), "chunk should be retried once");
+      assertEquals(randomFeatureCount, features.size(), "all features should be read for " + pagingMode);
+      assertEquals(randomFeatureCount, ids(features).size(), "features should be unique for " + pagingMode);
+    }
+  }
+
+  @Test
+  void does_not_retry_non_transient_error() throws IOException {
+    SimpleFeatureSource failingSource = createFailingSource(() -> new IllegalStateException("Not transient"));
+    Query query = new Query(randomFeatureSource.getName().getLocalPart());
+    ChunkedFeatureCollection collection = new ChunkedFeatureCollection(
+        failingSource, query, PagingMode.KEYSET, "id", chunkSize, 2, 0, null);
+
+    assertThrows(IllegalStateException.class, () -> readAll(collection));
+  }
+
+  @Test
+  void gives_up_after_max_retries() throws IOException {
+    SimpleFeatureSource failingSource =
+        createFailingSource(() -> new RuntimeException(new IOException("Connection reset")));
+    Query query = new Query(randomFeatureSource.getName().getLocalPart());
+    RecordingChunkListener listener = new RecordingChunkListener();
+    ChunkedFeatureCollection collection = new ChunkedFeatureCollection(
+        failingSource, query, PagingMode.KEYSET, "id", chunkSize, 2, 0, listener);
+
+    assertThrows(RuntimeException.class, () -> readAll(collection));
+    assertEquals(2, listener.retries.get());
+  }
+
+  @Test
+  void stops_reading_when_interrupted() throws IOException {
+    Query query = new Query(randomFeatureSource.getName().getLocalPart());
+    ChunkedFeatureCollection collection = new ChunkedFeatureCollection(
+        randomFeatureSource, query, PagingMode.KEYSET, "id", chunkSize, 2, 0, null);
+    try (SimpleFeatureIterator iterator = collection.features()) {
+      iterator.next();
+      Thread.currentThread().interrupt();
+      assertThrows(CancellationException.class, iterator::hasNext);
+    } finally {
+      // clear the interrupted status
+      Thread.interrupted();
+    }
+  }
+
+  @Test
+  void paging_mode_depends_on_capabilities() {
+    SimpleFeatureSource source = mock(SimpleFeatureSource.class);
+    when(source.getQueryCapabilities()).thenReturn(new QueryCapabilities() {
+      @Override
+      public boolean isOffsetSupported() {
+        return true;
+      }
+
+      @Override
+      public boolean supportsSorting(SortBy... sortAttributes) {
+        return true;
+      }
+    });
+    Query query = new Query("test");
+    assertEquals(PagingMode.KEYSET, ChunkedFeatureCollection.getPagingMode(source, query, "id"));
+    assertEquals(PagingMode.UNPAGED, ChunkedFeatureCollection.getPagingMode(source, query, null));
+    query.setSortBy(ff.sort("randomNumber", SortOrder.ASCENDING));
+    assertEquals(PagingMode.OFFSET, ChunkedFeatureCollection.getPagingMode(source, query, "id"));
+
+    SortBy[] stable = ChunkedFeatureCollection.getStableSortBy(query, "id");
+    assertEquals(2, stable.length);
+    assertEquals("id", stable[1].getPropertyName().getPropertyName());
+  }
+
+  /**
+   * Create a source that returns at most {@code cap} features for a query, like a WFS with a maximum number of features
+   * per response.
+   */
+  private SimpleFeatureSource createCappedSource(int cap, AtomicInteger queries) throws IOException {
+    SimpleFeatureSource cappedSource = mock(SimpleFeatureSource.class);
+    when(cappedSource.getSchema()).thenReturn(randomFeatureSource.getSchema());
+    when(cappedSource.getFeatures(any(Query.class))).thenAnswer(invocation -> {
+      Query query = new Query(invocation.getArgument(0, Query.class));
+      query.setMaxFeatures(Math.min(query.getMaxFeatures(), cap));
+      queries.incrementAndGet();
+      return randomFeatureSource.getFeatures(query);
+    });
+    return cappedSource;
+  }
+
+  /**
+   * Create a source that throws the error from the supplier after the 25th feature read over all queries, until the
+   * supplier returns {@code null}.
+   */
+  private SimpleFeatureSource createFailingSource(Supplier<RuntimeException> error) throws IOException {
+    AtomicInteger read = new AtomicInteger();
+    SimpleFeatureSource failingSource = mock(SimpleFeatureSource.class);
+    when(failingSource.getSchema()).thenReturn(randomFeatureSource.getSchema());
+    when(failingSource.getFeatures(any(Query.class))).thenAnswer(invocation -> {
+      SimpleFeatureCollection delegate = randomFeatureSource.getFeatures(invocation.getArgument(0, Query.class));
+      return new DecoratingSimpleFeatureCollection(delegate) {
+        @Override
+        public SimpleFeatureIterator features() {
+          SimpleFeatureIterator iterator = delegate.features();
+          return new SimpleFeatureIterator() {
+            @Override
+            public boolean hasNext() {
+              if (read.get() >= 25) {
+                RuntimeException e = error.get();
+                if (e != null) {
+                  throw e;
+                }
+              }
+              return iterator.hasNext();
+            }
+
+            @Override
+            public SimpleFeature next() {
+              read.incrementAndGet();
+              return iterator.next();
+            }
+
+            @Override
+            public void close() {
+              iterator.close();
+            }
+          };
+        }
+      };
+    });
+    return failingSource;
+  }
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright (C) 2026 B3Partners B.V.
+ *
+ * SPDX-License-Identifier: MIT
+ */
+package org.tailormap.api.geotools.data.geopkg;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.File;
+import java.lang.invoke.MethodHandles;
+import java.nio.file.Path;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.geotools.api.feature.simple.SimpleFeature;
+import org.geotools.api.feature.simple.SimpleFeatureType;
+import org.geotools.data.DataUtilities;
+import org.geotools.data.simple.SimpleFeatureCollection;
+import org.geotools.data.simple.SimpleFeatureIterator;
+import org.geotools.feature.collection.BaseSimpleFeatureCollection;
+import org.geotools.feature.simple.SimpleFeatureBuilder;
+import org.geotools.geopkg.FeatureEntry;
+import org.geotools.geopkg.GeoPackage;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Compares writing a 1M feature layer with {@link GeoPackage#add(FeatureEntry, SimpleFeatureCollection)} and with the
+ * {@link GeoPackageBulkWriter}, including creating the spatial index. Only run on request, using {@code mvn test
+ * -Dgeopackage-benchmark=true -Dtest=GeoPackageBulkWriterBenchmarkTest}. Timings are logged.
+ */
+@EnabledIfSystemProperty(named = "geopackage-benchmark", matches = "true")
+class GeoPackageBulkWriterBenchmarkTest {
+  private static final Logger logger =
+      LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+  private static final int FEATURES = 1_000_000;
+
+  @TempDir
+  Path tempDir;
+
+  /** Generates polygon features while iterating, so the features do not have to fit in memory. */
+  private static class GeneratedFeatureCollection extends BaseSimpleFeatureCollection {
+    private final GeometryFactory gf = new GeometryFactory();
+
+    GeneratedFeatureCollection(SimpleFeatureType type) {
+      super(type);
+    }
+
+    @Override
+    public int size() {
+      return FEATURES;
+    }
+
+    @Override
+    public SimpleFeatureIterator features() {
+      SimpleFeatureBuilder builder = new SimpleFeatureBuilder(getSchema());
+      return new SimpleFeatureIterator() {
+        private int i = 0;
+
+        @Override
+        public boolean hasNext() {
+          return i < FEATURES;
+        }
+
+        @Override
+        public SimpleFeature next() {
+          if (!hasNext()) {
+            throw new NoSuchElementException();
+          }
+          double x = 130000 + (i % 1000) * 20.0;
+          double y = 450000 + (i / 1000) * 20.0;
+          builder.add(gf.createPolygon(new Coordinate[] {
+            new Coordinate(x, y),
+            new Coordinate(x + 10, y),
+            new Coordinate(x + 10, y + 10),
+            new Coordinate(x, y + 10),
+            new Coordinate(x, y)
+          }));
+          builder.add("feature " + i);
+          builder.add(i);
+          builder.add(i * 0.5);
+          return builder.buildFeature("benchmark." + i++);
+        }
+
+        @Override
+        public void close() {}
+      };
+    }
+  }
+
+  @Test
+  void compare_add_and_bulk_writer() throws Exception {
+    SimpleFeatureType type = DataUtilities.createType(
+        "benchmark", "the_geom:Polygon:srid=28992,name:String,number:Integer,value:Double");
+    ExecutorService executor =
+        Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+    try {
+      long addMillis = time("GeoPackage.add", tempDir.resolve("add.gpkg").toFile(), (geoPackage, entry) -> {
+        geoPackage.add(entry, new GeneratedFeatureCollection(type));
+        return FEATURES;
+      });
+      long bulkMillis = time("GeoPackageBulkWriter", tempDir.resolve("bulk.gpkg").toFile(), (geoPackage, entry) ->
+          new GeoPackageBulkWriter(geoPackage, executor, 1000, 2 * Runtime.getRuntime().availableProcessors())
+              .write(entry, type, new GeneratedFeatureCollection(type)));
+      logger.info(
+          "Writing {} features: GeoPackage.add {} ms, bulk writer {} ms ({}x)",
+          FEATURES,
+          addMillis,
+          bulkMillis,
+          "%.1f".formatted((double) addMillis / bulkMillis));
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private interface Write {
+    long write(GeoPackage geoPackage, FeatureEntry entry) throws Exception;
+  }
+
+  private static long time(String name, File file, Write write) throws Exception {
+    long start = System.nanoTime();
+    try (GeoPackage geoPackage = new GeoPackage(file)) {
+      geoPackage.init();
+      FeatureEntry entry = new FeatureEntry();
+      entry.setTableName("benchmark");
+      assertEquals(FEATURES, write.write(geoPackage, entry));
+      geoPackage.createSpatialIndex(entry);
+    }
+    long millis = (System.nanoTime() - start) / 1_000_000;
+    logger.info("{}: {} features in {} ms, file size {} MB", name, FEATURES, millis, file.length() / 1024 / 1024);
+    return millis;
+  }
+}
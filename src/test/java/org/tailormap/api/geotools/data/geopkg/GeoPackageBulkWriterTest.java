@@ -0,0 +1,147 @@
+/*
+ * Copyright (C) 2026 B3Partners B.V.
+ *
+ * SPDX-License-Identifier: MIT
+ */
+package org.tailormap.api.geotools.data.geopkg;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.geotools.api.data.SimpleFeatureReader;
+import org.geotools.api.feature.simple.SimpleFeature;
+import org.geotools.api.feature.simple.SimpleFeatureType;
+import org.geotools.data.DataUtilities;
+import org.geotools.data.collection.ListFeatureCollection;
+import org.geotools.feature.simple.SimpleFeatureBuilder;
+import org.geotools.geopkg.FeatureEntry;
+import org.geotools.geopkg.GeoPackage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.Point;
+
+class GeoPackageBulkWriterTest {
+  @TempDir
+  Path tempDir;
+
+  private ExecutorService executor;
+  private SimpleFeatureType type;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    executor = Executors.newFixedThreadPool(2);
+    type = DataUtilities.createType(
+        "bulk", "the_geom:Point:srid=28992,name:String,value:Integer,active:Boolean,changed:java.util.Date");
+  }
+
+  @AfterEach
+  void tearDown() {
+    executor.shutdownNow();
+  }
+
+  private ListFeatureCollection createFeatures(int count) {
+    GeometryFactory gf = new GeometryFactory();
+    SimpleFeatureBuilder builder = new SimpleFeatureBuilder(type);
+    List<SimpleFeature> features = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      builder.add(gf.createPoint(new Coordinate(130000 + i, 450000 + i)));
+      builder.add(i % 10 == 0 ? null : "feature " + i);
+      builder.add(i);
+      builder.add(i % 2 == 0);
+      builder.add(Timestamp.from(Instant.parse("2026-01-01T12:00:00Z")));
+      features.add(builder.buildFeature("bulk." + i));
+    }
+    return new ListFeatureCollection(type, features);
+  }
+
+  @Test
+  void writes_features_bounds_and_spatial_index() throws Exception {
+    File file = tempDir.resolve("bulk.gpkg").toFile();
+    try (GeoPackage geoPackage = new GeoPackage(file)) {
+      geoPackage.init();
+      FeatureEntry entry = new FeatureEntry();
+      entry.setTableName("bulk");
+
+      // a batch size and pending limit that do not divide the number of features
+      ListFeatureCollection features = createFeatures(100);
+      long count = new GeoPackageBulkWriter(geoPackage, executor, 7, 2).write(entry, type, features);
+      geoPackage.createSpatialIndex(entry);
+
+      assertEquals(100, count);
+      assertEquals(
+          0, ((Point) DataUtilities.first(features).getDefaultGeometry()).getSRID(), "source geometry changed");
+      FeatureEntry written = geoPackage.feature("bulk");
+      assertEquals(130000, written.getBounds().getMinX());
+      assertEquals(450099, written.getBounds().getMaxY());
+      assertTrue(geoPackage.hasSpatialIndex(written));
+
+      List<SimpleFeature> read = new ArrayList<>();
+      try (SimpleFeatureReader reader = geoPackage.reader(written, null, null)) {
+        while (reader.hasNext()) {
+          read.add(reader.next());
+        }
+      }
+      assertEquals(100, read.size());
+      SimpleFeature first = read.getFirst();
+      assertEquals(130000, ((Point) first.getDefaultGeometry()).getX());
+      assertNull(first.getAttribute("name"));
+      assertEquals("feature 1", read.get(1).getAttribute("name"));
+      assertEquals(99, ((Number) read.get(99).getAttribute("value")).intValue());
+      assertEquals(Boolean.TRUE, first.getAttribute("active"));
+      assertEquals(
+          Instant.parse("2026-01-01T12:00:00Z"),
+          ((java.util.Date) first.getAttribute("changed")).toInstant());
+    }
+  }
+
+  @Test
+  void writes_empty_collection() throws Exception {
+    try (GeoPackage geoPackage = new GeoPackage(tempDir.resolve("empty.gpkg").toFile())) {
+      geoPackage.init();
+      FeatureEntry entry = new FeatureEntry();
+      entry.setTableName("bulk");
+      assertEquals(0, new GeoPackageBulkWriter(geoPackage, executor, 10, 2).write(entry, type, createFeatures(0)));
+
+      try (Connection connection = geoPackage.getDataSource().getConnection();
+          Statement statement = connection.createStatement();
+          ResultSet rs = statement.executeQuery(
+              "SELECT min_x, min_y, max_x, max_y FROM gpkg_contents WHERE table_name = 'bulk'")) {
+        assertTrue(rs.next());
+        for (int i = 1; i <= 4; i++) {
+          assertNull(rs.getObject(i), "empty table should have no bounds");
+        }
+      }
+    }
+  }
+
+  @Test
+  void requires_geometry() throws Exception {
+    SimpleFeatureType noGeometry = DataUtilities.createType("plain", "name:String");
+    try (GeoPackage geoPackage = new GeoPackage(tempDir.resolve("plain.gpkg").toFile())) {
+      geoPackage.init();
+      FeatureEntry entry = new FeatureEntry();
+      entry.setTableName("plain");
+      assertThrows(
+          IllegalArgumentException.class,
+          () -> new GeoPackageBulkWriter(geoPackage, executor, 10, 2)
+              .write(entry, noGeometry, new ListFeatureCollection(noGeometry)));
+    }
+  }
+}
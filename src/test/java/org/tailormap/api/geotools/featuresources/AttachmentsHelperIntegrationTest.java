@@ -76,6 +76,9 @@ class AttachmentsHelperIntegrationTest {
   @Autowired
   private FeatureTypeRepository featureTypeRepository;
 
+  @Autowired
+  private AttachmentsRepository attachmentsRepository;
+
   @Parameter(0)
   private String featureSourceTitle;
 
@@ -204,7 +207,7 @@ void add_attachment_to_first_feature_of_feature_type() {
     }
 
     try {
-      AttachmentMetadata inserted = AttachmentsHelper.insertAttachment(
+      AttachmentMetadata inserted = attachmentsRepository.insertAttachment(
           featureType, attachmentMetadata, featurePrimaryKey, attachmentData);
 
       assertNotNull(inserted);
@@ -233,7 +236,7 @@ void add_attachment_to_first_feature_of_feature_type() {
   void list_attachments_for_feature_type() {
     try {
       List<AttachmentMetadata> attachments =
-          AttachmentsHelper.listAttachmentsForFeature(featureType, featurePrimaryKey);
+          attachmentsRepository.listAttachmentsForFeature(featureType, featurePrimaryKey);
       assertNotNull(attachments);
       assertEquals(1, attachments.size(), "Expected exactly one attachment.");
       AttachmentMetadata listed = attachments.getFirst();
@@ -251,7 +254,7 @@ void list_attachments_for_feature_type() {
   void retrieve_binary_attachment_from_feature_type() {
     try {
       AttachmentsHelper.AttachmentWithBinary retrieved =
-          AttachmentsHelper.getAttachment(featureType, attachmentAttributePKvalue);
+          attachmentsRepository.getAttachment(featureType, attachmentAttributePKvalue);
       assertNotNull(retrieved);
       assertNotNull(retrieved.attachmentMetadata());
       assertNotNull(retrieved.attachment());
@@ -281,7 +284,7 @@ void list_attachments_for_features_by_feature_id() {
       assertNotNull(featurePrimaryKey);
       // No need to convert to Comparable, just use as is
       Map<@NotNull String, List<AttachmentMetadata>> listAttachments =
-          AttachmentsHelper.listAttachmentsForFeaturesByFeatureId(featureType, List.of(featurePrimaryKey));
+          attachmentsRepository.listAttachmentsForFeaturesByFeatureId(featureType, List.of(featurePrimaryKey));
       assertNotNull(listAttachments);
       assertEquals(1, listAttachments.size(), "Expected exactly one feature.");
       assertNotNull(listAttachments.get(AttachmentsHelper.fidFromPK(featureType, featurePrimaryKey)));
@@ -7,11 +7,15 @@
 
 import static java.nio.ByteBuffer.wrap;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
 import java.util.UUID;
 import org.junit.jupiter.api.Test;
 import org.tailormap.api.persistence.TMFeatureType;
+import org.tailormap.api.persistence.json.JDBCConnectionProperties;
 
 class AttachmentsHelperTest {
   static final String ftName = "testFeatureType";
@@ -42,4 +46,33 @@ void check_integer_object() {
   void check_null() {
     assertThrows(IllegalArgumentException.class, () -> AttachmentsHelper.fidFromPK(featureType, null));
   }
+
+  @Test
+  void padded_in_list_size_uses_power_of_two_buckets() {
+    assertEquals(0, AttachmentsHelper.getPaddedInListSize(0, 1000));
+    assertEquals(1, AttachmentsHelper.getPaddedInListSize(1, 1000));
+    assertEquals(2, AttachmentsHelper.getPaddedInListSize(2, 1000));
+    assertEquals(4, AttachmentsHelper.getPaddedInListSize(3, 1000));
+    assertEquals(128, AttachmentsHelper.getPaddedInListSize(100, 1000));
+    assertEquals(512, AttachmentsHelper.getPaddedInListSize(512, 1000));
+    assertEquals(1000, AttachmentsHelper.getPaddedInListSize(513, 1000));
+    assertEquals(1000, AttachmentsHelper.getPaddedInListSize(1000, 1000));
+  }
+
+  @Test
+  void max_in_list_size_per_dbtype() {
+    assertEquals(1000, AttachmentsHelper.getMaxInListSize(JDBCConnectionProperties.DbtypeEnum.ORACLE));
+    assertEquals(2000, AttachmentsHelper.getMaxInListSize(JDBCConnectionProperties.DbtypeEnum.SQLSERVER));
+  }
+
+  @Test
+  void postgresql_array_element_type() {
+    assertEquals("int4", AttachmentsHelper.getPostgreSQLArrayElementType(1));
+    assertEquals("int8", AttachmentsHelper.getPostgreSQLArrayElementType(1L));
+    assertEquals("numeric", AttachmentsHelper.getPostgreSQLArrayElementType(BigDecimal.ONE));
+    assertEquals("uuid", AttachmentsHelper.getPostgreSQLArrayElementType(UUID.randomUUID()));
+    assertEquals("text", AttachmentsHelper.getPostgreSQLArrayElementType("1"));
+    assertNull(AttachmentsHelper.getPostgreSQLArrayElementType(ByteBuffer.allocate(16)));
+    assertNull(AttachmentsHelper.getPostgreSQLArrayElementType(null));
+  }
 }
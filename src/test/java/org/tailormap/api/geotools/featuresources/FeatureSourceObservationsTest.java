@@ -0,0 +1,109 @@
+/*
+ * Copyright (C) 2026 B3Partners B.V.
+ *
+ * SPDX-License-Identifier: MIT
+ */
+package org.tailormap.api.geotools.featuresources;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.observation.DefaultMeterObservationHandler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.tailormap.api.persistence.TMFeatureSource;
+import org.tailormap.api.persistence.TMFeatureType;
+import org.tailormap.api.persistence.json.JDBCConnectionProperties;
+
+class FeatureSourceObservationsTest {
+  private SimpleMeterRegistry meterRegistry;
+  private FeatureSourceObservations observations;
+
+  @BeforeEach
+  void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+    ObservationRegistry observationRegistry = ObservationRegistry.create();
+    observationRegistry.observationConfig().observationHandler(new DefaultMeterObservationHandler(meterRegistry));
+    observations = new FeatureSourceObservations(observationRegistry, meterRegistry, null);
+  }
+
+  @Test
+  void records_stage_with_feature_source_tags() {
+    TMFeatureType featureType = new TMFeatureType()
+        .setFeatureSource(new TMFeatureSource()
+            .setId(42L)
+            .setProtocol(TMFeatureSource.Protocol.JDBC)
+            .setJdbcConnection(
+                new JDBCConnectionProperties().dbtype(JDBCConnectionProperties.DbtypeEnum.POSTGIS)));
+
+    assertEquals(3, observations.observe("features", "count", featureType, () -> 3));
+
+    Timer timer = meterRegistry
+        .get(FeatureSourceObservations.OBSERVATION_NAME)
+        .tag(FeatureSourceObservations.OPERATION, "features")
+        .tag(FeatureSourceObservations.STAGE, "count")
+        .tag(FeatureSourceObservations.PROTOCOL, "jdbc")
+        .tag(FeatureSourceObservations.DBTYPE, "postgis")
+        .tag(FeatureSourceObservations.FEATURE_SOURCE, "42")
+        .timer();
+    assertEquals(1, timer.count());
+  }
+
+  @Test
+  void records_stage_without_feature_type() {
+    observations.run("search", "response", null, () -> {});
+
+    assertEquals(
+        1,
+        meterRegistry
+            .get(FeatureSourceObservations.OBSERVATION_NAME)
+            .tag(FeatureSourceObservations.PROTOCOL, "none")
+            .tag(FeatureSourceObservations.FEATURE_SOURCE, "none")
+            .timer()
+            .count());
+  }
+
+  @Test
+  void records_error_and_rethrows() {
+    TMFeatureType featureType = new TMFeatureType()
+        .setFeatureSource(new TMFeatureSource().setId(1L).setProtocol(TMFeatureSource.Protocol.WFS));
+
+    assertThrows(IOException.class, () -> observations.observe("bounds", "query", featureType, () -> {
+      throw new IOException("unreachable");
+    }));
+
+    assertEquals(
+        1,
+        meterRegistry
+            .get(FeatureSourceObservations.OBSERVATION_NAME)
+            .tag(FeatureSourceObservations.PROTOCOL, "wfs")
+            .tag(FeatureSourceObservations.DBTYPE, "none")
+            .tag("error", "IOException")
+            .timer()
+            .count());
+  }
+
+  @Test
+  void records_interleaved_stage_with_same_tags_as_observations() {
+    TMFeatureType featureType = new TMFeatureType()
+        .setFeatureSource(new TMFeatureSource().setId(7L).setProtocol(TMFeatureSource.Protocol.WFS));
+
+    observations.run("features", "geometry", featureType, () -> {});
+    observations.record("features", "geometry", featureType, TimeUnit.MILLISECONDS.toNanos(5));
+
+    Timer timer = meterRegistry
+        .get(FeatureSourceObservations.OBSERVATION_NAME)
+        .tag(FeatureSourceObservations.STAGE, "geometry")
+        .tag(FeatureSourceObservations.FEATURE_SOURCE, "7")
+        .tag("error", "none")
+        .timer();
+    assertEquals(2, timer.count());
+    assertTrue(timer.totalTime(TimeUnit.MILLISECONDS) >= 5);
+  }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright (C) 2026 B3Partners B.V.
+ *
+ * SPDX-License-Identifier: MIT
+ */
+package org.tailormap.api.geotools.featuresources;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.sql.SQLException;
+import org.apache.commons.dbcp.BasicDataSource;
+import org.geotools.data.jdbc.datasource.DBCPDataSource;
+import org.geotools.jdbc.JDBCDataStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.tailormap.api.persistence.TMFeatureSource;
+import org.tailormap.api.persistence.json.JDBCConnectionProperties;
+
+class JDBCPoolMetricsTest {
+  private SimpleMeterRegistry meterRegistry;
+  private JDBCPoolMetrics poolMetrics;
+
+  private final TMFeatureSource featureSource = new TMFeatureSource()
+      .setId(7L)
+      .setProtocol(TMFeatureSource.Protocol.JDBC)
+      .setJdbcConnection(new JDBCConnectionProperties().dbtype(JDBCConnectionProperties.DbtypeEnum.POSTGIS));
+
+  @BeforeEach
+  void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+    poolMetrics = new JDBCPoolMetrics(meterRegistry);
+  }
+
+  private double gauge(String name) {
+    return meterRegistry
+        .get(name)
+        .tag(FeatureSourceObservations.FEATURE_SOURCE, "7")
+        .tag(FeatureSourceObservations.DBTYPE, "postgis")
+        .gauge()
+        .value();
+  }
+
+  private double counter(String name) {
+    return meterRegistry.get(name).tag(FeatureSourceObservations.FEATURE_SOURCE, "7").counter().count();
+  }
+
+  private static JDBCDataStore createDataStore(BasicDataSource pool) {
+    JDBCDataStore dataStore = new JDBCDataStore();
+    dataStore.setDataSource(new DBCPDataSource(pool));
+    return dataStore;
+  }
+
+  @Test
+  void records_pools_until_disposed() {
+    BasicDataSource pool = new BasicDataSource();
+    pool.setMaxActive(5);
+    JDBCDataStore dataStore = createDataStore(pool);
+    BasicDataSource otherPool = new BasicDataSource();
+    otherPool.setMaxActive(3);
+    JDBCDataStore other = createDataStore(otherPool);
+
+    poolMetrics.instrument(featureSource, dataStore);
+    poolMetrics.instrument(featureSource, other);
+
+    assertEquals(2, gauge(JDBCPoolMetrics.POOLS));
+    assertEquals(2, counter(JDBCPoolMetrics.OPENED));
+    assertEquals(8, gauge(JDBCPoolMetrics.MAX));
+    assertEquals(0, gauge(JDBCPoolMetrics.ACTIVE));
+
+    dataStore.dispose();
+
+    assertEquals(1, gauge(JDBCPoolMetrics.POOLS));
+    assertEquals(1, counter(JDBCPoolMetrics.DISPOSED));
+    assertEquals(3, gauge(JDBCPoolMetrics.MAX));
+  }
+
+  @Test
+  void records_connection_checkout() throws SQLException {
+    BasicDataSource pool = new BasicDataSource();
+    JDBCDataStore dataStore = createDataStore(pool);
+    poolMetrics.instrument(featureSource, dataStore);
+
+    assertSame(pool, dataStore.getDataSource().unwrap(BasicDataSource.class));
+    // no driver configured
+    assertThrows(SQLException.class, () -> dataStore.getDataSource().getConnection());
+
+    assertEquals(
+        1,
+        meterRegistry
+            .get(JDBCPoolMetrics.WAIT)
+            .tag(FeatureSourceObservations.FEATURE_SOURCE, "7")
+            .timer()
+            .count());
+    assertEquals(0, gauge(JDBCPoolMetrics.WAITING));
+  }
+
+  @Test
+  void replaces_meters_when_database_type_changes() {
+    poolMetrics.instrument(featureSource, createDataStore(new BasicDataSource()));
+
+    TMFeatureSource changed = new TMFeatureSource()
+        .setId(7L)
+        .setProtocol(TMFeatureSource.Protocol.JDBC)
+        .setJdbcConnection(new JDBCConnectionProperties().dbtype(JDBCConnectionProperties.DbtypeEnum.SQLSERVER));
+    poolMetrics.instrument(changed, createDataStore(new BasicDataSource()));
+
+    assertEquals(
+        1,
+        meterRegistry
+            .get(JDBCPoolMetrics.POOLS)
+            .tag(FeatureSourceObservations.DBTYPE, "sqlserver")
+            .gauge()
+            .value());
+    assertTrue(meterRegistry
+        .find(JDBCPoolMetrics.POOLS)
+        .tag(FeatureSourceObservations.DBTYPE, "postgis")
+        .meters()
+        .isEmpty());
+  }
+
+  @Test
+  void removes_meters_of_deleted_feature_source() {
+    poolMetrics.instrument(featureSource, createDataStore(new BasicDataSource()));
+
+    poolMetrics.remove(7L);
+
+    assertEquals(0, meterRegistry.getMeters().size());
+  }
+}
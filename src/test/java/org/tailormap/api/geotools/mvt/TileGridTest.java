@@ -0,0 +1,44 @@
+/*
+ * Copyright (C) 2026 B3Partners B.V.
+ *
+ * SPDX-License-Identifier: MIT
+ */
+package org.tailormap.api.geotools.mvt;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.Envelope;
+import org.tailormap.api.persistence.json.Bounds;
+
+class TileGridTest {
+  private static final TileGrid grid = TileGrid.fromBounds(
+      new Bounds().minx(-285401.92).miny(22598.08).maxx(595401.92).maxy(903401.92));
+
+  @Test
+  void level_zero_covers_extent() {
+    assertEquals(new Envelope(-285401.92, 595401.92, 22598.08, 903401.92), grid.getTileEnvelope(0, 0, 0));
+  }
+
+  @Test
+  void rows_are_counted_from_the_top() {
+    Envelope topLeft = grid.getTileEnvelope(1, 0, 0);
+    Envelope bottomRight = grid.getTileEnvelope(1, 1, 1);
+    assertEquals(-285401.92, topLeft.getMinX(), 1e-6);
+    assertEquals(903401.92, topLeft.getMaxY(), 1e-6);
+    assertEquals(595401.92, bottomRight.getMaxX(), 1e-6);
+    assertEquals(22598.08, bottomRight.getMinY(), 1e-6);
+  }
+
+  @Test
+  void validates_tile_coordinates() {
+    assertTrue(grid.isValidTile(0, 0, 0));
+    assertTrue(grid.isValidTile(2, 3, 3));
+    assertFalse(grid.isValidTile(2, 4, 0));
+    assertFalse(grid.isValidTile(-1, 0, 0));
+    assertFalse(grid.isValidTile(1, 0, -1));
+    assertFalse(grid.isValidTile(TileGrid.MAX_ZOOM + 1, 0, 0));
+  }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright (C) 2026 B3Partners B.V.
+ *
+ * SPDX-License-Identifier: MIT
+ */
+package org.tailormap.api.geotools.mvt;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.CoordinateFilter;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.io.WKTReader;
+
+class VectorTileEncoderTest {
+  // Map units equal to tile coordinates, with the y-axis flipped
+  private static final Envelope TILE = new Envelope(0, 4096, 0, 4096);
+
+  private static Geometry flippedWkt(String wkt) throws Exception {
+    Geometry g = new WKTReader().read(wkt);
+    g.apply((CoordinateFilter) c -> c.y = 4096 - c.y);
+    g.geometryChanged();
+    return g;
+  }
+
+  private static boolean containsSequence(byte[] data, int... sequence) {
+    outer:
+    for (int i = 0; i <= data.length - sequence.length; i++) {
+      for (int j = 0; j < sequence.length; j++) {
+        if ((data[i + j] & 0xFF) != sequence[j]) {
+          continue outer;
+        }
+      }
+      return true;
+    }
+    return false;
+  }
+
+  @Test
+  void empty_tile_is_empty() {
+    VectorTileEncoder encoder = new VectorTileEncoder("test", TILE);
+    assertArrayEquals(new byte[0], encoder.encode());
+  }
+
+  @Test
+  void encodes_point_as_in_specification() throws Exception {
+    VectorTileEncoder encoder = new VectorTileEncoder("test", TILE);
+    assertTrue(encoder.addFeature(1L, Map.of(), flippedWkt("POINT (25 17)")));
+    byte[] tile = encoder.encode();
+    // feature type 1 (point) and geometry field with MoveTo(1) +25 +17
+    assertTrue(containsSequence(tile, 0x18, 0x01, 0x22, 0x03, 9, 50, 34));
+  }
+
+  @Test
+  void encodes_multipoint_with_single_move_to() throws Exception {
+    VectorTileEncoder encoder = new VectorTileEncoder("test", TILE);
+    encoder.addFeature(null, Map.of(), flippedWkt("MULTIPOINT ((5 7), (3 2))"));
+    assertTrue(containsSequence(encoder.encode(), 0x22, 0x05, 17, 10, 14, 3, 9));
+  }
+
+  @Test
+  void encodes_polygon_with_exterior_ring_orientation_from_specification() throws Exception {
+    int[] expected = {0x22, 0x09, 9, 6, 12, 18, 10, 12, 24, 44, 15};
+
+    VectorTileEncoder encoder = new VectorTileEncoder("test", TILE);
+    encoder.addFeature(null, Map.of(), flippedWkt("POLYGON ((3 6, 8 12, 20 34, 3 6))"));
+    assertTrue(containsSequence(encoder.encode(), expected));
+
+    // A ring with the opposite orientation is reversed
+    encoder = new VectorTileEncoder("test", TILE);
+    encoder.addFeature(null, Map.of(), flippedWkt("POLYGON ((3 6, 20 34, 8 12, 3 6))"));
+    assertTrue(containsSequence(encoder.encode(), expected));
+  }
+
+  @Test
+  void skips_geometries_outside_tile_and_degenerate_geometries() throws Exception {
+    VectorTileEncoder encoder = new VectorTileEncoder("test", TILE);
+    assertFalse(encoder.addFeature(null, Map.of(), flippedWkt("POINT (10000 10000)")));
+    // collapses to a single point after rounding to tile coordinates
+    assertFalse(encoder.addFeature(null, Map.of(), flippedWkt("LINESTRING (1 1, 1.2 1.2)")));
+    assertFalse(encoder.addFeature(null, Map.of(), null));
+    assertEquals(0, encoder.getFeatureCount());
+  }
+
+  @Test
+  void encodes_attributes_without_null_values() throws Exception {
+    VectorTileEncoder encoder = new VectorTileEncoder("layer_name", TILE);
+    Map<String, Object> attributes = new LinkedHashMap<>();
+    attributes.put("naam", "Utrecht");
+    attributes.put("code", 26);
+    attributes.put("leeg", null);
+    encoder.addFeature(null, attributes, flippedWkt("POINT (1 1)"));
+    String tile = new String(encoder.encode(), StandardCharsets.ISO_8859_1);
+    assertTrue(tile.contains("layer_name"));
+    assertTrue(tile.contains("naam"));
+    assertTrue(tile.contains("Utrecht"));
+    assertTrue(tile.contains("code"));
+    assertFalse(tile.contains("leeg"));
+  }
+}
@@ -0,0 +1,169 @@
+/*
+ * Copyright (C) 2026 B3Partners B.V.
+ *
+ * SPDX-License-Identifier: MIT
+ */
+package org.tailormap.api.geotools.processing;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Base64;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.io.ParseException;
+import org.locationtech.jts.io.WKBReader;
+import org.locationtech.jts.io.WKTReader;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.databind.util.RawValue;
+
+class GeometryEncoderTest {
+  private static Geometry read(String wkt) throws ParseException {
+    return new WKTReader().read(wkt);
+  }
+
+  private static JsonNode readGeoJSON(Geometry geometry) {
+    return new JsonMapper().readTree(GeometryEncoder.toGeoJSON(geometry));
+  }
+
+  private static byte[] bytes(int... values) {
+    byte[] bytes = new byte[values.length];
+    for (int i = 0; i < values.length; i++) {
+      bytes[i] = (byte) values[i];
+    }
+    return bytes;
+  }
+
+  @Test
+  void twkb_point() throws ParseException {
+    // Example from the TWKB specification
+    assertArrayEquals(bytes(0x01, 0x00, 0x02, 0x04), GeometryEncoder.toTWKB(read("POINT(1 2)"), 0));
+  }
+
+  @Test
+  void twkb_point_with_precision() throws ParseException {
+    // precision 1 is zigzag encoded as 2 in the upper four bits, 1.25 is rounded to 13 tenths
+    assertArrayEquals(bytes(0x21, 0x00, 26, 40), GeometryEncoder.toTWKB(read("POINT(1.25 2)"), 1));
+    // precision -1 is zigzag encoded as 1, 1234 is rounded to 123 tens
+    assertArrayEquals(bytes(0x11, 0x00, 0xf6, 0x01, 0x00), GeometryEncoder.toTWKB(read("POINT(1234 0)"), -1));
+  }
+
+  @Test
+  void twkb_linestring_is_delta_encoded() throws ParseException {
+    assertArrayEquals(
+        bytes(0x02, 0x00, 0x02, 0x02, 0x02, 0x02, 0x02),
+        GeometryEncoder.toTWKB(read("LINESTRING(1 1, 2 2)"), 0));
+  }
+
+  @Test
+  void twkb_polygon() throws ParseException {
+    // one ring of five points, the deltas continue between the points of the ring
+    assertArrayEquals(
+        bytes(0x03, 0x00, 0x01, 0x05, 0x00, 0x00, 0x14, 0x00, 0x00, 0x14, 0x13, 0x00, 0x00, 0x13),
+        GeometryEncoder.toTWKB(read("POLYGON((0 0, 10 0, 10 10, 0 10, 0 0))"), 0));
+  }
+
+  @Test
+  void twkb_multipoint_continues_deltas_between_parts() throws ParseException {
+    assertArrayEquals(
+        bytes(0x04, 0x00, 0x02, 0x02, 0x02, 0x02, 0x02),
+        GeometryEncoder.toTWKB(read("MULTIPOINT((1 1), (2 2))"), 0));
+  }
+
+  @Test
+  void twkb_empty() throws ParseException {
+    assertArrayEquals(bytes(0x01, 0x10), GeometryEncoder.toTWKB(read("POINT EMPTY"), 0));
+    assertArrayEquals(bytes(0x03, 0x10), GeometryEncoder.toTWKB(read("POLYGON EMPTY"), 0));
+  }
+
+  @Test
+  void twkb_collection_members_have_own_header() throws ParseException {
+    assertArrayEquals(
+        bytes(0x07, 0x00, 0x02, 0x01, 0x00, 0x02, 0x04, 0x01, 0x00, 0x02, 0x04),
+        GeometryEncoder.toTWKB(read("GEOMETRYCOLLECTION(POINT(1 2), POINT(1 2))"), 0));
+  }
+
+  @Test
+  void twkb_default_precision() throws ParseException {
+    String encoded = GeometryEncoder.encode(read("POINT(1 2)"), GeometryEncoding.TWKB_BASE64, null);
+    byte[] twkb = Base64.getDecoder().decode(encoded);
+    assertEquals(
+        GeometryEncoder.DEFAULT_TWKB_PRECISION * 2, (twkb[0] & 0xf0) >> 4, "precision should be the default");
+  }
+
+  @Test
+  void geojson() throws ParseException {
+    JsonNode point = readGeoJSON(read("POINT(1 2.5)"));
+    assertEquals("Point", point.get("type").asString());
+    assertEquals(1, point.get("coordinates").get(0).asDouble());
+    assertEquals(2.5, point.get("coordinates").get(1).asDouble());
+
+    JsonNode ring = readGeoJSON(read("LINEARRING(0 0, 1 0, 1 1, 0 0)"));
+    assertEquals("LineString", ring.get("type").asString(), "a LinearRing should be written as LineString");
+    assertEquals(4, ring.get("coordinates").size());
+
+    JsonNode multiPolygon = readGeoJSON(read("MULTIPOLYGON(((0 0, 1 0, 1 1, 0 0)))"));
+    assertEquals("MultiPolygon", multiPolygon.get("type").asString());
+    assertEquals(1, multiPolygon.get("coordinates").get(0).get(0).get(1).get(0).asDouble());
+
+    JsonNode collection = readGeoJSON(read("GEOMETRYCOLLECTION(POINT(1 2))"));
+    assertEquals("GeometryCollection", collection.get("type").asString());
+    assertEquals("Point", collection.get("geometries").get(0).get("type").asString());
+  }
+
+  @Test
+  void geojson_is_written_as_json_object() throws ParseException {
+    Object encoded = GeometryEncoder.encodeForJson(read("POINT(1.234 2)"), GeometryEncoding.GEOJSON, 1);
+    assertInstanceOf(RawValue.class, encoded);
+    JsonNode json = new JsonMapper().readTree(new JsonMapper().writeValueAsString(Map.of("geometry", encoded)));
+    assertTrue(json.get("geometry").isObject(), "GeoJSON geometry should not be a string");
+    assertEquals(1.2, json.get("geometry").get("coordinates").get(0).asDouble());
+
+    assertInstanceOf(
+        String.class, GeometryEncoder.encodeForJson(read("POINT(1 2)"), GeometryEncoding.TWKB_BASE64, null));
+  }
+
+  @Test
+  void wkb_round_trip() throws ParseException {
+    Geometry polygon = read("POLYGON((130000.123 450000.456, 130010 450000, 130010 450010, 130000.123 450000.456))");
+    String encoded = GeometryEncoder.encode(polygon, GeometryEncoding.WKB_BASE64, null);
+    Geometry decoded = new WKBReader().read(Base64.getDecoder().decode(encoded));
+    assertTrue(polygon.equalsExact(decoded), "decoded geometry should be equal");
+  }
+
+  @Test
+  void quantized_wkt() throws ParseException {
+    assertEquals(
+        "LINESTRING (130000.12 450000.46, 130010 450000)",
+        GeometryEncoder.encode(
+            read("LINESTRING(130000.123 450000.456, 130010 450000)"), GeometryEncoding.WKT, 2));
+  }
+
+  @Test
+  void twkb_is_smaller_than_wkt() throws ParseException {
+    Geometry polygon = read("POLYGON((130000.12 450000.45, 130010.31 450000.02, 130010.77 450010.58,"
+        + " 130000.12 450010.9, 130000.12 450000.45))");
+    String wkt = GeometryEncoder.encode(polygon, GeometryEncoding.WKT, null);
+    String twkb = GeometryEncoder.encode(polygon, GeometryEncoding.TWKB_BASE64, 2);
+    assertTrue(twkb.length() * 2 < wkt.length(), "TWKB should be much smaller than WKT");
+  }
+
+  @Test
+  void invalid_precision() {
+    assertThrows(IllegalArgumentException.class, () -> GeometryEncoder.validatePrecision(8));
+    assertThrows(IllegalArgumentException.class, () -> GeometryEncoder.validatePrecision(-8));
+  }
+
+  @Test
+  void encoding_from_value() {
+    assertEquals(GeometryEncoding.WKT, GeometryEncoding.fromValue(null));
+    assertEquals(GeometryEncoding.TWKB_BASE64, GeometryEncoding.fromValue("twkb-base64"));
+    assertEquals(GeometryEncoding.GEOJSON, GeometryEncoding.fromValue("GeoJSON"));
+    assertThrows(IllegalArgumentException.class, () -> GeometryEncoding.fromValue("gml"));
+  }
+}
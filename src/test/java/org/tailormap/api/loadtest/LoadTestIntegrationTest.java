@@ -0,0 +1,392 @@
+/*
+ * Copyright (C) 2026 B3Partners B.V.
+ *
+ * SPDX-License-Identifier: MIT
+ */
+package org.tailormap.api.loadtest;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.tailormap.api.TestRequestProcessor.setServletPath;
+import static org.tailormap.api.persistence.json.GeoServiceProtocol.WMS;
+import static org.tailormap.api.security.AuthorisationService.ACCESS_TYPE_VIEW;
+import static org.tailormap.api.util.Constants.INDEX_DISPLAY_FIELD;
+import static org.tailormap.api.util.Constants.INDEX_GEOM_FIELD;
+import static org.tailormap.api.util.Constants.SEARCH_ID_FIELD;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandles;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.apache.solr.client.solrj.SolrClient;
+import org.apache.solr.client.solrj.response.QueryResponse;
+import org.apache.solr.common.SolrDocument;
+import org.apache.solr.common.SolrDocumentList;
+import org.apache.solr.common.params.CommonParams;
+import org.apache.solr.common.params.SolrParams;
+import org.apache.solr.common.util.NamedList;
+import org.geotools.jdbc.JDBCDataStore;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.tailormap.api.annotation.PostgresIntegrationTest;
+import org.tailormap.api.geotools.featuresources.JDBCFeatureSourceHelper;
+import org.tailormap.api.persistence.Application;
+import org.tailormap.api.persistence.GeoService;
+import org.tailormap.api.persistence.Group;
+import org.tailormap.api.persistence.SearchIndex;
+import org.tailormap.api.persistence.TMFeatureSource;
+import org.tailormap.api.persistence.TMFeatureType;
+import org.tailormap.api.persistence.json.AppContent;
+import org.tailormap.api.persistence.json.AppLayerSettings;
+import org.tailormap.api.persistence.json.AppSettings;
+import org.tailormap.api.persistence.json.AppTreeLayerNode;
+import org.tailormap.api.persistence.json.AppTreeLevelNode;
+import org.tailormap.api.persistence.json.AuthorizationRule;
+import org.tailormap.api.persistence.json.AuthorizationRuleDecision;
+import org.tailormap.api.persistence.json.FeatureTypeRef;
+import org.tailormap.api.persistence.json.GeoServiceLayer;
+import org.tailormap.api.persistence.json.GeoServiceLayerSettings;
+import org.tailormap.api.persistence.json.GeoServiceSettings;
+import org.tailormap.api.repository.ApplicationRepository;
+import org.tailormap.api.repository.FeatureSourceRepository;
+import org.tailormap.api.repository.GeoServiceRepository;
+import org.tailormap.api.repository.SearchIndexRepository;
+import org.tailormap.api.solr.SolrService;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Load test of the feature endpoints, only run on request. Seeds a synthetic PostGIS table with millions of features
+ * in the PostGIS database of the integration tests, with its own feature type, search index, service and application
+ * which are removed afterward. Solr is replaced by a stub returning synthetic documents, so the search load does not
+ * depend on an index. The requests are handled in-process with MockMvc, so the latencies do not include the network
+ * and the reported allocations are the allocations of the API itself.
+ *
+ * <p>Run with {@code mvn -Pdeveloping,postgresql verify -Dload-test=true -Dit.test=LoadTestIntegrationTest} and the
+ * other options of the integration tests. The scenarios can be tuned with these system properties:
+ *
+ * <ul>
+ *   <li>{@code load-test.rows}: number of synthetic features, default 2000000
+ *   <li>{@code load-test.concurrency}: number of concurrent workers, default 8
+ *   <li>{@code load-test.warmup}: warmup duration per scenario in seconds, default 10
+ *   <li>{@code load-test.duration}: measured duration per scenario in seconds, default 30
+ *   <li>{@code load-test.proxy}: whether to include the WMS proxy scenario, which requests the external test
+ *       GeoServer through the default application, default false
+ * </ul>
+ *
+ * The results are logged and written to {@code target/load-test-report.json}.
+ */
+@AutoConfigureMockMvc
+@PostgresIntegrationTest
+@EnabledIfSystemProperty(named = "load-test", matches = "true")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class LoadTestIntegrationTest {
+  private static final Logger logger =
+      LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+  private static final String TABLE = "load_test_feature";
+  private static final String NAME = "load-test";
+  private static final String APP_LAYER_ID = "lyr:" + NAME + ":" + TABLE;
+  private static final String LAYER = "/app/" + NAME + "/layer/" + APP_LAYER_ID;
+  private static final String ATTRIBUTE = "category";
+
+  // the features are 8 by 8 squares on a grid with a spacing of 10, in rows of GRID_COLUMNS features
+  private static final int GRID_COLUMNS = 2000;
+  private static final int MIN_X = 130000;
+  private static final int MIN_Y = 450000;
+
+  private static final String PROXY_LAYER =
+      "/app/default/layer/lyr:snapshot-geoserver-proxied:postgis:begroeidterreindeel";
+
+  @Value("${tailormap-api.base-path}")
+  private String apiBasePath;
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Autowired
+  private JsonMapper jsonMapper;
+
+  @Autowired
+  private FeatureSourceRepository featureSourceRepository;
+
+  @Autowired
+  private GeoServiceRepository geoServiceRepository;
+
+  @Autowired
+  private ApplicationRepository applicationRepository;
+
+  @Autowired
+  private SearchIndexRepository searchIndexRepository;
+
+  @Autowired
+  private PlatformTransactionManager transactionManager;
+
+  @MockitoBean
+  private SolrService solrService;
+
+  private final int rows = Integer.getInteger("load-test.rows", 2_000_000);
+
+  @BeforeAll
+  void seed() throws IOException, SQLException {
+    removeSeededData();
+    long start = System.nanoTime();
+    executeOnPostGIS(
+        """
+        create table %1$s as
+          select i as id,
+            'category ' || (i %% 100) as category,
+            'feature ' || i as name,
+            i %% 1000 as amount,
+            ST_MakeEnvelope(x, y, x + 8, y + 8, 28992)::geometry(Polygon, 28992) as geom
+          from generate_series(0, %2$d - 1) i,
+            lateral (select %3$d + (i %% %4$d) * 10 as x, %5$d + (i / %4$d) * 10 as y) as grid"""
+            .formatted(TABLE, rows, MIN_X, GRID_COLUMNS, MIN_Y),
+        "alter table " + TABLE + " add primary key (id)",
+        "create index on " + TABLE + " using gist (geom)",
+        "create index on " + TABLE + " (category)",
+        "analyze " + TABLE);
+    logger.info("Created {} synthetic features in {} ms", rows, (System.nanoTime() - start) / 1_000_000);
+
+    new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+      TMFeatureSource featureSource = refreshPostGISFeatureSource();
+      TMFeatureType featureType = featureSource.findFeatureTypeByName(TABLE);
+
+      SearchIndex searchIndex = searchIndexRepository.save(new SearchIndex()
+          .setName(NAME)
+          .setFeatureTypeId(featureType.getId())
+          .setSearchFieldsUsed(List.of("name", ATTRIBUTE))
+          .setSearchDisplayFieldsUsed(List.of("name", ATTRIBUTE)));
+
+      List<AuthorizationRule> anonymousRead = List.of(new AuthorizationRule()
+          .groupName(Group.ANONYMOUS)
+          .decisions(Map.of(ACCESS_TYPE_VIEW, AuthorizationRuleDecision.ALLOW)));
+
+      // the service is never requested, it only links the app layer to the feature type
+      geoServiceRepository.save(new GeoService()
+          .setId(NAME)
+          .setProtocol(WMS)
+          .setTitle("Load test")
+          .setUrl("https://localhost/load-test/wms")
+          .setAuthorizationRules(anonymousRead)
+          .setLayers(List.of(new GeoServiceLayer()
+              .id("0")
+              .root(true)
+              .name(TABLE)
+              .title("Load test features")
+              .crs(Set.of("EPSG:28992"))
+              .virtual(false)
+              .queryable(true)))
+          .setSettings(new GeoServiceSettings()
+              .layerSettings(Map.of(
+                  TABLE,
+                  new GeoServiceLayerSettings()
+                      .featureType(new FeatureTypeRef()
+                          .featureSourceId(featureSource.getId())
+                          .featureTypeName(TABLE))))));
+
+      applicationRepository.save(new Application()
+          .setName(NAME)
+          .setTitle("Load test")
+          .setCrs("EPSG:28992")
+          .setAuthorizationRules(anonymousRead)
+          .setContentRoot(new AppContent()
+              .addLayerNodesItem(new AppTreeLevelNode()
+                  .objectType("AppTreeLevelNode")
+                  .id("root")
+                  .root(true)
+                  .title("Layers")
+                  .childrenIds(List.of(APP_LAYER_ID)))
+              .addLayerNodesItem(new AppTreeLayerNode()
+                  .objectType("AppTreeLayerNode")
+                  .id(APP_LAYER_ID)
+                  .serviceId(NAME)
+                  .layerName(TABLE)
+                  .visible(true)))
+          .setSettings(new AppSettings()
+              .putLayerSettingsItem(APP_LAYER_ID, new AppLayerSettings().searchIndexId(searchIndex.getId()))));
+    });
+  }
+
+  @AfterAll
+  void removeSeededData() throws IOException, SQLException {
+    new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+      Application app = applicationRepository.findByName(NAME);
+      if (app != null) {
+        applicationRepository.delete(app);
+      }
+      geoServiceRepository.findById(NAME).ifPresent(geoServiceRepository::delete);
+      searchIndexRepository.findByName(NAME).ifPresent(searchIndexRepository::delete);
+    });
+    executeOnPostGIS("drop table if exists " + TABLE);
+    // removes the feature type of the dropped table
+    new TransactionTemplate(transactionManager).executeWithoutResult(status -> refreshPostGISFeatureSource());
+  }
+
+  private TMFeatureSource refreshPostGISFeatureSource() {
+    TMFeatureSource featureSource = featureSourceRepository
+        .getByTitle("PostGIS")
+        .orElseThrow(() -> new IllegalArgumentException("Feature source not found: PostGIS"));
+    try {
+      new JDBCFeatureSourceHelper().loadCapabilities(featureSource);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return featureSourceRepository.saveAndFlush(featureSource);
+  }
+
+  private void executeOnPostGIS(String... statements) throws IOException, SQLException {
+    TMFeatureSource featureSource = featureSourceRepository
+        .getByTitle("PostGIS")
+        .orElseThrow(() -> new IllegalArgumentException("Feature source not found: PostGIS"));
+    JDBCDataStore ds = (JDBCDataStore) new JDBCFeatureSourceHelper().createDataStore(featureSource);
+    try (Connection conn = ds.getDataSource().getConnection();
+        Statement stmt = conn.createStatement()) {
+      for (String statement : statements) {
+        stmt.execute(statement);
+      }
+    } finally {
+      ds.dispose();
+    }
+  }
+
+  @BeforeEach
+  void stubSolr() throws Exception {
+    SolrClient solrClient = mock(SolrClient.class);
+    when(solrClient.query(any(SolrParams.class)))
+        .thenAnswer(invocation -> searchResponse(invocation.getArgument(0)));
+    when(solrService.getSolrClientForSearching()).thenReturn(solrClient);
+  }
+
+  /** A page of synthetic search documents, as if every feature matched. */
+  private QueryResponse searchResponse(SolrParams params) {
+    int start = params.getInt(CommonParams.START, 0);
+    int pageSize = params.getInt(CommonParams.ROWS, 10);
+    SolrDocumentList documents = new SolrDocumentList();
+    documents.setNumFound(rows);
+    documents.setStart(start);
+    documents.setMaxScore(1f);
+    for (int i = start; i < Math.min(start + pageSize, rows); i++) {
+      SolrDocument document = new SolrDocument();
+      document.setField(SEARCH_ID_FIELD, TABLE + "." + i);
+      document.setField(INDEX_DISPLAY_FIELD, List.of("feature " + i, "category " + (i % 100)));
+      document.setField(
+          INDEX_GEOM_FIELD,
+          "POINT(%d %d)".formatted(MIN_X + (i % GRID_COLUMNS) * 10 + 4, MIN_Y + (i / GRID_COLUMNS) * 10 + 4));
+      documents.add(document);
+    }
+    NamedList<Object> body = new NamedList<>();
+    body.add("response", documents);
+    QueryResponse response = new QueryResponse();
+    response.setResponse(body);
+    return response;
+  }
+
+  private int request(String path, Map<String, String> params) throws Exception {
+    String url = apiBasePath + path;
+    MockHttpServletRequestBuilder request =
+        get(url).accept(MediaType.APPLICATION_JSON).with(setServletPath(url));
+    params.forEach(request::param);
+    return mockMvc.perform(request).andReturn().getResponse().getStatus();
+  }
+
+  private List<LoadTestRunner.Scenario> scenarios() {
+    int gridRows = Math.max(1, rows / GRID_COLUMNS);
+    List<LoadTestRunner.Scenario> scenarios = new ArrayList<>();
+    // page through the first pages, as an attribute list does
+    scenarios.add(new LoadTestRunner.Scenario(
+        "features_page",
+        i -> request(LAYER + "/features", Map.of("page", String.valueOf(i % 10 + 1)))));
+    scenarios.add(new LoadTestRunner.Scenario(
+        "features_filtered",
+        i -> request(
+            LAYER + "/features",
+            Map.of("page", "1", "filter", "%s = 'category %d'".formatted(ATTRIBUTE, i % 100)))));
+    // feature info spread over the whole table, inside a feature
+    scenarios.add(new LoadTestRunner.Scenario(
+        "feature_info",
+        i -> request(
+            LAYER + "/features",
+            Map.of(
+                "x", String.valueOf(MIN_X + (i * 7919L % GRID_COLUMNS) * 10 + 4),
+                "y", String.valueOf(MIN_Y + (i * 104729L % gridRows) * 10 + 4),
+                "simplify", "true"))));
+    scenarios.add(new LoadTestRunner.Scenario("unique", i -> request(LAYER + "/unique/" + ATTRIBUTE, Map.of())));
+    scenarios.add(new LoadTestRunner.Scenario("bounds", i -> request(LAYER + "/bounds", Map.of())));
+    scenarios.add(new LoadTestRunner.Scenario(
+        "search", i -> request(LAYER + "/search", Map.of("q", "*", "start", String.valueOf(i % 10 * 10)))));
+    if (Boolean.getBoolean("load-test.proxy")) {
+      scenarios.add(new LoadTestRunner.Scenario(
+          "proxy_wms",
+          i -> request(
+              PROXY_LAYER + "/proxy/wms",
+              Map.of(
+                  "REQUEST", "GetMap",
+                  "SERVICE", "WMS",
+                  "VERSION", "1.3.0",
+                  "LAYERS", "postgis:begroeidterreindeel",
+                  "STYLES", "",
+                  "FORMAT", "image/png",
+                  "CRS", "EPSG:28992",
+                  "WIDTH", "512",
+                  "HEIGHT", "512",
+                  "BBOX", "131800,458129,132800,459129"))));
+    }
+    return scenarios;
+  }
+
+  @Test
+  void run_load_test() throws Exception {
+    LoadTestRunner runner = new LoadTestRunner(
+        Integer.getInteger("load-test.concurrency", 8),
+        Duration.ofSeconds(Integer.getInteger("load-test.warmup", 10)),
+        Duration.ofSeconds(Integer.getInteger("load-test.duration", 30)));
+
+    List<LoadTestRunner.Result> results = new ArrayList<>();
+    for (LoadTestRunner.Scenario scenario : scenarios()) {
+      results.add(runner.run(scenario));
+    }
+
+    Map<String, Object> report = new LinkedHashMap<>();
+    report.put("rows", rows);
+    report.put("concurrency", Integer.getInteger("load-test.concurrency", 8));
+    report.put("availableProcessors", Runtime.getRuntime().availableProcessors());
+    report.put("maxMemory", Runtime.getRuntime().maxMemory());
+    report.put("results", results);
+    Path reportFile = Path.of("target", "load-test-report.json");
+    Files.createDirectories(reportFile.getParent());
+    jsonMapper.writerWithDefaultPrettyPrinter().writeValue(reportFile.toFile(), report);
+    logger.info("Load test report written to {}", reportFile.toAbsolutePath());
+
+    for (LoadTestRunner.Result result : results) {
+      assertTrue(result.requests() > 0, () -> "No requests completed for " + result.scenario());
+    }
+  }
+}
@@ -0,0 +1,171 @@
+/*
+ * Copyright (C) 2026 B3Partners B.V.
+ *
+ * SPDX-License-Identifier: MIT
+ */
+package org.tailormap.api.loadtest;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.lang.invoke.MethodHandles;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Runs a request scenario with a number of concurrent workers for a fixed duration, after a warmup, and reports the
+ * latency percentiles, throughput and the number of bytes allocated per request by the workers. Requests are run in
+ * the worker threads, so with MockMvc the allocations include all request handling in the API.
+ */
+class LoadTestRunner {
+  private static final Logger logger =
+      LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+  private static final double[] PERCENTILES = {0.5, 0.9, 0.95, 0.99};
+
+  /** A single request of a scenario, returning the HTTP status code. */
+  @FunctionalInterface
+  interface Request {
+    int perform(int iteration) throws Exception;
+  }
+
+  record Scenario(String name, Request request) {}
+
+  /**
+   * The result of running a scenario, times in milliseconds.
+   *
+   * @param allocatedBytesPerRequest the bytes allocated by the worker threads per request, or -1 when the JVM does
+   *     not support measuring thread allocation
+   */
+  record Result(
+      String scenario,
+      long requests,
+      long errors,
+      double requestsPerSecond,
+      double mean,
+      Map<String, Double> percentiles,
+      double max,
+      long allocatedBytesPerRequest) {}
+
+  private final int concurrency;
+  private final Duration warmup;
+  private final Duration duration;
+  private final com.sun.management.ThreadMXBean threadMXBean;
+
+  LoadTestRunner(int concurrency, Duration warmup, Duration duration) {
+    this.concurrency = concurrency;
+    this.warmup = warmup;
+    this.duration = duration;
+    this.threadMXBean = ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean
+            && bean.isThreadAllocatedMemorySupported()
+        ? bean
+        : null;
+    if (threadMXBean != null) {
+      threadMXBean.setThreadAllocatedMemoryEnabled(true);
+    }
+  }
+
+  Result run(Scenario scenario) throws Exception {
+    logger.info("Warming up {} for {}", scenario.name(), warmup);
+    runWorkers(scenario, warmup, null, new AtomicLong(), new AtomicLong());
+
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    Timer timer = Timer.builder("load_test_request")
+        .tag("scenario", scenario.name())
+        .publishPercentiles(PERCENTILES)
+        // keep all samples of the run in the percentiles
+        .distributionStatisticExpiry(duration.multipliedBy(2))
+        .distributionStatisticBufferLength(1)
+        .register(registry);
+    AtomicLong errors = new AtomicLong();
+    AtomicLong allocatedBytes = new AtomicLong();
+
+    logger.info("Running {} with {} workers for {}", scenario.name(), concurrency, duration);
+    long start = System.nanoTime();
+    runWorkers(scenario, duration, timer, errors, allocatedBytes);
+    double seconds = (System.nanoTime() - start) / 1e9;
+
+    HistogramSnapshot snapshot = timer.takeSnapshot();
+    Map<String, Double> percentiles = new LinkedHashMap<>();
+    for (ValueAtPercentile value : snapshot.percentileValues()) {
+      percentiles.put("p%d".formatted(Math.round(value.percentile() * 100)), value.value(TimeUnit.MILLISECONDS));
+    }
+    long requests = snapshot.count();
+    Result result = new Result(
+        scenario.name(),
+        requests,
+        errors.get(),
+        requests / seconds,
+        snapshot.mean(TimeUnit.MILLISECONDS),
+        percentiles,
+        snapshot.max(TimeUnit.MILLISECONDS),
+        threadMXBean == null || requests == 0 ? -1 : allocatedBytes.get() / requests);
+    registry.close();
+    logger.info(
+        "{}: {} requests ({} errors), {} req/s, mean {} ms, {}, max {} ms, {} bytes allocated per request",
+        result.scenario(),
+        result.requests(),
+        result.errors(),
+        "%.1f".formatted(result.requestsPerSecond()),
+        "%.2f".formatted(result.mean()),
+        result.percentiles().entrySet().stream()
+            .map(e -> "%s %.2f ms".formatted(e.getKey(), e.getValue()))
+            .toList(),
+        "%.2f".formatted(result.max()),
+        result.allocatedBytesPerRequest());
+    return result;
+  }
+
+  private void runWorkers(
+      Scenario scenario, Duration runDuration, Timer timer, AtomicLong errors, AtomicLong allocatedBytes)
+      throws Exception {
+    long deadline = System.nanoTime() + runDuration.toNanos();
+    AtomicLong iterations = new AtomicLong();
+    ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+    try {
+      List<Future<?>> workers = new ArrayList<>();
+      for (int i = 0; i < concurrency; i++) {
+        workers.add(executor.submit(() -> {
+          long allocatedAtStart = threadMXBean == null ? 0 : threadMXBean.getCurrentThreadAllocatedBytes();
+          while (System.nanoTime() < deadline) {
+            long start = System.nanoTime();
+            int status;
+            try {
+              status = scenario.request().perform((int) iterations.getAndIncrement());
+            } catch (Exception e) {
+              logger.debug("Error in scenario {}", scenario.name(), e);
+              status = 500;
+            }
+            if (timer != null) {
+              timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+            if (status >= 400) {
+              errors.incrementAndGet();
+            }
+          }
+          if (threadMXBean != null) {
+            allocatedBytes.addAndGet(threadMXBean.getCurrentThreadAllocatedBytes() - allocatedAtStart);
+          }
+          return null;
+        }));
+      }
+      for (Future<?> worker : workers) {
+        worker.get();
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+}
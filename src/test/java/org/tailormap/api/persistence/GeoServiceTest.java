@@ -5,11 +5,17 @@
  */
 package org.tailormap.api.persistence;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.params.provider.Arguments.arguments;
 
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
 import java.util.stream.Stream;
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
@@ -59,4 +65,36 @@ void set_url(final String input, final String expected) {
     geoService.setUrl(input);
     assertEquals(expected, geoService.getUrl(), () -> input + "not sanitised properly, expected " + expected);
   }
+
+  private static Field capabilitiesField() throws ReflectiveOperationException {
+    Field field = GeoService.class.getDeclaredField("capabilities");
+    field.setAccessible(true);
+    return field;
+  }
+
+  @Test
+  void stores_capabilities_compressed() throws ReflectiveOperationException {
+    byte[] capabilities = "<WMS_Capabilities>%s</WMS_Capabilities>"
+        .formatted("<Layer/>".repeat(1000))
+        .getBytes(StandardCharsets.UTF_8);
+    geoService.setCapabilities(capabilities);
+
+    assertTrue(((byte[]) capabilitiesField().get(geoService)).length < capabilities.length);
+    assertArrayEquals(capabilities, geoService.getCapabilities());
+  }
+
+  @Test
+  void returns_uncompressed_capabilities_as_is() throws ReflectiveOperationException {
+    byte[] capabilities = "<Capabilities/>".getBytes(StandardCharsets.UTF_8);
+    capabilitiesField().set(geoService, capabilities);
+
+    assertArrayEquals(capabilities, geoService.getCapabilities());
+  }
+
+  @Test
+  void clears_capabilities() {
+    geoService.setCapabilities("<Capabilities/>".getBytes(StandardCharsets.UTF_8));
+    geoService.setCapabilities((byte[]) null);
+    assertNull(geoService.getCapabilities());
+  }
 }
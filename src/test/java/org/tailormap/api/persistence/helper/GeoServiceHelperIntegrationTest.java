@@ -6,12 +6,22 @@
 package org.tailormap.api.persistence.helper;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import mockwebserver3.MockResponse;
+import mockwebserver3.MockWebServer;
+import mockwebserver3.RecordedRequest;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.tailormap.api.annotation.PostgresIntegrationTest;
 import org.tailormap.api.persistence.GeoService;
 import org.tailormap.api.persistence.json.GeoServiceLayer;
+import org.tailormap.api.persistence.json.GeoServiceProtocol;
+import org.tailormap.api.persistence.json.TMServiceCaps;
+import org.tailormap.api.persistence.json.TMServiceCapsCapabilities;
 import org.tailormap.api.repository.GeoServiceRepository;
 
 @PostgresIntegrationTest
@@ -20,6 +30,16 @@ class GeoServiceHelperIntegrationTest {
   @Autowired
   private GeoServiceRepository geoServiceRepository;
 
+  @Autowired
+  private GeoServiceHelper geoServiceHelper;
+
+  private static GeoService wms(MockWebServer server, TMServiceCaps caps) {
+    return new GeoService()
+        .setProtocol(GeoServiceProtocol.WMS)
+        .setUrl(server.url("/test-wms?map=test").toString())
+        .setServiceCapabilities(caps);
+  }
+
   @Test
   void get_layer_legend_url_from_styles() {
     GeoService service =
@@ -31,4 +51,59 @@ void get_layer_legend_url_from_styles() {
         GeoServiceHelper.getLayerLegendUrlFromStyles(service, layer).toString();
     assertEquals(expected, actual, "Expected and actual legend url are not equal");
   }
+
+  @Test
+  void capabilities_not_modified_with_same_etag() throws Exception {
+    try (MockWebServer server = new MockWebServer()) {
+      server.enqueue(new MockResponse.Builder().code(304).build());
+      server.start();
+
+      assertFalse(geoServiceHelper.isCapabilitiesModified(wms(server, new TMServiceCaps().etag("\"v1\""))));
+
+      RecordedRequest request = Objects.requireNonNull(server.takeRequest(10, TimeUnit.SECONDS));
+      assertEquals("\"v1\"", request.getHeaders().get("If-None-Match"));
+      assertEquals("GetCapabilities", Objects.requireNonNull(request.getUrl()).queryParameter("REQUEST"));
+      assertEquals("test", Objects.requireNonNull(request.getUrl()).queryParameter("map"));
+    }
+  }
+
+  @Test
+  void capabilities_modified_with_other_etag() throws Exception {
+    try (MockWebServer server = new MockWebServer()) {
+      server.enqueue(new MockResponse.Builder()
+          .addHeader("ETag", "\"v2\"")
+          .body("<WMS_Capabilities/>")
+          .build());
+      server.start();
+
+      assertTrue(geoServiceHelper.isCapabilitiesModified(wms(server, new TMServiceCaps().etag("\"v1\""))));
+    }
+  }
+
+  @Test
+  void capabilities_not_modified_with_current_update_sequence() throws Exception {
+    try (MockWebServer server = new MockWebServer()) {
+      server.enqueue(new MockResponse.Builder()
+          .body("<ServiceExceptionReport><ServiceException code=\"CurrentUpdateSequence\"/></ServiceExceptionReport>")
+          .build());
+      server.start();
+
+      assertFalse(geoServiceHelper.isCapabilitiesModified(wms(
+          server,
+          new TMServiceCaps().capabilities(new TMServiceCapsCapabilities().updateSequence("42")))));
+
+      RecordedRequest request = Objects.requireNonNull(server.takeRequest(10, TimeUnit.SECONDS));
+      assertEquals("42", Objects.requireNonNull(request.getUrl()).queryParameter("UPDATESEQUENCE"));
+    }
+  }
+
+  @Test
+  void capabilities_modified_without_validators() throws Exception {
+    try (MockWebServer server = new MockWebServer()) {
+      server.start();
+
+      assertTrue(geoServiceHelper.isCapabilitiesModified(wms(server, new TMServiceCaps())));
+      assertEquals(0, server.getRequestCount());
+    }
+  }
 }
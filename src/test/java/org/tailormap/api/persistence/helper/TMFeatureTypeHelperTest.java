@@ -7,17 +7,23 @@
 package org.tailormap.api.persistence.helper;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.tailormap.api.persistence.helper.TMFeatureTypeHelper.getConfiguredAttributes;
+import static org.tailormap.api.persistence.helper.TMFeatureTypeHelper.isSameTable;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.function.Function;
 import org.junit.jupiter.api.Test;
+import org.tailormap.api.persistence.TMFeatureSource;
 import org.tailormap.api.persistence.TMFeatureType;
 import org.tailormap.api.persistence.json.AppLayerSettings;
 import org.tailormap.api.persistence.json.AttributeSettings;
 import org.tailormap.api.persistence.json.FeatureTypeSettings;
+import org.tailormap.api.persistence.json.JDBCConnectionProperties;
+import org.tailormap.api.persistence.json.ServiceAuthentication;
 import org.tailormap.api.persistence.json.TMAttributeDescriptor;
 
 class TMFeatureTypeHelperTest {
@@ -74,4 +80,35 @@ void get_configured_attributes() {
         "comment for m",
         configuredAttributes.get("m").attributeDescriptor().getComment());
   }
+
+  private static TMFeatureType jdbcFeatureType(String name, String user, String schema) {
+    return new TMFeatureType()
+        .setName(name)
+        .setFeatureSource(new TMFeatureSource()
+            .setProtocol(TMFeatureSource.Protocol.JDBC)
+            .setJdbcConnection(new JDBCConnectionProperties()
+                .dbtype(JDBCConnectionProperties.DbtypeEnum.POSTGIS)
+                .host("localhost")
+                .port(5432)
+                .database("tailormap")
+                .schema(schema))
+            .setAuthentication(new ServiceAuthentication()
+                .method(ServiceAuthentication.MethodEnum.PASSWORD)
+                .username(user)));
+  }
+
+  @Test
+  void same_table_of_other_feature_source() {
+    TMFeatureType featureType = jdbcFeatureType("begroeidterreindeel", "reader", "public");
+    assertTrue(isSameTable(featureType, jdbcFeatureType("begroeidterreindeel", "editor", "public")));
+    assertFalse(isSameTable(featureType, jdbcFeatureType("begroeidterreindeel", "reader", "other")));
+    assertFalse(isSameTable(featureType, jdbcFeatureType("wegdeel", "reader", "public")));
+
+    TMFeatureType wfsFeatureType = new TMFeatureType()
+        .setName("begroeidterreindeel")
+        .setFeatureSource(new TMFeatureSource()
+            .setProtocol(TMFeatureSource.Protocol.WFS)
+            .setUrl("https://example.com/wfs"));
+    assertFalse(isSameTable(featureType, wfsFeatureType));
+  }
 }
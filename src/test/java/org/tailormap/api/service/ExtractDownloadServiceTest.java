@@ -0,0 +1,138 @@
+/*
+ * Copyright (C) 2026 B3Partners B.V.
+ *
+ * SPDX-License-Identifier: MIT
+ */
+package org.tailormap.api.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.tailormap.api.controller.LayerExtractController.ExtractOutputFormat.CSV;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+class ExtractDownloadServiceTest {
+  private static final String CONTENT = "id,name\n1,one\n2,two\n";
+
+  @TempDir
+  Path tempDir;
+
+  private Path file;
+  private SimpleMeterRegistry meterRegistry;
+  private ExtractDownloadService service;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    file = Files.writeString(tempDir.resolve("extract.csv"), CONTENT, StandardCharsets.UTF_8);
+    meterRegistry = new SimpleMeterRegistry();
+    service = new ExtractDownloadService(meterRegistry);
+  }
+
+  private MockHttpServletResponse send(MockHttpServletRequest request) throws Exception {
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    service.send(file, CSV, request, response);
+    return response;
+  }
+
+  @Test
+  void sends_complete_file() throws Exception {
+    MockHttpServletResponse response = send(new MockHttpServletRequest("GET", "/download"));
+
+    assertEquals(200, response.getStatus());
+    assertEquals("text/csv", response.getContentType());
+    assertEquals("bytes", response.getHeader(HttpHeaders.ACCEPT_RANGES));
+    assertEquals("attachment; filename=\"extract.csv\"", response.getHeader(HttpHeaders.CONTENT_DISPOSITION));
+    assertEquals(CONTENT.length(), response.getContentLengthLong());
+    assertEquals(CONTENT, response.getContentAsString());
+    assertEquals(
+        CONTENT.length(),
+        meterRegistry
+            .get("tailormap_api_extract_download_size")
+            .tag("format", "csv")
+            .summary()
+            .totalAmount());
+  }
+
+  @Test
+  void sends_requested_range() throws Exception {
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/download");
+    request.addHeader(HttpHeaders.RANGE, "bytes=8-");
+    MockHttpServletResponse response = send(request);
+
+    assertEquals(206, response.getStatus());
+    assertEquals(
+        "bytes 8-%d/%d".formatted(CONTENT.length() - 1, CONTENT.length()),
+        response.getHeader(HttpHeaders.CONTENT_RANGE));
+    assertEquals(CONTENT.substring(8), response.getContentAsString());
+  }
+
+  @Test
+  void sends_complete_file_when_if_range_does_not_match() throws Exception {
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/download");
+    request.addHeader(HttpHeaders.RANGE, "bytes=8-");
+    request.addHeader(HttpHeaders.IF_RANGE, "\"other\"");
+    MockHttpServletResponse response = send(request);
+
+    assertEquals(200, response.getStatus());
+    assertEquals(CONTENT, response.getContentAsString());
+  }
+
+  @Test
+  void sends_range_when_if_range_matches_etag() throws Exception {
+    String eTag = send(new MockHttpServletRequest("GET", "/download")).getHeader(HttpHeaders.ETAG);
+
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/download");
+    request.addHeader(HttpHeaders.RANGE, "bytes=0-1");
+    request.addHeader(HttpHeaders.IF_RANGE, eTag);
+    MockHttpServletResponse response = send(request);
+
+    assertEquals(206, response.getStatus());
+    assertEquals("id", response.getContentAsString());
+  }
+
+  @Test
+  void rejects_unsatisfiable_range() throws Exception {
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/download");
+    request.addHeader(HttpHeaders.RANGE, "bytes=1000-");
+    MockHttpServletResponse response = send(request);
+
+    assertEquals(416, response.getStatus());
+    assertEquals("bytes */" + CONTENT.length(), response.getHeader(HttpHeaders.CONTENT_RANGE));
+  }
+
+  @Test
+  void lets_container_send_file_when_supported() throws Exception {
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/download");
+    request.setAttribute(ExtractDownloadService.SENDFILE_SUPPORTED_ATTRIBUTE, Boolean.TRUE);
+    request.addHeader(HttpHeaders.RANGE, "bytes=8-");
+    MockHttpServletResponse response = send(request);
+
+    assertEquals(206, response.getStatus());
+    assertEquals("", response.getContentAsString());
+    assertEquals(
+        file.toAbsolutePath().toString(), request.getAttribute(ExtractDownloadService.SENDFILE_FILENAME_ATTRIBUTE));
+    assertEquals(8L, request.getAttribute(ExtractDownloadService.SENDFILE_START_ATTRIBUTE));
+    assertEquals((long) CONTENT.length(), request.getAttribute(ExtractDownloadService.SENDFILE_END_ATTRIBUTE));
+  }
+
+  @Test
+  void head_request_has_no_body() throws Exception {
+    MockHttpServletRequest request = new MockHttpServletRequest("HEAD", "/download");
+    request.setAttribute(ExtractDownloadService.SENDFILE_SUPPORTED_ATTRIBUTE, Boolean.TRUE);
+    MockHttpServletResponse response = send(request);
+
+    assertEquals(200, response.getStatus());
+    assertEquals(CONTENT.length(), response.getContentLengthLong());
+    assertEquals("", response.getContentAsString());
+    assertNull(request.getAttribute(ExtractDownloadService.SENDFILE_FILENAME_ATTRIBUTE));
+  }
+}
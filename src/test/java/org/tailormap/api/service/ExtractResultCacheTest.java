@@ -0,0 +1,124 @@
+/*
+ * Copyright (C) 2026 B3Partners B.V.
+ *
+ * SPDX-License-Identifier: MIT
+ */
+package org.tailormap.api.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+import org.geotools.api.filter.sort.SortOrder;
+import org.geotools.filter.text.cql2.CQLException;
+import org.geotools.filter.text.ecql.ECQL;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.tailormap.api.controller.LayerExtractController.ExtractOutputFormat;
+
+class ExtractResultCacheTest {
+  @TempDir
+  Path tempDir;
+
+  private ExtractResultCache createCache(long maxSizeMb) {
+    ExtractResultCache cache = new ExtractResultCache(tempDir.toString(), true, 60, maxSizeMb);
+    cache.initializeCacheDirectory();
+    return cache;
+  }
+
+  private static ExtractResultCache.ExtractKey key(Long featureTypeId, String cql) throws CQLException {
+    return new ExtractResultCache.ExtractKey(
+        featureTypeId,
+        null,
+        new LinkedHashSet<>(List.of("b", "a")),
+        ECQL.toFilter(cql),
+        null,
+        SortOrder.ASCENDING,
+        ExtractOutputFormat.CSV);
+  }
+
+  private Path createExtract(String name, int size) throws IOException {
+    Path extract = tempDir.resolve(name);
+    Files.write(extract, new byte[size]);
+    return extract;
+  }
+
+  @Test
+  void digest_is_normalized() throws CQLException {
+    ExtractResultCache.ExtractKey key = key(1L, "a = 1 AND b='x'");
+    ExtractResultCache.ExtractKey sameKey = new ExtractResultCache.ExtractKey(
+        1L,
+        null,
+        Set.of("a", "b"),
+        ECQL.toFilter("a=1   and   b = 'x'"),
+        null,
+        // sort order without sort attribute does not matter
+        SortOrder.DESCENDING,
+        ExtractOutputFormat.CSV);
+    assertEquals(key.digest(), sameKey.digest());
+    assertNotEquals(key.digest(), key(1L, "a = 2 AND b='x'").digest());
+    assertNotEquals(key.digest(), key(2L, "a = 1 AND b='x'").digest());
+  }
+
+  @Test
+  void links_cached_extract() throws IOException, CQLException {
+    ExtractResultCache cache = createCache(10);
+    ExtractResultCache.ExtractKey key = key(1L, "a = 1");
+    Path target = tempDir.resolve("target.csv");
+    assertFalse(cache.linkCached(key, target));
+
+    cache.put(key, cache.getGeneration(1L), createExtract("extract.csv", 100));
+    assertTrue(cache.linkCached(key, target));
+    assertEquals(100, Files.size(target));
+  }
+
+  @Test
+  void does_not_store_extract_created_before_eviction() throws IOException, CQLException {
+    ExtractResultCache cache = createCache(10);
+    ExtractResultCache.ExtractKey key = key(1L, "a = 1");
+    long generation = cache.getGeneration(1L);
+    cache.evict(1L);
+    cache.put(key, generation, createExtract("extract.csv", 100));
+    assertFalse(cache.linkCached(key, tempDir.resolve("target.csv")));
+  }
+
+  @Test
+  void evicts_feature_type() throws IOException, CQLException {
+    ExtractResultCache cache = createCache(10);
+    cache.put(key(1L, "a = 1"), cache.getGeneration(1L), createExtract("extract1.csv", 100));
+    cache.put(key(2L, "a = 1"), cache.getGeneration(2L), createExtract("extract2.csv", 100));
+    cache.evict(1L);
+    assertFalse(cache.linkCached(key(1L, "a = 1"), tempDir.resolve("target1.csv")));
+    assertTrue(cache.linkCached(key(2L, "a = 1"), tempDir.resolve("target2.csv")));
+  }
+
+  @Test
+  void evicts_oldest_extracts_above_max_size() throws IOException, CQLException {
+    ExtractResultCache cache = createCache(1);
+    int size = 400 * 1024;
+    ExtractResultCache.ExtractKey oldest = key(1L, "a = 1");
+    cache.put(oldest, cache.getGeneration(1L), createExtract("extract1.csv", size));
+    // make sure the first extract is the oldest, even on file systems with a coarse modification time
+    try (Stream<Path> paths = Files.list(tempDir.resolve("tm-extract-cache"))) {
+      for (Path p : paths.toList()) {
+        Files.setLastModifiedTime(p, FileTime.from(Instant.now().minus(1, ChronoUnit.MINUTES)));
+      }
+    }
+    cache.put(key(1L, "a = 2"), cache.getGeneration(1L), createExtract("extract2.csv", size));
+    cache.put(key(1L, "a = 3"), cache.getGeneration(1L), createExtract("extract3.csv", size));
+
+    assertFalse(cache.linkCached(oldest, tempDir.resolve("target1.csv")), "oldest extract should be evicted");
+    assertTrue(cache.linkCached(key(1L, "a = 3"), tempDir.resolve("target3.csv")));
+  }
+}
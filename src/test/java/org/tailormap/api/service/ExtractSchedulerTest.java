@@ -0,0 +1,142 @@
+/*
+ * Copyright (C) 2026 B3Partners B.V.
+ *
+ * SPDX-License-Identifier: MIT
+ */
+package org.tailormap.api.service;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import org.awaitility.Awaitility;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ExtractSchedulerTest {
+  private ExecutorService executor;
+  private CreateLayerExtractService createLayerExtractService;
+  private final List<String> started = new CopyOnWriteArrayList<>();
+
+  @BeforeEach
+  void setUp() {
+    executor = Executors.newFixedThreadPool(4);
+    createLayerExtractService = mock(CreateLayerExtractService.class);
+  }
+
+  @AfterEach
+  void tearDown() {
+    executor.shutdownNow();
+  }
+
+  private static ExtractScheduler.ExtractRequest request(String downloadId, String user, long featureSourceId) {
+    return new ExtractScheduler.ExtractRequest(downloadId, "client-" + user, user, "app", featureSourceId);
+  }
+
+  /** A task that records it was started and waits for the latch. */
+  private Runnable blockingTask(String name, CountDownLatch latch) {
+    return () -> {
+      started.add(name);
+      try {
+        latch.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    };
+  }
+
+  @Test
+  void limits_extracts_per_feature_source() {
+    ExtractScheduler scheduler = new ExtractScheduler(executor, createLayerExtractService, 4, 1, 10, 10);
+    CountDownLatch latch = new CountDownLatch(1);
+    scheduler.submit(request("a1", "a", 1), blockingTask("a1", latch));
+    scheduler.submit(request("a2", "a", 1), blockingTask("a2", latch));
+    scheduler.submit(request("b1", "b", 2), blockingTask("b1", latch));
+
+    Awaitility.await().atMost(5, SECONDS).until(() -> started.size() == 2);
+    assertEquals(List.of("a1", "b1"), started.stream().sorted().toList());
+    assertEquals(2, scheduler.getRunningCount());
+    assertEquals(1, scheduler.getQueuedCount());
+    verify(createLayerExtractService).emitQueued("client-a", "a2", 1);
+
+    latch.countDown();
+    Awaitility.await().atMost(5, SECONDS).until(() -> started.size() == 3);
+    Awaitility.await().atMost(5, SECONDS).until(() -> scheduler.getRunningCount() == 0);
+  }
+
+  @Test
+  void users_take_turns() {
+    ExtractScheduler scheduler = new ExtractScheduler(executor, createLayerExtractService, 1, 1, 10, 10);
+    CountDownLatch first = new CountDownLatch(1);
+    scheduler.submit(request("a1", "a", 1), blockingTask("a1", first));
+    scheduler.submit(request("a2", "a", 1), () -> started.add("a2"));
+    scheduler.submit(request("a3", "a", 1), () -> started.add("a3"));
+    scheduler.submit(request("b1", "b", 1), () -> started.add("b1"));
+
+    // b1 arrived last but user b did not have a turn yet
+    verify(createLayerExtractService).emitQueued("client-b", "b1", 1);
+    verify(createLayerExtractService).emitQueued("client-a", "a3", 3);
+
+    first.countDown();
+    Awaitility.await().atMost(5, SECONDS).until(() -> started.size() == 4);
+    assertEquals(List.of("a1", "b1", "a2", "a3"), started);
+  }
+
+  @Test
+  void rejects_when_user_has_too_many_queued() {
+    ExtractScheduler scheduler = new ExtractScheduler(executor, createLayerExtractService, 1, 1, 10, 2);
+    CountDownLatch latch = new CountDownLatch(1);
+    scheduler.submit(request("a1", "a", 1), blockingTask("a1", latch));
+    scheduler.submit(request("a2", "a", 1), blockingTask("a2", latch));
+    scheduler.submit(request("a3", "a", 1), blockingTask("a3", latch));
+    assertThrows(
+        RejectedExecutionException.class,
+        () -> scheduler.submit(request("a4", "a", 1), blockingTask("a4", latch)));
+    // another user can still queue
+    scheduler.submit(request("b1", "b", 1), blockingTask("b1", latch));
+    latch.countDown();
+  }
+
+  @Test
+  void cancels_queued_extract() {
+    ExtractScheduler scheduler = new ExtractScheduler(executor, createLayerExtractService, 1, 1, 10, 10);
+    CountDownLatch latch = new CountDownLatch(1);
+    scheduler.submit(request("a1", "a", 1), blockingTask("a1", latch));
+    scheduler.submit(request("a2", "a", 1), blockingTask("a2", latch));
+    scheduler.submit(request("a3", "a", 1), blockingTask("a3", latch));
+
+    assertFalse(scheduler.cancel("other-client", "a2"), "only the requesting client can cancel");
+    assertTrue(scheduler.cancel("client-a", "a2"));
+    verify(createLayerExtractService).emitCancelled("client-a", "a2");
+    verify(createLayerExtractService).emitQueued("client-a", "a3", 1);
+    assertEquals(1, scheduler.getQueuedCount());
+
+    latch.countDown();
+    Awaitility.await().atMost(5, SECONDS).until(() -> started.size() == 2);
+    assertEquals(List.of("a1", "a3"), started);
+  }
+
+  @Test
+  void cancels_running_extract_by_interrupting() {
+    ExtractScheduler scheduler = new ExtractScheduler(executor, createLayerExtractService, 1, 1, 10, 10);
+    scheduler.submit(request("a1", "a", 1), blockingTask("a1", new CountDownLatch(1)));
+    Awaitility.await().atMost(5, SECONDS).until(() -> started.size() == 1);
+
+    assertTrue(scheduler.cancel("client-a", "a1"));
+    verify(createLayerExtractService, timeout(5000)).emitCancelled("client-a", "a1");
+    verify(createLayerExtractService, timeout(5000)).deleteExtractFile("a1");
+    Awaitility.await().atMost(5, SECONDS).until(() -> scheduler.getRunningCount() == 0);
+  }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright (C) 2026 B3Partners B.V.
+ *
+ * SPDX-License-Identifier: MIT
+ */
+package org.tailormap.api.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class VectorTileCacheTest {
+  @TempDir
+  Path tempDir;
+
+  private VectorTileCache createCache(long maxSizeMb) {
+    VectorTileCache cache = new VectorTileCache(tempDir.toString(), true, 60, maxSizeMb);
+    cache.initializeCacheDirectory();
+    return cache;
+  }
+
+  private static VectorTileCache.TileKey key(int x) {
+    return new VectorTileCache.TileKey(1L, "variant", 10, x, 20);
+  }
+
+  private void setLastModified(VectorTileCache.TileKey key, Instant lastModified) throws IOException {
+    try (Stream<Path> paths = Files.walk(tempDir.resolve("tm-vector-tiles"))) {
+      for (Path p : paths.filter(p -> p.endsWith(Path.of(String.valueOf(key.x()), key.y() + ".mvt")))
+          .toList()) {
+        Files.setLastModifiedTime(p, FileTime.from(lastModified));
+      }
+    }
+  }
+
+  private long countTiles() throws IOException {
+    try (Stream<Path> paths = Files.walk(tempDir.resolve("tm-vector-tiles"))) {
+      return paths.filter(Files::isRegularFile).count();
+    }
+  }
+
+  @Test
+  void caches_tile() {
+    VectorTileCache cache = createCache(10);
+    byte[] tile = new byte[] {1, 2, 3};
+    assertNull(cache.get(key(1)));
+    cache.put(key(1), cache.getGeneration(1L), tile);
+    assertArrayEquals(tile, cache.get(key(1)));
+  }
+
+  @Test
+  void removes_expired_tiles() throws IOException {
+    VectorTileCache cache = createCache(10);
+    cache.put(key(1), cache.getGeneration(1L), new byte[100]);
+    cache.put(key(2), cache.getGeneration(1L), new byte[100]);
+    setLastModified(key(1), Instant.now().minus(2, ChronoUnit.HOURS));
+
+    cache.evictExpired();
+    assertNull(cache.get(key(1)));
+    assertNotNull(cache.get(key(2)));
+    assertEquals(1, countTiles(), "expired tile should be deleted from disk");
+  }
+
+  @Test
+  void evicts_oldest_tiles_above_max_size() throws IOException {
+    VectorTileCache cache = createCache(1);
+    int size = 400 * 1024;
+    for (int x : List.of(1, 2, 3)) {
+      cache.put(key(x), cache.getGeneration(1L), new byte[size]);
+    }
+    // make sure the first tile is the oldest, even on file systems with a coarse modification time
+    setLastModified(key(1), Instant.now().minus(1, ChronoUnit.MINUTES));
+
+    cache.evictExpired();
+    assertNull(cache.get(key(1)), "oldest tile should be evicted");
+    assertNotNull(cache.get(key(2)));
+    assertNotNull(cache.get(key(3)));
+    assertEquals(2, countTiles());
+  }
+}
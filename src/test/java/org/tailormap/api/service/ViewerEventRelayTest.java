@@ -0,0 +1,87 @@
+/*
+ * Copyright (C) 2026 B3Partners B.V.
+ *
+ * SPDX-License-Identifier: MIT
+ */
+package org.tailormap.api.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import ch.rasc.sse.eventbus.SseEvent;
+import ch.rasc.sse.eventbus.SseEventBus;
+import java.util.Set;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.simple.JdbcClient;
+import tools.jackson.databind.json.JsonMapper;
+
+class ViewerEventRelayTest {
+  private SseEventBus eventBus;
+  private JdbcClient jdbcClient;
+  private ApplicationEventPublisher applicationEventPublisher;
+  private ViewerEventRelay relay;
+
+  @BeforeEach
+  void setUp() {
+    eventBus = mock(SseEventBus.class);
+    when(eventBus.getAllClientIds()).thenReturn(Set.of("local-client"));
+    jdbcClient = mock(JdbcClient.class);
+    applicationEventPublisher = mock(ApplicationEventPublisher.class);
+    relay = new ViewerEventRelay(
+        eventBus, jdbcClient, mock(DataSource.class), JsonMapper.builder().build(), applicationEventPublisher);
+  }
+
+  @Test
+  void delivers_locally_when_cluster_disabled() {
+    relay.send("local-client", "{\"eventType\":\"extract-progress\"}");
+
+    ArgumentCaptor<SseEvent> captor = ArgumentCaptor.forClass(SseEvent.class);
+    verify(eventBus).handleEvent(captor.capture());
+    assertEquals(Set.of("local-client"), captor.getValue().clientIds());
+    assertEquals("{\"eventType\":\"extract-progress\"}", captor.getValue().data());
+    verifyNoInteractions(jdbcClient);
+  }
+
+  @Test
+  void known_clients_without_cluster_are_local_clients() {
+    assertFalse(relay.isKnownClient("remote-client"));
+    assertEquals(Set.of("local-client"), relay.getAllClientIds());
+    verifyNoInteractions(jdbcClient);
+  }
+
+  @Test
+  void delivers_notified_event_only_to_local_client() {
+    relay.handleNotification("{\"type\":\"event\",\"clientId\":\"remote-client\",\"data\":\"{}\"}");
+    verify(eventBus, never()).handleEvent(any());
+
+    relay.handleNotification("{\"type\":\"event\",\"clientId\":\"local-client\",\"data\":\"{\\\"a\\\":1}\"}");
+    ArgumentCaptor<SseEvent> captor = ArgumentCaptor.forClass(SseEvent.class);
+    verify(eventBus).handleEvent(captor.capture());
+    assertEquals("{\"a\":1}", captor.getValue().data());
+  }
+
+  @Test
+  void publishes_notified_cancel() {
+    relay.handleNotification("{\"type\":\"cancel\",\"clientId\":\"remote-client\",\"downloadId\":\"extract.csv\"}");
+    verify(applicationEventPublisher)
+        .publishEvent(new ViewerEventRelay.CancelExtractEvent("remote-client", "extract.csv"));
+  }
+
+  @Test
+  void ignores_invalid_notification() {
+    relay.handleNotification("not json");
+    relay.handleNotification("{\"type\":\"unknown\"}");
+    verifyNoInteractions(applicationEventPublisher);
+    verify(eventBus, never()).handleEvent(any());
+  }
+}